@@ -1,12 +1,24 @@
 package org.continuity.experimentation;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.continuity.experimentation.action.EmailReport;
+import org.continuity.experimentation.data.DataScope;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
+import org.continuity.experimentation.jfr.AbortHandledEvent;
+import org.continuity.experimentation.jfr.ActionEvent;
+import org.continuity.experimentation.simulation.Simulation;
+import org.continuity.experimentation.simulation.VirtualClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,6 +34,8 @@ public abstract class AbstractExperimentExecutor {
 
 	private final IExperimentElement first;
 
+	private volatile ExecutionPlan plan;
+
 	private List<Exception> caughtExceptions = new ArrayList<>();
 	private AbortException abortException = null;
 
@@ -31,6 +45,11 @@ public abstract class AbstractExperimentExecutor {
 		this.first = first;
 	}
 
+	protected AbstractExperimentExecutor(ExecutionPlan plan) {
+		this.first = plan.getFirst();
+		this.plan = plan;
+	}
+
 	/**
 	 * Gets {@link #first}.
 	 *
@@ -40,6 +59,29 @@ public abstract class AbstractExperimentExecutor {
 		return this.first;
 	}
 
+	/**
+	 * Gets the plan compiled from {@link #first}. The plan is compiled on the first call. Hence,
+	 * the elements must not be changed afterwards.
+	 *
+	 * @return The execution plan.
+	 */
+	public ExecutionPlan getPlan() {
+		ExecutionPlan compiled = plan;
+
+		if (compiled == null) {
+			synchronized (this) {
+				compiled = plan;
+
+				if (compiled == null) {
+					compiled = ExecutionPlan.compile(first);
+					plan = compiled;
+				}
+			}
+		}
+
+		return compiled;
+	}
+
 	/**
 	 * Executes the experiment.
 	 *
@@ -58,36 +100,422 @@ public abstract class AbstractExperimentExecutor {
 	 * @throws AbortException
 	 */
 	public void execute(Context initialContext) throws AbortException {
+		executeFrom(first, getPlan().newFrame(), initialContext);
+	}
+
+	/**
+	 * Executes the experiment starting at a specific element. The initial context and frame have
+	 * to correspond to the state right before that element.
+	 *
+	 * @param start
+	 *            The element to start with.
+	 * @param frame
+	 *            The frame holding the state of the loops.
+	 * @param initialContext
+	 *            The initial context.
+	 * @throws AbortException
+	 */
+	protected void executeFrom(IExperimentElement start, ExecutionPlan.Frame frame, Context initialContext) throws AbortException {
 		this.context = initialContext;
 
-		IExperimentElement current = first;
+		ExecutionPlan plan = frame.getPlan();
+		int current = plan.advance(plan.indexOf(start), frame, context);
 
-		while ((current != null) && !current.isEnd()) {
-			current.updateContext(context);
+		while (current != ExecutionPlan.END) {
+			ExecutionPlan.ActionGroup group = isStrictSequencing() ? null : plan.groupAt(current);
 
-			context.toPath().toFile().mkdirs();
+			if (group != null) {
+				GroupExecution groupExecution = new GroupExecution(plan, group);
+				await(groupExecution.start());
+				current = plan.advance(groupExecution.finish(frame), frame, context);
+				continue;
+			}
 
-			if (current.hasAction()) {
-				try {
-					current.getAction().execute(context);
-				} catch (AbortInnerException e) {
-					caughtExceptions.add(e);
-					current = handleAbortInnerException(e, context);
+			IExperimentAction action = plan.actionAt(current);
+			Exception thrown = null;
+			Execution execution = fireActionStarted(action);
+
+			try {
+				executeWithTimeout(intercept(action), getTimeoutMillis(plan, current), execution);
+			} catch (Exception e) {
+				thrown = e;
+			}
+
+			fireActionFinished(action, execution, thrown);
+			current = plan.advance(handleActionResult(plan, current, frame, thrown), frame, context);
+		}
+	}
+
+	/**
+	 * Executes the experiment asynchronously. Actions implementing {@link IAsyncExperimentAction}
+	 * are executed without blocking a thread. All other actions are executed by the
+	 * {@link #getExecutionService()}.
+	 *
+	 * @return A future that is completed when the experiment is finished or completed
+	 *         exceptionally with an {@link AbortException} if it has been aborted.
+	 */
+	public CompletableFuture<Void> executeAsync() {
+		return executeAsync(new Context());
+	}
+
+	/**
+	 * Executes the experiment asynchronously in an initial context. Actions implementing
+	 * {@link IAsyncExperimentAction} are executed without blocking a thread. All other actions are
+	 * executed by the {@link #getExecutionService()}.
+	 *
+	 * @param initialContext
+	 *            The initial context.
+	 * @return A future that is completed when the experiment is finished or completed
+	 *         exceptionally with an {@link AbortException} if it has been aborted.
+	 */
+	public CompletableFuture<Void> executeAsync(Context initialContext) {
+		this.context = initialContext;
+
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		ExecutionPlan.Frame frame = getPlan().newFrame();
+
+		try {
+			continueAsync(frame.getPlan().advance(frame.getPlan().indexOf(first), frame, context), frame, result);
+		} catch (RuntimeException | Error e) {
+			result.completeExceptionally(e);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Gets the service to be used for executing concurrent and blocking parts.
+	 *
+	 * @return The execution service.
+	 */
+	protected ExperimentExecutionService getExecutionService() {
+		return ExperimentExecutionService.getDefault();
+	}
+
+	/**
+	 * Gets the timeout for actions that do not define their own one (see
+	 * {@link IExperimentElement#getActionTimeoutMillis()}).
+	 *
+	 * @return The timeout in milliseconds. 0, i.e., no timeout, by default.
+	 */
+	protected long getDefaultActionTimeout() {
+		return 0;
+	}
+
+	/**
+	 * Returns whether all actions are to be executed strictly one after the other. Otherwise,
+	 * consecutive parallelizable actions not depending on each other are executed concurrently
+	 * (see {@link org.continuity.experimentation.data.DataDependencies#parallelizable()
+	 * DataDependencies#parallelizable()}).
+	 *
+	 * @return {@code false} by default.
+	 */
+	protected boolean isStrictSequencing() {
+		return false;
+	}
+
+	/**
+	 * Gets the listeners to be notified about executed actions.
+	 *
+	 * @return The listeners. Empty by default.
+	 */
+	protected List<IExecutionListener> getListeners() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Called each time an action has been finished and the next element has been determined. Does
+	 * nothing by default.
+	 *
+	 * @param finished
+	 *            The element holding the finished action.
+	 * @param next
+	 *            The element to be processed next.
+	 * @param frame
+	 *            The frame holding the state of the loops.
+	 * @param context
+	 *            The current context.
+	 */
+	protected void onActionFinished(IExperimentElement finished, IExperimentElement next, ExecutionPlan.Frame frame, Context context) {
+	}
+
+	private Execution fireActionStarted(IExperimentAction action) {
+		for (IExecutionListener listener : getListeners()) {
+			try {
+				listener.actionStarted(action, context);
+			} catch (RuntimeException e) {
+				LOGGER.warn("Listener " + listener + " threw an exception. Ignoring.", e);
+			}
+		}
+
+		return new Execution(action);
+	}
+
+	private void fireActionFinished(IExperimentAction action, Execution execution, Exception thrown) {
+		ActionMetrics metrics = execution.stop(context, thrown);
+
+		for (IExecutionListener listener : getListeners()) {
+			try {
+				listener.actionFinished(action, context, metrics, thrown);
+			} catch (RuntimeException e) {
+				LOGGER.warn("Listener " + listener + " threw an exception. Ignoring.", e);
+			}
+		}
+	}
+
+	/**
+	 * Continues the execution at an instruction returned by
+	 * {@link ExecutionPlan#advance(int, ExecutionPlan.Frame, Context)}.
+	 */
+	private void continueAsync(int start, ExecutionPlan.Frame frame, CompletableFuture<Void> result) {
+		ExecutionPlan plan = frame.getPlan();
+		int current = start;
+
+		try {
+			while (current != ExecutionPlan.END) {
+				ExecutionPlan.ActionGroup group = isStrictSequencing() ? null : plan.groupAt(current);
+
+				if (group != null) {
+					GroupExecution groupExecution = new GroupExecution(plan, group);
+					CompletableFuture<Void> groupFuture = groupExecution.start();
+
+					if (!groupFuture.isDone()) {
+						groupFuture.whenComplete((v, thrown) -> {
+							try {
+								await(groupFuture);
+								continueAsync(plan.advance(groupExecution.finish(frame), frame, context), frame, result);
+							} catch (AbortException | RuntimeException | Error e) {
+								result.completeExceptionally(e);
+							}
+						});
+
+						return;
+					}
+
+					await(groupFuture);
+					current = plan.advance(groupExecution.finish(frame), frame, context);
 					continue;
-				} catch (AbortException e) {
-					abort(e);
-				} catch (Exception e) {
-					caughtExceptions.add(e);
-					LOGGER.warn("Action '{}' threw an exception. Ignoring and continuing.", current.getAction(), e);
 				}
+
+				IExperimentAction action = plan.actionAt(current);
+				Execution execution = fireActionStarted(action);
+				long timeoutMillis = getTimeoutMillis(plan, current);
+				CompletableFuture<Void> future = withTimeout(toAsync(intercept(action), execution, timeoutMillis).executeAsync(context).toCompletableFuture(), action, timeoutMillis);
+
+				if (!future.isDone()) {
+					int index = current;
+
+					future.whenComplete((v, thrown) -> {
+						try {
+							Exception exception = unwrap(thrown);
+							fireActionFinished(action, execution, exception);
+							continueAsync(plan.advance(handleActionResult(plan, index, frame, exception), frame, context), frame, result);
+						} catch (AbortException | RuntimeException | Error e) {
+							result.completeExceptionally(e);
+						}
+					});
+
+					return;
+				}
+
+				// completed synchronously - proceed in this thread to avoid deep call stacks
+				Exception thrown = null;
+
+				if (future.isCompletedExceptionally()) {
+					try {
+						future.join();
+					} catch (CompletionException e) {
+						thrown = unwrap(e);
+					}
+				}
+
+				fireActionFinished(action, execution, thrown);
+				current = plan.advance(handleActionResult(plan, current, frame, thrown), frame, context);
+			}
+
+			result.complete(null);
+		} catch (AbortException | RuntimeException | Error e) {
+			result.completeExceptionally(e);
+		}
+	}
+
+	private long getTimeoutMillis(ExecutionPlan plan, int index) {
+		if (context.getSimulation() != null) {
+			return 0;
+		}
+
+		long timeout = plan.timeoutAt(index);
+		return timeout == 0 ? getDefaultActionTimeout() : timeout;
+	}
+
+	/**
+	 * Executes an action in the current thread or, if there is a timeout, by the execution service
+	 * while the current thread waits for at most the timeout. The action is interrupted if it takes
+	 * longer.
+	 */
+	private void executeWithTimeout(IExperimentAction action, long timeoutMillis, Execution execution) throws Exception {
+		if (timeoutMillis <= 0) {
+			action.execute(context);
+			return;
+		}
+
+		CompletableFuture<Void> future = getExecutionService().supplyTimed(context.toString(), () -> executeMeasured(action, context, execution));
+
+		try {
+			future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			throw createTimeoutException(action, timeoutMillis);
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			throw e;
+		}
+	}
+
+	/**
+	 * Completes the returned future exceptionally and cancels the passed one if it is not
+	 * completed within the timeout.
+	 */
+	private CompletableFuture<Void> withTimeout(CompletableFuture<Void> future, IExperimentAction action, long timeoutMillis) {
+		if ((timeoutMillis <= 0) || future.isDone()) {
+			return future;
+		}
+
+		CompletableFuture<Void> result = new CompletableFuture<>();
+
+		getExecutionService().delay(timeoutMillis).thenRun(() -> {
+			if (!result.isDone() && result.completeExceptionally(createTimeoutException(action, timeoutMillis))) {
+				future.cancel(true);
+			}
+		});
+
+		future.whenComplete((v, thrown) -> {
+			if (thrown == null) {
+				result.complete(v);
+			} else {
+				result.completeExceptionally(thrown);
 			}
+		});
+
+		return result;
+	}
+
+	private AbortInnerException createTimeoutException(IExperimentAction action, long timeoutMillis) {
+		LOGGER.warn("Action '{}' did not finish within {} ms. Cancelling it.", action, timeoutMillis);
+		return new AbortInnerException(context, "Action '" + action + "' timed out after " + timeoutMillis + " ms");
+	}
+
+	private IExperimentAction intercept(IExperimentAction action) {
+		Simulation simulation = context.getSimulation();
+		IExperimentAction intercepted = (simulation == null) ? action : simulation.intercept(action);
+
+		DataScope scope = context.getDataScope();
+		return (scope == null) ? intercepted : scope.bind(intercepted);
+	}
 
-			current = current.getNext();
+	/**
+	 * Wraps a blocking action so that it is executed by the execution service. Actions with a
+	 * timeout are never executed by the calling thread, so that the timeout is always enforced.
+	 */
+	private IAsyncExperimentAction toAsync(IExperimentAction action, Execution execution, long timeoutMillis) {
+		if (action instanceof IAsyncExperimentAction) {
+			return (IAsyncExperimentAction) action;
+		} else if (timeoutMillis > 0) {
+			return ctx -> getExecutionService().supplyTimed(ctx.toString(), () -> executeMeasured(action, ctx, execution));
+		} else {
+			return ctx -> getExecutionService().supplyBlocking(ctx.toString(), () -> executeMeasured(action, ctx, execution));
 		}
 	}
 
+	/**
+	 * Executes an action in the thread of the execution service and measures it in that thread
+	 * rather than in the one waiting for it.
+	 */
+	private static Void executeMeasured(IExperimentAction action, Context context, Execution execution) throws Exception {
+		execution.moveToCurrentThread();
+		Exception thrown = null;
+
+		try {
+			action.execute(context);
+		} catch (Exception e) {
+			thrown = e;
+			throw e;
+		} finally {
+			execution.stop(context, thrown);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Waits for a future that only completes exceptionally in case of an {@link Error} or a
+	 * {@link RuntimeException}, which is rethrown.
+	 */
+	private void await(CompletableFuture<Void> future) {
+		try {
+			future.join();
+		} catch (CompletionException e) {
+			Exception cause = unwrap(e);
+			throw (cause instanceof RuntimeException) ? (RuntimeException) cause : e;
+		}
+	}
+
+	private Exception unwrap(Throwable thrown) {
+		Throwable cause = thrown;
+
+		while (((cause instanceof CompletionException) || (cause instanceof ExecutionException)) && (cause.getCause() != null)) {
+			cause = cause.getCause();
+		}
+
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+
+		return (Exception) cause;
+	}
+
+	/**
+	 * Handles the result of an executed action.
+	 *
+	 * @param plan
+	 *            The executed plan.
+	 * @param current
+	 *            The index of the instruction holding the action.
+	 * @param frame
+	 *            The frame of the current execution.
+	 * @param thrown
+	 *            The exception thrown by the action or {@code null} if there was none.
+	 * @return The index to be processed next.
+	 * @throws AbortException
+	 *             If the experiment is to be aborted.
+	 */
+	private int handleActionResult(ExecutionPlan plan, int current, ExecutionPlan.Frame frame, Exception thrown) throws AbortException {
+		int next;
+
+		if (thrown == null) {
+			next = plan.successorOf(current);
+		} else if (thrown instanceof AbortInnerException) {
+			caughtExceptions.add(thrown);
+			next = plan.indexOf(handleAbortInnerException((AbortInnerException) thrown, context));
+		} else if (thrown instanceof AbortException) {
+			abort((AbortException) thrown);
+			return ExecutionPlan.END;
+		} else {
+			caughtExceptions.add(thrown);
+			LOGGER.warn("Action '{}' threw an exception. Ignoring and continuing.", plan.actionAt(current), thrown);
+			next = plan.successorOf(current);
+		}
+
+		onActionFinished(plan.elementAt(current), plan.elementAt(next), frame, context);
+		return next;
+	}
+
 	private IExperimentElement handleAbortInnerException(AbortInnerException e, Context context) throws AbortException {
+		String abortedContext = AbortHandledEvent.isRecorded() ? context.toString() : null;
 		IExperimentElement element = context.resetToUpmostElement();
+		AbortHandledEvent.emit(abortedContext, element, e);
 
 		if (element != null) {
 			IExperimentElement next = element.handleAborted(e);
@@ -110,7 +538,7 @@ public abstract class AbstractExperimentExecutor {
 
 		this.abortException = exception;
 		try {
-			EmailReport.send().execute(context);
+			intercept(EmailReport.send()).execute(context);
 		} catch (Exception e) {
 			LOGGER.error("Could not send final report!", e);
 		}
@@ -132,4 +560,186 @@ public abstract class AbstractExperimentExecutor {
 		return report;
 	}
 
+	/**
+	 * Execution of an {@link ExecutionPlan.ActionGroup}. Each action is started as soon as the
+	 * actions it depends on are finished. The results are handled in the original order of the
+	 * actions afterwards, as if they had been executed sequentially. If an action throws an
+	 * {@link AbortInnerException} or {@link AbortException}, only the preceding actions are
+	 * started anymore. Subsequent ones that are already running are not interrupted, but their
+	 * results are ignored. In a simulation, each action advances its own branch of the clock,
+	 * starting at the latest time of the actions it depends on.
+	 */
+	private final class GroupExecution {
+
+		private final ExecutionPlan plan;
+
+		private final ExecutionPlan.ActionGroup group;
+
+		private final Exception[] thrown;
+
+		private final boolean[] executed;
+
+		private final AtomicInteger abortedAt;
+
+		private final VirtualClock[] clocks;
+
+		private GroupExecution(ExecutionPlan plan, ExecutionPlan.ActionGroup group) {
+			this.plan = plan;
+			this.group = group;
+			this.thrown = new Exception[group.size()];
+			this.executed = new boolean[group.size()];
+			this.abortedAt = new AtomicInteger(group.size());
+			this.clocks = new VirtualClock[group.size()];
+		}
+
+		/**
+		 * Starts all actions respecting their dependencies.
+		 *
+		 * @return A future that is completed when all started actions are finished.
+		 */
+		private CompletableFuture<Void> start() {
+			CompletableFuture<?>[] finished = new CompletableFuture<?>[group.size()];
+
+			for (int position = 0; position < group.size(); position++) {
+				int[] predecessors = group.predecessorsOf(position);
+				CompletableFuture<?>[] required = new CompletableFuture<?>[predecessors.length];
+
+				for (int i = 0; i < predecessors.length; i++) {
+					required[i] = finished[predecessors[i]];
+				}
+
+				int member = position;
+				finished[position] = CompletableFuture.allOf(required).thenCompose(v -> execute(member));
+			}
+
+			return CompletableFuture.allOf(finished);
+		}
+
+		private CompletableFuture<Void> execute(int position) {
+			if (position > abortedAt.get()) {
+				return CompletableFuture.completedFuture(null);
+			}
+
+			int index = group.memberAt(position);
+			IExperimentAction action = plan.actionAt(index);
+			Context memberContext = branchContext(position);
+			Execution execution = fireActionStarted(action);
+			CompletableFuture<Void> future;
+
+			try {
+				long timeoutMillis = getTimeoutMillis(plan, index);
+				future = withTimeout(toAsync(intercept(action), execution, timeoutMillis).executeAsync(memberContext).toCompletableFuture(), action, timeoutMillis);
+			} catch (RuntimeException e) {
+				future = new CompletableFuture<>();
+				future.completeExceptionally(e);
+			}
+
+			return future.handle((v, throwable) -> {
+				Exception exception = (throwable == null) ? null : unwrap(throwable);
+				fireActionFinished(action, execution, exception);
+
+				thrown[position] = exception;
+				executed[position] = true;
+
+				if ((exception instanceof AbortInnerException) || (exception instanceof AbortException)) {
+					abortedAt.accumulateAndGet(position, Math::min);
+				}
+
+				return null;
+			});
+		}
+
+		private Context branchContext(int position) {
+			if (context.getSimulation() == null) {
+				return context;
+			}
+
+			Context memberContext = context.clone();
+			VirtualClock clock = memberContext.branchClock();
+
+			for (int predecessor : group.predecessorsOf(position)) {
+				if (clocks[predecessor] != null) {
+					clock.advanceTo(clocks[predecessor].currentTimeMillis());
+				}
+			}
+
+			clocks[position] = clock;
+			return memberContext;
+		}
+
+		/**
+		 * Handles the results of the actions in their original order. Has to be called after the
+		 * future returned by {@link #start()} has been completed.
+		 *
+		 * @param frame
+		 *            The frame of the current execution.
+		 * @return The index to be processed next.
+		 * @throws AbortException
+		 *             If the experiment is to be aborted.
+		 */
+		private int finish(ExecutionPlan.Frame frame) throws AbortException {
+			int next = ExecutionPlan.END;
+			context.joinClocks(Arrays.asList(clocks));
+
+			for (int position = 0; (position < group.size()) && executed[position]; position++) {
+				next = handleActionResult(plan, group.memberAt(position), frame, thrown[position]);
+
+				if (thrown[position] instanceof AbortInnerException) {
+					for (int later = position + 1; later < group.size(); later++) {
+						if (executed[later]) {
+							LOGGER.warn("Action '{}' has already been executed concurrently to the aborted action '{}'.", plan.actionAt(group.memberAt(later)),
+									plan.actionAt(group.memberAt(position)));
+						}
+					}
+
+					break;
+				}
+			}
+
+			return next;
+		}
+
+	}
+
+	/**
+	 * Measurements of an action that is being executed. The measurements are started in the thread
+	 * firing the start and can be moved to the thread actually executing the action. They are
+	 * stopped only once, by the thread that finishes first. If that is not the executing thread,
+	 * e.g., because the action timed out, CPU time and allocated memory are
+	 * {@link ActionMetrics#UNKNOWN}.
+	 */
+	private static final class Execution {
+
+		private final IExperimentAction action;
+
+		private ActionMetrics.Probe probe;
+
+		private ActionEvent event;
+
+		private ActionMetrics metrics;
+
+		private Execution(IExperimentAction action) {
+			this.action = action;
+			this.probe = ActionMetrics.start(action);
+			this.event = ActionEvent.started();
+		}
+
+		private synchronized void moveToCurrentThread() {
+			if (metrics == null) {
+				probe = ActionMetrics.start(action);
+				event = ActionEvent.started();
+			}
+		}
+
+		private synchronized ActionMetrics stop(Context context, Exception thrown) {
+			if (metrics == null) {
+				metrics = probe.stop();
+				event.finished(action, context, thrown);
+			}
+
+			return metrics;
+		}
+
+	}
+
 }
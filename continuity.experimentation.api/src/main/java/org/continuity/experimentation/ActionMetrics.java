@@ -0,0 +1,161 @@
+package org.continuity.experimentation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Resources consumed by one execution of an action: wall-clock time, CPU time and allocated
+ * memory of the executing thread. CPU time and allocated memory are inclusive, i.e., they contain
+ * the consumption of nested actions executed by the same thread. They are {@link #UNKNOWN} if the
+ * JVM does not support measuring them or if the action did not finish in the thread it was started
+ * in (asynchronous actions).
+ *
+ * @author Henning Schulz
+ *
+ */
+public final class ActionMetrics {
+
+	/**
+	 * Value of metrics that could not be measured.
+	 */
+	public static final long UNKNOWN = -1;
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	private static final boolean CPU_TIME_SUPPORTED = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+
+	private static final boolean ALLOCATION_SUPPORTED = (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean)
+			&& ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported();
+
+	private final long wallNanos;
+
+	private final long cpuNanos;
+
+	private final long allocatedBytes;
+
+	private final long retries;
+
+	public ActionMetrics(long wallNanos, long cpuNanos, long allocatedBytes) {
+		this(wallNanos, cpuNanos, allocatedBytes, 0);
+	}
+
+	public ActionMetrics(long wallNanos, long cpuNanos, long allocatedBytes, long retries) {
+		this.wallNanos = wallNanos;
+		this.cpuNanos = cpuNanos;
+		this.allocatedBytes = allocatedBytes;
+		this.retries = retries;
+	}
+
+	/**
+	 * Starts measuring an action in the current thread.
+	 *
+	 * @param action
+	 *            The action to be measured.
+	 * @return A probe to be {@link Probe#stop() stopped} when the action is finished.
+	 */
+	public static Probe start(IExperimentAction action) {
+		return new Probe(action);
+	}
+
+	/**
+	 * Gets {@link #wallNanos}.
+	 *
+	 * @return {@link #wallNanos}
+	 */
+	public long getWallNanos() {
+		return this.wallNanos;
+	}
+
+	/**
+	 * Gets {@link #cpuNanos}.
+	 *
+	 * @return {@link #cpuNanos} or {@link #UNKNOWN}
+	 */
+	public long getCpuNanos() {
+		return this.cpuNanos;
+	}
+
+	/**
+	 * Gets {@link #allocatedBytes}.
+	 *
+	 * @return {@link #allocatedBytes} or {@link #UNKNOWN}
+	 */
+	public long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+
+	/**
+	 * Gets {@link #retries}, which is the number of retries the action has performed (see
+	 * {@link IExperimentAction#getRetries()}). If the same action instance is executed
+	 * concurrently, the retries of the concurrent executions are included.
+	 *
+	 * @return {@link #retries}
+	 */
+	public long getRetries() {
+		return this.retries;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "wall: " + wallNanos + " ns, CPU: " + cpuNanos + " ns, allocated: " + allocatedBytes + " B, retries: " + retries;
+	}
+
+	private static long currentCpuNanos() {
+		return CPU_TIME_SUPPORTED ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : UNKNOWN;
+	}
+
+	private static long currentAllocatedBytes() {
+		return ALLOCATION_SUPPORTED ? ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId()) : UNKNOWN;
+	}
+
+	private static long difference(long start, long end) {
+		return ((start < 0) || (end < 0)) ? UNKNOWN : end - start;
+	}
+
+	/**
+	 * Measurement of a running action.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	public static final class Probe {
+
+		private final Thread thread = Thread.currentThread();
+
+		private final long startCpuNanos = currentCpuNanos();
+
+		private final long startAllocatedBytes = currentAllocatedBytes();
+
+		private final long startWallNanos = System.nanoTime();
+
+		private final IExperimentAction action;
+
+		private final long startRetries;
+
+		private Probe(IExperimentAction action) {
+			this.action = action;
+			this.startRetries = action.getRetries();
+		}
+
+		/**
+		 * Stops measuring.
+		 *
+		 * @return The measured metrics.
+		 */
+		public ActionMetrics stop() {
+			long wallNanos = System.nanoTime() - startWallNanos;
+			long retries = action.getRetries() - startRetries;
+
+			if (Thread.currentThread() != thread) {
+				return new ActionMetrics(wallNanos, UNKNOWN, UNKNOWN, retries);
+			}
+
+			return new ActionMetrics(wallNanos, difference(startCpuNanos, currentCpuNanos()), difference(startAllocatedBytes, currentAllocatedBytes()), retries);
+		}
+
+	}
+
+}
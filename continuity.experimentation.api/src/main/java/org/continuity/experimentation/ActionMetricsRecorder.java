@@ -0,0 +1,187 @@
+package org.continuity.experimentation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import org.continuity.experimentation.exception.AbortException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the {@link ActionMetrics} of each executed action to {@code experiment.metrics} next to
+ * the {@code experiment.log}. At the end of the execution, a summary per action class is written to
+ * {@code experiment.metrics.summary}. <br>
+ *
+ * Concurrently finished actions do not wait for each other. The metrics file is flushed at most
+ * once per {@link #FLUSH_INTERVAL_NANOS} and at the end of the execution.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class ActionMetricsRecorder implements IExecutionListener {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ActionMetricsRecorder.class);
+
+	private static final String METRICS_FILE = "experiment.metrics";
+
+	private static final String SUMMARY_FILE = "experiment.metrics.summary";
+
+	private static final String HEADER = "context\taction\twall_ns\tcpu_ns\tallocated_bytes\tretries\tresult";
+
+	private static final String SUMMARY_HEADER = "action\tcount\twall_ms_total\twall_ms_mean\tcpu_ms_total\tcpu_ms_mean\tallocated_mb_total\tretries_total";
+
+	private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private volatile BufferedWriter writer;
+
+	private volatile long lastFlushNanos;
+
+	private Path directory;
+
+	private final Map<String, Summary> summaries = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Opens the metrics file.
+	 */
+	@Override
+	public synchronized void experimentStarted(Experiment experiment, Context context) {
+		directory = context.toPath().getName(0);
+		summaries.clear();
+
+		Path path = directory.resolve(METRICS_FILE);
+		boolean existing = path.toFile().exists();
+
+		try {
+			BufferedWriter newWriter = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+			if (!existing) {
+				newWriter.write(HEADER);
+				newWriter.newLine();
+			}
+
+			lastFlushNanos = System.nanoTime();
+			writer = newWriter;
+		} catch (IOException e) {
+			LOGGER.error("Could not open the metrics file " + path + "! Will not record any metrics.", e);
+			writer = null;
+		}
+	}
+
+	/**
+	 * Writes the metrics of the action. The line is buffered and only flushed if the last flush
+	 * has been longer ago than {@link #FLUSH_INTERVAL_NANOS}.
+	 */
+	@Override
+	public void actionFinished(IExperimentAction action, Context context, ActionMetrics metrics, Exception thrown) {
+		BufferedWriter currentWriter = writer;
+
+		if (currentWriter == null) {
+			return;
+		}
+
+		String type = DurationHistory.typeOf(action);
+		String actionClass = type.substring(type.lastIndexOf('.') + 1);
+		summaries.computeIfAbsent(actionClass, k -> new Summary()).add(metrics);
+
+		String line = context + "\t" + actionClass + "\t" + metrics.getWallNanos() + "\t" + metrics.getCpuNanos() + "\t" + metrics.getAllocatedBytes() + "\t"
+				+ metrics.getRetries() + "\t" + (thrown == null ? "OK" : thrown.getClass().getSimpleName()) + System.lineSeparator();
+
+		try {
+			// the writer synchronizes each write internally
+			currentWriter.write(line);
+
+			long now = System.nanoTime();
+			long lastFlush = lastFlushNanos;
+
+			if ((now - lastFlush) >= FLUSH_INTERVAL_NANOS) {
+				lastFlushNanos = now;
+				currentWriter.flush();
+			}
+		} catch (IOException e) {
+			LOGGER.error("Could not write the metrics of " + action + "!", e);
+		}
+	}
+
+	/**
+	 * Closes the metrics file and writes the summary.
+	 */
+	@Override
+	public synchronized void experimentFinished(Experiment experiment, Context context, AbortException abortException) {
+		if (writer == null) {
+			return;
+		}
+
+		try {
+			writer.close();
+		} catch (IOException e) {
+			LOGGER.error("Could not close the metrics file!", e);
+		}
+
+		writer = null;
+
+		StringBuilder builder = new StringBuilder();
+		builder.append(SUMMARY_HEADER);
+
+		for (Map.Entry<String, Summary> entry : summaries.entrySet()) {
+			builder.append("\n");
+			builder.append(entry.getKey());
+			builder.append("\t");
+			builder.append(entry.getValue());
+		}
+
+		LOGGER.info("Metrics per action class:\n{}", builder);
+
+		try {
+			Files.write(directory.resolve(SUMMARY_FILE), builder.append("\n").toString().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			LOGGER.error("Could not write the metrics summary!", e);
+		}
+	}
+
+	private static class Summary {
+
+		private long count = 0;
+
+		private long wallNanos = 0;
+
+		private long cpuNanos = 0;
+
+		private long cpuCount = 0;
+
+		private long allocatedBytes = 0;
+
+		private long retries = 0;
+
+		private synchronized void add(ActionMetrics metrics) {
+			count++;
+			wallNanos += metrics.getWallNanos();
+
+			if (metrics.getCpuNanos() != ActionMetrics.UNKNOWN) {
+				cpuNanos += metrics.getCpuNanos();
+				cpuCount++;
+			}
+
+			if (metrics.getAllocatedBytes() != ActionMetrics.UNKNOWN) {
+				allocatedBytes += metrics.getAllocatedBytes();
+			}
+
+			retries += metrics.getRetries();
+		}
+
+		@Override
+		public synchronized String toString() {
+			return String.format(Locale.ENGLISH, "%d\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f\t%d", count, wallNanos / 1e6, wallNanos / 1e6 / count, cpuNanos / 1e6,
+					cpuCount == 0 ? 0 : cpuNanos / 1e6 / cpuCount, allocatedBytes / 1e6, retries);
+		}
+
+	}
+
+}
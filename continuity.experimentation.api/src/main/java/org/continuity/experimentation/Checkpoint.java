@@ -0,0 +1,172 @@
+package org.continuity.experimentation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * State of an experiment after a finished action. Elements are referenced by their position in the
+ * iteration order of the experiment (see {@link ExperimentIterator}), which is the same for each
+ * instance built by the same code.
+ *
+ * @author Henning Schulz
+ *
+ */
+class Checkpoint implements Serializable {
+
+	private static final long serialVersionUID = 8530781612440389121L;
+
+	/**
+	 * Index of elements that are not part of the experiment, e.g., {@link IExperimentElement#END}.
+	 */
+	static final int NO_ELEMENT = -1;
+
+	private final int numElements;
+
+	private final int nextElement;
+
+	private final String rootSuffix;
+
+	private final ArrayList<String> contextLabels;
+
+	private final ArrayList<Integer> contextElements;
+
+	private final HashMap<Integer, Integer> loopIterations;
+
+	private final HashMap<Integer, Serializable> data;
+
+	private final HashSet<Integer> unsetData;
+
+	Checkpoint(int numElements, int nextElement, String rootSuffix, List<String> contextLabels, List<Integer> contextElements, Map<Integer, Integer> loopIterations,
+			Map<Integer, Serializable> data, Set<Integer> unsetData) {
+		this.numElements = numElements;
+		this.nextElement = nextElement;
+		this.rootSuffix = rootSuffix;
+		this.contextLabels = new ArrayList<>(contextLabels);
+		this.contextElements = new ArrayList<>(contextElements);
+		this.loopIterations = new HashMap<>(loopIterations);
+		this.data = new HashMap<>(data);
+		this.unsetData = new HashSet<>(unsetData);
+	}
+
+	/**
+	 * Reads a checkpoint from a file.
+	 *
+	 * @param path
+	 *            The file to be read.
+	 * @return The read checkpoint.
+	 * @throws IOException
+	 *             If the file cannot be read or does not contain a checkpoint.
+	 */
+	static Checkpoint read(Path path) throws IOException {
+		try (InputStream in = Files.newInputStream(path); ObjectInputStream objectIn = new ObjectInputStream(in)) {
+			return (Checkpoint) objectIn.readObject();
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IOException("File " + path + " does not contain a valid checkpoint!", e);
+		}
+	}
+
+	/**
+	 * Writes the checkpoint to a file. The file is replaced atomically, so that a crash during
+	 * writing does not destroy the previous checkpoint.
+	 *
+	 * @param path
+	 *            The file to be written.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	void write(Path path) throws IOException {
+		Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+		try (OutputStream out = Files.newOutputStream(tmp); ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+			objectOut.writeObject(this);
+		}
+
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Gets {@link #numElements}.
+	 *
+	 * @return {@link #numElements}
+	 */
+	int getNumElements() {
+		return this.numElements;
+	}
+
+	/**
+	 * Gets {@link #nextElement}.
+	 *
+	 * @return {@link #nextElement}
+	 */
+	int getNextElement() {
+		return this.nextElement;
+	}
+
+	/**
+	 * Gets {@link #rootSuffix}.
+	 *
+	 * @return {@link #rootSuffix}
+	 */
+	String getRootSuffix() {
+		return this.rootSuffix;
+	}
+
+	/**
+	 * Gets {@link #contextLabels}.
+	 *
+	 * @return {@link #contextLabels}
+	 */
+	List<String> getContextLabels() {
+		return this.contextLabels;
+	}
+
+	/**
+	 * Gets {@link #contextElements}.
+	 *
+	 * @return {@link #contextElements}
+	 */
+	List<Integer> getContextElements() {
+		return this.contextElements;
+	}
+
+	/**
+	 * Gets {@link #loopIterations}.
+	 *
+	 * @return {@link #loopIterations}
+	 */
+	Map<Integer, Integer> getLoopIterations() {
+		return this.loopIterations;
+	}
+
+	/**
+	 * Gets {@link #data}.
+	 *
+	 * @return {@link #data}
+	 */
+	Map<Integer, Serializable> getData() {
+		return this.data;
+	}
+
+	/**
+	 * Gets {@link #unsetData}.
+	 *
+	 * @return {@link #unsetData}
+	 */
+	Set<Integer> getUnsetData() {
+		return this.unsetData;
+	}
+
+}
@@ -1,18 +1,38 @@
 package org.continuity.experimentation;
 
+import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.continuity.experimentation.data.DataScope;
+import org.continuity.experimentation.jfr.ContextChangeEvent;
+import org.continuity.experimentation.journal.ExperimentJournal;
+import org.continuity.experimentation.simulation.Simulation;
+import org.continuity.experimentation.simulation.VirtualClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Holds the current context. Each action can add a context that will be appended to the current
- * one. A context could be {@code iteration#3/thread#1/foo}.
+ * one. A context could be {@code iteration#3/thread#1/foo}. <br>
+ *
+ * Internally, the context is a linked list of immutable nodes, each pointing to its parent. Hence,
+ * cloning only copies the reference to the current node, and the path and string representations
+ * are computed only once per node.
  *
  * @author Henning Schulz
  *
@@ -21,25 +41,109 @@ public class Context implements Cloneable {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(Context.class);
 
-	private final Stack<Pair<IExperimentElement, String>> contextStack;
+	/**
+	 * Default for {@link #maxLoggedChangesPerSecond}.
+	 */
+	public static final int DEFAULT_MAX_LOGGED_CHANGES_PER_SECOND = 20;
+
+	private static volatile int maxLoggedChangesPerSecond = DEFAULT_MAX_LOGGED_CHANGES_PER_SECOND;
+
+	private static final long LOG_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private static final AtomicLong LOG_WINDOW_START = new AtomicLong(System.nanoTime());
+
+	private static final AtomicInteger LOGGED_CHANGES = new AtomicInteger();
+
+	private static final AtomicInteger SUPPRESSED_CHANGES = new AtomicInteger();
+
+	private Node current;
 
 	private String rootSuffix = "";
 
+	private Simulation simulation = null;
+
+	/**
+	 * The branch of the simulated clock used by this context or {@code null} for the clock of the
+	 * {@link #simulation}.
+	 */
+	private VirtualClock clock = null;
+
+	private DataScope dataScope = null;
+
+	/**
+	 * Directories that are known to exist. Avoids repeated file system accesses. Shared between
+	 * clones, i.e., within one execution of an experiment.
+	 */
+	private final Set<Path> knownDirectories;
+
 	public Context() {
-		this.contextStack = new Stack<>();
+		this.current = null;
+		this.knownDirectories = ConcurrentHashMap.newKeySet();
+	}
+
+	/**
+	 * Sets the maximum number of context changes that are logged at INFO level per second (for all
+	 * contexts). Further changes are logged at DEBUG level only, so that very fast iterations do
+	 * not flood the log. The number of suppressed messages is logged once the next second starts.
+	 *
+	 * @param maxLoggedChangesPerSecond
+	 *            The maximum number of logged changes. Defaults to
+	 *            {@link #DEFAULT_MAX_LOGGED_CHANGES_PER_SECOND}.
+	 */
+	public static void setMaxLoggedChangesPerSecond(int maxLoggedChangesPerSecond) {
+		Context.maxLoggedChangesPerSecond = maxLoggedChangesPerSecond;
+	}
+
+	/**
+	 * Creates a new context sharing all current contexts with the original one. Changes to the
+	 * created context do not affect the original one and vice versa.
+	 *
+	 * @param original
+	 *            The context to be copied.
+	 */
+	protected Context(Context original) {
+		this.current = original.current;
+		this.rootSuffix = original.rootSuffix;
+		this.simulation = original.simulation;
+		this.clock = original.clock;
+		this.dataScope = original.dataScope;
+		this.knownDirectories = original.knownDirectories;
 	}
 
+	/**
+	 * Creates a context consisting of the passed contexts. The stack is copied, i.e., later
+	 * changes of the stack do not affect the context and vice versa.
+	 *
+	 * @param contextStack
+	 *            The contexts, the current one on top.
+	 * @deprecated Use {@link #Context(Context)} for copying contexts or {@link #append(String)}.
+	 */
+	@Deprecated
 	protected Context(Stack<Pair<IExperimentElement, String>> contextStack) {
-		this.contextStack = contextStack;
+		this();
+
+		for (Pair<IExperimentElement, String> pair : contextStack) {
+			current = new Node(current, pair.getLeft(), pair.getRight());
+		}
 	}
 
 	/**
-	 * Gets {@link #contextStack}.
+	 * Gets the contexts as a stack, the current one on top. The stack is a copy, i.e., changes of
+	 * the stack do not affect this context.
 	 *
-	 * @return {@link #contextStack}
+	 * @return A new stack holding the element and context string of each context.
+	 * @deprecated The contexts are not held in a stack anymore. Use {@link #toString()},
+	 *             {@link #toPath()} or {@link #resetToUpmostElement()}.
 	 */
+	@Deprecated
 	protected Stack<Pair<IExperimentElement, String>> getContextStack() {
-		return this.contextStack;
+		Stack<Pair<IExperimentElement, String>> stack = new Stack<>();
+
+		for (Node node = current; node != null; node = node.parent) {
+			stack.add(0, new ImmutablePair<>(node.element, node.context));
+		}
+
+		return stack;
 	}
 
 	/**
@@ -52,6 +156,97 @@ public class Context implements Cloneable {
 		this.rootSuffix = rootSuffix;
 	}
 
+	/**
+	 * Gets {@link #rootSuffix}.
+	 *
+	 * @return {@link #rootSuffix}
+	 */
+	public String getRootSuffix() {
+		return this.rootSuffix;
+	}
+
+	/**
+	 * Gets {@link #simulation}.
+	 *
+	 * @return {@link #simulation} or {@code null} if the experiment is really executed.
+	 */
+	public Simulation getSimulation() {
+		return this.simulation;
+	}
+
+	/**
+	 * Sets {@link #simulation}. Clones will share the simulation.
+	 *
+	 * @param simulation
+	 *            New value for {@link #simulation}
+	 */
+	public void setSimulation(Simulation simulation) {
+		this.simulation = simulation;
+		this.clock = null;
+	}
+
+	/**
+	 * Gets {@link #dataScope}.
+	 *
+	 * @return {@link #dataScope} or {@code null} if the data holders are not scoped.
+	 */
+	public DataScope getDataScope() {
+		return this.dataScope;
+	}
+
+	/**
+	 * Sets {@link #dataScope}. Clones will share the scope.
+	 *
+	 * @param dataScope
+	 *            New value for {@link #dataScope}
+	 */
+	public void setDataScope(DataScope dataScope) {
+		this.dataScope = dataScope;
+	}
+
+	/**
+	 * Gets the clock to be used by actions.
+	 *
+	 * @return The virtual clock if in a simulation or {@link IExperimentClock#SYSTEM} otherwise.
+	 */
+	public IExperimentClock getClock() {
+		return (simulation == null) ? IExperimentClock.SYSTEM : getVirtualClock();
+	}
+
+	private VirtualClock getVirtualClock() {
+		return (clock == null) ? simulation.getClock() : clock;
+	}
+
+	/**
+	 * Lets this context and its future clones use a new {@link VirtualClock#branch() branch} of
+	 * the simulated clock. To be called for contexts of concurrent threads. Does nothing if the
+	 * experiment is really executed.
+	 *
+	 * @return The branch or {@code null} if the experiment is really executed.
+	 */
+	public VirtualClock branchClock() {
+		if (simulation == null) {
+			return null;
+		}
+
+		clock = getVirtualClock().branch();
+		return clock;
+	}
+
+	/**
+	 * {@link VirtualClock#join(Collection) Joins} the branches of the simulated clock created by
+	 * {@link #branchClock()} of concurrent threads. Does nothing if the experiment is really
+	 * executed.
+	 *
+	 * @param branches
+	 *            The branches. May contain {@code null}.
+	 */
+	public void joinClocks(Collection<VirtualClock> branches) {
+		if (simulation != null) {
+			getVirtualClock().join(branches.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+		}
+	}
+
 	/**
 	 * Appends a context.
 	 *
@@ -71,8 +266,10 @@ public class Context implements Cloneable {
 	 *            The context to be appended.
 	 */
 	public void append(IExperimentElement element, String context) {
-		contextStack.push(new ImmutablePair<>(element, context));
-		LOGGER.info("Changed context to {}", toString());
+		current = new Node(current, element, context);
+		logChange("Changed context to {}", this);
+		ContextChangeEvent.emit("append", context, this);
+		ExperimentJournal.contextAppended(this, context);
 	}
 
 	/**
@@ -83,10 +280,12 @@ public class Context implements Cloneable {
 	 *            The context to be removed.
 	 */
 	public void remove(String context) {
-		if (Objects.equals(contextStack.peek().getRight(), context)) {
-			contextStack.pop();
+		if ((current != null) && Objects.equals(current.context, context)) {
+			current = current.parent;
 
-			LOGGER.info("Removed context {}. Context is now {}", context, toString());
+			logChange("Removed context {}. Context is now {}", context, this);
+			ContextChangeEvent.emit("remove", context, this);
+			ExperimentJournal.contextRemoved(this, context);
 		} else {
 			throw new IllegalArgumentException("Cannot remove context " + context + "! Current context is " + toString());
 		}
@@ -100,68 +299,227 @@ public class Context implements Cloneable {
 	 * @return The upmost element or {@code null}, if there is no element.
 	 */
 	public IExperimentElement resetToUpmostElement() {
-		while ((contextStack.size() > 0) && (contextStack.peek().getLeft() == null)) {
-			contextStack.pop();
+		while ((current != null) && (current.element == null)) {
+			current = current.parent;
 		}
 
-		if (contextStack.size() > 0) {
-			return contextStack.peek().getLeft();
+		if (current != null) {
+			return current.element;
 		} else {
 			return null;
 		}
 	}
 
+	/**
+	 * Gets all contexts, starting with the root.
+	 *
+	 * @return The list of contexts.
+	 */
+	List<String> getLabels() {
+		List<String> labels = new ArrayList<>();
+
+		for (Node node = current; node != null; node = node.parent) {
+			labels.add(node.context);
+		}
+
+		Collections.reverse(labels);
+		return labels;
+	}
+
+	/**
+	 * Gets the elements corresponding to the contexts, starting with the root. May contain
+	 * {@code null} for contexts that have been appended without an element.
+	 *
+	 * @return The list of elements.
+	 */
+	List<IExperimentElement> getElements() {
+		List<IExperimentElement> elements = new ArrayList<>();
+
+		for (Node node = current; node != null; node = node.parent) {
+			elements.add(node.element);
+		}
+
+		Collections.reverse(elements);
+		return elements;
+	}
+
+	/**
+	 * Replaces all contexts.
+	 *
+	 * @param labels
+	 *            The new contexts, starting with the root.
+	 * @param elements
+	 *            The elements corresponding to the contexts. Needs to have the same size as
+	 *            {@code labels}.
+	 */
+	void restore(List<String> labels, List<IExperimentElement> elements) {
+		current = null;
+
+		for (int i = 0; i < labels.size(); i++) {
+			current = new Node(current, elements.get(i), labels.get(i));
+		}
+
+		LOGGER.info("Restored context {}", this);
+		ContextChangeEvent.emit("restore", null, this);
+	}
+
+	private static void logChange(String format, Object... arguments) {
+		long now = System.nanoTime();
+		long windowStart = LOG_WINDOW_START.get();
+
+		if (((now - windowStart) >= LOG_WINDOW_NANOS) && LOG_WINDOW_START.compareAndSet(windowStart, now)) {
+			LOGGED_CHANGES.set(0);
+			int suppressed = SUPPRESSED_CHANGES.getAndSet(0);
+
+			if (suppressed > 0) {
+				LOGGER.info("Suppressed {} context changes during the last {} ms.", suppressed, TimeUnit.NANOSECONDS.toMillis(now - windowStart));
+			}
+		}
+
+		if (LOGGED_CHANGES.incrementAndGet() <= maxLoggedChangesPerSecond) {
+			LOGGER.info(format, arguments);
+		} else {
+			SUPPRESSED_CHANGES.incrementAndGet();
+			LOGGER.debug(format, arguments);
+		}
+	}
+
 	/**
 	 * Converts the context to a path, e.g., {@code iteration#3/branch#a/foo}.
 	 *
 	 * @return A path representing this context.
 	 */
 	public Path toPath() {
-		Path path = Paths.get("");
+		if (current == null) {
+			return Paths.get("");
+		} else {
+			return current.toPath(rootSuffix);
+		}
+	}
+
+	/**
+	 * Converts the context to a path and creates the corresponding directory if it does not exist,
+	 * yet. Actions writing files should use this method instead of {@link #toPath()}. Directories
+	 * are only created once per context and its clones; subsequent calls do not access the file
+	 * system. Directories that are moved or deleted meanwhile need to be passed to
+	 * {@link #forgetDirectories(Path)}. If the directory cannot be created, a warning is logged
+	 * and the next call tries again.
+	 *
+	 * @return A path representing this context. The directory exists unless it could not be
+	 *         created.
+	 */
+	public Path toDirectory() {
+		Path path = toPath();
+
+		if (!knownDirectories.contains(path)) {
+			File directory = path.toFile();
 
-		String suffix = rootSuffix;
+			if (directory.mkdirs() || directory.isDirectory()) {
+				knownDirectories.add(path);
 
-		for (Pair<IExperimentElement, String> element : contextStack) {
-			path = path.resolve(element.getRight() + suffix);
-			suffix = "";
+				LOGGER.debug("Created directory {}", path);
+			} else {
+				LOGGER.warn("Could not create directory {}", path);
+			}
 		}
 
 		return path;
 	}
 
+	/**
+	 * Forgets that a directory and all of its subdirectories have been created by
+	 * {@link #toDirectory()}. To be called when the directory is moved or deleted. Affects all
+	 * clones of this context.
+	 *
+	 * @param directory
+	 *            The directory that does not exist anymore.
+	 */
+	public void forgetDirectories(Path directory) {
+		knownDirectories.removeIf(path -> path.startsWith(directory));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public String toString() {
-		StringBuilder builder = new StringBuilder();
+		if (current == null) {
+			return "<empty>";
+		} else {
+			return current.toString();
+		}
+	}
 
-		boolean first = true;
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Context clone() {
+		return new Context(this);
+	}
 
-		for (Pair<IExperimentElement, String> element : contextStack) {
-			if (first) {
-				first = false;
-			} else {
-				builder.append("-");
+	/**
+	 * One immutable entry of the context. The path and string representations are computed lazily
+	 * and cached.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	private static final class Node {
+
+		private final Node parent;
+
+		private final IExperimentElement element;
+
+		private final String context;
+
+		private String string;
+
+		private volatile CachedPath cachedPath;
+
+		private Node(Node parent, IExperimentElement element, String context) {
+			this.parent = parent;
+			this.element = element;
+			this.context = context;
+		}
+
+		private Path toPath(String rootSuffix) {
+			CachedPath cached = cachedPath;
+
+			if ((cached == null) || !cached.rootSuffix.equals(rootSuffix)) {
+				Path path = (parent == null) ? Paths.get(context + rootSuffix) : parent.toPath(rootSuffix).resolve(context);
+				cached = new CachedPath(rootSuffix, path);
+				cachedPath = cached;
 			}
 
-			builder.append(element.getRight());
+			return cached.path;
 		}
 
-		if (builder.length() == 0) {
-			builder.append("<empty>");
+		@Override
+		public String toString() {
+			String str = string;
+
+			if (str == null) {
+				str = (parent == null) ? context : (parent.toString() + "-" + context);
+				string = str;
+			}
+
+			return str;
 		}
 
-		return builder.toString();
 	}
 
-	/**
-	 * {@inheritDoc}
-	 */
-	@SuppressWarnings("unchecked")
-	@Override
-	public Context clone() {
-		return new Context((Stack<Pair<IExperimentElement, String>>) contextStack.clone());
+	private static final class CachedPath {
+
+		private final String rootSuffix;
+
+		private final Path path;
+
+		private CachedPath(String rootSuffix, Path path) {
+			this.rootSuffix = rootSuffix;
+			this.path = path;
+		}
+
 	}
 
 }
@@ -0,0 +1,250 @@
+package org.continuity.experimentation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.continuity.experimentation.exception.AbortException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the wall-clock durations of actions per action type and normalized context and stores
+ * them in a file. Previous executions of the same experiment can then be used for estimating the
+ * duration. Lambda expressions of an {@link #indexLambdas(Iterable) indexed} experiment are
+ * distinguished by their element.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class DurationHistory implements IExecutionListener, IDurationEstimator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DurationHistory.class);
+
+	private static final String SEPARATOR = "\t";
+
+	private static final String LAMBDA_MARKER = "$$Lambda";
+
+	private final Path path;
+
+	private final Map<String, Statistics> byContext = new ConcurrentHashMap<>();
+
+	private final Map<String, Statistics> byType = new ConcurrentHashMap<>();
+
+	private final Map<IExperimentAction, String> lambdaTypes = Collections.synchronizedMap(new IdentityHashMap<>());
+
+	/**
+	 * Creates a new history and loads the entries stored in the file, if it exists.
+	 *
+	 * @param path
+	 *            The file storing the history.
+	 */
+	public DurationHistory(Path path) {
+		this.path = path;
+
+		if (path.toFile().exists()) {
+			load();
+		}
+	}
+
+	/**
+	 * Normalizes a context by removing all numbers following a {@code #}. That is,
+	 * {@code experiment-iteration#3-thread#1} becomes {@code experiment-iteration-thread}.
+	 *
+	 * @param context
+	 *            The context as string.
+	 * @return The normalized context.
+	 */
+	public static String normalize(String context) {
+		return context.replaceAll("#\\d+", "");
+	}
+
+	/**
+	 * Gets {@link #path}.
+	 *
+	 * @return {@link #path}
+	 */
+	public Path getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Distinguishes the lambda expressions of an experiment by the index of their element.
+	 * Otherwise, all lambda expressions declared in the same class share one type.
+	 *
+	 * @param elements
+	 *            The elements of the experiment. Need to be the same for all executions.
+	 */
+	public void indexLambdas(Iterable<IExperimentElement> elements) {
+		Map<IExperimentElement, Boolean> visited = new IdentityHashMap<>();
+		int index = 0;
+
+		for (IExperimentElement element : elements) {
+			if (visited.put(element, Boolean.TRUE) != null) {
+				continue;
+			}
+
+			if (element.hasAction() && typeOf(element.getAction()).endsWith(LAMBDA_MARKER)) {
+				lambdaTypes.put(element.getAction(), typeOf(element.getAction()) + "@" + index);
+			}
+
+			index++;
+		}
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param context
+	 *            The normalized context.
+	 * @param action
+	 *            The executed action.
+	 * @param millis
+	 *            The duration in milliseconds.
+	 */
+	public void record(String context, IExperimentAction action, double millis) {
+		String type = keyOf(action);
+
+		byContext.computeIfAbsent(context + SEPARATOR + type, k -> new Statistics()).add(1, millis);
+		byType.computeIfAbsent(type, k -> new Statistics()).add(1, millis);
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * Returns the mean duration of the same action type in the same context. If there is none, the
+	 * mean duration of the action type in all contexts is returned, or 0 if the type is unknown.
+	 */
+	@Override
+	public double estimateMillis(String context, IExperimentAction action) {
+		String type = keyOf(action);
+		Statistics statistics = byContext.get(context + SEPARATOR + type);
+
+		if (statistics == null) {
+			statistics = byType.get(type);
+		}
+
+		return (statistics == null) ? 0 : statistics.getMean();
+	}
+
+	/**
+	 * Stores the history to the file.
+	 *
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	public synchronized void save() throws IOException {
+		List<String> lines = byContext.entrySet().stream().map(e -> e.getKey() + SEPARATOR + e.getValue()).sorted().collect(Collectors.toList());
+
+		Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.write(tmp, lines, StandardCharsets.UTF_8);
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Records the duration if not in a simulation.
+	 */
+	@Override
+	public void actionFinished(IExperimentAction action, Context context, ActionMetrics metrics, Exception thrown) {
+		if (context.getSimulation() == null) {
+			record(normalize(context.toString()), action, metrics.getWallNanos() / 1000000.0);
+		}
+	}
+
+	/**
+	 * Stores the history.
+	 */
+	@Override
+	public void experimentFinished(Experiment experiment, Context context, AbortException abortException) {
+		if (context.getSimulation() != null) {
+			return;
+		}
+
+		try {
+			save();
+		} catch (IOException e) {
+			LOGGER.error("Could not store the duration history to " + path + "!", e);
+		}
+	}
+
+	private void load() {
+		List<String> lines;
+
+		try {
+			lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			LOGGER.error("Could not read the duration history from " + path + "! Starting with an empty one.", e);
+			return;
+		}
+
+		for (String line : lines) {
+			String[] columns = line.split(SEPARATOR);
+
+			if (columns.length != 4) {
+				LOGGER.warn("Ignoring invalid line in duration history {}: {}", path, line);
+				continue;
+			}
+
+			try {
+				long count = Long.parseLong(columns[2]);
+				double totalMillis = Double.parseDouble(columns[3]);
+
+				byContext.computeIfAbsent(columns[0] + SEPARATOR + columns[1], k -> new Statistics()).add(count, totalMillis);
+				byType.computeIfAbsent(columns[1], k -> new Statistics()).add(count, totalMillis);
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Ignoring invalid line in duration history {}: {}", path, line);
+			}
+		}
+	}
+
+	private String keyOf(IExperimentAction action) {
+		String lambdaType = lambdaTypes.get(action);
+		return (lambdaType == null) ? typeOf(action) : lambdaType;
+	}
+
+	/**
+	 * Gets the type of an action. Lambda expressions are represented by the declaring class.
+	 *
+	 * @param action
+	 *            The action.
+	 * @return The fully qualified type name.
+	 */
+	static String typeOf(IExperimentAction action) {
+		String type = action.getClass().getName();
+		int lambdaIndex = type.indexOf(LAMBDA_MARKER);
+
+		// lambda class names differ between executions
+		return (lambdaIndex < 0) ? type : type.substring(0, lambdaIndex + LAMBDA_MARKER.length());
+	}
+
+	private static class Statistics {
+
+		private long count = 0;
+
+		private double totalMillis = 0;
+
+		private synchronized void add(long count, double totalMillis) {
+			this.count += count;
+			this.totalMillis += totalMillis;
+		}
+
+		private synchronized double getMean() {
+			return (count == 0) ? 0 : totalMillis / count;
+		}
+
+		@Override
+		public synchronized String toString() {
+			return count + SEPARATOR + totalMillis;
+		}
+
+	}
+
+}
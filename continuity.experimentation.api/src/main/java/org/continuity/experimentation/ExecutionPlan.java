@@ -0,0 +1,549 @@
+package org.continuity.experimentation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.apache.commons.math3.util.Pair;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.element.BranchElement;
+import org.continuity.experimentation.element.ConcurrentElement;
+import org.continuity.experimentation.element.ExperimentActionElement;
+import org.continuity.experimentation.element.JoinElement;
+import org.continuity.experimentation.element.LoopElement;
+import org.continuity.experimentation.element.ParallelLoopElement;
+
+/**
+ * Immutable, array-based representation of an {@link IExperimentElement} chain. Each element is
+ * compiled into an instruction addressed by an index. Loops, branches and joins are resolved to
+ * jumps between indices, so that the executor only dispatches on the instruction type instead of
+ * traversing the elements. <br>
+ *
+ * The plan does not hold any execution state. The iteration counters of the loops are held by a
+ * {@link Frame} per execution. Hence, a plan can be executed several times and concurrently. <br>
+ *
+ * Unknown implementations of {@link IExperimentElement} are executed by calling their methods as
+ * before and need to report all successors in {@link IExperimentElement#iterateToNext()}. <br>
+ *
+ * Consecutive actions whose {@link IExperimentAction#getDataDependencies() dependencies} are
+ * {@link DataDependencies#isParallelizable() parallelizable} are additionally compiled into an
+ * action group starting at the first of them. The group holds the order that has to be kept
+ * between its actions. All other actions act as barriers.
+ *
+ * @author Henning Schulz
+ *
+ */
+public final class ExecutionPlan {
+
+	/**
+	 * Index of the instruction ending the execution.
+	 */
+	public static final int END = 0;
+
+	private static final byte OP_END = 0;
+
+	private static final byte OP_ACTION = 1;
+
+	private static final byte OP_JUMP = 2;
+
+	private static final byte OP_LOOP = 3;
+
+	private static final byte OP_BRANCH = 4;
+
+	private static final byte OP_ELEMENT = 5;
+
+	private final IExperimentElement[] elements;
+
+	private final Map<IExperimentElement, Integer> indices;
+
+	private final byte[] opcodes;
+
+	private final IExperimentAction[] actions;
+
+	private final long[] timeouts;
+
+	/**
+	 * Successor of actions, target of jumps, index after a loop or else branch.
+	 */
+	private final int[] next;
+
+	/**
+	 * First index of a loop body.
+	 */
+	private final int[] targets;
+
+	/**
+	 * Index of the iteration counter of a loop in the {@link Frame}.
+	 */
+	private final int[] slots;
+
+	private final BooleanSupplier[][] conditions;
+
+	private final int[][] branches;
+
+	private final int numLoops;
+
+	/**
+	 * Action groups by the index of their first action.
+	 */
+	private final ActionGroup[] groups;
+
+	private ExecutionPlan(List<IExperimentElement> elements, Map<IExperimentElement, Integer> indices) {
+		int size = elements.size();
+
+		this.elements = elements.toArray(new IExperimentElement[size]);
+		this.indices = Collections.unmodifiableMap(indices);
+		this.opcodes = new byte[size];
+		this.actions = new IExperimentAction[size];
+		this.timeouts = new long[size];
+		this.next = new int[size];
+		this.targets = new int[size];
+		this.slots = new int[size];
+		this.conditions = new BooleanSupplier[size][];
+		this.branches = new int[size][];
+
+		int loops = 0;
+
+		for (int i = 1; i < size; i++) {
+			IExperimentElement element = this.elements[i];
+
+			if ((element instanceof ExperimentActionElement) || (element instanceof ConcurrentElement) || (element instanceof ParallelLoopElement)) {
+				opcodes[i] = OP_ACTION;
+				actions[i] = element.getAction();
+				timeouts[i] = element.getActionTimeoutMillis();
+				next[i] = indexOf(element.getNext());
+			} else if (element instanceof LoopElement) {
+				LoopElement loop = (LoopElement) element;
+				opcodes[i] = OP_LOOP;
+				targets[i] = indexOf(loop.getLoopStart());
+				next[i] = indexOf(loop.getAfterLoop());
+				slots[i] = loops++;
+			} else if (element instanceof LoopElement.End) {
+				opcodes[i] = OP_JUMP;
+				next[i] = indexOf(((LoopElement.End) element).getLoop());
+			} else if (element instanceof JoinElement) {
+				opcodes[i] = OP_JUMP;
+				next[i] = indexOf(element.getNext());
+			} else if (element instanceof BranchElement) {
+				BranchElement branch = (BranchElement) element;
+				List<Pair<BooleanSupplier, IExperimentElement>> pairs = branch.getBranches();
+
+				opcodes[i] = OP_BRANCH;
+				conditions[i] = new BooleanSupplier[pairs.size()];
+				branches[i] = new int[pairs.size()];
+
+				for (int j = 0; j < pairs.size(); j++) {
+					conditions[i][j] = pairs.get(j).getFirst();
+					branches[i][j] = indexOf(pairs.get(j).getSecond());
+				}
+
+				next[i] = indexOf(branch.getElseBranch());
+			} else {
+				opcodes[i] = OP_ELEMENT;
+			}
+		}
+
+		this.numLoops = loops;
+		this.groups = compileGroups();
+	}
+
+	private ActionGroup[] compileGroups() {
+		int size = elements.length;
+		DataDependencies[] dependencies = new DataDependencies[size];
+		boolean[] continuing = new boolean[size];
+
+		for (int i = 1; i < size; i++) {
+			if (elements[i] instanceof ExperimentActionElement) {
+				DataDependencies declared = actions[i].getDataDependencies();
+				dependencies[i] = declared.isParallelizable() ? declared : null;
+			}
+		}
+
+		for (int i = 1; i < size; i++) {
+			if ((dependencies[i] != null) && (dependencies[next[i]] != null)) {
+				continuing[next[i]] = true;
+			}
+		}
+
+		ActionGroup[] compiled = new ActionGroup[size];
+
+		for (int i = 1; i < size; i++) {
+			if ((dependencies[i] == null) || continuing[i] || (dependencies[next[i]] == null)) {
+				continue;
+			}
+
+			List<Integer> members = new ArrayList<>();
+
+			for (int member = i; (dependencies[member] != null) && !members.contains(member); member = next[member]) {
+				members.add(member);
+			}
+
+			compiled[i] = new ActionGroup(members, dependencies);
+		}
+
+		return compiled;
+	}
+
+	/**
+	 * Compiles the chain starting at the passed element.
+	 *
+	 * @param first
+	 *            The first element of the chain.
+	 * @return The compiled plan.
+	 */
+	public static ExecutionPlan compile(IExperimentElement first) {
+		List<IExperimentElement> elements = new ArrayList<>();
+		Map<IExperimentElement, Integer> indices = new IdentityHashMap<>();
+		Deque<IExperimentElement> toVisit = new ArrayDeque<>();
+
+		elements.add(IExperimentElement.END);
+		indices.put(IExperimentElement.END, END);
+		toVisit.add(first == null ? IExperimentElement.END : first);
+
+		while (!toVisit.isEmpty()) {
+			IExperimentElement element = toVisit.poll();
+
+			if (element.isEnd() || indices.containsKey(element)) {
+				continue;
+			}
+
+			indices.put(element, elements.size());
+			elements.add(element);
+
+			for (IExperimentElement successor : successorsOf(element)) {
+				if (successor != null) {
+					toVisit.add(successor);
+				}
+			}
+		}
+
+		return new ExecutionPlan(elements, indices);
+	}
+
+	private static List<IExperimentElement> successorsOf(IExperimentElement element) {
+		if (element instanceof LoopElement) {
+			LoopElement loop = (LoopElement) element;
+			return Arrays.asList(loop.getLoopStart(), loop.getAfterLoop());
+		} else if (element instanceof LoopElement.End) {
+			return Collections.singletonList(((LoopElement.End) element).getLoop());
+		} else if (element instanceof BranchElement) {
+			BranchElement branch = (BranchElement) element;
+			List<IExperimentElement> successors = new ArrayList<>();
+			branch.getBranches().forEach(pair -> successors.add(pair.getSecond()));
+			successors.add(branch.getElseBranch());
+			successors.add(branch.getJoin());
+			return successors;
+		} else if ((element instanceof ExperimentActionElement) || (element instanceof ConcurrentElement) || (element instanceof ParallelLoopElement) || (element instanceof JoinElement)) {
+			return Collections.singletonList(element.getNext());
+		} else {
+			return new ArrayList<>(element.iterateToNext());
+		}
+	}
+
+	/**
+	 * Creates a new frame for executing the plan. All loops start with their first iteration.
+	 *
+	 * @return The new frame.
+	 */
+	public Frame newFrame() {
+		return new Frame(this);
+	}
+
+	/**
+	 * Gets the first element of the plan.
+	 *
+	 * @return The first element or {@link IExperimentElement#END} if the plan is empty.
+	 */
+	public IExperimentElement getFirst() {
+		return elements.length > 1 ? elements[1] : IExperimentElement.END;
+	}
+
+	/**
+	 * Gets the number of instructions including {@link #END}.
+	 *
+	 * @return The number of instructions.
+	 */
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * Gets the index of the instruction compiled from the passed element.
+	 *
+	 * @param element
+	 *            The element.
+	 * @return The index. {@link #END} if the element is {@code null} or
+	 *         {@link IExperimentElement#END}.
+	 * @throws IllegalArgumentException
+	 *             If the element is not part of the plan.
+	 */
+	public int indexOf(IExperimentElement element) throws IllegalArgumentException {
+		if ((element == null) || element.isEnd()) {
+			return END;
+		}
+
+		Integer index = indices.get(element);
+
+		if (index == null) {
+			throw new IllegalArgumentException("Element " + element + " is not part of the execution plan!");
+		}
+
+		return index;
+	}
+
+	/**
+	 * Gets the element an instruction has been compiled from.
+	 *
+	 * @param index
+	 *            The index of the instruction.
+	 * @return The element.
+	 */
+	public IExperimentElement elementAt(int index) {
+		return elements[index];
+	}
+
+	/**
+	 * Processes all instructions starting at the passed index until reaching one holding an action
+	 * and updates the context accordingly.
+	 *
+	 * @param index
+	 *            The index to start at.
+	 * @param frame
+	 *            The frame of the current execution.
+	 * @param context
+	 *            The current context.
+	 * @return The index of the instruction holding the next action or {@link #END}.
+	 */
+	public int advance(int index, Frame frame, Context context) {
+		int pc = index;
+
+		while (true) {
+			switch (opcodes[pc]) {
+			case OP_END:
+			case OP_ACTION:
+				return pc;
+			case OP_JUMP:
+				pc = next[pc];
+				break;
+			case OP_LOOP:
+				pc = loop(pc, frame, context);
+				break;
+			case OP_BRANCH:
+				pc = branch(pc);
+				break;
+			default:
+				IExperimentElement element = elements[pc];
+				element.updateContext(context);
+
+				if (element.hasAction()) {
+					return pc;
+				}
+
+				pc = indexOf(element.getNext());
+			}
+		}
+	}
+
+	private int loop(int pc, Frame frame, Context context) {
+		LoopElement loop = (LoopElement) elements[pc];
+		int iteration = frame.iterations[slots[pc]];
+
+		loop.updateContext(context, iteration);
+
+		if (iteration <= loop.getNumIterations()) {
+			frame.iterations[slots[pc]] = iteration + 1;
+			return targets[pc];
+		} else {
+			frame.iterations[slots[pc]] = 1;
+			return next[pc];
+		}
+	}
+
+	private int branch(int pc) {
+		BooleanSupplier[] branchConditions = conditions[pc];
+
+		for (int i = 0; i < branchConditions.length; i++) {
+			if (branchConditions[i].getAsBoolean()) {
+				return branches[pc][i];
+			}
+		}
+
+		return next[pc];
+	}
+
+	/**
+	 * Gets the action of an instruction returned by
+	 * {@link #advance(int, Frame, Context)}.
+	 *
+	 * @param index
+	 *            The index of the instruction.
+	 * @return The action.
+	 */
+	public IExperimentAction actionAt(int index) {
+		return opcodes[index] == OP_ACTION ? actions[index] : elements[index].getAction();
+	}
+
+	/**
+	 * Gets the timeout of the action of an instruction (see
+	 * {@link IExperimentElement#getActionTimeoutMillis()}).
+	 *
+	 * @param index
+	 *            The index of the instruction.
+	 * @return The timeout in milliseconds.
+	 */
+	public long timeoutAt(int index) {
+		return opcodes[index] == OP_ACTION ? timeouts[index] : elements[index].getActionTimeoutMillis();
+	}
+
+	/**
+	 * Gets the action group starting at an instruction.
+	 *
+	 * @param index
+	 *            The index of the instruction.
+	 * @return The group or {@code null} if there is none.
+	 */
+	ActionGroup groupAt(int index) {
+		return groups[index];
+	}
+
+	/**
+	 * Gets the index to be processed after the action of an instruction has been executed
+	 * successfully.
+	 *
+	 * @param index
+	 *            The index of the instruction.
+	 * @return The index of the successor.
+	 */
+	public int successorOf(int index) {
+		return opcodes[index] == OP_ACTION ? next[index] : indexOf(elements[index].getNext());
+	}
+
+	/**
+	 * Consecutive actions that can be executed concurrently as long as the order between
+	 * dependent ones is kept.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	static final class ActionGroup {
+
+		private final int[] members;
+
+		/**
+		 * Positions of the members a member depends on, per member.
+		 */
+		private final int[][] predecessors;
+
+		private ActionGroup(List<Integer> members, DataDependencies[] dependencies) {
+			this.members = new int[members.size()];
+			this.predecessors = new int[members.size()][];
+
+			for (int position = 0; position < members.size(); position++) {
+				this.members[position] = members.get(position);
+				DataDependencies current = dependencies[this.members[position]];
+				List<Integer> dependent = new ArrayList<>();
+
+				for (int earlier = 0; earlier < position; earlier++) {
+					if (current.dependsOn(dependencies[this.members[earlier]])) {
+						dependent.add(earlier);
+					}
+				}
+
+				this.predecessors[position] = dependent.stream().mapToInt(Integer::intValue).toArray();
+			}
+		}
+
+		/**
+		 * Gets the number of actions.
+		 *
+		 * @return The number of actions.
+		 */
+		int size() {
+			return members.length;
+		}
+
+		/**
+		 * Gets the index of the instruction of a member.
+		 *
+		 * @param position
+		 *            The position of the member in the original order, starting with 0.
+		 * @return The index of the instruction.
+		 */
+		int memberAt(int position) {
+			return members[position];
+		}
+
+		/**
+		 * Gets the members that have to be finished before a member can be started.
+		 *
+		 * @param position
+		 *            The position of the member.
+		 * @return The positions of the preceding members.
+		 */
+		int[] predecessorsOf(int position) {
+			return predecessors[position];
+		}
+
+	}
+
+	/**
+	 * State of one execution of an {@link ExecutionPlan}, i.e., the iteration counters of all
+	 * loops. Must not be shared between concurrent executions.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	public static final class Frame {
+
+		private final ExecutionPlan plan;
+
+		private final int[] iterations;
+
+		private Frame(ExecutionPlan plan) {
+			this.plan = plan;
+			this.iterations = new int[plan.numLoops];
+			Arrays.fill(iterations, 1);
+		}
+
+		/**
+		 * Gets {@link #plan}.
+		 *
+		 * @return {@link #plan}
+		 */
+		public ExecutionPlan getPlan() {
+			return this.plan;
+		}
+
+		/**
+		 * Gets the number of the iteration of a loop to be started next.
+		 *
+		 * @param loop
+		 *            The loop.
+		 * @return The iteration, starting with 1.
+		 */
+		public int getIteration(LoopElement loop) {
+			return iterations[plan.slots[plan.indexOf(loop)]];
+		}
+
+		/**
+		 * Sets the number of the iteration of a loop to be started next. Used for restoring the
+		 * state of an interrupted execution.
+		 *
+		 * @param loop
+		 *            The loop.
+		 * @param iteration
+		 *            The iteration, starting with 1.
+		 */
+		public void setIteration(LoopElement loop, int iteration) {
+			iterations[plan.slots[plan.indexOf(loop)]] = iteration;
+		}
+
+	}
+
+}
@@ -1,26 +1,51 @@
 package org.continuity.experimentation;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
-import java.util.Collections;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.continuity.experimentation.builder.ExperimentBuilderImpl;
 import org.continuity.experimentation.builder.StableExperimentBuilder;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.dataflow.DataflowAnalysis;
+import org.continuity.experimentation.dataflow.DataflowFinding;
+import org.continuity.experimentation.element.LoopElement;
 import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.continuity.experimentation.journal.ExperimentJournal;
+import org.continuity.experimentation.simulation.Simulation;
+import org.continuity.experimentation.simulation.SimulationReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
-import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.FileAppender;
 
 /**
  * An Experiment holds a name and the first {@link IExperimentElement} to be executed. Each element
@@ -41,15 +66,65 @@ public class Experiment extends AbstractExperimentExecutor implements Iterable<I
 		}
 	}
 
+	private static final String CHECKPOINT_FILE = "experiment.checkpoint";
+
+	private static final String SIMULATION_ROOT = "simulation";
+
+
 	private final String name;
 
+	private final ExperimentExecutionService executionService;
+
+	private boolean checkpointing = false;
+
+	private final List<IDataHolder<?>> persistentData = new ArrayList<>();
+
+	private List<IExperimentElement> elements;
+
+	private Map<IExperimentElement, Integer> elementIndices;
+
+	private volatile double numberOfActions = -1;
+
+	private final List<IExecutionListener> listeners = new CopyOnWriteArrayList<>();
+
+	private DurationHistory durationHistory;
+
+	private final ActionMetricsRecorder metricsRecorder = new ActionMetricsRecorder();
+
+	private MetricsEndpoint metricsEndpoint;
+
+	private ExperimentJournal journal;
+
+	private long defaultActionTimeout = 0;
+
+	private int logBufferSize = ExperimentLogAppender.DEFAULT_BUFFER_SIZE;
+
+	private ExperimentLogAppender.OverflowPolicy logOverflowPolicy = ExperimentLogAppender.OverflowPolicy.DROP_OLDEST;
+
+	private ExperimentLogAppender logAppender;
+
+	private boolean strictDataflow = false;
+
+	private boolean strictSequencing = false;
+
+	private volatile double estimatedTotalMillis = 0;
+
+	private volatile double finishedMillis = 0;
+
 	public Experiment(IExperimentElement first) {
 		this("experiment", first);
 	}
 
 	public Experiment(String name, IExperimentElement first) {
+		this(name, first, ExperimentExecutionService.DEFAULT_MAX_PARALLELISM);
+	}
+
+	public Experiment(String name, IExperimentElement first, int maxParallelism) {
 		super(first);
 		this.name = name;
+		this.executionService = new ExperimentExecutionService(name, maxParallelism);
+
+		listeners.add(metricsRecorder);
 	}
 
 	/**
@@ -61,6 +136,250 @@ public class Experiment extends AbstractExperimentExecutor implements Iterable<I
 		return this.name;
 	}
 
+	/**
+	 * Gets {@link #executionService}.
+	 *
+	 * @return {@link #executionService}
+	 */
+	@Override
+	public ExperimentExecutionService getExecutionService() {
+		return this.executionService;
+	}
+
+	/**
+	 * Adds a listener to be notified about the execution.
+	 *
+	 * @param listener
+	 *            The listener.
+	 */
+	public void addListener(IExecutionListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param listener
+	 *            The listener.
+	 */
+	public void removeListener(IExecutionListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<IExecutionListener> getListeners() {
+		return listeners;
+	}
+
+	/**
+	 * Gets {@link #metricsRecorder}. It is registered as listener by default. Remove it using
+	 * {@link #removeListener(IExecutionListener)} for not recording any metrics.
+	 *
+	 * @return {@link #metricsRecorder}
+	 */
+	public ActionMetricsRecorder getMetricsRecorder() {
+		return this.metricsRecorder;
+	}
+
+	/**
+	 * Gets {@link #durationHistory}.
+	 *
+	 * @return {@link #durationHistory} or {@code null} if durations are not recorded.
+	 */
+	public DurationHistory getDurationHistory() {
+		return this.durationHistory;
+	}
+
+	/**
+	 * Sets {@link #durationHistory}. Durations are not recorded by default.
+	 *
+	 * @param durationHistory
+	 *            New value for {@link #durationHistory}. {@code null} disables recording the
+	 *            durations.
+	 */
+	public void setDurationHistory(DurationHistory durationHistory) {
+		if (this.durationHistory != null) {
+			listeners.remove(this.durationHistory);
+		}
+
+		this.durationHistory = durationHistory;
+
+		if (durationHistory != null) {
+			durationHistory.indexLambdas(this);
+			listeners.add(durationHistory);
+		}
+	}
+
+	/**
+	 * Gets {@link #metricsEndpoint}.
+	 *
+	 * @return {@link #metricsEndpoint} or {@code null} if it is not enabled.
+	 */
+	public MetricsEndpoint getMetricsEndpoint() {
+		return this.metricsEndpoint;
+	}
+
+	/**
+	 * Enables serving live metrics in the Prometheus format while the experiment is running. A
+	 * previously enabled endpoint is replaced.
+	 *
+	 * @param port
+	 *            The port to serve the metrics at. 0 chooses a free port.
+	 * @see MetricsEndpoint
+	 */
+	public void enableMetricsEndpoint(int port) {
+		if (metricsEndpoint != null) {
+			listeners.remove(metricsEndpoint);
+		}
+
+		metricsEndpoint = new MetricsEndpoint(port);
+		listeners.add(metricsEndpoint);
+	}
+
+	/**
+	 * Gets {@link #defaultActionTimeout}.
+	 *
+	 * @return {@link #defaultActionTimeout} in milliseconds. 0 means no timeout.
+	 */
+	@Override
+	public long getDefaultActionTimeout() {
+		return this.defaultActionTimeout;
+	}
+
+	/**
+	 * Sets {@link #defaultActionTimeout}, which applies to all actions that have been appended
+	 * without an explicit timeout. Actions taking longer are interrupted and handled like an
+	 * {@link AbortInnerException}. Concurrent threads as a whole are not limited.
+	 *
+	 * @param defaultActionTimeout
+	 *            New value for {@link #defaultActionTimeout} in milliseconds. 0 means no timeout.
+	 */
+	public void setDefaultActionTimeout(long defaultActionTimeout) {
+		if (defaultActionTimeout < 0) {
+			throw new IllegalArgumentException("The timeout must not be negative but was " + defaultActionTimeout + "!");
+		}
+
+		this.defaultActionTimeout = defaultActionTimeout;
+	}
+
+	/**
+	 * Gets {@link #journal}.
+	 *
+	 * @return {@link #journal} or {@code null} if it is not enabled.
+	 */
+	public ExperimentJournal getJournal() {
+		return this.journal;
+	}
+
+	/**
+	 * Enables writing a binary {@link ExperimentJournal} of each execution, which can be read
+	 * using {@link org.continuity.experimentation.journal.JournalReader JournalReader}.
+	 */
+	public void enableJournal() {
+		if (journal == null) {
+			journal = new ExperimentJournal();
+			listeners.add(journal);
+		}
+	}
+
+	/**
+	 * Sets {@link #logBufferSize}, which is the number of log events that can be buffered before
+	 * being written to the {@code experiment.log}. Defaults to
+	 * {@link ExperimentLogAppender#DEFAULT_BUFFER_SIZE}.
+	 *
+	 * @param logBufferSize
+	 *            New value for {@link #logBufferSize}.
+	 */
+	public void setLogBufferSize(int logBufferSize) {
+		this.logBufferSize = logBufferSize;
+	}
+
+	/**
+	 * Sets {@link #logOverflowPolicy}, which defines what happens with log events if the buffer is
+	 * full. Defaults to {@link ExperimentLogAppender.OverflowPolicy#DROP_OLDEST}.
+	 *
+	 * @param logOverflowPolicy
+	 *            New value for {@link #logOverflowPolicy}.
+	 */
+	public void setLogOverflowPolicy(ExperimentLogAppender.OverflowPolicy logOverflowPolicy) {
+		this.logOverflowPolicy = logOverflowPolicy;
+	}
+
+	/**
+	 * Enables writing a checkpoint after each finished action, which allows for
+	 * {@link #resume(Context) resuming} the experiment after a crash. A checkpoint consists of the
+	 * next element, the context, the loop counters and the content of the passed data holders. Only
+	 * serializable content is persisted.
+	 *
+	 * @param persistentData
+	 *            The data holders to be persisted. Identified by their order.
+	 */
+	public void enableCheckpoints(Collection<IDataHolder<?>> persistentData) {
+		this.checkpointing = true;
+		this.persistentData.clear();
+		this.persistentData.addAll(persistentData);
+	}
+
+	/**
+	 * Sets {@link #strictDataflow}. If {@code true}, the experiment is aborted before the first
+	 * action if the {@link #analyzeDataflow() data flow check} finds an error. Otherwise, the
+	 * findings are only logged. Defaults to {@code false}.
+	 *
+	 * @param strictDataflow
+	 *            New value for {@link #strictDataflow}
+	 */
+	public void setStrictDataflow(boolean strictDataflow) {
+		this.strictDataflow = strictDataflow;
+	}
+
+	/**
+	 * Gets {@link #strictDataflow}.
+	 *
+	 * @return {@link #strictDataflow}
+	 */
+	public boolean isStrictDataflow() {
+		return this.strictDataflow;
+	}
+
+	/**
+	 * Sets {@link #strictSequencing}. If {@code true}, all actions are executed strictly one after
+	 * the other. Otherwise, consecutive actions declaring
+	 * {@link org.continuity.experimentation.data.DataDependencies#parallelizable() parallelizable}
+	 * dependencies are executed concurrently as long as they do not access the same data holders.
+	 * The order of writes to each holder is kept. Defaults to {@code false}.
+	 *
+	 * @param strictSequencing
+	 *            New value for {@link #strictSequencing}
+	 */
+	public void setStrictSequencing(boolean strictSequencing) {
+		this.strictSequencing = strictSequencing;
+	}
+
+	/**
+	 * Gets {@link #strictSequencing}.
+	 *
+	 * @return {@link #strictSequencing}
+	 */
+	@Override
+	public boolean isStrictSequencing() {
+		return this.strictSequencing;
+	}
+
+	/**
+	 * Checks the data flow between the actions based on their declared dependencies (see
+	 * {@link IExperimentAction#getDataDependencies()}). The check is done before each execution,
+	 * too.
+	 *
+	 * @return The findings, e.g., data holders read before being written.
+	 * @see DataflowAnalysis
+	 */
+	public List<DataflowFinding> analyzeDataflow() {
+		return DataflowAnalysis.analyze(getFirst(), persistentData);
+	}
+
 	/**
 	 * Starts building a new experiment.
 	 *
@@ -83,18 +402,193 @@ public class Experiment extends AbstractExperimentExecutor implements Iterable<I
 		configureLogFile(context);
 		saveSummary(context);
 
-		super.execute(context);
+		executeAndNotify(getFirst(), getPlan().newFrame(), context);
+
+		context.remove(name);
+	}
+
+	/**
+	 * Resumes the experiment from the checkpoint in the latest result directory. The directory is
+	 * reused and the execution continues with the first unfinished element. If there is no
+	 * checkpoint, the experiment is executed from the beginning.
+	 *
+	 * @throws AbortException
+	 *             If the experiment has been aborted.
+	 */
+	public void resume() throws AbortException {
+		resume(new Context());
+	}
+
+	/**
+	 * Resumes the experiment from the checkpoint in the latest result directory. The directory is
+	 * reused and the execution continues with the first unfinished element. If there is no
+	 * checkpoint, the experiment is executed from the beginning.
+	 *
+	 * @param context
+	 *            The initial context. Has to be the same as for the interrupted execution.
+	 * @throws AbortException
+	 *             If the experiment has been aborted.
+	 */
+	public void resume(Context context) throws AbortException {
+		context.append(name);
+		Path checkpointPath = findLatestCheckpoint(context);
+
+		if (checkpointPath == null) {
+			LOGGER.warn("There is no checkpoint of experiment {}. Starting from the beginning.", name);
+			context.remove(name);
+			execute(context);
+			return;
+		}
+
+		IExperimentElement start;
+		ExecutionPlan.Frame frame = getPlan().newFrame();
+
+		try {
+			start = restore(Checkpoint.read(checkpointPath), frame, context);
+		} catch (IOException e) {
+			throw new AbortException(context, e);
+		}
+
+		configureLogFile(context);
+		LOGGER.info("Resuming experiment {} from {}. Continuing in context {}.", name, checkpointPath, context);
+
+		executeAndNotify(start, frame, context);
 
 		context.remove(name);
 	}
 
+	/**
+	 * Simulates the experiment using a virtual clock and stubs for external actions. The results are
+	 * stored in a {@code simulation} directory.
+	 *
+	 * @return A report of the simulation.
+	 * @see Simulation
+	 */
+	public SimulationReport simulate() {
+		return simulate(new Simulation());
+	}
+
+	/**
+	 * Simulates the experiment using a virtual clock and stubs for external actions. The results are
+	 * stored in a {@code simulation} directory.
+	 *
+	 * @param simulation
+	 *            The simulation defining the stubs.
+	 * @return A report of the simulation.
+	 */
+	public SimulationReport simulate(Simulation simulation) {
+		Context context = new Context();
+		context.append(SIMULATION_ROOT);
+		context.setSimulation(simulation);
+
+		AbortException abortException = null;
+
+		try {
+			execute(context);
+		} catch (AbortException e) {
+			abortException = e;
+		}
+
+		SimulationReport report = simulation.createReport(abortException);
+		LOGGER.info("Simulation of experiment {} finished. {}", name, report);
+
+		return report;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Void> executeAsync(Context context) {
+		context.append(name);
+
+		setUniqueRootSuffix(context);
+		configureLogFile(context);
+		saveSummary(context);
+
+		fireExperimentStarted(context);
+
+		CompletableFuture<Void> execution;
+
+		try {
+			checkDataflow(context);
+			execution = super.executeAsync(context);
+		} catch (AbortException e) {
+			execution = new CompletableFuture<>();
+			execution.completeExceptionally(e);
+		}
+
+		return execution.whenComplete((v, thrown) -> {
+			executionService.shutdown();
+
+			Throwable cause = (thrown instanceof CompletionException) ? thrown.getCause() : thrown;
+			fireExperimentFinished(context, (cause instanceof AbortException) ? (AbortException) cause : null);
+		}).thenRun(() -> context.remove(name));
+	}
+
+	/**
+	 * Updates the estimated end and writes a checkpoint if enabled.
+	 */
+	@Override
+	protected void onActionFinished(IExperimentElement finished, IExperimentElement next, ExecutionPlan.Frame frame, Context context) {
+		if (durationHistory != null) {
+			finishedMillis += durationHistory.estimateMillis(DurationHistory.normalize(context.toString()), finished.getAction());
+		}
+
+		if (checkpointing && (context.getSimulation() == null)) {
+			try {
+				createCheckpoint(next, frame, context).write(context.toPath().getName(0).resolve(CHECKPOINT_FILE));
+			} catch (IOException e) {
+				LOGGER.error("Could not write the checkpoint!", e);
+			}
+		}
+	}
+
+	/**
+	 * Estimates the duration of the experiment based on the {@link #durationHistory} of previous
+	 * executions.
+	 *
+	 * @return The estimated duration in milliseconds or 0 if there is no history.
+	 */
+	public double getEstimatedDuration() {
+		if (durationHistory == null) {
+			return 0;
+		}
+
+		return getFirst().estimateDuration(name, durationHistory);
+	}
+
+	/**
+	 * Estimates when the running experiment will be finished. The estimate is updated each time an
+	 * action of the outermost chain is finished. That is, the remaining duration is the estimated
+	 * duration minus the estimated durations of all finished actions.
+	 *
+	 * @return The estimated end or {@code null} if there is no estimate, because the experiment is
+	 *         not running or there is no history.
+	 */
+	public Date getEstimatedEnd() {
+		if (estimatedTotalMillis <= 0) {
+			return null;
+		}
+
+		long remainingMillis = (long) Math.max(0, estimatedTotalMillis - finishedMillis);
+		return new Date(System.currentTimeMillis() + remainingMillis);
+	}
+
 	/**
 	 * Gets the number of experiment actions to be executed.
 	 *
 	 * @return The number of actions.
 	 */
 	public double getNumberOfActions() {
-		return getFirst().count();
+		double number = numberOfActions;
+
+		if (number < 0) {
+			number = getFirst().count();
+			numberOfActions = number;
+		}
+
+		return number;
 	}
 
 	/**
@@ -104,17 +598,35 @@ public class Experiment extends AbstractExperimentExecutor implements Iterable<I
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
 
-		builder.append("Experiment \"");
-		builder.append(name);
-		builder.append("\" (~");
-		builder.append(DECIMAL_FORMAT.format(getNumberOfActions()));
-		builder.append(" steps):\n");
-		builder.append(getFirst().toString());
-		builder.append("END-EXPERIMENT");
+		try {
+			appendTo(builder);
+		} catch (IOException e) {
+			// cannot happen with a StringBuilder
+			throw new UncheckedIOException(e);
+		}
 
 		return builder.toString();
 	}
 
+	/**
+	 * Writes the string representation of the experiment (see {@link #toString()}) to an
+	 * {@link Appendable} without creating it in memory as a whole.
+	 *
+	 * @param out
+	 *            The appendable to write to, e.g., a {@link java.io.Writer Writer}.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	public void appendTo(Appendable out) throws IOException {
+		out.append("Experiment \"");
+		out.append(name);
+		out.append("\" (~");
+		out.append(DECIMAL_FORMAT.format(getNumberOfActions()));
+		out.append(" steps):\n");
+		IExperimentElement.appendChain(getFirst(), out, "");
+		out.append("END-EXPERIMENT");
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -123,6 +635,205 @@ public class Experiment extends AbstractExperimentExecutor implements Iterable<I
 		return new ExperimentIterator(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Spliterator<IExperimentElement> spliterator() {
+		return new ExperimentIterator(this);
+	}
+
+	/**
+	 * Streams over all elements of the experiment. Each element is returned once. The stream can
+	 * be made {@link Stream#parallel() parallel}.
+	 *
+	 * @return A stream of the elements.
+	 */
+	public Stream<IExperimentElement> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	private void executeAndNotify(IExperimentElement start, ExecutionPlan.Frame frame, Context context) throws AbortException {
+		fireExperimentStarted(context);
+		AbortException abortException = null;
+
+		try {
+			checkDataflow(context);
+			executeFrom(start, frame, context);
+		} catch (AbortException e) {
+			abortException = e;
+			throw e;
+		} finally {
+			executionService.shutdown();
+			fireExperimentFinished(context, abortException);
+		}
+	}
+
+	private void checkDataflow(Context context) throws AbortException {
+		List<DataflowFinding> findings = analyzeDataflow();
+		long errors = 0;
+
+		for (DataflowFinding finding : findings) {
+			if (finding.isError()) {
+				LOGGER.warn("Data flow: {}", finding);
+				errors++;
+			} else {
+				LOGGER.info("Data flow: {}", finding);
+			}
+		}
+
+		if (strictDataflow && (errors > 0)) {
+			throw new AbortException(context, "The data flow check found " + errors + " errors.");
+		}
+	}
+
+	private void fireExperimentStarted(Context context) {
+		finishedMillis = 0;
+		estimatedTotalMillis = getEstimatedDuration();
+
+		if (estimatedTotalMillis > 0) {
+			LOGGER.info("Experiment {} is estimated to take {} and to be finished at {}.", name, Duration.ofMillis((long) estimatedTotalMillis), getEstimatedEnd());
+		}
+
+		for (IExecutionListener listener : listeners) {
+			try {
+				listener.experimentStarted(this, context);
+			} catch (RuntimeException e) {
+				LOGGER.warn("Listener " + listener + " threw an exception. Ignoring.", e);
+			}
+		}
+	}
+
+	private void fireExperimentFinished(Context context, AbortException abortException) {
+		estimatedTotalMillis = 0;
+
+		for (IExecutionListener listener : listeners) {
+			try {
+				listener.experimentFinished(this, context, abortException);
+			} catch (RuntimeException e) {
+				LOGGER.warn("Listener " + listener + " threw an exception. Ignoring.", e);
+			}
+		}
+
+		closeLogFile();
+	}
+
+	private synchronized void indexElements() {
+		if (elementIndices == null) {
+			elements = new ArrayList<>();
+			elementIndices = new IdentityHashMap<>();
+
+			for (IExperimentElement element : this) {
+				if (!elementIndices.containsKey(element)) {
+					elementIndices.put(element, elements.size());
+					elements.add(element);
+				}
+			}
+		}
+	}
+
+	private int indexOf(IExperimentElement element) {
+		indexElements();
+
+		Integer index = (element == null) ? null : elementIndices.get(element);
+		return (index == null) ? Checkpoint.NO_ELEMENT : index;
+	}
+
+	private IExperimentElement elementAt(int index) {
+		indexElements();
+
+		return (index == Checkpoint.NO_ELEMENT) ? null : elements.get(index);
+	}
+
+	private Checkpoint createCheckpoint(IExperimentElement next, ExecutionPlan.Frame frame, Context context) {
+		indexElements();
+
+		List<Integer> contextElements = context.getElements().stream().map(this::indexOf).collect(Collectors.toList());
+		Map<Integer, Integer> loopIterations = new HashMap<>();
+
+		for (int i = 0; i < elements.size(); i++) {
+			if (elements.get(i) instanceof LoopElement) {
+				loopIterations.put(i, frame.getIteration((LoopElement) elements.get(i)));
+			}
+		}
+
+		Map<Integer, Serializable> data = new HashMap<>();
+		Set<Integer> unsetData = new HashSet<>();
+
+		for (int i = 0; i < persistentData.size(); i++) {
+			IDataHolder<?> holder = persistentData.get(i);
+
+			if (holder.isNotSet()) {
+				unsetData.add(i);
+				continue;
+			}
+
+			try {
+				Object value = holder.get();
+
+				if ((value == null) || (value instanceof Serializable)) {
+					data.put(i, (Serializable) value);
+				} else {
+					LOGGER.debug("Cannot persist the content of {}, since it is not serializable.", holder);
+				}
+			} catch (AbortInnerException e) {
+				unsetData.add(i);
+			}
+		}
+
+		return new Checkpoint(elements.size(), indexOf(next), context.getRootSuffix(), context.getLabels(), contextElements, loopIterations, data, unsetData);
+	}
+
+	@SuppressWarnings("unchecked")
+	private IExperimentElement restore(Checkpoint checkpoint, ExecutionPlan.Frame frame, Context context) {
+		indexElements();
+
+		if (checkpoint.getNumElements() != elements.size()) {
+			throw new IllegalStateException("The checkpoint has been created by a different experiment! Expected " + elements.size() + " elements, but got " + checkpoint.getNumElements() + ".");
+		}
+
+		for (Map.Entry<Integer, Integer> entry : checkpoint.getLoopIterations().entrySet()) {
+			frame.setIteration((LoopElement) elements.get(entry.getKey()), entry.getValue());
+		}
+
+		for (Map.Entry<Integer, Serializable> entry : checkpoint.getData().entrySet()) {
+			if (entry.getKey() < persistentData.size()) {
+				((IDataHolder<Object>) persistentData.get(entry.getKey())).set(entry.getValue());
+			}
+		}
+
+		for (Integer index : checkpoint.getUnsetData()) {
+			if (index < persistentData.size()) {
+				persistentData.get(index).invalidate();
+			}
+		}
+
+		context.restore(checkpoint.getContextLabels(), checkpoint.getContextElements().stream().map(this::elementAt).collect(Collectors.toList()));
+		context.setRootSuffix(checkpoint.getRootSuffix());
+
+		IExperimentElement next = elementAt(checkpoint.getNextElement());
+		return (next == null) ? IExperimentElement.END : next;
+	}
+
+	private Path findLatestCheckpoint(Context context) {
+		Path root = context.toPath().getName(0);
+		Path candidate = root;
+		Path latest = null;
+		int i = 2;
+
+		while (candidate.toFile().exists()) {
+			Path checkpoint = candidate.resolve(CHECKPOINT_FILE);
+
+			if (checkpoint.toFile().exists()) {
+				latest = checkpoint;
+			}
+
+			candidate = Paths.get(root + "#" + i++);
+		}
+
+		return latest;
+	}
+
 	private void setUniqueRootSuffix(Context context) {
 		Path root = context.toPath().getName(0);
 		Path newRoot = root;
@@ -138,12 +849,16 @@ public class Experiment extends AbstractExperimentExecutor implements Iterable<I
 		context.setRootSuffix(suffix);
 	}
 
-	private void configureLogFile(Context context) {
+	private synchronized void configureLogFile(Context context) {
+		closeLogFile();
+
 		LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
-		FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+		ExperimentLogAppender fileAppender = new ExperimentLogAppender();
 		fileAppender.setContext(loggerContext);
 		fileAppender.setName("FILE");
 		fileAppender.setFile(context.toPath().getName(0).resolve("experiment.log").toString());
+		fileAppender.setBufferSize(logBufferSize);
+		fileAppender.setOverflowPolicy(logOverflowPolicy);
 
 		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
 		encoder.setContext(loggerContext);
@@ -154,12 +869,28 @@ public class Experiment extends AbstractExperimentExecutor implements Iterable<I
 		fileAppender.start();
 
 		loggerContext.getLogger("ROOT").addAppender(fileAppender);
+		logAppender = fileAppender;
+	}
+
+	private synchronized void closeLogFile() {
+		if (logAppender != null) {
+			LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+			loggerContext.getLogger("ROOT").detachAppender(logAppender);
+			logAppender.stop();
+
+			if (logAppender.getDroppedEvents() > 0) {
+				LOGGER.warn("{} log events have been dropped, because the log buffer was full.", logAppender.getDroppedEvents());
+			}
+
+			logAppender = null;
+		}
 	}
 
 	private void saveSummary(Context context) {
 		Path path = context.toPath().getName(0).resolve("experiment.summary");
-		try {
-			Files.write(path, Collections.singleton(toString()), StandardOpenOption.CREATE);
+		try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			appendTo(writer);
+			writer.write(System.lineSeparator());
 		} catch (IOException e) {
 			LOGGER.error("Could not save experiment summary!", e);
 		}
@@ -0,0 +1,393 @@
+package org.continuity.experimentation;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Experiment-wide service for executing concurrent parts of an experiment. All concurrent elements
+ * of an experiment share one instance. At most {@link #getMaxParallelism()} tasks are executed by
+ * the pool at the same time. If there is no free slot, a task is executed by the submitting thread.
+ * Hence, nested concurrent elements cannot deadlock when the pool is saturated. <br>
+ *
+ * Blocking tasks (see {@link #supplyBlocking(String, Callable)}) and the completions of delays
+ * are limited separately to {@link #getMaxParallelism()} tasks at the same time. Hence, these
+ * tasks never use more than twice the maximum parallelism of threads. Tasks with a timeout (see
+ * {@link #supplyTimed(String, Callable)}) are not limited, since they must never be executed by
+ * the waiting thread. <br>
+ *
+ * Alternatively, tasks can be executed on virtual threads, which are not bound by the maximum
+ * parallelism. On JVMs not supporting virtual threads, a new platform thread is started instead.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class ExperimentExecutionService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExperimentExecutionService.class);
+
+	/**
+	 * Default maximum number of tasks executed in parallel.
+	 */
+	public static final int DEFAULT_MAX_PARALLELISM = 64;
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private static final long DISPATCH_RETRY_MILLIS = 10;
+
+	private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+
+	private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "experiment-timer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static ExperimentExecutionService defaultInstance;
+
+	private final String name;
+
+	private final int maxParallelism;
+
+	private final Semaphore permits;
+
+	private final Semaphore blockingPermits;
+
+	private final AtomicInteger threadCounter = new AtomicInteger(1);
+
+	private ThreadPoolExecutor pool;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name
+	 *            The name of the experiment. Will be used for naming the threads.
+	 * @param maxParallelism
+	 *            The maximum number of tasks to be executed in parallel.
+	 */
+	public ExperimentExecutionService(String name, int maxParallelism) {
+		if (maxParallelism < 1) {
+			throw new IllegalArgumentException("The maximum parallelism has to be at least 1, but was " + maxParallelism + "!");
+		}
+
+		this.name = name;
+		this.maxParallelism = maxParallelism;
+		this.permits = new Semaphore(maxParallelism);
+		this.blockingPermits = new Semaphore(maxParallelism);
+	}
+
+	/**
+	 * Constructor using the {@link #DEFAULT_MAX_PARALLELISM}.
+	 *
+	 * @param name
+	 *            The name of the experiment. Will be used for naming the threads.
+	 */
+	public ExperimentExecutionService(String name) {
+		this(name, DEFAULT_MAX_PARALLELISM);
+	}
+
+	/**
+	 * Gets a service to be used by elements that are not part of an {@link Experiment}.
+	 *
+	 * @return The default service.
+	 */
+	public static synchronized ExperimentExecutionService getDefault() {
+		if (defaultInstance == null) {
+			defaultInstance = new ExperimentExecutionService("experiment");
+		}
+
+		return defaultInstance;
+	}
+
+	/**
+	 * Gets {@link #maxParallelism}.
+	 *
+	 * @return {@link #maxParallelism}
+	 */
+	public int getMaxParallelism() {
+		return this.maxParallelism;
+	}
+
+	/**
+	 * Submits a task. It will be executed by the pool if there is a free slot or by the calling
+	 * thread otherwise.
+	 *
+	 * @param threadName
+	 *            The name of the executing thread during the execution, e.g., the context.
+	 * @param task
+	 *            The task to be executed.
+	 * @return A future holding the result.
+	 */
+	public <T> Future<T> submit(String threadName, Callable<T> task) {
+		if (!permits.tryAcquire()) {
+			LOGGER.debug("All {} slots are in use. Executing {} in the calling thread.", maxParallelism, threadName);
+			return executeInline(threadName, task);
+		}
+
+		try {
+			return getPool().submit(() -> {
+				try {
+					return callNamed(threadName, task);
+				} finally {
+					permits.release();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Executes a task on a new virtual thread. If virtual threads are not supported by the JVM, a
+	 * new platform thread is used. The maximum parallelism does not apply.
+	 *
+	 * @param threadName
+	 *            The name of the executing thread, e.g., the context.
+	 * @param task
+	 *            The task to be executed.
+	 * @return A future holding the result.
+	 */
+	public <T> Future<T> submitVirtual(String threadName, Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		Thread thread;
+
+		if (VIRTUAL_THREAD_FACTORY != null) {
+			thread = VIRTUAL_THREAD_FACTORY.newThread(future);
+		} else {
+			thread = new Thread(future);
+			thread.setDaemon(true);
+		}
+
+		thread.setName(threadName);
+		thread.start();
+
+		return future;
+	}
+
+	/**
+	 * Executes a blocking task asynchronously by the pool. At most {@link #getMaxParallelism()}
+	 * blocking tasks are executed by the pool at the same time. If there is no free slot, the task
+	 * is executed by the calling thread and the returned future is already completed. Cancelling
+	 * the returned future with {@code mayInterruptIfRunning} interrupts the executing thread.
+	 *
+	 * @param threadName
+	 *            The name of the executing thread during the execution, e.g., the context.
+	 * @param task
+	 *            The task to be executed.
+	 * @return A future holding the result or the thrown exception.
+	 */
+	public <T> CompletableFuture<T> supplyBlocking(String threadName, Callable<T> task) {
+		AtomicReference<Thread> runner = new AtomicReference<>();
+		CompletableFuture<T> future = newInterruptibleFuture(runner);
+
+		if (!blockingPermits.tryAcquire()) {
+			LOGGER.debug("All {} blocking slots are in use. Executing {} in the calling thread.", maxParallelism, threadName);
+
+			try {
+				future.complete(callNamed(threadName, task));
+			} catch (Exception e) {
+				future.completeExceptionally(e);
+			}
+
+			return future;
+		}
+
+		executeAndRelease(() -> complete(future, runner, threadName, task));
+
+		return future;
+	}
+
+	/**
+	 * Executes a blocking task that is waited for with a timeout. In contrast to
+	 * {@link #supplyBlocking(String, Callable)}, the task is always executed by the pool and does
+	 * not take one of the blocking slots. Hence, the caller can always stop waiting after the
+	 * timeout, and tasks ignoring the interruption do not hold back other tasks. Cancelling the
+	 * returned future with {@code mayInterruptIfRunning} interrupts the executing thread.
+	 *
+	 * @param threadName
+	 *            The name of the executing thread during the execution, e.g., the context.
+	 * @param task
+	 *            The task to be executed.
+	 * @return A future holding the result or the thrown exception.
+	 */
+	public <T> CompletableFuture<T> supplyTimed(String threadName, Callable<T> task) {
+		AtomicReference<Thread> runner = new AtomicReference<>();
+		CompletableFuture<T> future = newInterruptibleFuture(runner);
+		getPool().execute(() -> complete(future, runner, threadName, task));
+		return future;
+	}
+
+	/**
+	 * Creates a future that interrupts the thread held by the runner when cancelled.
+	 */
+	private static <T> CompletableFuture<T> newInterruptibleFuture(AtomicReference<Thread> runner) {
+		return new CompletableFuture<T>() {
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+				if (cancelled && mayInterruptIfRunning) {
+					synchronized (runner) {
+						Thread thread = runner.get();
+
+						if (thread != null) {
+							thread.interrupt();
+						}
+					}
+				}
+
+				return cancelled;
+			}
+		};
+	}
+
+	private static <T> void complete(CompletableFuture<T> future, AtomicReference<Thread> runner, String threadName, Callable<T> task) {
+		if (future.isDone()) {
+			return;
+		}
+
+		runner.set(Thread.currentThread());
+
+		try {
+			future.complete(callNamed(threadName, task));
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+		} finally {
+			synchronized (runner) {
+				runner.set(null);
+				// do not pass an interrupt caused by cancelling to the next task
+				Thread.interrupted();
+			}
+		}
+	}
+
+	/**
+	 * Returns a future that is completed after the specified time without blocking a thread in the
+	 * meantime. Dependent stages are executed by the pool, sharing the slots with the blocking
+	 * tasks. If there is no free slot, the completion is retried shortly after.
+	 *
+	 * @param millis
+	 *            The delay in milliseconds.
+	 * @return A future that is completed after the delay.
+	 */
+	public CompletableFuture<Void> delay(long millis) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		TIMER.schedule(() -> dispatch(() -> future.complete(null)), millis, TimeUnit.MILLISECONDS);
+		return future;
+	}
+
+	private void dispatch(Runnable completion) {
+		if (blockingPermits.tryAcquire()) {
+			executeAndRelease(completion);
+		} else {
+			TIMER.schedule(() -> dispatch(completion), DISPATCH_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Executes a task by the pool and releases a blocking slot afterwards, which has to be acquired
+	 * before.
+	 */
+	private void executeAndRelease(Runnable task) {
+		try {
+			getPool().execute(() -> {
+				try {
+					task.run();
+				} finally {
+					blockingPermits.release();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			blockingPermits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns whether the JVM supports virtual threads.
+	 *
+	 * @return {@code true} if {@link #submitVirtual(String, Callable)} uses virtual threads.
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return VIRTUAL_THREAD_FACTORY != null;
+	}
+
+	/**
+	 * Executes a task in the calling thread.
+	 *
+	 * @param threadName
+	 *            The name of the executing thread during the execution, e.g., the context.
+	 * @param task
+	 *            The task to be executed.
+	 * @return A completed future holding the result.
+	 */
+	public <T> Future<T> executeInline(String threadName, Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(() -> callNamed(threadName, task));
+		future.run();
+		return future;
+	}
+
+	/**
+	 * Shuts down the pool. Subsequent submissions will start a new one.
+	 */
+	public synchronized void shutdown() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	private synchronized ExecutorService getPool() {
+		if (pool == null) {
+			pool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(), this::newThread);
+		}
+
+		return pool;
+	}
+
+	private Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, name + "-worker-" + threadCounter.getAndIncrement());
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	private static ThreadFactory createVirtualThreadFactory() {
+		try {
+			// Thread.ofVirtual().factory() is only available since Java 21
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			LOGGER.debug("Virtual threads are not supported by this JVM. Will use platform threads instead.");
+			return null;
+		}
+	}
+
+	private static <T> T callNamed(String threadName, Callable<T> task) throws Exception {
+		Thread thread = Thread.currentThread();
+		String originalName = thread.getName();
+		thread.setName(threadName);
+
+		try {
+			return task.call();
+		} finally {
+			thread.setName(originalName);
+		}
+	}
+
+}
@@ -1,26 +1,58 @@
 package org.continuity.experimentation;
 
-import java.util.Collection;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 /**
  * Iterates over all elements of an experiment. The order can be various and is not necessarily
- * correlated with the order of the experiment execution.
+ * correlated with the order of the experiment execution. <br>
+ *
+ * The elements are traversed lazily, breadth first, using {@link IExperimentElement#iterateToNext()}.
+ * Each element is returned exactly once, even if it can be reached via several paths, e.g., the
+ * successor of a branch. As a {@link Spliterator}, the iterator can be split for processing the
+ * elements in parallel. Then, the split iterators share the elements already visited.
  *
  * @author Henning Schulz
  *
  */
-public class ExperimentIterator implements Iterator<IExperimentElement> {
+public class ExperimentIterator implements Iterator<IExperimentElement>, Spliterator<IExperimentElement> {
+
+	private static final int MAX_EXPANSIONS_PER_SPLIT = 64;
+
+	private final Deque<IExperimentElement> expanded = new ArrayDeque<>();
+
+	private final Deque<IExperimentElement> pending;
 
-	private Collection<IExperimentElement> current;
+	private Set<IExperimentElement> visited;
 
-	private Iterator<IExperimentElement> iterator;
+	private boolean shared;
 
 	public ExperimentIterator(Experiment experiment) {
-		this.current = Collections.singleton(experiment.getFirst());
-		this.iterator = current.iterator();
+		this(experiment.getFirst());
+	}
+
+	public ExperimentIterator(IExperimentElement first) {
+		this.pending = new ArrayDeque<>();
+		this.visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		this.shared = false;
+
+		if (first != null) {
+			pending.add(first);
+			visited.add(first);
+		}
+	}
+
+	private ExperimentIterator(Deque<IExperimentElement> pending, Set<IExperimentElement> visited) {
+		this.pending = pending;
+		this.visited = visited;
+		this.shared = true;
 	}
 
 	/**
@@ -28,24 +60,111 @@ public class ExperimentIterator implements Iterator<IExperimentElement> {
 	 */
 	@Override
 	public boolean hasNext() {
-		if (!iterator.hasNext()) {
-			refreshCurrent();
+		return !expanded.isEmpty() || !pending.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IExperimentElement next() {
+		if (!expanded.isEmpty()) {
+			return expanded.poll();
+		}
+
+		IExperimentElement element = pending.poll();
+
+		if (element == null) {
+			throw new NoSuchElementException();
 		}
 
-		return iterator.hasNext();
+		return expand(element);
+	}
+
+	/**
+	 * Adds the successors that have not been visited, yet, to the pending elements.
+	 */
+	private IExperimentElement expand(IExperimentElement element) {
+		for (IExperimentElement successor : element.iterateToNext()) {
+			if ((successor != null) && visited.add(successor)) {
+				pending.add(successor);
+			}
+		}
+
+		return element;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public IExperimentElement next() {
-		return iterator.next();
+	public boolean tryAdvance(Consumer<? super IExperimentElement> action) {
+		if (!hasNext()) {
+			return false;
+		}
+
+		action.accept(next());
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super IExperimentElement> action) {
+		while (hasNext()) {
+			action.accept(next());
+		}
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * Hands over half of the elements to be visited next. If there are less than two, the
+	 * traversal is advanced until there are more. Returns {@code null} if that does not succeed.
+	 */
+	@Override
+	public Spliterator<IExperimentElement> trySplit() {
+		for (int i = 0; (pending.size() == 1) && (i < MAX_EXPANSIONS_PER_SPLIT); i++) {
+			expanded.add(expand(pending.poll()));
+		}
+
+		int half = pending.size() / 2;
+
+		if (half == 0) {
+			return null;
+		}
+
+		if (!shared) {
+			visited = Collections.synchronizedSet(visited);
+			shared = true;
+		}
+
+		Deque<IExperimentElement> split = new ArrayDeque<>(half);
+
+		for (int i = 0; i < half; i++) {
+			split.add(pending.pollLast());
+		}
+
+		return new ExperimentIterator(split, visited);
 	}
 
-	private void refreshCurrent() {
-		current = current.stream().map(IExperimentElement::iterateToNext).flatMap(Collection::stream).collect(Collectors.toList());
-		iterator = current.iterator();
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * The number of elements is not known in advance.
+	 */
+	@Override
+	public long estimateSize() {
+		return pending.isEmpty() ? expanded.size() : Long.MAX_VALUE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int characteristics() {
+		return DISTINCT | NONNULL;
 	}
 
 }
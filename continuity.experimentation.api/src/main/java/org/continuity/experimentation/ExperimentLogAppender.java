@@ -0,0 +1,323 @@
+package org.continuity.experimentation;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+
+/**
+ * Appender writing the {@code experiment.log} asynchronously. Logging threads only put the events
+ * into a bounded buffer. A single writer thread takes all buffered events at once, writes them and
+ * flushes the file once per batch. If the buffer is full, events below {@link Level#WARN} are
+ * handled according to the {@link OverflowPolicy}. Warnings and errors are always buffered, blocking
+ * if necessary.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class ExperimentLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+	/**
+	 * Default capacity of the buffer.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private static final long WRITER_STOP_TIMEOUT_MILLIS = 5000;
+
+	private String file;
+
+	private Encoder<ILoggingEvent> encoder;
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+	private BlockingQueue<ILoggingEvent> buffer;
+
+	private Thread writer;
+
+	private OutputStream out;
+
+	private volatile boolean running = false;
+
+	private final AtomicLong droppedEvents = new AtomicLong();
+
+	/**
+	 * Sets the file to be written.
+	 *
+	 * @param file
+	 *            The path of the file.
+	 */
+	public void setFile(String file) {
+		this.file = file;
+	}
+
+	/**
+	 * Sets the encoder formatting the events.
+	 *
+	 * @param encoder
+	 *            The encoder.
+	 */
+	public void setEncoder(Encoder<ILoggingEvent> encoder) {
+		this.encoder = encoder;
+	}
+
+	/**
+	 * Sets the capacity of the buffer. Defaults to {@link #DEFAULT_BUFFER_SIZE}.
+	 *
+	 * @param bufferSize
+	 *            The maximum number of buffered events.
+	 */
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Sets the policy to be applied if the buffer is full. Defaults to
+	 * {@link OverflowPolicy#DROP_OLDEST}.
+	 *
+	 * @param overflowPolicy
+	 *            The policy.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Gets the number of events that have been dropped, because the buffer was full.
+	 *
+	 * @return The number of dropped events.
+	 */
+	public long getDroppedEvents() {
+		return droppedEvents.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void start() {
+		if ((file == null) || (encoder == null)) {
+			addError("No file or encoder set for the appender named [" + name + "].");
+			return;
+		}
+
+		if (bufferSize < 1) {
+			addError("Invalid buffer size " + bufferSize + " for the appender named [" + name + "].");
+			return;
+		}
+
+		try {
+			File logFile = new File(file);
+
+			if (logFile.getParentFile() != null) {
+				logFile.getParentFile().mkdirs();
+			}
+
+			out = new BufferedOutputStream(new FileOutputStream(logFile, true));
+			writeBytes(encoder.headerBytes());
+		} catch (IOException e) {
+			addError("Could not open the log file " + file + ".", e);
+			return;
+		}
+
+		buffer = new ArrayBlockingQueue<>(bufferSize);
+		running = true;
+
+		writer = new Thread(this::writeBatches, "experiment-log-writer");
+		writer.setDaemon(true);
+		writer.start();
+
+		super.start();
+	}
+
+	/**
+	 * Stops the writer thread, which writes all buffered events and closes the file. Waits for
+	 * the writer at most {@link #WRITER_STOP_TIMEOUT_MILLIS}. If it takes longer, the file is
+	 * closed as soon as the writer has finished.
+	 */
+	@Override
+	public void stop() {
+		if (!isStarted()) {
+			return;
+		}
+
+		super.stop();
+		running = false;
+		writer.interrupt();
+
+		try {
+			writer.join(WRITER_STOP_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (writer.isAlive()) {
+			addWarn("The writer of the log file " + file + " did not stop within " + WRITER_STOP_TIMEOUT_MILLIS + " ms. It will close the file when it has finished.");
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void append(ILoggingEvent event) {
+		if (!running) {
+			return;
+		}
+
+		event.prepareForDeferredProcessing();
+
+		try {
+			if (event.getLevel().isGreaterOrEqual(Level.WARN) || (overflowPolicy == OverflowPolicy.BLOCK)) {
+				buffer.put(event);
+			} else if (!buffer.offer(event)) {
+				if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+					while (!buffer.offer(event)) {
+						if (!dropOldestBelowWarn()) {
+							droppedEvents.incrementAndGet();
+							break;
+						}
+					}
+				} else {
+					droppedEvents.incrementAndGet();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void writeBatches() {
+		List<ILoggingEvent> batch = new ArrayList<>();
+
+		while (running) {
+			try {
+				ILoggingEvent first = buffer.poll(1, TimeUnit.SECONDS);
+
+				if (first == null) {
+					continue;
+				}
+
+				batch.add(first);
+			} catch (InterruptedException e) {
+				break;
+			}
+
+			buffer.drainTo(batch);
+
+			try {
+				writeBatch(batch);
+			} catch (IOException e) {
+				addError("Could not write to the log file " + file + ".", e);
+			}
+
+			batch.clear();
+		}
+
+		closeFile();
+	}
+
+	/**
+	 * Removes the oldest buffered event below {@link Level#WARN}.
+	 *
+	 * @return {@code false} if there is no such event.
+	 */
+	private boolean dropOldestBelowWarn() {
+		for (ILoggingEvent buffered : buffer) {
+			if (!buffered.getLevel().isGreaterOrEqual(Level.WARN)) {
+				if (buffer.remove(buffered)) {
+					droppedEvents.incrementAndGet();
+				}
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Writes the remaining events and closes the file. Only called by the writer thread, which is
+	 * the only one accessing the file.
+	 */
+	private void closeFile() {
+		List<ILoggingEvent> remaining = new ArrayList<>();
+		buffer.drainTo(remaining);
+
+		try {
+			writeBatch(remaining);
+			writeDropped();
+			writeBytes(encoder.footerBytes());
+			out.close();
+		} catch (IOException e) {
+			addError("Could not close the log file " + file + ".", e);
+		}
+	}
+
+	private void writeBatch(List<ILoggingEvent> batch) throws IOException {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		for (ILoggingEvent event : batch) {
+			writeBytes(encoder.encode(event));
+		}
+
+		out.flush();
+	}
+
+	private void writeDropped() throws IOException {
+		long dropped = droppedEvents.get();
+
+		if (dropped > 0) {
+			writeBytes(("[" + dropped + " log events below WARN have been dropped because the log buffer was full.]" + System.lineSeparator()).getBytes());
+		}
+	}
+
+	private void writeBytes(byte[] bytes) throws IOException {
+		if ((bytes != null) && (bytes.length > 0)) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Defines what happens with events below {@link Level#WARN} if the buffer is full.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	public static enum OverflowPolicy {
+
+		/**
+		 * Wait until there is free space. No event is lost, but logging threads can be slowed
+		 * down by the file I/O.
+		 */
+		BLOCK,
+
+		/**
+		 * Drop the event to be logged.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Drop the oldest buffered event below {@link Level#WARN} in favor of the event to be
+		 * logged. If all buffered events are warnings or errors, the event to be logged is dropped.
+		 */
+		DROP_OLDEST;
+
+	}
+
+}
@@ -0,0 +1,49 @@
+package org.continuity.experimentation;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+
+/**
+ * Experiment action that can be executed without blocking the calling thread. Used by
+ * {@link AbstractExperimentExecutor#executeAsync(Context)}. When executed by a blocking executor,
+ * the calling thread waits for the returned stage.
+ *
+ * @author Henning Schulz
+ *
+ */
+public interface IAsyncExperimentAction extends IExperimentAction {
+
+	/**
+	 * Starts executing the experiment action.
+	 *
+	 * @param context
+	 *            The current context.
+	 * @return A stage that is completed when the action is done. It is completed exceptionally
+	 *         with an {@link AbortInnerException} if the inner element (loop, concurrent) should be
+	 *         aborted or with an {@link AbortException} if the whole experiment should be aborted.
+	 */
+	CompletionStage<Void> executeAsync(Context context);
+
+	/**
+	 * Executes the action and waits for it to be finished.
+	 *
+	 * @param context
+	 *            The current context.
+	 */
+	@Override
+	default void execute(Context context) throws AbortInnerException, AbortException, Exception {
+		try {
+			executeAsync(context).toCompletableFuture().get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+
+			throw (Exception) e.getCause();
+		}
+	}
+
+}
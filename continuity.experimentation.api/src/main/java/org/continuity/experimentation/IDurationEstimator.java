@@ -0,0 +1,23 @@
+package org.continuity.experimentation;
+
+/**
+ * Estimates the duration of single actions.
+ *
+ * @author Henning Schulz
+ *
+ */
+@FunctionalInterface
+public interface IDurationEstimator {
+
+	/**
+	 * Estimates the duration of an action.
+	 *
+	 * @param context
+	 *            The normalized context of the action (see {@link DurationHistory#normalize(String)}).
+	 * @param action
+	 *            The action.
+	 * @return The estimated duration in milliseconds.
+	 */
+	double estimateMillis(String context, IExperimentAction action);
+
+}
@@ -0,0 +1,65 @@
+package org.continuity.experimentation;
+
+import org.continuity.experimentation.exception.AbortException;
+
+/**
+ * Listener to be notified about the progress of an {@link Experiment}. Is notified about the
+ * actions of all threads. Hence, implementations need to be thread-safe.
+ *
+ * @author Henning Schulz
+ *
+ */
+public interface IExecutionListener {
+
+	/**
+	 * Called when the experiment is started or resumed.
+	 *
+	 * @param experiment
+	 *            The experiment.
+	 * @param context
+	 *            The context of the experiment.
+	 */
+	default void experimentStarted(Experiment experiment, Context context) {
+	}
+
+	/**
+	 * Called when the experiment has been finished or aborted.
+	 *
+	 * @param experiment
+	 *            The experiment.
+	 * @param context
+	 *            The context of the experiment.
+	 * @param abortException
+	 *            The exception that aborted the experiment or {@code null} if it finished
+	 *            regularly.
+	 */
+	default void experimentFinished(Experiment experiment, Context context, AbortException abortException) {
+	}
+
+	/**
+	 * Called before an action is executed.
+	 *
+	 * @param action
+	 *            The action.
+	 * @param context
+	 *            The current context.
+	 */
+	default void actionStarted(IExperimentAction action, Context context) {
+	}
+
+	/**
+	 * Called after an action has been executed.
+	 *
+	 * @param action
+	 *            The action.
+	 * @param context
+	 *            The current context.
+	 * @param metrics
+	 *            The resources consumed by the execution.
+	 * @param thrown
+	 *            The exception thrown by the action or {@code null} if there was none.
+	 */
+	default void actionFinished(IExperimentAction action, Context context, ActionMetrics metrics, Exception thrown) {
+	}
+
+}
@@ -1,5 +1,6 @@
 package org.continuity.experimentation;
 
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
 
@@ -25,6 +26,38 @@ public interface IExperimentAction {
 	 */
 	void execute(Context context) throws AbortInnerException, AbortException, Exception;
 
+	/**
+	 * Returns whether the action accesses external systems, e.g., via REST. External actions are
+	 * not executed in a {@link org.continuity.experimentation.simulation.Simulation Simulation}.
+	 *
+	 * @return {@code true} if the action is external. {@code false} by default.
+	 */
+	default boolean isExternal() {
+		return false;
+	}
+
+	/**
+	 * Gets the total number of retries, e.g., of failed requests, this action has performed so
+	 * far. Used for calculating the retries per execution (see {@link ActionMetrics#getRetries()}).
+	 *
+	 * @return The number of retries. 0 by default.
+	 */
+	default long getRetries() {
+		return 0;
+	}
+
+	/**
+	 * Gets the data holders this action reads, writes and invalidates. They are used for checking
+	 * the data flow of an experiment before it is executed (see
+	 * {@link org.continuity.experimentation.dataflow.DataflowAnalysis DataflowAnalysis}). Actions
+	 * accessing data holders should override this method.
+	 *
+	 * @return The dependencies. {@link DataDependencies#UNKNOWN} by default.
+	 */
+	default DataDependencies getDataDependencies() {
+		return DataDependencies.UNKNOWN;
+	}
+
 	/**
 	 * To be called by the experiment builder after the experiment has been created.
 	 *
@@ -0,0 +1,69 @@
+package org.continuity.experimentation;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of time for experiment actions. Actions should use the clock of the {@link Context}
+ * instead of {@link System#currentTimeMillis()} and {@link Thread#sleep(long)}, so that they can be
+ * simulated.
+ *
+ * @author Henning Schulz
+ *
+ */
+public interface IExperimentClock {
+
+	/**
+	 * The real system clock.
+	 */
+	public static final IExperimentClock SYSTEM = new IExperimentClock() {
+
+		@Override
+		public long currentTimeMillis() {
+			return System.currentTimeMillis();
+		}
+
+		@Override
+		public void sleep(long millis) throws InterruptedException {
+			Thread.sleep(millis);
+		}
+
+		@Override
+		public CompletableFuture<Void> delay(long millis, ExperimentExecutionService executionService) {
+			return executionService.delay(millis);
+		}
+
+		@Override
+		public String toString() {
+			return "SYSTEM";
+		}
+	};
+
+	/**
+	 * Gets the current time.
+	 *
+	 * @return The current time in milliseconds since 1970-01-01T00:00:00Z.
+	 */
+	long currentTimeMillis();
+
+	/**
+	 * Blocks the calling thread for the specified time.
+	 *
+	 * @param millis
+	 *            The time to sleep in milliseconds.
+	 * @throws InterruptedException
+	 *             If the thread has been interrupted while sleeping.
+	 */
+	void sleep(long millis) throws InterruptedException;
+
+	/**
+	 * Returns a future that is completed after the specified time without blocking a thread.
+	 *
+	 * @param millis
+	 *            The delay in milliseconds.
+	 * @param executionService
+	 *            The service to be used for waiting.
+	 * @return A future that is completed after the delay.
+	 */
+	CompletableFuture<Void> delay(long millis, ExperimentExecutionService executionService);
+
+}
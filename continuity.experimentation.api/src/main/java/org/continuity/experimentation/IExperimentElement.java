@@ -1,5 +1,7 @@
 package org.continuity.experimentation;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -44,6 +46,11 @@ public interface IExperimentElement {
 			return 0;
 		}
 
+		@Override
+		public double estimateDuration(String context, IDurationEstimator estimator) {
+			return 0;
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
@@ -106,6 +113,19 @@ public interface IExperimentElement {
 		return null;
 	}
 
+	/**
+	 * Gets the maximum time the hold action may take. If it takes longer, it is interrupted and
+	 * treated as if it threw an {@link org.continuity.experimentation.exception.AbortInnerException
+	 * AbortInnerException}.
+	 *
+	 * @return The timeout in milliseconds, 0 for using the default of the experiment or a negative
+	 *         value for no timeout. Negative by default, since composed elements such as concurrent
+	 *         threads are not to be interrupted as a whole.
+	 */
+	default long getActionTimeoutMillis() {
+		return -1;
+	}
+
 	/**
 	 * Gets the next experiment element.
 	 *
@@ -131,6 +151,19 @@ public interface IExperimentElement {
 	 */
 	double count();
 
+	/**
+	 * Estimates the duration of this element and the subsequent ones. Works like {@link #count()},
+	 * but weights each action with its estimated duration and respects concurrency.
+	 *
+	 * @param context
+	 *            The normalized context of this element (see
+	 *            {@link DurationHistory#normalize(String)}).
+	 * @param estimator
+	 *            Estimates the duration of single actions.
+	 * @return The estimated duration in milliseconds.
+	 */
+	double estimateDuration(String context, IDurationEstimator estimator);
+
 	/**
 	 * Returns whether this is the final element.
 	 *
@@ -149,6 +182,147 @@ public interface IExperimentElement {
 	 */
 	String toString(String prefix);
 
+	/**
+	 * Gets the element following this one in the same chain, i.e., the element that is counted
+	 * and rendered after this one by {@link #countChain(IExperimentElement)} and
+	 * {@link #appendChain(IExperimentElement, Appendable, String)}. Elements returning a
+	 * successor only count and render themselves in {@link #countOwn()},
+	 * {@link #estimateOwnDuration(String, IDurationEstimator)} and
+	 * {@link #appendTo(Appendable, String)}. This avoids a recursion along long chains.
+	 *
+	 * @return The successor or {@code null} if this element covers the subsequent ones itself,
+	 *         which is the default.
+	 */
+	default IExperimentElement getChainSuccessor() {
+		return null;
+	}
+
+	/**
+	 * Counts the actions in this element, excluding the {@link #getChainSuccessor() chain
+	 * successor}.
+	 *
+	 * @return The number of actions. {@link #count()} by default.
+	 */
+	default double countOwn() {
+		return count();
+	}
+
+	/**
+	 * Estimates the duration of this element, excluding the {@link #getChainSuccessor() chain
+	 * successor}.
+	 *
+	 * @param context
+	 *            The normalized context of this element.
+	 * @param estimator
+	 *            Estimates the duration of single actions.
+	 * @return The estimated duration in milliseconds. {@link #estimateDuration(String, IDurationEstimator)}
+	 *         by default.
+	 */
+	default double estimateOwnDuration(String context, IDurationEstimator estimator) {
+		return estimateDuration(context, estimator);
+	}
+
+	/**
+	 * Appends the string representation of this element, excluding the
+	 * {@link #getChainSuccessor() chain successor}, to an {@link Appendable}.
+	 *
+	 * @param out
+	 *            The appendable to write to.
+	 * @param prefix
+	 *            The prefix to be added.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	default void appendTo(Appendable out, String prefix) throws IOException {
+		out.append(toString(prefix));
+	}
+
+	/**
+	 * Counts the actions in an element and the subsequent ones without recursing along the chain.
+	 *
+	 * @param first
+	 *            The first element of the chain.
+	 * @return The number of actions.
+	 */
+	static double countChain(IExperimentElement first) {
+		double count = 0;
+
+		for (IExperimentElement element = first; element != null; element = element.getChainSuccessor()) {
+			count += element.countOwn();
+		}
+
+		return count;
+	}
+
+	/**
+	 * Estimates the duration of an element and the subsequent ones without recursing along the
+	 * chain.
+	 *
+	 * @param first
+	 *            The first element of the chain.
+	 * @param context
+	 *            The normalized context of the chain.
+	 * @param estimator
+	 *            Estimates the duration of single actions.
+	 * @return The estimated duration in milliseconds.
+	 */
+	static double estimateChainDuration(IExperimentElement first, String context, IDurationEstimator estimator) {
+		double duration = 0;
+
+		for (IExperimentElement element = first; element != null; element = element.getChainSuccessor()) {
+			duration += element.estimateOwnDuration(context, estimator);
+		}
+
+		return duration;
+	}
+
+	/**
+	 * Appends the string representation of an element and the subsequent ones, separated by line
+	 * breaks, without recursing along the chain.
+	 *
+	 * @param first
+	 *            The first element of the chain.
+	 * @param out
+	 *            The appendable to write to.
+	 * @param prefix
+	 *            The prefix to be added to each line.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	static void appendChain(IExperimentElement first, Appendable out, String prefix) throws IOException {
+		for (IExperimentElement element = first; element != null;) {
+			element.appendTo(out, prefix);
+			element = element.getChainSuccessor();
+
+			if (element != null) {
+				out.append('\n');
+			}
+		}
+	}
+
+	/**
+	 * Converts an element and the subsequent ones to a string (see
+	 * {@link #appendChain(IExperimentElement, Appendable, String)}).
+	 *
+	 * @param first
+	 *            The first element of the chain.
+	 * @param prefix
+	 *            The prefix to be added to each line.
+	 * @return The string representation.
+	 */
+	static String chainToString(IExperimentElement first, String prefix) {
+		StringBuilder builder = new StringBuilder();
+
+		try {
+			appendChain(first, builder, prefix);
+		} catch (IOException e) {
+			// cannot happen with a StringBuilder
+			throw new UncheckedIOException(e);
+		}
+
+		return builder.toString();
+	}
+
 	/**
 	 * Called if an {@link AbortInnerException} has been thrown in the context of this element.
 	 *
@@ -0,0 +1,298 @@
+package org.continuity.experimentation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.continuity.experimentation.exception.AbortException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP endpoint exposing the progress of a running experiment and the health of the
+ * harness in the Prometheus text format under {@code /metrics}. The server is started when the
+ * experiment is started and stopped when it is finished.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class MetricsEndpoint implements IExecutionListener {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MetricsEndpoint.class);
+
+	private static final String PATH = "/metrics";
+
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	/**
+	 * Upper bounds of the latency buckets in seconds. Experiment actions range from milliseconds
+	 * to hours.
+	 */
+	private static final double[] BUCKETS = { 0.01, 0.1, 1, 10, 60, 300, 900, 1800, 3600, 3 * 3600 };
+
+	private static final MemoryMXBean MEMORY_MX_BEAN = ManagementFactory.getMemoryMXBean();
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	private final int port;
+
+	private HttpServer server;
+
+	private volatile String experimentName = "";
+
+	private volatile double estimatedActions = 0;
+
+	private final AtomicLong completedActions = new AtomicLong();
+
+	private final AtomicLong caughtExceptions = new AtomicLong();
+
+	private final AtomicLong uncaughtExceptions = new AtomicLong();
+
+	private final Map<String, Integer> currentContexts = new ConcurrentHashMap<>();
+
+	private final Map<String, Histogram> latencies = new ConcurrentSkipListMap<>();
+
+	private final Map<String, AtomicLong> retries = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param port
+	 *            The port to listen on. 0 chooses a free port (see {@link #getPort()}).
+	 */
+	public MetricsEndpoint(int port) {
+		this.port = port;
+	}
+
+	/**
+	 * Gets the port the endpoint is listening on.
+	 *
+	 * @return The actual port if the endpoint is running or the configured port otherwise.
+	 */
+	public synchronized int getPort() {
+		return server == null ? port : server.getAddress().getPort();
+	}
+
+	/**
+	 * Resets the metrics and starts the HTTP server.
+	 */
+	@Override
+	public synchronized void experimentStarted(Experiment experiment, Context context) {
+		experimentName = experiment.getName();
+		estimatedActions = experiment.getNumberOfActions();
+		completedActions.set(0);
+		caughtExceptions.set(0);
+		uncaughtExceptions.set(0);
+		currentContexts.clear();
+		latencies.clear();
+		retries.clear();
+
+		if (server != null) {
+			return;
+		}
+
+		try {
+			server = HttpServer.create(new InetSocketAddress(port), 0);
+			server.createContext(PATH, this::handle);
+			server.start();
+
+			LOGGER.info("Serving metrics of experiment {} at http://localhost:{}{}", experimentName, getPort(), PATH);
+		} catch (IOException e) {
+			LOGGER.error("Could not start the metrics endpoint at port " + port + "! Will not serve any metrics.", e);
+			server = null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void actionStarted(IExperimentAction action, Context context) {
+		currentContexts.merge(context.toString(), 1, Integer::sum);
+	}
+
+	/**
+	 * Counts the action and, if there is one, the thrown exception the same way as the executor
+	 * does.
+	 */
+	@Override
+	public void actionFinished(IExperimentAction action, Context context, ActionMetrics metrics, Exception thrown) {
+		currentContexts.computeIfPresent(context.toString(), (c, n) -> n <= 1 ? null : n - 1);
+		completedActions.incrementAndGet();
+
+		if ((thrown != null) && !(thrown instanceof AbortException)) {
+			caughtExceptions.incrementAndGet();
+		}
+
+		String type = DurationHistory.typeOf(action);
+		String actionClass = type.substring(type.lastIndexOf('.') + 1);
+		latencies.computeIfAbsent(actionClass, k -> new Histogram()).observe(metrics.getWallNanos() / 1e9);
+
+		if (metrics.getRetries() > 0) {
+			retries.computeIfAbsent(actionClass, k -> new AtomicLong()).addAndGet(metrics.getRetries());
+		}
+	}
+
+	/**
+	 * Stops the HTTP server.
+	 */
+	@Override
+	public synchronized void experimentFinished(Experiment experiment, Context context, AbortException abortException) {
+		if (abortException != null) {
+			uncaughtExceptions.incrementAndGet();
+		}
+
+		if (server != null) {
+			server.stop(0);
+			server = null;
+		}
+	}
+
+	/**
+	 * Renders all metrics in the Prometheus text format.
+	 *
+	 * @return The rendered metrics.
+	 */
+	public String render() {
+		StringBuilder builder = new StringBuilder();
+		String experiment = "experiment=\"" + escape(experimentName) + "\"";
+
+		header(builder, "experiment_current_context", "gauge", "Contexts of the currently executed actions.");
+		for (String context : currentContexts.keySet()) {
+			sample(builder, "experiment_current_context", experiment + ",context=\"" + escape(context) + "\"", 1);
+		}
+
+		header(builder, "experiment_actions_completed_total", "counter", "Number of finished actions.");
+		sample(builder, "experiment_actions_completed_total", experiment, completedActions.get());
+
+		header(builder, "experiment_actions_estimated", "gauge", "Estimated number of actions of the whole experiment.");
+		sample(builder, "experiment_actions_estimated", experiment, estimatedActions);
+
+		header(builder, "experiment_action_duration_seconds", "histogram", "Wall-clock durations of the actions per action class.");
+		for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+			entry.getValue().render(builder, experiment + ",action=\"" + escape(entry.getKey()) + "\"");
+		}
+
+		header(builder, "experiment_action_retries_total", "counter", "Retries, e.g., of failed requests, per action class.");
+		for (Map.Entry<String, AtomicLong> entry : retries.entrySet()) {
+			sample(builder, "experiment_action_retries_total", experiment + ",action=\"" + escape(entry.getKey()) + "\"", entry.getValue().get());
+		}
+
+		header(builder, "experiment_exceptions_caught_total", "counter", "Exceptions thrown by actions that did not abort the experiment.");
+		sample(builder, "experiment_exceptions_caught_total", experiment, caughtExceptions.get());
+
+		header(builder, "experiment_exceptions_uncaught_total", "counter", "Exceptions that aborted the experiment.");
+		sample(builder, "experiment_exceptions_uncaught_total", experiment, uncaughtExceptions.get());
+
+		MemoryUsage heap = MEMORY_MX_BEAN.getHeapMemoryUsage();
+
+		header(builder, "jvm_memory_heap_used_bytes", "gauge", "Used heap memory.");
+		sample(builder, "jvm_memory_heap_used_bytes", null, heap.getUsed());
+
+		header(builder, "jvm_memory_heap_committed_bytes", "gauge", "Committed heap memory.");
+		sample(builder, "jvm_memory_heap_committed_bytes", null, heap.getCommitted());
+
+		header(builder, "jvm_memory_heap_max_bytes", "gauge", "Maximum heap memory or -1 if undefined.");
+		sample(builder, "jvm_memory_heap_max_bytes", null, heap.getMax());
+
+		header(builder, "jvm_threads_live", "gauge", "Number of live threads.");
+		sample(builder, "jvm_threads_live", null, THREAD_MX_BEAN.getThreadCount());
+
+		header(builder, "jvm_threads_daemon", "gauge", "Number of live daemon threads.");
+		sample(builder, "jvm_threads_daemon", null, THREAD_MX_BEAN.getDaemonThreadCount());
+
+		header(builder, "jvm_threads_peak", "gauge", "Peak number of live threads.");
+		sample(builder, "jvm_threads_peak", null, THREAD_MX_BEAN.getPeakThreadCount());
+
+		return builder.toString();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			byte[] body = render().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			exchange.sendResponseHeaders(200, body.length);
+
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} catch (RuntimeException e) {
+			LOGGER.error("Could not render the metrics!", e);
+			exchange.sendResponseHeaders(500, -1);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static void header(StringBuilder builder, String name, String type, String help) {
+		builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(StringBuilder builder, String name, String labels, double value) {
+		builder.append(name);
+
+		if (labels != null) {
+			builder.append('{').append(labels).append('}');
+		}
+
+		builder.append(' ').append(format(value)).append('\n');
+	}
+
+	private static String format(double value) {
+		if (value == Math.rint(value) && !Double.isInfinite(value)) {
+			return Long.toString((long) value);
+		}
+
+		return String.format(Locale.ENGLISH, "%s", value);
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private static class Histogram {
+
+		private final long[] counts = new long[BUCKETS.length];
+
+		private long count = 0;
+
+		private double sum = 0;
+
+		private synchronized void observe(double seconds) {
+			for (int i = 0; i < BUCKETS.length; i++) {
+				if (seconds <= BUCKETS[i]) {
+					counts[i]++;
+				}
+			}
+
+			count++;
+			sum += seconds;
+		}
+
+		private synchronized void render(StringBuilder builder, String labels) {
+			for (int i = 0; i < BUCKETS.length; i++) {
+				sample(builder, "experiment_action_duration_seconds_bucket", labels + ",le=\"" + format(BUCKETS[i]) + "\"", counts[i]);
+			}
+
+			sample(builder, "experiment_action_duration_seconds_bucket", labels + ",le=\"+Inf\"", count);
+			sample(builder, "experiment_action_duration_seconds_sum", labels, sum);
+			sample(builder, "experiment_action_duration_seconds_count", labels, count);
+		}
+
+	}
+
+}
@@ -1,23 +1,38 @@
 package org.continuity.experimentation.action;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
 import org.continuity.experimentation.IExperimentAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 /**
- * Provides means for executing REST requests.
+ * Provides means for executing REST requests. Failed requests are repeated according to the
+ * {@link RetryPolicy}, which is {@link RetryPolicy#DEFAULT} unless
+ * {@link #setRetryPolicy(RetryPolicy) set} otherwise. POST requests are treated as
+ * non-idempotent, i.e., they are only repeated on the errors the policy allows for non-idempotent
+ * requests.
  *
  * @author Henning Schulz
  *
  */
 public abstract class AbstractRestAction implements IExperimentAction {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRestAction.class);
+
 	private final String host;
 	private final String port;
 
 	private final RestTemplate restTemplate;
 
+	private RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+
+	private final AtomicLong retries = new AtomicLong();
+
 	public AbstractRestAction(String host, String port, RestTemplate restTemplate) {
 		this.host = host;
 		this.port = port;
@@ -50,7 +65,7 @@ public abstract class AbstractRestAction implements IExperimentAction {
 		ResponseEntity<T> response;
 
 		try {
-			response = restTemplate.getForEntity("http://" + host + ":" + port + uri, responseType);
+			response = withRetries("GET", uri, () -> restTemplate.getForEntity("http://" + host + ":" + port + uri, responseType));
 		} catch (HttpStatusCodeException e) {
 			response = ResponseEntity.status(e.getStatusCode()).build();
 		}
@@ -70,7 +85,7 @@ public abstract class AbstractRestAction implements IExperimentAction {
 	 *             If the response code was not a 2xx.
 	 */
 	protected <T> T get(String uri, Class<T> responseType) throws RuntimeException {
-		ResponseEntity<T> response = restTemplate.getForEntity("http://" + host + ":" + port + uri, responseType);
+		ResponseEntity<T> response = withRetries("GET", uri, () -> restTemplate.getForEntity("http://" + host + ":" + port + uri, responseType));
 		return response.getBody();
 	}
 
@@ -88,7 +103,7 @@ public abstract class AbstractRestAction implements IExperimentAction {
 	 *             If the response code was not a 2xx.
 	 */
 	protected <T, S> T post(String uri, Class<T> responseType, S body) throws RuntimeException {
-		ResponseEntity<T> response = restTemplate.postForEntity("http://" + host + ":" + port + uri, body, responseType);
+		ResponseEntity<T> response = withRetries("POST", uri, () -> restTemplate.postForEntity("http://" + host + ":" + port + uri, body, responseType));
 
 		if (!response.getStatusCode().is2xxSuccessful()) {
 			throw new RuntimeException("Return code was " + response.getStatusCode());
@@ -97,6 +112,67 @@ public abstract class AbstractRestAction implements IExperimentAction {
 		return response.getBody();
 	}
 
+	private <T> T withRetries(String method, String uri, Supplier<T> request) {
+		boolean idempotent = !"POST".equals(method);
+
+		for (int attempt = 1;; attempt++) {
+			try {
+				return request.get();
+			} catch (RuntimeException e) {
+				if (!retryPolicy.shouldRetry(e, attempt, idempotent)) {
+					throw e;
+				}
+
+				long backoff = retryPolicy.getBackoffMillis(attempt);
+				retries.incrementAndGet();
+				LOGGER.warn("{} {} to {}:{} failed ({}). Retrying in {} ms (attempt {} of {}).", method, uri, host, port, e.getMessage(), backoff, attempt + 1, retryPolicy.getMaxAttempts());
+
+				try {
+					Thread.sleep(backoff);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets {@link #retryPolicy}.
+	 *
+	 * @return {@link #retryPolicy}
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return this.retryPolicy;
+	}
+
+	/**
+	 * Sets {@link #retryPolicy}. Use {@link RetryPolicy#NONE} for requests that must not be
+	 * repeated at all.
+	 *
+	 * @param retryPolicy
+	 *            New value for {@link #retryPolicy}
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getRetries() {
+		return retries.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isExternal() {
+		return true;
+	}
+
 	protected String getHost() {
 		return host;
 	}
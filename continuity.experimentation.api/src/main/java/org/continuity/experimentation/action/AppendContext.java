@@ -2,6 +2,7 @@ package org.continuity.experimentation.action;
 
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
 
 /**
  * Appends a context.
@@ -25,6 +26,14 @@ public class AppendContext implements IExperimentAction {
 		context.append(this.context);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.NONE;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -4,6 +4,7 @@ import java.util.Date;
 
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.data.IDataHolder;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
@@ -22,7 +23,12 @@ public class Clock implements IExperimentAction {
 
 	@Override
 	public void execute(Context context) throws AbortInnerException, AbortException, Exception {
-		dateOutput.set(new Date());
+		dateOutput.set(new Date(context.getClock().currentTimeMillis()));
+	}
+
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.writes(dateOutput);
 	}
 
 }
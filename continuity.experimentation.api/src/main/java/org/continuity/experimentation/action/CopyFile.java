@@ -5,6 +5,7 @@ import java.nio.file.Path;
 import org.apache.commons.io.FileUtils;
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.data.IDataHolder;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
@@ -37,6 +38,14 @@ public class CopyFile implements IExperimentAction {
 		FileUtils.copyFile(fromPath.get().toFile(), toPath.get().toFile());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.reads(fromPath, toPath);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
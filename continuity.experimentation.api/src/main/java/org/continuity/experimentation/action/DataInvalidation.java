@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.data.IDataHolder;
 
 /**
@@ -33,6 +34,14 @@ public class DataInvalidation implements IExperimentAction {
 		dataHolders.forEach(IDataHolder::invalidate);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.invalidates(dataHolders.toArray(new IDataHolder<?>[dataHolders.size()]));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1,7 +1,13 @@
 package org.continuity.experimentation.action;
 
+import java.util.concurrent.CompletionStage;
+
 import org.continuity.experimentation.Context;
-import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.ExperimentExecutionService;
+import org.continuity.experimentation.IAsyncExperimentAction;
+import org.continuity.experimentation.IExperimentClock;
+import org.continuity.experimentation.data.DataDependencies;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,12 +17,14 @@ import org.slf4j.LoggerFactory;
  * @author Henning Schulz
  *
  */
-public class Delay implements IExperimentAction {
+public class Delay implements IAsyncExperimentAction {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(Delay.class);
 
 	private final long delayMillis;
 
+	private ExperimentExecutionService executionService = ExperimentExecutionService.getDefault();
+
 	public Delay(long delayMillis) {
 		this.delayMillis = delayMillis;
 	}
@@ -27,12 +35,13 @@ public class Delay implements IExperimentAction {
 	@Override
 	public void execute(Context context) {
 		LOGGER.info("Going to sleep for {} ms...", delayMillis);
-		long start = System.currentTimeMillis();
+		IExperimentClock clock = context.getClock();
+		long start = clock.currentTimeMillis();
 
 		try {
-			Thread.sleep(delayMillis);
+			clock.sleep(delayMillis);
 		} catch (InterruptedException e) {
-			long sleepDuration = System.currentTimeMillis() - start;
+			long sleepDuration = clock.currentTimeMillis() - start;
 			LOGGER.error("Interrupted during sleep. Slept only {} ms instead of {} ms!", sleepDuration, delayMillis);
 			LOGGER.error("Exception", e);
 		}
@@ -40,6 +49,33 @@ public class Delay implements IExperimentAction {
 		LOGGER.info("Resuming.");
 	}
 
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * Does not block a thread while waiting.
+	 */
+	@Override
+	public CompletionStage<Void> executeAsync(Context context) {
+		LOGGER.info("Going to sleep for {} ms...", delayMillis);
+		return context.getClock().delay(delayMillis, executionService).thenRun(() -> LOGGER.info("Resuming."));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void bypassExperiment(Experiment experiment) {
+		this.executionService = experiment.getExecutionService();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.NONE;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -85,6 +85,14 @@ public class EmailReport implements IExperimentAction {
 		return instance;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isExternal() {
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -6,6 +6,7 @@ import java.util.Random;
 
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.data.IDataHolder;
 import org.continuity.experimentation.exception.AbortInnerException;
 import org.slf4j.Logger;
@@ -70,6 +71,14 @@ public class RandomSelection<T> implements IExperimentAction {
 		LOGGER.info("Selected {} from {} elements.", selected, size);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.reads(inputHolder).andWrites(outputHolder).parallelizable();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
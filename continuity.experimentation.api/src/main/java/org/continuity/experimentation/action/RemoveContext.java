@@ -2,6 +2,7 @@ package org.continuity.experimentation.action;
 
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
 
 /**
  * Removes a context.
@@ -25,6 +26,14 @@ public class RemoveContext implements IExperimentAction {
 		context.remove(this.context);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.NONE;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,259 @@
+package org.continuity.experimentation.action;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Defines how often and when failed requests of {@link AbstractRestAction}s are repeated. The
+ * backoff before the n-th retry is {@code initialBackoff * multiplier^(n-1)}, limited to
+ * {@code maxBackoff}, of which a random share of up to {@code jitter} is subtracted, so that
+ * concurrent threads do not retry in lockstep. Non-idempotent requests such as POSTs are only
+ * repeated if they cannot have reached the server, which are connection failures by default.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class RetryPolicy {
+
+	/**
+	 * Executes each request once.
+	 */
+	public static final RetryPolicy NONE = newPolicy().maxAttempts(1).build();
+
+	/**
+	 * Retries I/O errors such as connection resets and the responses 502, 503 and 504 up to two
+	 * times, waiting 0.5 s and 1 s (minus up to 50% jitter). Non-idempotent requests are only
+	 * retried if the connection could not be established.
+	 */
+	public static final RetryPolicy DEFAULT = newPolicy().build();
+
+	private final int maxAttempts;
+
+	private final long initialBackoffMillis;
+
+	private final double multiplier;
+
+	private final long maxBackoffMillis;
+
+	private final double jitter;
+
+	private final Predicate<Exception> retryOn;
+
+	private final Predicate<Exception> retryNonIdempotentOn;
+
+	private RetryPolicy(Builder builder) {
+		this.maxAttempts = builder.maxAttempts;
+		this.initialBackoffMillis = builder.initialBackoffMillis;
+		this.multiplier = builder.multiplier;
+		this.maxBackoffMillis = builder.maxBackoffMillis;
+		this.jitter = builder.jitter;
+		this.retryOn = builder.retryOn;
+		this.retryNonIdempotentOn = builder.retryNonIdempotentOn;
+	}
+
+	/**
+	 * Starts building a new policy, which is initialized with the values of {@link #DEFAULT}.
+	 *
+	 * @return A builder for the policy.
+	 */
+	public static Builder newPolicy() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns whether the request is to be repeated.
+	 *
+	 * @param exception
+	 *            The exception thrown by the request.
+	 * @param attempt
+	 *            The number of the failed attempt, starting with 1.
+	 * @return {@code true} if the request is to be repeated.
+	 */
+	public boolean shouldRetry(Exception exception, int attempt) {
+		return shouldRetry(exception, attempt, true);
+	}
+
+	/**
+	 * Returns whether the request is to be repeated.
+	 *
+	 * @param exception
+	 *            The exception thrown by the request.
+	 * @param attempt
+	 *            The number of the failed attempt, starting with 1.
+	 * @param idempotent
+	 *            Whether the request can be repeated without additional effect, e.g., GET but not
+	 *            POST.
+	 * @return {@code true} if the request is to be repeated.
+	 */
+	public boolean shouldRetry(Exception exception, int attempt, boolean idempotent) {
+		return (attempt < maxAttempts) && (idempotent ? retryOn : retryNonIdempotentOn).test(exception);
+	}
+
+	/**
+	 * Calculates the time to wait before a retry.
+	 *
+	 * @param attempt
+	 *            The number of the failed attempt, starting with 1.
+	 * @return The backoff in milliseconds.
+	 */
+	public long getBackoffMillis(int attempt) {
+		double backoff = Math.min(maxBackoffMillis, initialBackoffMillis * Math.pow(multiplier, attempt - 1));
+		return (long) (backoff * (1 - (jitter * ThreadLocalRandom.current().nextDouble())));
+	}
+
+	/**
+	 * Gets {@link #maxAttempts}.
+	 *
+	 * @return {@link #maxAttempts}
+	 */
+	public int getMaxAttempts() {
+		return this.maxAttempts;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "RetryPolicy [maxAttempts=" + maxAttempts + ", initialBackoffMillis=" + initialBackoffMillis + ", multiplier=" + multiplier + ", maxBackoffMillis=" + maxBackoffMillis
+				+ ", jitter=" + jitter + "]";
+	}
+
+	private static boolean isTransient(Exception exception) {
+		if (exception instanceof ResourceAccessException) {
+			return true;
+		}
+
+		if (exception instanceof HttpServerErrorException) {
+			HttpStatus status = ((HttpServerErrorException) exception).getStatusCode();
+			return (status == HttpStatus.BAD_GATEWAY) || (status == HttpStatus.SERVICE_UNAVAILABLE) || (status == HttpStatus.GATEWAY_TIMEOUT);
+		}
+
+		return false;
+	}
+
+	private static boolean isConnectFailure(Exception exception) {
+		return (exception instanceof ResourceAccessException)
+				&& ((exception.getCause() instanceof ConnectException) || (exception.getCause() instanceof NoRouteToHostException));
+	}
+
+	/**
+	 * Builder for {@link RetryPolicy}.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	public static class Builder {
+
+		private int maxAttempts = 3;
+
+		private long initialBackoffMillis = 500;
+
+		private double multiplier = 2;
+
+		private long maxBackoffMillis = 30000;
+
+		private double jitter = 0.5;
+
+		private Predicate<Exception> retryOn = RetryPolicy::isTransient;
+
+		private Predicate<Exception> retryNonIdempotentOn = RetryPolicy::isConnectFailure;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the maximum number of attempts including the first one.
+		 *
+		 * @param maxAttempts
+		 *            The maximum number of attempts. Must be at least 1.
+		 * @return This builder.
+		 */
+		public Builder maxAttempts(int maxAttempts) {
+			if (maxAttempts < 1) {
+				throw new IllegalArgumentException("There needs to be at least one attempt!");
+			}
+
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		/**
+		 * Sets the exponential backoff.
+		 *
+		 * @param initialBackoffMillis
+		 *            The backoff before the first retry.
+		 * @param multiplier
+		 *            The factor by which the backoff grows with each retry.
+		 * @param maxBackoffMillis
+		 *            The maximum backoff.
+		 * @return This builder.
+		 */
+		public Builder backoff(long initialBackoffMillis, double multiplier, long maxBackoffMillis) {
+			this.initialBackoffMillis = initialBackoffMillis;
+			this.multiplier = multiplier;
+			this.maxBackoffMillis = maxBackoffMillis;
+			return this;
+		}
+
+		/**
+		 * Sets the jitter.
+		 *
+		 * @param jitter
+		 *            The maximum share of the backoff that is randomly subtracted. Between 0 (no
+		 *            jitter) and 1.
+		 * @return This builder.
+		 */
+		public Builder jitter(double jitter) {
+			if ((jitter < 0) || (jitter > 1)) {
+				throw new IllegalArgumentException("The jitter needs to be between 0 and 1 but was " + jitter + "!");
+			}
+
+			this.jitter = jitter;
+			return this;
+		}
+
+		/**
+		 * Sets the errors to be retried. Defaults to I/O errors and the responses 502, 503 and
+		 * 504.
+		 *
+		 * @param retryOn
+		 *            Returns {@code true} for exceptions that are to be retried.
+		 * @return This builder.
+		 */
+		public Builder retryOn(Predicate<Exception> retryOn) {
+			this.retryOn = retryOn;
+			return this;
+		}
+
+		/**
+		 * Sets the errors to be retried for non-idempotent requests. Defaults to failures to
+		 * connect, after which the request cannot have reached the server.
+		 *
+		 * @param retryNonIdempotentOn
+		 *            Returns {@code true} for exceptions that are to be retried.
+		 * @return This builder.
+		 */
+		public Builder retryNonIdempotentOn(Predicate<Exception> retryNonIdempotentOn) {
+			this.retryNonIdempotentOn = retryNonIdempotentOn;
+			return this;
+		}
+
+		/**
+		 * Creates the policy.
+		 *
+		 * @return The policy.
+		 */
+		public RetryPolicy build() {
+			return new RetryPolicy(this);
+		}
+
+	}
+
+}
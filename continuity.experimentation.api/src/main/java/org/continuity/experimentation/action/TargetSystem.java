@@ -1,7 +1,14 @@
 package org.continuity.experimentation.action;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import org.continuity.experimentation.Context;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.ExperimentExecutionService;
+import org.continuity.experimentation.IAsyncExperimentAction;
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.data.IDataHolder;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
@@ -127,6 +134,14 @@ public class TargetSystem {
 			LOGGER.info("Restart initiated. Response from satellite: {}", response);
 		}
 
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public DataDependencies getDataDependencies() {
+			return DataDependencies.NONE;
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
@@ -136,18 +151,25 @@ public class TargetSystem {
 		}
 	}
 
-	private static class WaitFor extends AbstractRestAction {
+	private static class WaitFor extends AbstractRestAction implements IAsyncExperimentAction {
 
 		private static final Logger LOGGER = LoggerFactory.getLogger(WaitFor.class);
 
+		private static final long POLLING_INTERVAL_MS = 10000;
+
 		private final Application app;
 
 		private final long maxWaitMs;
 
+		private ExperimentExecutionService executionService = ExperimentExecutionService.getDefault();
+
 		public WaitFor(Application app, String host, String port, long maxWaitMs) {
 			super(host, port);
 			this.app = app;
 			this.maxWaitMs = maxWaitMs;
+
+			// polls anyway, and failures are expected until the application is up
+			setRetryPolicy(RetryPolicy.NONE);
 		}
 
 		public WaitFor(Application app, String host, String port) {
@@ -158,40 +180,81 @@ public class TargetSystem {
 			this(app, host, "8080");
 		}
 
+		@Override
+		public void bypassExperiment(Experiment experiment) {
+			this.executionService = experiment.getExecutionService();
+		}
+
 		@Override
 		public void execute(Context context) throws AbortInnerException, AbortException, Exception {
 			LOGGER.info("Waiting for the {} at {}:{}{} to be online...", app, getHost(), getPort(), app.getRootPath());
 
-			ResponseEntity<String> response;
 			boolean systemIsOnline = false;
 
-			long startMs = System.currentTimeMillis();
+			long startMs = context.getClock().currentTimeMillis();
 
 			while (!systemIsOnline) {
 				try {
-					Thread.sleep(10000);
+					context.getClock().sleep(POLLING_INTERVAL_MS);
 				} catch (InterruptedException e) {
 					LOGGER.warn("Interrupted during waiting after DVDStore restart: {}", e.getMessage());
 				}
 
-				try {
-					response = getAsEntity(app.getRootPath(), String.class);
-				} catch (ResourceAccessException e) {
-					LOGGER.info("The {} is not there, yet. Keep waiting...", app);
-					continue;
+				systemIsOnline = checkOnline(context, startMs);
+			}
+		}
+
+		/**
+		 * Waits without blocking a thread between two polls.
+		 */
+		@Override
+		public CompletionStage<Void> executeAsync(Context context) {
+			LOGGER.info("Waiting for the {} at {}:{}{} to be online...", app, getHost(), getPort(), app.getRootPath());
+
+			CompletableFuture<Void> result = new CompletableFuture<>();
+			pollAsync(context, context.getClock().currentTimeMillis(), result);
+
+			return result;
+		}
+
+		private void pollAsync(Context context, long startMs, CompletableFuture<Void> result) {
+			context.getClock().delay(POLLING_INTERVAL_MS, executionService).thenCompose(v -> executionService.supplyBlocking(context.toString(), () -> checkOnline(context, startMs))).whenComplete((online, thrown) -> {
+				if (thrown != null) {
+					result.completeExceptionally(thrown);
+				} else if (online) {
+					result.complete(null);
+				} else {
+					pollAsync(context, startMs, result);
 				}
+			});
+		}
+
+		private boolean checkOnline(Context context, long startMs) throws AbortInnerException {
+			try {
+				ResponseEntity<String> response = getAsEntity(app.getRootPath(), String.class);
 
 				if (response.getStatusCode().is2xxSuccessful() && response.hasBody()) {
-					systemIsOnline = true;
 					LOGGER.info("The {} at {}:{}{} is now online.", app, getHost(), getPort(), app.getRootPath());
-					break;
+					return true;
 				}
+			} catch (ResourceAccessException e) {
+				LOGGER.info("The {} is not there, yet.", app);
+			}
 
-				if ((System.currentTimeMillis() - startMs) > maxWaitMs) {
-					LOGGER.error("Waited 250 s for the {} to be online, but wasn't. Aborting.", app);
-					throw new AbortInnerException(context, "Waited 250 s for the " + app + " to be online, but wasn't.");
-				}
+			if ((context.getClock().currentTimeMillis() - startMs) > maxWaitMs) {
+				LOGGER.error("Waited {} ms for the {} to be online, but wasn't. Aborting.", maxWaitMs, app);
+				throw new AbortInnerException(context, "Waited " + maxWaitMs + " ms for the " + app + " to be online, but wasn't.");
 			}
+
+			return false;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public DataDependencies getDataDependencies() {
+			return DataDependencies.NONE;
 		}
 
 		@Override
@@ -228,6 +291,11 @@ public class TargetSystem {
 			LOGGER.info("Checkout done. Response from satellite: {}", response);
 		}
 
+		@Override
+		public DataDependencies getDataDependencies() {
+			return DataDependencies.reads(version);
+		}
+
 	}
 
 	public static enum Application {
@@ -6,6 +6,7 @@ import org.apache.commons.io.FileUtils;
 import org.continuity.api.entities.report.OrderReport;
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.action.AbstractRestAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.data.IDataHolder;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
@@ -34,9 +35,14 @@ public class GetJmeterReport extends AbstractRestAction {
 		if(orderReport.isSet() && orderReport.get().isSuccessful() && orderReport.get().getCreatedArtifacts().getLoadTestLinks().getReportLink() != null) {
 			URI uri = new URI(orderReport.get().getCreatedArtifacts().getLoadTestLinks().getReportLink());
 			String jmeterResult = get(uri.getPath(), String.class);
-			FileUtils.writeStringToFile(context.toPath().resolve(FILE_NAME).toFile(), jmeterResult, "UTF-8");
+			FileUtils.writeStringToFile(context.toDirectory().resolve(FILE_NAME).toFile(), jmeterResult, "UTF-8");
 		}
 		
 	}
 
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.reads(orderReport).parallelizable();
+	}
+
 }
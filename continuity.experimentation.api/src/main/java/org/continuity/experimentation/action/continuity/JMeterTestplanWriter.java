@@ -34,7 +34,7 @@ public class JMeterTestplanWriter implements IExperimentAction {
 
 	@Override
 	public void execute(Context context) throws AbortInnerException, AbortException, Exception {
-		Path outputDir = getNewDir(context.toPath());
+		Path outputDir = getNewDir(context.toDirectory());
 
 		LOGGER.info("Writing test plan bundle {} to {}.", testplanBundle, outputDir);
 		writer.write(testplanBundle.get().getTestPlan(), testplanBundle.get().getBehaviors(), outputDir);
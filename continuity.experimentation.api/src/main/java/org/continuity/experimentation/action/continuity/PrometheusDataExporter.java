@@ -11,6 +11,7 @@ import java.util.Map.Entry;
 import org.apache.commons.io.FileUtils;
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.action.AbstractRestAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
 import org.slf4j.Logger;
@@ -89,12 +90,22 @@ public class PrometheusDataExporter extends AbstractRestAction {
 		LOGGER.info("Retrieve prometheus results with url: {}", uri);
 		ResponseEntity<ObjectNode> response = restTemplate.exchange(uri, HttpMethod.GET, null, ObjectNode.class);
 		if (response.getStatusCode().is2xxSuccessful() && response.getBody().get("status").textValue().equals("success")) {
-			safeAsCSV(context.toPath(), response);
+			safeAsCSV(context.toDirectory(), response);
 		} else {
 			throw new Exception("Prometheus query was not successful");
 		}
 	}
 
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * Not parallelizable, since the query is relative to the time of the request.
+	 */
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.NONE;
+	}
+
 	private void safeAsCSV(Path basePath, ResponseEntity<ObjectNode> response) throws IOException {
 		HashMap<Path, String> csvInputs = new HashMap<Path, String>();
 
@@ -181,7 +181,7 @@ public class RandomMarkovChain implements IExperimentAction {
 	}
 
 	private void saveMarkovChain(String[][] markovChain, Context context) throws IOException {
-		Path folder = context.toPath();
+		Path folder = context.toDirectory();
 		String origFile = "random-markov-chain";
 		int counter = 1;
 		String currFile = origFile + ".csv";
@@ -9,6 +9,7 @@ import java.util.Arrays;
 import org.continuity.api.rest.RestApi;
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.action.AbstractRestAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.data.IDataHolder;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
@@ -92,12 +93,17 @@ public class UploadAnnotation extends AbstractRestAction {
 		String response = post(RestApi.Orchestrator.Idpa.UPDATE_ANNOTATION.path(tag.get()), String.class, annotation.get());
 		report.set(response);
 
-		Path path = context.toPath().resolve("annotation-upload-report.json");
+		Path path = context.toDirectory().resolve("annotation-upload-report.json");
 		Files.write(path, Arrays.asList(response.split("\\n")), StandardOpenOption.CREATE);
 
 		LOGGER.info("Uploaded annotation {}.", annotation.get().getId());
 	}
 
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.reads(annotation, tag).andWrites(report).parallelizable();
+	}
+
 	public static class Builder {
 
 		private final IDataHolder<ApplicationAnnotation> annotation;
@@ -9,6 +9,7 @@ import java.util.Date;
 
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.action.AbstractRestAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.data.IDataHolder;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
@@ -94,12 +95,17 @@ public class UploadApplicationModel extends AbstractRestAction {
 		String response = post("/annotation/" + tag.get() + "/system", String.class, systemModel);
 		report.set(response);
 
-		Path path = context.toPath().resolve("system-upload-report.json");
+		Path path = context.toDirectory().resolve("system-upload-report.json");
 		Files.write(path, Arrays.asList(response.split("\\n")), StandardOpenOption.CREATE);
 
 		LOGGER.info("Uploaded system model {}.", systemModel.getId());
 	}
 
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.reads(application, tag).andWrites(report).parallelizable();
+	}
+
 	public static class Builder {
 
 		private final IDataHolder<Application> system;
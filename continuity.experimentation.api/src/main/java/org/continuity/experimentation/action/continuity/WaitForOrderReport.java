@@ -80,7 +80,7 @@ public class WaitForOrderReport extends AbstractRestAction {
 			URL url = new URL(orderResponse.get().getWaitLink());
 			LOGGER.info("Wait for order to be finished");
 			orderReport.set(get(url.toURI().getPath() + "?timeout=" + timeout, OrderReport.class));
-			Path basePath = context.toPath();
+			Path basePath = context.toDirectory();
 			ObjectWriter writer = mapper.writer(new DefaultPrettyPrinter());
 			writer.writeValue(basePath.resolve(FILENAME + FILE_EXT).toFile(), orderReport.get());
 		}
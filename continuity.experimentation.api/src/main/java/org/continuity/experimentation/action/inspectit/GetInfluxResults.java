@@ -9,6 +9,7 @@ import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
 import org.continuity.experimentation.data.IDataHolder;
 import org.continuity.experimentation.exception.AbortInnerException;
 import org.influxdb.InfluxDB;
@@ -65,7 +66,7 @@ public class GetInfluxResults implements IExperimentAction {
 
 	@Override
 	public void execute(Context context) throws IOException, AbortInnerException {
-		Path basePath = context.toPath();
+		Path basePath = context.toDirectory();
 
 		FileUtils.writeStringToFile(basePath.resolve(CPU_MEASUREMENT + FILE_EXT).toFile(), getMeasurementResults(CPU_MEASUREMENT), Charset.defaultCharset());
 		FileUtils.writeStringToFile(basePath.resolve(MEMORY_MEASUREMENT + FILE_EXT).toFile(), getMeasurementResults(MEMORY_MEASUREMENT), Charset.defaultCharset());
@@ -115,6 +116,22 @@ public class GetInfluxResults implements IExperimentAction {
 		return builder.toString();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isExternal() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.reads(startTime, stopTime).parallelizable();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
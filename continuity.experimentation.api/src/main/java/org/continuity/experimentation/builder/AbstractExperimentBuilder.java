@@ -28,6 +28,10 @@ public abstract class AbstractExperimentBuilder<C> {
 		appendElement(new ExperimentActionElement(action));
 	}
 
+	protected void appendAction(IExperimentAction action, long timeoutMillis) {
+		appendElement(new ExperimentActionElement(action, timeoutMillis));
+	}
+
 	protected void appendElement(IExperimentElement element) {
 		if (current == null) {
 			first = element;
@@ -7,6 +7,7 @@ import org.continuity.experimentation.IExperimentAction;
 import org.continuity.experimentation.IExperimentElement;
 import org.continuity.experimentation.element.BranchElement;
 import org.continuity.experimentation.element.NamedBooleanSupplier;
+import org.continuity.experimentation.sweep.Sweep;
 
 /**
  * @author Henning Schulz
@@ -34,6 +35,15 @@ public class BranchBuilderImpl<C> extends AbstractExperimentBuilder<C> implement
 		return this;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IfBranchBuilder<C> append(IExperimentAction action, long timeoutMillis) {
+		appendAction(action, timeoutMillis);
+		return this;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -42,6 +52,14 @@ public class BranchBuilderImpl<C> extends AbstractExperimentBuilder<C> implement
 		return new LoopBuilderImpl<>(this, this::appendElement, numIterations);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<IfBranchBuilder<C>> sweep(Sweep sweep) {
+		return new SweepBuilderImpl<>(this, this::appendElement, sweep);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -10,6 +10,15 @@ package org.continuity.experimentation.builder;
  */
 public interface ConcurrentBuilder<C> extends ExperimentBuilder<ConcurrentBuilder<C>, ConcurrentBuilder<C>>, Branchable<IfBranchBuilder<ConcurrentBuilder<C>>> {
 
+	/**
+	 * Executes all threads that are created until the next join on virtual threads. This allows
+	 * for starting many threads that are mostly waiting, e.g., for polling. On JVMs not supporting
+	 * virtual threads, a new platform thread is started per thread.
+	 *
+	 * @return This builder.
+	 */
+	ConcurrentBuilder<C> onVirtualThreads();
+
 	/**
 	 * Joins all currently open threads. That is, all threads that were created since the last join.
 	 *
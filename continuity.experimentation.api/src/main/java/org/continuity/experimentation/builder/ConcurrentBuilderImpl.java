@@ -7,6 +7,7 @@ import org.continuity.experimentation.IExperimentAction;
 import org.continuity.experimentation.IExperimentElement;
 import org.continuity.experimentation.element.ConcurrentElement;
 import org.continuity.experimentation.element.NamedBooleanSupplier;
+import org.continuity.experimentation.sweep.Sweep;
 
 /**
  * @author Henning Schulz
@@ -29,6 +30,15 @@ public class ConcurrentBuilderImpl<C> extends AbstractExperimentBuilder<C> imple
 		return this;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ConcurrentBuilder<C> append(IExperimentAction action, long timeoutMillis) {
+		appendAction(action, timeoutMillis);
+		return this;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -37,6 +47,14 @@ public class ConcurrentBuilderImpl<C> extends AbstractExperimentBuilder<C> imple
 		return new LoopBuilderImpl<>(this, this::appendElement, numIterations);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<ConcurrentBuilder<C>> sweep(Sweep sweep) {
+		return new SweepBuilderImpl<>(this, this::appendElement, sweep);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -62,6 +80,15 @@ public class ConcurrentBuilderImpl<C> extends AbstractExperimentBuilder<C> imple
 		return this;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ConcurrentBuilder<C> onVirtualThreads() {
+		concurrentElement.setVirtualThreads(true);
+		return this;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1,6 +1,7 @@
 package org.continuity.experimentation.builder;
 
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.sweep.Sweep;
 
 /**
  * Wrapper around a {@link BranchBuilderImpl} for building else branches without allowing a user to
@@ -26,6 +27,15 @@ public class ElseBranchBuilderWrapper<C> implements ElseBranchBuilder<C> {
 		return this;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ElseBranchBuilder<C> append(IExperimentAction action, long timeoutMillis) {
+		wrapped.append(action, timeoutMillis);
+		return this;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -34,6 +44,14 @@ public class ElseBranchBuilderWrapper<C> implements ElseBranchBuilder<C> {
 		return new LoopBuilderImpl<>(this, wrapped::appendElement, numIterations);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<ElseBranchBuilder<C>> sweep(Sweep sweep) {
+		return new SweepBuilderImpl<>(this, wrapped::appendElement, sweep);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -2,6 +2,7 @@ package org.continuity.experimentation.builder;
 
 import org.continuity.experimentation.Experiment;
 import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.sweep.Sweep;
 
 /**
  * Common interface for builders for {@link Experiment}s.
@@ -24,6 +25,21 @@ public interface ExperimentBuilder<T, C> {
 	 */
 	T append(IExperimentAction action);
 
+	/**
+	 * Appends a new {@link IExperimentAction} that is interrupted if it takes longer than the
+	 * specified time. A timed out action is handled like an
+	 * {@link org.continuity.experimentation.exception.AbortInnerException AbortInnerException},
+	 * i.e., an enclosing loop continues with its next iteration.
+	 *
+	 * @param action
+	 *            The action to be added.
+	 * @param timeoutMillis
+	 *            The maximum duration of the action in milliseconds. 0 uses the default of the
+	 *            experiment (see {@link Experiment#setDefaultActionTimeout(long)}).
+	 * @return A builder for adding further elements.
+	 */
+	T append(IExperimentAction action, long timeoutMillis);
+
 	/**
 	 * Starts a new loop.
 	 *
@@ -33,6 +49,15 @@ public interface ExperimentBuilder<T, C> {
 	 */
 	LoopBuilder<T> loop(int numIterations);
 
+	/**
+	 * Starts a new parameter sweep, i.e., a loop executing its body once per point of the sweep.
+	 *
+	 * @param sweep
+	 *            The sweep defining the parameters and the points.
+	 * @return A builder for adding further elements to the sweep.
+	 */
+	SweepBuilder<T> sweep(Sweep sweep);
+
 	/**
 	 * Creates a new parallel thread. All opened threads can be joined again by calling
 	 * {@link ConcurrentBuilder#join()}.
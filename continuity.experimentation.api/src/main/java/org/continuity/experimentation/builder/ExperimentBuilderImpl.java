@@ -1,11 +1,22 @@
 package org.continuity.experimentation.builder;
 
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.BooleanSupplier;
 
+import org.continuity.experimentation.DurationHistory;
 import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.ExperimentExecutionService;
 import org.continuity.experimentation.IExperimentAction;
 import org.continuity.experimentation.IExperimentElement;
+import org.continuity.experimentation.data.AbstractDataHolder;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.dataflow.DataflowAnalysis;
 import org.continuity.experimentation.element.NamedBooleanSupplier;
+import org.continuity.experimentation.sweep.Sweep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author Henning Schulz
@@ -13,8 +24,26 @@ import org.continuity.experimentation.element.NamedBooleanSupplier;
  */
 public class ExperimentBuilderImpl extends AbstractExperimentBuilder<Experiment> implements StableExperimentBuilder {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExperimentBuilderImpl.class);
+
 	private String experimentName;
 
+	private int maxParallelism = ExperimentExecutionService.DEFAULT_MAX_PARALLELISM;
+
+	private List<IDataHolder<?>> persistentData = null;
+
+	private Integer metricsPort = null;
+
+	private boolean journal = false;
+
+	private Path durationHistory = null;
+
+	private boolean strictDataflow = false;
+
+	private boolean strictSequencing = false;
+
+	private long defaultActionTimeout = 0;
+
 	public ExperimentBuilderImpl(String name) {
 		super(null, null);
 
@@ -30,6 +59,15 @@ public class ExperimentBuilderImpl extends AbstractExperimentBuilder<Experiment>
 		return this;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StableExperimentBuilder append(IExperimentAction action, long timeoutMillis) {
+		appendAction(action, timeoutMillis);
+		return this;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -38,6 +76,14 @@ public class ExperimentBuilderImpl extends AbstractExperimentBuilder<Experiment>
 		return new LoopBuilderImpl<>(this, this::appendElement, numIterations);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<StableExperimentBuilder> sweep(Sweep sweep) {
+		return new SweepBuilderImpl<>(this, this::appendElement, sweep);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -62,13 +108,104 @@ public class ExperimentBuilderImpl extends AbstractExperimentBuilder<Experiment>
 		return new ConcurrentBuilderImpl<>(this, this::appendElement);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StableExperimentBuilder withMaxParallelism(int maxParallelism) {
+		this.maxParallelism = maxParallelism;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StableExperimentBuilder withDefaultActionTimeout(long timeoutMillis) {
+		this.defaultActionTimeout = timeoutMillis;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StableExperimentBuilder withCheckpoints(IDataHolder<?>... persistentData) {
+		this.persistentData = Arrays.asList(persistentData);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StableExperimentBuilder withMetricsEndpoint(int port) {
+		this.metricsPort = port;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StableExperimentBuilder withJournal() {
+		this.journal = true;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StableExperimentBuilder withDurationHistory(Path path) {
+		this.durationHistory = path;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StableExperimentBuilder withStrictDataflowCheck() {
+		this.strictDataflow = true;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StableExperimentBuilder withStrictSequencing() {
+		this.strictSequencing = true;
+		return this;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public Experiment build() {
 		getCurrent().setNextOrFail(IExperimentElement.END);
-		Experiment experiment = new Experiment(experimentName, getFirst());
+		Experiment experiment = new Experiment(experimentName, getFirst(), maxParallelism);
+		experiment.setDefaultActionTimeout(defaultActionTimeout);
+		experiment.setStrictDataflow(strictDataflow);
+		experiment.setStrictSequencing(strictSequencing);
+
+		if (persistentData != null) {
+			experiment.enableCheckpoints(persistentData);
+		}
+
+		if (metricsPort != null) {
+			experiment.enableMetricsEndpoint(metricsPort);
+		}
+
+		if (journal) {
+			experiment.enableJournal();
+		}
+
+		if (durationHistory != null) {
+			experiment.setDurationHistory(new DurationHistory(durationHistory));
+		}
 
 		for (IExperimentElement element : experiment) {
 			if (element.hasAction()) {
@@ -76,7 +213,34 @@ public class ExperimentBuilderImpl extends AbstractExperimentBuilder<Experiment>
 			}
 		}
 
+		guardSharedHolders(experiment);
+
 		return experiment;
 	}
 
+	/**
+	 * Guards the holders that are shared between concurrent threads, but are not thread-safe, or
+	 * warns if they cannot be guarded. Also warns about concurrent actions not declaring their
+	 * dependencies, since the holders they share are unknown.
+	 */
+	private void guardSharedHolders(Experiment experiment) {
+		for (IDataHolder<?> holder : DataflowAnalysis.findSharedHolders(experiment.getFirst())) {
+			if (holder.isThreadSafe()) {
+				continue;
+			}
+
+			if (holder instanceof AbstractDataHolder) {
+				((AbstractDataHolder<?>) holder).guardConcurrentAccess();
+				LOGGER.info("{} is shared between concurrent threads. Guarding it with a lock. Consider using a thread-safe holder such as the AtomicDataHolder.",
+						holder);
+			} else {
+				LOGGER.warn("{} is shared between concurrent threads, but is not thread-safe!", holder);
+			}
+		}
+
+		for (IExperimentAction action : DataflowAnalysis.findUndeclaredConcurrentActions(experiment.getFirst())) {
+			LOGGER.warn("[{}] is executed concurrently, but does not declare its data dependencies. Holders it shares with other threads are not guarded.", action);
+		}
+	}
+
 }
@@ -1,5 +1,7 @@
 package org.continuity.experimentation.builder;
 
+import org.continuity.experimentation.distribution.EnvironmentCoordinator;
+
 /**
  * Builds loops.
  *
@@ -10,6 +12,31 @@ package org.continuity.experimentation.builder;
  */
 public interface LoopBuilder<C> extends ExperimentBuilder<LoopBuilder<C>, ConcurrentBuilder<LoopBuilder<C>>>, Branchable<IfBranchBuilder<LoopBuilder<C>>> {
 
+	/**
+	 * Lets the loop execute up to the passed number of iterations concurrently. Each iteration is
+	 * executed in its own context and writes to its own copies of the data holders, which are
+	 * merged in the order of the iterations after all iterations are finished (see
+	 * {@link org.continuity.experimentation.element.ParallelLoopElement ParallelLoopElement}).
+	 *
+	 * @param maxParallelIterations
+	 *            The maximum number of concurrent iterations. 1 executes the iterations
+	 *            sequentially.
+	 * @return This builder.
+	 */
+	LoopBuilder<C> parallel(int maxParallelIterations);
+
+	/**
+	 * Distributes the iterations across the environments of the passed coordinator. Each
+	 * environment executes one iteration at a time; failed iterations are reassigned to other
+	 * environments. The iterations are isolated from each other like with {@link #parallel(int)},
+	 * which is replaced.
+	 *
+	 * @param coordinator
+	 *            The coordinator holding the environments.
+	 * @return This builder.
+	 */
+	LoopBuilder<C> distribute(EnvironmentCoordinator<?> coordinator);
+
 	/**
 	 * Ends the loop.
 	 *
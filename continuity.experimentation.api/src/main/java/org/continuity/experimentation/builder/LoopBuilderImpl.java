@@ -5,8 +5,12 @@ import java.util.function.Consumer;
 
 import org.continuity.experimentation.IExperimentAction;
 import org.continuity.experimentation.IExperimentElement;
+import org.continuity.experimentation.distribution.EnvironmentCoordinator;
+import org.continuity.experimentation.element.IIterationScheduler;
 import org.continuity.experimentation.element.LoopElement;
 import org.continuity.experimentation.element.NamedBooleanSupplier;
+import org.continuity.experimentation.element.ParallelLoopElement;
+import org.continuity.experimentation.sweep.Sweep;
 
 /**
  * @author Henning Schulz
@@ -16,6 +20,10 @@ public class LoopBuilderImpl<C> extends AbstractExperimentBuilder<C> implements
 
 	private final int numIterations;
 
+	private int maxParallelIterations = 1;
+
+	private IIterationScheduler scheduler = null;
+
 	public LoopBuilderImpl(C caller, Consumer<IExperimentElement> createdConsumer, int numIterations) {
 		super(caller, createdConsumer);
 
@@ -31,6 +39,15 @@ public class LoopBuilderImpl<C> extends AbstractExperimentBuilder<C> implements
 		return this;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LoopBuilder<C> append(IExperimentAction action, long timeoutMillis) {
+		appendAction(action, timeoutMillis);
+		return this;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -39,6 +56,14 @@ public class LoopBuilderImpl<C> extends AbstractExperimentBuilder<C> implements
 		return new LoopBuilderImpl<>(this, this::appendElement, numIterations);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<LoopBuilder<C>> sweep(Sweep sweep) {
+		return new SweepBuilderImpl<>(this, this::appendElement, sweep);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -63,11 +88,48 @@ public class LoopBuilderImpl<C> extends AbstractExperimentBuilder<C> implements
 		return new ConcurrentBuilderImpl<>(this, this::appendElement);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LoopBuilder<C> parallel(int maxParallelIterations) {
+		if (maxParallelIterations < 1) {
+			throw new IllegalArgumentException("The number of parallel iterations must be at least 1 but was " + maxParallelIterations + "!");
+		}
+
+		this.maxParallelIterations = maxParallelIterations;
+		this.scheduler = null;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LoopBuilder<C> distribute(EnvironmentCoordinator<?> coordinator) {
+		this.maxParallelIterations = coordinator.getEnvironments().size();
+		this.scheduler = coordinator;
+		return this;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public C endLoop() {
+		if ((maxParallelIterations > 1) || (scheduler != null)) {
+			ParallelLoopElement result = new ParallelLoopElement(numIterations, maxParallelIterations);
+			result.setLoopStart(getFirst());
+
+			if (scheduler != null) {
+				result.setScheduler(scheduler);
+			}
+
+			getCurrent().setNextOrFail(IExperimentElement.END);
+
+			return returnToCaller(result, result);
+		}
+
 		LoopElement result = new LoopElement(numIterations);
 		result.setLoopStart(getFirst());
 		getCurrent().setNextOrFail(result.getLoopEnd());
@@ -1,6 +1,11 @@
 package org.continuity.experimentation.builder;
 
+import java.nio.file.Path;
+
+import org.continuity.experimentation.DurationHistory;
 import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.ExperimentExecutionService;
+import org.continuity.experimentation.data.IDataHolder;
 
 /**
  * Is the start and end point of experiment builders and allows to retrieve the built experiment.
@@ -10,6 +15,85 @@ import org.continuity.experimentation.Experiment;
  */
 public interface StableExperimentBuilder extends ExperimentBuilder<StableExperimentBuilder, ConcurrentBuilder<StableExperimentBuilder>>, Branchable<IfBranchBuilder<StableExperimentBuilder>> {
 
+	/**
+	 * Sets the maximum number of concurrent threads that are executed in parallel. If more threads
+	 * are to be started, they are executed by the thread starting them. Defaults to
+	 * {@link ExperimentExecutionService#DEFAULT_MAX_PARALLELISM}.
+	 *
+	 * @param maxParallelism
+	 *            The maximum number of threads to be executed in parallel.
+	 * @return This builder.
+	 */
+	StableExperimentBuilder withMaxParallelism(int maxParallelism);
+
+	/**
+	 * Sets the timeout for all actions that are appended without an explicit timeout (see
+	 * {@link Experiment#setDefaultActionTimeout(long)}).
+	 *
+	 * @param timeoutMillis
+	 *            The timeout in milliseconds. 0 means no timeout.
+	 * @return This builder.
+	 */
+	StableExperimentBuilder withDefaultActionTimeout(long timeoutMillis);
+
+	/**
+	 * Lets the experiment write a checkpoint after each finished action, so that it can be resumed
+	 * using {@link Experiment#resume()}.
+	 *
+	 * @param persistentData
+	 *            Data holders whose content is to be restored when resuming. Only serializable
+	 *            content is persisted.
+	 * @return This builder.
+	 */
+	StableExperimentBuilder withCheckpoints(IDataHolder<?>... persistentData);
+
+	/**
+	 * Lets the experiment serve live metrics in the Prometheus format while it is running (see
+	 * {@link Experiment#enableMetricsEndpoint(int)}).
+	 *
+	 * @param port
+	 *            The port to serve the metrics at.
+	 * @return This builder.
+	 */
+	StableExperimentBuilder withMetricsEndpoint(int port);
+
+	/**
+	 * Lets the experiment write a binary journal of each execution (see
+	 * {@link Experiment#enableJournal()}).
+	 *
+	 * @return This builder.
+	 */
+	StableExperimentBuilder withJournal();
+
+	/**
+	 * Lets the experiment record the durations of its actions and estimate its duration from the
+	 * durations recorded by previous executions (see
+	 * {@link Experiment#setDurationHistory(DurationHistory)}).
+	 *
+	 * @param path
+	 *            The file storing the durations. Has to be the same for all executions of the
+	 *            experiment.
+	 * @return This builder.
+	 */
+	StableExperimentBuilder withDurationHistory(Path path);
+
+	/**
+	 * Lets the experiment abort before the first action if the data flow check finds an error
+	 * (see {@link Experiment#setStrictDataflow(boolean)}). Otherwise, the findings are only
+	 * logged.
+	 *
+	 * @return This builder.
+	 */
+	StableExperimentBuilder withStrictDataflowCheck();
+
+	/**
+	 * Lets the experiment execute all actions strictly one after the other, including
+	 * parallelizable ones (see {@link Experiment#setStrictSequencing(boolean)}).
+	 *
+	 * @return This builder.
+	 */
+	StableExperimentBuilder withStrictSequencing();
+
 	/**
 	 * Constructs the built experiment.
 	 *
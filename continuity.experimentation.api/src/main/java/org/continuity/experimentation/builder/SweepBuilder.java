@@ -0,0 +1,61 @@
+package org.continuity.experimentation.builder;
+
+import java.util.List;
+
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.distribution.EnvironmentCoordinator;
+
+/**
+ * Builds parameter sweeps.
+ *
+ * @author Henning Schulz
+ *
+ * @param <C>
+ *            Type of the builder that called this builder.
+ */
+public interface SweepBuilder<C> extends ExperimentBuilder<SweepBuilder<C>, ConcurrentBuilder<SweepBuilder<C>>>, Branchable<IfBranchBuilder<SweepBuilder<C>>> {
+
+	/**
+	 * Lets the sweep execute up to the passed number of points concurrently. Each point is
+	 * executed in its own context and writes to its own copies of the data holders, like the
+	 * iterations of a parallel loop (see {@link LoopBuilder#parallel(int)}).
+	 *
+	 * @param maxParallelPoints
+	 *            The maximum number of concurrent points. 1 executes the points sequentially.
+	 * @return This builder.
+	 */
+	SweepBuilder<C> parallel(int maxParallelPoints);
+
+	/**
+	 * Schedules the points across a pool of target environments. Each environment executes one
+	 * point at a time and is written to the passed holder before the point is executed. Replaces
+	 * {@link #parallel(int)}. Shorthand for {@link #distribute(EnvironmentCoordinator)} with a
+	 * default coordinator.
+	 *
+	 * @param environmentHolder
+	 *            The holder the environment of a point is written to.
+	 * @param environments
+	 *            The environments, e.g., the hosts of the systems under test.
+	 * @return This builder.
+	 */
+	<E> SweepBuilder<C> onEnvironments(IDataHolder<E> environmentHolder, List<E> environments);
+
+	/**
+	 * Distributes the points across the environments of the passed coordinator. Each
+	 * environment executes one point at a time; failed points are reassigned to other
+	 * environments. Replaces {@link #parallel(int)}.
+	 *
+	 * @param coordinator
+	 *            The coordinator holding the environments.
+	 * @return This builder.
+	 */
+	SweepBuilder<C> distribute(EnvironmentCoordinator<?> coordinator);
+
+	/**
+	 * Ends the sweep.
+	 *
+	 * @return A builder for adding further elements after the sweep.
+	 */
+	C endSweep();
+
+}
@@ -0,0 +1,141 @@
+package org.continuity.experimentation.builder;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.IExperimentElement;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.distribution.EnvironmentCoordinator;
+import org.continuity.experimentation.element.IIterationScheduler;
+import org.continuity.experimentation.element.NamedBooleanSupplier;
+import org.continuity.experimentation.element.SweepElement;
+import org.continuity.experimentation.sweep.Sweep;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class SweepBuilderImpl<C> extends AbstractExperimentBuilder<C> implements SweepBuilder<C> {
+
+	private final Sweep sweep;
+
+	private int maxParallelPoints = 1;
+
+	private IIterationScheduler scheduler = null;
+
+	public SweepBuilderImpl(C caller, Consumer<IExperimentElement> createdConsumer, Sweep sweep) {
+		super(caller, createdConsumer);
+
+		this.sweep = sweep;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<C> append(IExperimentAction action) {
+		appendAction(action);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<C> append(IExperimentAction action, long timeoutMillis) {
+		appendAction(action, timeoutMillis);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LoopBuilder<SweepBuilder<C>> loop(int numIterations) {
+		return new LoopBuilderImpl<>(this, this::appendElement, numIterations);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<SweepBuilder<C>> sweep(Sweep sweep) {
+		return new SweepBuilderImpl<>(this, this::appendElement, sweep);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IfBranchBuilder<SweepBuilder<C>> ifThen(BooleanSupplier condition) {
+		return ifThen("?", condition);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IfBranchBuilder<SweepBuilder<C>> ifThen(String name, BooleanSupplier condition) {
+		return new BranchBuilderImpl<>(this, this::appendElement, new NamedBooleanSupplier(name, condition));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ConcurrentBuilder<SweepBuilder<C>> newThread() {
+		return new ConcurrentBuilderImpl<>(this, this::appendElement);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<C> parallel(int maxParallelPoints) {
+		if (maxParallelPoints < 1) {
+			throw new IllegalArgumentException("The number of parallel points must be at least 1 but was " + maxParallelPoints + "!");
+		}
+
+		this.maxParallelPoints = maxParallelPoints;
+		this.scheduler = null;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <E> SweepBuilder<C> onEnvironments(IDataHolder<E> environmentHolder, List<E> environments) {
+		return distribute(new EnvironmentCoordinator<>(environmentHolder, environments));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SweepBuilder<C> distribute(EnvironmentCoordinator<?> coordinator) {
+		this.maxParallelPoints = coordinator.getEnvironments().size();
+		this.scheduler = coordinator;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public C endSweep() {
+		SweepElement result = new SweepElement(sweep, maxParallelPoints);
+		result.setLoopStart(getFirst());
+
+		if (scheduler != null) {
+			result.setScheduler(scheduler);
+		}
+
+		getCurrent().setNextOrFail(IExperimentElement.END);
+
+		return returnToCaller(result, result);
+	}
+
+}
@@ -1,9 +1,14 @@
 package org.continuity.experimentation.data;
 
 import org.continuity.experimentation.exception.AbortInnerException;
+import org.continuity.experimentation.exception.DataNotSetException;
+import org.continuity.experimentation.jfr.DataAccessEvent;
+import org.continuity.experimentation.journal.ExperimentJournal;
 
 /**
- * Abstract class providing management of write and read notifications.
+ * Abstract class providing management of write and read notifications. Accesses can be guarded by
+ * a lock (see {@link #guardConcurrentAccess()}) if the holder is shared between concurrent
+ * threads.
  *
  * @author Henning Schulz
  *
@@ -13,13 +18,32 @@ public abstract class AbstractDataHolder<T> implements IDataHolder<T> {
 	private final String name;
 	private Class<T> dataType;
 
-	private boolean writeNotified = false;
+	private volatile boolean writeNotified = false;
+
+	private volatile boolean guarded = false;
+
+	/**
+	 * Whether this is a copy living in a {@link DataScope}.
+	 */
+	boolean scopedCopy = false;
 
 	public AbstractDataHolder(String name, Class<T> dataType) {
 		this.name = name;
 		this.dataType = dataType;
 	}
 
+	/**
+	 * Constructor for creating a copy (see {@link #copy()}). Takes over the name, type and whether
+	 * the content has been set.
+	 *
+	 * @param original
+	 *            The holder to be copied.
+	 */
+	protected AbstractDataHolder(AbstractDataHolder<T> original) {
+		this(original.name, original.dataType);
+		this.writeNotified = original.writeNotified;
+	}
+
 	/**
 	 * To be called when the content of this holder has been set.
 	 */
@@ -36,7 +60,7 @@ public abstract class AbstractDataHolder<T> implements IDataHolder<T> {
 	 */
 	protected void notifyRead() throws AbortInnerException {
 		if (!writeNotified) {
-			throw new AbortInnerException(null, getClass().getSimpleName() + " '" + name + "' (holds " + dataType.getSimpleName() + ") is notified to be read before data has been written!");
+			throw new DataNotSetException(getClass().getSimpleName() + " '" + name + "' (holds " + dataType.getSimpleName() + ")", this);
 		}
 	}
 
@@ -47,7 +71,24 @@ public abstract class AbstractDataHolder<T> implements IDataHolder<T> {
 	 */
 	@Override
 	public T get() throws AbortInnerException {
+		AbstractDataHolder<T> scoped = DataScope.lookup(this);
+
+		if (scoped != null) {
+			return scoped.get();
+		}
+
+		if (guarded) {
+			synchronized (this) {
+				return read();
+			}
+		}
+
+		return read();
+	}
+
+	private T read() throws AbortInnerException {
 		notifyRead();
+		DataAccessEvent.emit("read", this);
 		return getWithoutNotification();
 	}
 
@@ -64,8 +105,27 @@ public abstract class AbstractDataHolder<T> implements IDataHolder<T> {
 	 */
 	@Override
 	public void set(T data) {
+		AbstractDataHolder<T> scoped = DataScope.lookupForWrite(this);
+
+		if (scoped != null) {
+			scoped.set(data);
+			return;
+		}
+
+		if (guarded) {
+			synchronized (this) {
+				write(data);
+			}
+		} else {
+			write(data);
+		}
+	}
+
+	private void write(T data) {
 		setWithoutNotification(data);
 		notifyWrite();
+		DataAccessEvent.emit("write", this);
+		ExperimentJournal.dataWritten(this, data);
 	}
 
 	/**
@@ -82,7 +142,28 @@ public abstract class AbstractDataHolder<T> implements IDataHolder<T> {
 	 */
 	@Override
 	public void invalidate() {
-		writeNotified = false;
+		AbstractDataHolder<T> scoped = DataScope.lookupForWrite(this);
+
+		if (scoped != null) {
+			scoped.invalidate();
+			return;
+		}
+
+		if (guarded) {
+			synchronized (this) {
+				writeNotified = false;
+				invalidateWithoutNotification();
+			}
+		} else {
+			writeNotified = false;
+			invalidateWithoutNotification();
+		}
+	}
+
+	/**
+	 * Discards the content without caring about notifications. Does nothing by default.
+	 */
+	protected void invalidateWithoutNotification() {
 	}
 
 	/**
@@ -90,7 +171,53 @@ public abstract class AbstractDataHolder<T> implements IDataHolder<T> {
 	 */
 	@Override
 	public boolean isSet() {
-		return writeNotified;
+		AbstractDataHolder<T> scoped = DataScope.lookup(this);
+		return (scoped != null) ? scoped.isSet() : writeNotified;
+	}
+
+	/**
+	 * Lets all reads, writes and invalidations synchronize on this holder. Called by the
+	 * experiment builder for holders that are accessed by concurrent threads. Thread-safe
+	 * implementations do not need the lock.
+	 */
+	public void guardConcurrentAccess() {
+		this.guarded = true;
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * {@code true} if the accesses are {@link #guardConcurrentAccess() guarded}.
+	 */
+	@Override
+	public boolean isThreadSafe() {
+		return guarded;
+	}
+
+	/**
+	 * Creates a copy holding the current content for being written within a {@link DataScope}.
+	 * Holders that return {@code null} are shared between all scopes. Returns {@code null} by
+	 * default.
+	 *
+	 * @return The copy or {@code null}.
+	 */
+	protected AbstractDataHolder<T> copy() {
+		return null;
+	}
+
+	/**
+	 * Takes over the content of a copy created by {@link #copy()}. By default, the content of the
+	 * copy is set or, if the copy is not set, this holder is invalidated.
+	 *
+	 * @param copy
+	 *            The copy.
+	 */
+	protected void merge(AbstractDataHolder<T> copy) {
+		if (copy.writeNotified) {
+			set(copy.getWithoutNotification());
+		} else {
+			invalidate();
+		}
 	}
 
 	/**
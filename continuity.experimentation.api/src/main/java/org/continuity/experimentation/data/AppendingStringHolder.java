@@ -10,6 +10,10 @@ public class AppendingStringHolder extends AbstractDataHolder<String> {
 
 	private StringBuilder stringBuilder = new StringBuilder();
 
+	private int copiedLength = 0;
+
+	private boolean invalidatedCopy = false;
+
 	public AppendingStringHolder(String name) {
 		super(name, String.class);
 	}
@@ -19,6 +23,12 @@ public class AppendingStringHolder extends AbstractDataHolder<String> {
 		stringBuilder.append(initialString);
 	}
 
+	private AppendingStringHolder(AppendingStringHolder original) {
+		super(original);
+		stringBuilder.append(original.stringBuilder);
+		copiedLength = stringBuilder.length();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -39,9 +49,35 @@ public class AppendingStringHolder extends AbstractDataHolder<String> {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void invalidate() {
-		super.invalidate();
+	protected void invalidateWithoutNotification() {
 		stringBuilder = new StringBuilder();
+		copiedLength = 0;
+		invalidatedCopy = true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected AbstractDataHolder<String> copy() {
+		return new AppendingStringHolder(this);
+	}
+
+	/**
+	 * Appends only the strings that have been appended to the copy. If the copy has been
+	 * invalidated, this holder is invalidated first.
+	 */
+	@Override
+	protected void merge(AbstractDataHolder<String> copy) {
+		AppendingStringHolder appended = (AppendingStringHolder) copy;
+
+		if (appended.invalidatedCopy) {
+			invalidate();
+		}
+
+		if (appended.stringBuilder.length() > appended.copiedLength) {
+			set(appended.stringBuilder.substring(appended.copiedLength));
+		}
 	}
 
 }
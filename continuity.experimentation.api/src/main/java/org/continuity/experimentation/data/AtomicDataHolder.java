@@ -0,0 +1,126 @@
+package org.continuity.experimentation.data;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.continuity.experimentation.jfr.DataAccessEvent;
+import org.continuity.experimentation.journal.ExperimentJournal;
+
+/**
+ * Thread-safe variant of the {@link SimpleDataHolder}, storing the content in an
+ * {@link AtomicReference}. Can be shared between concurrent threads without locking.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class AtomicDataHolder<T> extends AbstractDataHolder<T> {
+
+	private final AtomicReference<T> data = new AtomicReference<>();
+
+	private final T defaultValue;
+
+	public AtomicDataHolder(String name, Class<T> dataType) {
+		super(name, dataType);
+		this.defaultValue = null;
+	}
+
+	public AtomicDataHolder(String name, T initialData) {
+		this(name, initialData, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	public AtomicDataHolder(String name, T initialData, boolean useInitialAsDefault) {
+		super(name, (Class<T>) initialData.getClass());
+
+		if (useInitialAsDefault) {
+			this.defaultValue = initialData;
+		} else {
+			this.defaultValue = null;
+		}
+
+		this.data.set(initialData);
+		notifyWrite();
+	}
+
+	private AtomicDataHolder(AtomicDataHolder<T> original) {
+		super(original);
+		this.defaultValue = original.defaultValue;
+		this.data.set(original.data.get());
+	}
+
+	/**
+	 * Atomically sets the content if the current content is the expected one.
+	 *
+	 * @param expected
+	 *            The expected content. {@code null} if the holder is expected not to be set.
+	 * @param newData
+	 *            The content to be set.
+	 * @return {@code true} if the content has been set.
+	 */
+	public boolean compareAndSet(T expected, T newData) {
+		AbstractDataHolder<T> scoped = DataScope.lookupForWrite(this);
+
+		if (scoped != null) {
+			return ((AtomicDataHolder<T>) scoped).compareAndSet(expected, newData);
+		}
+
+		if (!data.compareAndSet(expected, newData)) {
+			return false;
+		}
+
+		notifyWrite();
+		DataAccessEvent.emit("write", this);
+		ExperimentJournal.dataWritten(this, newData);
+
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected T getWithoutNotification() {
+		return this.data.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void setWithoutNotification(T data) {
+		this.data.set(data);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void invalidateWithoutNotification() {
+		this.data.set(null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected AbstractDataHolder<T> copy() {
+		return new AtomicDataHolder<>(this);
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+
+		if (defaultValue != null) {
+			set(defaultValue);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
+}
@@ -0,0 +1,207 @@
+package org.continuity.experimentation.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe variant of the {@link AppendingStringHolder}. Each thread appends to its own
+ * segment without locking. The segments are merged in the order of appending when the content is
+ * read. Invalidating replaces the whole state including the segments. An append overlapping an
+ * invalidation is repeated on the new state, so that it is not lost.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class ConcurrentAppendingStringHolder extends AbstractDataHolder<String> {
+
+	private static final AtomicLong SEQUENCE = new AtomicLong();
+
+	private final AtomicReference<State> state;
+
+	/**
+	 * The segment the current thread appends to. Stored in the threads themselves, so that
+	 * terminated threads are not retained by the holder. A segment of a discarded state is
+	 * replaced on the next append.
+	 */
+	private final ThreadLocal<Segment> threadSegment = new ThreadLocal<>();
+
+	private volatile boolean invalidatedCopy = false;
+
+	public ConcurrentAppendingStringHolder(String name) {
+		this(name, "");
+	}
+
+	public ConcurrentAppendingStringHolder(String name, String initialString) {
+		super(name, String.class);
+		this.state = new AtomicReference<>(new State(initialString));
+	}
+
+	private ConcurrentAppendingStringHolder(ConcurrentAppendingStringHolder original) {
+		super(original);
+		this.state = new AtomicReference<>(new State(original.state.get().read()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getWithoutNotification() {
+		return state.get().read();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void setWithoutNotification(String data) {
+		State current;
+
+		do {
+			current = state.get();
+			Segment segment = threadSegment.get();
+
+			if ((segment == null) || (segment.state != current)) {
+				segment = current.newSegment();
+				threadSegment.set(segment);
+			}
+
+			segment.append(data);
+		} while (state.get() != current);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void invalidateWithoutNotification() {
+		state.set(new State(""));
+		invalidatedCopy = true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected AbstractDataHolder<String> copy() {
+		return new ConcurrentAppendingStringHolder(this);
+	}
+
+	/**
+	 * Appends only the strings that have been appended to the copy. If the copy has been
+	 * invalidated, this holder is invalidated first.
+	 */
+	@Override
+	protected void merge(AbstractDataHolder<String> copy) {
+		ConcurrentAppendingStringHolder appended = (ConcurrentAppendingStringHolder) copy;
+
+		if (appended.invalidatedCopy) {
+			invalidate();
+		}
+
+		String segments = appended.state.get().readSegments();
+
+		if (!segments.isEmpty()) {
+			set(segments);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
+	/**
+	 * The content since the last invalidation, consisting of a fixed prefix and the segments of
+	 * the appending threads.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	private static final class State {
+
+		private final String prefix;
+
+		private final Queue<Segment> segments = new ConcurrentLinkedQueue<>();
+
+		private State(String prefix) {
+			this.prefix = prefix;
+		}
+
+		private Segment newSegment() {
+			Segment segment = new Segment(this);
+			segments.add(segment);
+			return segment;
+		}
+
+		private String read() {
+			return prefix + readSegments();
+		}
+
+		private String readSegments() {
+			List<Node> nodes = new ArrayList<>();
+
+			for (Segment segment : segments) {
+				for (Node node = segment.head.next; node != null; node = node.next) {
+					nodes.add(node);
+				}
+			}
+
+			nodes.sort(Comparator.comparingLong(node -> node.sequence));
+
+			StringBuilder builder = new StringBuilder();
+			nodes.forEach(node -> builder.append(node.string));
+			return builder.toString();
+		}
+
+	}
+
+	/**
+	 * The strings appended by one thread. Only the owning thread writes to a segment.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	private static final class Segment {
+
+		private final State state;
+
+		private final Node head = new Node(-1, "");
+
+		private Node tail = head;
+
+		private Segment(State state) {
+			this.state = state;
+		}
+
+		private void append(String string) {
+			Node node = new Node(SEQUENCE.getAndIncrement(), string);
+			tail.next = node;
+			tail = node;
+		}
+
+	}
+
+	private static final class Node {
+
+		private final long sequence;
+
+		private final String string;
+
+		private volatile Node next;
+
+		private Node(long sequence, String string) {
+			this.sequence = sequence;
+			this.string = string;
+		}
+
+	}
+
+}
@@ -1,11 +1,13 @@
 package org.continuity.experimentation.data;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.continuity.experimentation.exception.AbortInnerException;
 
 /**
- * Holds a static prefix and increments a counter each time {@link #invalidate()} is called.
+ * Holds a static prefix and increments a counter each time {@link #invalidate()} is called. The
+ * counter is atomic, so the holder can be shared between concurrent threads.
  *
  * @author Henning Schulz
  *
@@ -14,7 +16,7 @@ public class CountingDataHolder implements IDataHolder<String> {
 
 	private final String prefix;
 
-	private int counter = 1;
+	private final AtomicInteger counter = new AtomicInteger(1);
 
 	private CountingDataHolder(String prefix) {
 		this.prefix = prefix;
@@ -32,7 +34,7 @@ public class CountingDataHolder implements IDataHolder<String> {
 	}
 
 	public CountingDataHolder withStartValue(int startValue) {
-		this.counter = startValue;
+		this.counter.set(startValue);
 		return this;
 	}
 
@@ -43,7 +45,7 @@ public class CountingDataHolder implements IDataHolder<String> {
 
 	@Override
 	public String get() throws AbortInnerException {
-		return prefix + counter;
+		return prefix + counter.get();
 	}
 
 	@Override
@@ -53,12 +55,17 @@ public class CountingDataHolder implements IDataHolder<String> {
 
 	@Override
 	public void invalidate() {
-		counter++;
+		counter.incrementAndGet();
+	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return true;
 	}
 
 	@Override
 	public String toString() {
-		return "Counting: " + prefix + counter;
+		return "Counting: " + prefix + counter.get();
 	}
 
 }
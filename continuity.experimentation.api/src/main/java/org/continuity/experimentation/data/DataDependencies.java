@@ -0,0 +1,347 @@
+package org.continuity.experimentation.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IAsyncExperimentAction;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.exception.AbortException;
+
+/**
+ * Declares which {@link IDataHolder}s an action reads, writes and invalidates (see
+ * {@link IExperimentAction#getDataDependencies()}). Instances are immutable. <br>
+ *
+ * Example: <br>
+ * {@code DataDependencies.reads(startTime, stopTime).andWrites(report)}
+ *
+ * @author Henning Schulz
+ *
+ */
+public final class DataDependencies {
+
+	/**
+	 * The dependencies of an action that does not declare them. It might access any holder.
+	 */
+	public static final DataDependencies UNKNOWN = new DataDependencies(false, false, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+	/**
+	 * The dependencies of an action that does not access any holder.
+	 */
+	public static final DataDependencies NONE = new DataDependencies(true, false, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+	private final boolean known;
+
+	private final boolean parallelizable;
+
+	private final List<IDataHolder<?>> reads;
+
+	private final List<IDataHolder<?>> writes;
+
+	private final List<IDataHolder<?>> invalidations;
+
+	private DataDependencies(boolean known, boolean parallelizable, List<IDataHolder<?>> reads, List<IDataHolder<?>> writes, List<IDataHolder<?>> invalidations) {
+		this.known = known;
+		this.parallelizable = parallelizable;
+		this.reads = reads;
+		this.writes = writes;
+		this.invalidations = invalidations;
+	}
+
+	/**
+	 * Creates dependencies reading the passed holders.
+	 *
+	 * @param holders
+	 *            The holders to be read.
+	 * @return The dependencies.
+	 */
+	public static DataDependencies reads(IDataHolder<?>... holders) {
+		return NONE.andReads(holders);
+	}
+
+	/**
+	 * Creates dependencies writing the passed holders.
+	 *
+	 * @param holders
+	 *            The holders to be written.
+	 * @return The dependencies.
+	 */
+	public static DataDependencies writes(IDataHolder<?>... holders) {
+		return NONE.andWrites(holders);
+	}
+
+	/**
+	 * Creates dependencies invalidating the passed holders.
+	 *
+	 * @param holders
+	 *            The holders to be invalidated.
+	 * @return The dependencies.
+	 */
+	public static DataDependencies invalidates(IDataHolder<?>... holders) {
+		return NONE.andInvalidates(holders);
+	}
+
+	/**
+	 * Adds holders to be read.
+	 *
+	 * @param holders
+	 *            The holders to be read.
+	 * @return New dependencies.
+	 */
+	public DataDependencies andReads(IDataHolder<?>... holders) {
+		return new DataDependencies(known, parallelizable, join(reads, Arrays.asList(holders)), writes, invalidations);
+	}
+
+	/**
+	 * Adds holders to be written.
+	 *
+	 * @param holders
+	 *            The holders to be written.
+	 * @return New dependencies.
+	 */
+	public DataDependencies andWrites(IDataHolder<?>... holders) {
+		return new DataDependencies(known, parallelizable, reads, join(writes, Arrays.asList(holders)), invalidations);
+	}
+
+	/**
+	 * Adds holders to be invalidated.
+	 *
+	 * @param holders
+	 *            The holders to be invalidated.
+	 * @return New dependencies.
+	 */
+	public DataDependencies andInvalidates(IDataHolder<?>... holders) {
+		return new DataDependencies(known, parallelizable, reads, writes, join(invalidations, Arrays.asList(holders)));
+	}
+
+	/**
+	 * Marks the action as parallelizable. That is, it has no effects other than accessing the
+	 * declared holders and writing files to the directory of its context, and it does not depend
+	 * on the point in time it is executed at. Consecutive parallelizable actions are executed
+	 * concurrently if they do not depend on each other (see
+	 * {@link org.continuity.experimentation.Experiment#setStrictSequencing(boolean)
+	 * Experiment#setStrictSequencing(boolean)}). Unknown dependencies cannot be parallelizable.
+	 *
+	 * @return New dependencies.
+	 */
+	public DataDependencies parallelizable() {
+		return known ? new DataDependencies(true, true, reads, writes, invalidations) : this;
+	}
+
+	/**
+	 * Combines these dependencies with others, e.g., of two actions executed one after the
+	 * other.
+	 *
+	 * @param other
+	 *            The other dependencies.
+	 * @return New dependencies, which are unknown if one of both is unknown and parallelizable if
+	 *         both are.
+	 */
+	public DataDependencies union(DataDependencies other) {
+		if (!known || !other.known) {
+			return UNKNOWN;
+		}
+
+		return new DataDependencies(true, parallelizable && other.parallelizable, join(reads, other.reads), join(writes, other.writes), join(invalidations, other.invalidations));
+	}
+
+	private static List<IDataHolder<?>> join(List<IDataHolder<?>> first, List<IDataHolder<?>> second) {
+		Set<IDataHolder<?>> contained = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<IDataHolder<?>> joined = new ArrayList<>(first.size() + second.size());
+
+		for (IDataHolder<?> holder : first) {
+			if (contained.add(holder)) {
+				joined.add(holder);
+			}
+		}
+
+		for (IDataHolder<?> holder : second) {
+			if (contained.add(holder)) {
+				joined.add(holder);
+			}
+		}
+
+		return Collections.unmodifiableList(joined);
+	}
+
+	/**
+	 * Returns whether the dependencies are known.
+	 *
+	 * @return {@code false} if this is {@link #UNKNOWN}.
+	 */
+	public boolean isKnown() {
+		return this.known;
+	}
+
+	/**
+	 * Gets {@link #parallelizable}.
+	 *
+	 * @return {@code true} if the action may be executed concurrently with independent ones.
+	 */
+	public boolean isParallelizable() {
+		return this.parallelizable;
+	}
+
+	/**
+	 * Returns whether an action with these dependencies has to be executed after one with the
+	 * passed dependencies, because one of both writes or invalidates a holder the other one
+	 * accesses.
+	 *
+	 * @param earlier
+	 *            The dependencies of the earlier action.
+	 * @return {@code true} if the order of both actions has to be kept. Always {@code true} for
+	 *         unknown dependencies.
+	 */
+	public boolean dependsOn(DataDependencies earlier) {
+		if (!known || !earlier.known) {
+			return true;
+		}
+
+		return intersects(earlier.writes, this) || intersects(earlier.invalidations, this) || intersects(writes, earlier) || intersects(invalidations, earlier);
+	}
+
+	private static boolean intersects(List<IDataHolder<?>> modified, DataDependencies accessing) {
+		for (IDataHolder<?> holder : modified) {
+			if (contains(accessing.reads, holder) || contains(accessing.writes, holder) || contains(accessing.invalidations, holder)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean contains(List<IDataHolder<?>> holders, IDataHolder<?> holder) {
+		for (IDataHolder<?> contained : holders) {
+			if (contained == holder) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Gets {@link #reads}.
+	 *
+	 * @return The holders that are read.
+	 */
+	public List<IDataHolder<?>> getReads() {
+		return this.reads;
+	}
+
+	/**
+	 * Gets {@link #writes}.
+	 *
+	 * @return The holders that are written.
+	 */
+	public List<IDataHolder<?>> getWrites() {
+		return this.writes;
+	}
+
+	/**
+	 * Gets {@link #invalidations}.
+	 *
+	 * @return The holders that are invalidated.
+	 */
+	public List<IDataHolder<?>> getInvalidations() {
+		return this.invalidations;
+	}
+
+	/**
+	 * Wraps an action so that it declares these dependencies. Useful for lambdas.
+	 *
+	 * @param action
+	 *            The action to be wrapped.
+	 * @return The wrapped action.
+	 */
+	public IExperimentAction declaredBy(IExperimentAction action) {
+		if (action instanceof IAsyncExperimentAction) {
+			return new DeclaredAsyncAction((IAsyncExperimentAction) action, this);
+		} else {
+			return new DeclaredAction(action, this);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		if (!known) {
+			return "unknown";
+		}
+
+		return "reads " + reads + ", writes " + writes + (invalidations.isEmpty() ? "" : ", invalidates " + invalidations) + (parallelizable ? " (parallelizable)" : "");
+	}
+
+	private static class DeclaredAction implements IExperimentAction {
+
+		private final IExperimentAction action;
+
+		private final DataDependencies dependencies;
+
+		private DeclaredAction(IExperimentAction action, DataDependencies dependencies) {
+			this.action = action;
+			this.dependencies = dependencies;
+		}
+
+		@Override
+		public void execute(Context context) throws AbortException, Exception {
+			action.execute(context);
+		}
+
+		@Override
+		public DataDependencies getDataDependencies() {
+			return dependencies;
+		}
+
+		@Override
+		public boolean isExternal() {
+			return action.isExternal();
+		}
+
+		@Override
+		public long getRetries() {
+			return action.getRetries();
+		}
+
+		@Override
+		public void bypassExperiment(Experiment experiment) {
+			action.bypassExperiment(experiment);
+		}
+
+		@Override
+		public String toString() {
+			return action.toString();
+		}
+
+	}
+
+	private static class DeclaredAsyncAction extends DeclaredAction implements IAsyncExperimentAction {
+
+		private final IAsyncExperimentAction action;
+
+		private DeclaredAsyncAction(IAsyncExperimentAction action, DataDependencies dependencies) {
+			super(action, dependencies);
+			this.action = action;
+		}
+
+		@Override
+		public CompletionStage<Void> executeAsync(Context context) {
+			return action.executeAsync(context);
+		}
+
+		@Override
+		public void execute(Context context) throws AbortException, Exception {
+			action.execute(context);
+		}
+
+	}
+
+}
@@ -0,0 +1,235 @@
+package org.continuity.experimentation.data;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.IAsyncExperimentAction;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.exception.AbortException;
+
+/**
+ * Overlay of data holders for one part of an experiment that is executed concurrently with other
+ * parts, e.g., one iteration of a parallel loop. The first write to an {@link AbstractDataHolder}
+ * within a scope creates a copy of the holder that is only visible within the scope. Reads see
+ * the copy if there is one or the content of the enclosing scope otherwise. The copies can be
+ * merged back into the enclosing scope using {@link #mergeIntoParent()}. <br>
+ *
+ * The scope is taken from the {@link Context} (see {@link Context#getDataScope()}) and bound to
+ * the thread executing an action. Holders that cannot be copied are shared between all scopes.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class DataScope {
+
+	private static final ThreadLocal<DataScope> CURRENT = new ThreadLocal<>();
+
+	private final DataScope parent;
+
+	private final Map<AbstractDataHolder<?>, AbstractDataHolder<?>> copies = new IdentityHashMap<>();
+
+	private final List<AbstractDataHolder<?>> written = new ArrayList<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent
+	 *            The enclosing scope or {@code null} if the scope is directly nested in the
+	 *            experiment.
+	 */
+	public DataScope(DataScope parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * Gets {@link #parent}.
+	 *
+	 * @return {@link #parent}
+	 */
+	public DataScope getParent() {
+		return this.parent;
+	}
+
+	/**
+	 * Wraps an action so that the scope is bound to the executing thread while the action is
+	 * executed. For asynchronous actions, only the synchronous part of
+	 * {@link IAsyncExperimentAction#executeAsync(Context)} is covered. Writes in its continuations
+	 * go to the enclosing scope, which the dataflow check reports.
+	 *
+	 * @param action
+	 *            The action to be wrapped.
+	 * @return The wrapped action.
+	 */
+	public IExperimentAction bind(IExperimentAction action) {
+		if (action instanceof IAsyncExperimentAction) {
+			IAsyncExperimentAction asyncAction = (IAsyncExperimentAction) action;
+
+			return new IAsyncExperimentAction() {
+
+				@Override
+				public CompletionStage<Void> executeAsync(Context context) {
+					DataScope previous = enter();
+
+					try {
+						return asyncAction.executeAsync(context);
+					} finally {
+						CURRENT.set(previous);
+					}
+				}
+
+				@Override
+				public void execute(Context context) throws AbortException, Exception {
+					DataScope previous = enter();
+
+					try {
+						asyncAction.execute(context);
+					} finally {
+						CURRENT.set(previous);
+					}
+				}
+
+				@Override
+				public String toString() {
+					return asyncAction.toString();
+				}
+
+			};
+		}
+
+		return new IExperimentAction() {
+
+			@Override
+			public void execute(Context context) throws AbortException, Exception {
+				DataScope previous = enter();
+
+				try {
+					action.execute(context);
+				} finally {
+					CURRENT.set(previous);
+				}
+			}
+
+			@Override
+			public String toString() {
+				return action.toString();
+			}
+
+		};
+	}
+
+	private DataScope enter() {
+		DataScope previous = CURRENT.get();
+		CURRENT.set(this);
+		return previous;
+	}
+
+	/**
+	 * Merges the content of all holders written within this scope into the enclosing scope, in
+	 * the order of the first write. Has to be called by a thread the enclosing scope is bound to.
+	 */
+	public void mergeIntoParent() {
+		List<AbstractDataHolder<?>> holders;
+
+		synchronized (copies) {
+			holders = new ArrayList<>(written);
+		}
+
+		for (AbstractDataHolder<?> holder : holders) {
+			merge(holder);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> void merge(AbstractDataHolder<T> holder) {
+		AbstractDataHolder<T> copy;
+
+		synchronized (copies) {
+			copy = (AbstractDataHolder<T>) copies.get(holder);
+		}
+
+		holder.merge(copy);
+	}
+
+	/**
+	 * Returns whether a holder gets a copy per scope when it is written. Otherwise, it is shared
+	 * between all scopes.
+	 *
+	 * @param holder
+	 *            The holder.
+	 * @return {@code true} if the holder can be copied.
+	 */
+	public static boolean isolates(IDataHolder<?> holder) {
+		return (holder instanceof AbstractDataHolder) && (((AbstractDataHolder<?>) holder).copy() != null);
+	}
+
+	/**
+	 * Gets the copy of a holder visible in the scope bound to the current thread.
+	 *
+	 * @param holder
+	 *            The original holder.
+	 * @return The copy or {@code null} if the original is to be used.
+	 */
+	static <T> AbstractDataHolder<T> lookup(AbstractDataHolder<T> holder) {
+		DataScope scope = CURRENT.get();
+		return ((scope == null) || holder.scopedCopy) ? null : scope.lookupFrom(holder);
+	}
+
+	/**
+	 * Gets the copy of a holder to be written in the scope bound to the current thread. Creates the
+	 * copy on the first write.
+	 *
+	 * @param holder
+	 *            The original holder.
+	 * @return The copy or {@code null} if there is no scope or the holder cannot be copied.
+	 */
+	static <T> AbstractDataHolder<T> lookupForWrite(AbstractDataHolder<T> holder) {
+		DataScope scope = CURRENT.get();
+
+		if ((scope == null) || holder.scopedCopy) {
+			return null;
+		}
+
+		synchronized (scope.copies) {
+			AbstractDataHolder<T> copy = scope.getCopy(holder);
+
+			if (copy == null) {
+				AbstractDataHolder<T> visible = scope.parent == null ? null : scope.parent.lookupFrom(holder);
+				copy = (visible == null ? holder : visible).copy();
+
+				if (copy == null) {
+					return null;
+				}
+
+				copy.scopedCopy = true;
+				scope.copies.put(holder, copy);
+				scope.written.add(holder);
+			}
+
+			return copy;
+		}
+	}
+
+	private <T> AbstractDataHolder<T> lookupFrom(AbstractDataHolder<T> holder) {
+		for (DataScope scope = this; scope != null; scope = scope.parent) {
+			AbstractDataHolder<T> copy = scope.getCopy(holder);
+
+			if (copy != null) {
+				return copy;
+			}
+		}
+
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> AbstractDataHolder<T> getCopy(AbstractDataHolder<T> holder) {
+		synchronized (copies) {
+			return (AbstractDataHolder<T>) copies.get(holder);
+		}
+	}
+
+}
@@ -47,4 +47,14 @@ public interface IDataHolder<T> {
 	 */
 	void invalidate();
 
+	/**
+	 * Returns whether the holder can be accessed by concurrent threads. Otherwise, concurrent
+	 * threads might see stale content or lose writes.
+	 *
+	 * @return {@code false} by default.
+	 */
+	default boolean isThreadSafe() {
+		return false;
+	}
+
 }
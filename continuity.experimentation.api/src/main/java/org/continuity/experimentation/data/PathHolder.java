@@ -54,4 +54,9 @@ public class PathHolder implements IDataHolder<Path> {
 		// do nothing
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return pathSegments.stream().allMatch(IDataHolder::isThreadSafe);
+	}
+
 }
@@ -36,6 +36,12 @@ public class SimpleDataHolder<T> extends AbstractDataHolder<T> {
 		notifyWrite();
 	}
 
+	private SimpleDataHolder(SimpleDataHolder<T> original) {
+		super(original);
+		this.defaultValue = original.defaultValue;
+		this.data = original.data;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -52,6 +58,14 @@ public class SimpleDataHolder<T> extends AbstractDataHolder<T> {
 		this.data = data;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected AbstractDataHolder<T> copy() {
+		return new SimpleDataHolder<>(this);
+	}
+
 	@Override
 	public void invalidate() {
 		super.invalidate();
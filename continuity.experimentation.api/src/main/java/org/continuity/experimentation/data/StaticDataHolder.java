@@ -53,6 +53,11 @@ public class StaticDataHolder<T> implements IDataHolder<T> {
 		LOGGER.warn("Tried to invalidate the content, but doesn't have any effect.");
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return "Static: " + content;
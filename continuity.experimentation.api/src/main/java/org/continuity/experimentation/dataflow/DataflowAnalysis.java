@@ -0,0 +1,493 @@
+package org.continuity.experimentation.dataflow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import org.apache.commons.math3.util.Pair;
+import org.continuity.experimentation.IAsyncExperimentAction;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.IExperimentElement;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.data.DataScope;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.element.BranchElement;
+import org.continuity.experimentation.element.ConcurrentElement;
+import org.continuity.experimentation.element.ExperimentActionElement;
+import org.continuity.experimentation.element.LoopElement;
+import org.continuity.experimentation.element.ParallelLoopElement;
+
+/**
+ * Checks the data flow of an experiment before it is executed, based on the
+ * {@link IExperimentAction#getDataDependencies() dependencies declared by the actions}. It finds
+ * <ul>
+ * <li>holders that are read without being written on every path to the reading action,</li>
+ * <li>holders written by concurrent threads or by concurrent iterations sharing the holder,</li>
+ * <li>holders written by asynchronous actions in concurrent iterations, where writes after the
+ * synchronous part bypass the copy of the iteration, and</li>
+ * <li>holders that are written but never read.</li>
+ * </ul>
+ *
+ * Actions not declaring their dependencies are assumed to write every holder. Hence, they never
+ * cause false findings, but hide uninitialized reads behind them. Holders that are already set
+ * when the analysis runs are never reported as uninitialized. Unread writes are only reported if
+ * all actions declare their dependencies. The conditions of branches are not analyzed.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class DataflowAnalysis {
+
+	private final Set<IDataHolder<?>> persistentData = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private final Set<DataflowFinding> findings = new LinkedHashSet<>();
+
+	private final Map<IDataHolder<?>, IExperimentAction> writers = new IdentityHashMap<>();
+
+	private final List<IDataHolder<?>> writtenHolders = new ArrayList<>();
+
+	private final Set<IDataHolder<?>> readHolders = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private final Set<IDataHolder<?>> sharedHolders = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private final Set<IExperimentAction> undeclaredConcurrentActions = new LinkedHashSet<>();
+
+	private boolean allDeclared = true;
+
+	private int silentPasses = 0;
+
+	private DataflowAnalysis(Collection<IDataHolder<?>> persistentData) {
+		this.persistentData.addAll(persistentData);
+	}
+
+	/**
+	 * Analyzes the data flow of the passed element and all subsequent ones.
+	 *
+	 * @param first
+	 *            The first element of the experiment.
+	 * @return The findings in the order they have been found.
+	 */
+	public static List<DataflowFinding> analyze(IExperimentElement first) {
+		return analyze(first, Collections.emptyList());
+	}
+
+	/**
+	 * Analyzes the data flow of the passed element and all subsequent ones.
+	 *
+	 * @param first
+	 *            The first element of the experiment.
+	 * @param persistentData
+	 *            Holders that are persisted in checkpoints. They are never reported as unread.
+	 * @return The findings in the order they have been found.
+	 */
+	public static List<DataflowFinding> analyze(IExperimentElement first, Collection<IDataHolder<?>> persistentData) {
+		DataflowAnalysis analysis = new DataflowAnalysis(persistentData);
+		analysis.analyzeChain(first, new Written(), new Effects());
+		analysis.reportUnreadWrites();
+
+		return new ArrayList<>(analysis.findings);
+	}
+
+	/**
+	 * Finds the holders that are written by one concurrent thread or iteration and accessed by
+	 * another one. Only declared dependencies are considered.
+	 *
+	 * @param first
+	 *            The first element of the experiment.
+	 * @return The shared holders.
+	 */
+	public static Set<IDataHolder<?>> findSharedHolders(IExperimentElement first) {
+		DataflowAnalysis analysis = new DataflowAnalysis(Collections.emptyList());
+		analysis.analyzeChain(first, new Written(), new Effects());
+
+		Set<IDataHolder<?>> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+		shared.addAll(analysis.sharedHolders);
+		return shared;
+	}
+
+	/**
+	 * Finds the actions with unknown dependencies that are executed by concurrent threads or
+	 * iterations. The holders they share cannot be found by {@link #findSharedHolders}.
+	 *
+	 * @param first
+	 *            The first element of the experiment.
+	 * @return The actions in the order they have been found.
+	 */
+	public static Set<IExperimentAction> findUndeclaredConcurrentActions(IExperimentElement first) {
+		DataflowAnalysis analysis = new DataflowAnalysis(Collections.emptyList());
+		analysis.analyzeChain(first, new Written(), new Effects());
+
+		return new LinkedHashSet<>(analysis.undeclaredConcurrentActions);
+	}
+
+	/**
+	 * Analyzes a chain of elements along their {@link IExperimentElement#getChainSuccessor()
+	 * successors}.
+	 *
+	 * @return The holders written after the chain or {@code null} if the end of the chain cannot
+	 *         be reached.
+	 */
+	private Written analyzeChain(IExperimentElement first, Written in, Effects effects) {
+		Written state = in;
+
+		for (IExperimentElement element = first; (element != null) && (state != null); element = element.getChainSuccessor()) {
+			state = analyzeElement(element, state, effects);
+		}
+
+		return state;
+	}
+
+	private Written analyzeElement(IExperimentElement element, Written state, Effects effects) {
+		if (element instanceof ExperimentActionElement) {
+			return analyzeAction(element.getAction(), state, effects);
+		} else if (element instanceof LoopElement) {
+			return analyzeLoop((LoopElement) element, state, effects);
+		} else if (element instanceof ParallelLoopElement) {
+			return analyzeParallelLoop((ParallelLoopElement) element, state, effects);
+		} else if (element instanceof BranchElement) {
+			return analyzeBranch((BranchElement) element, state, effects);
+		} else if (element instanceof ConcurrentElement) {
+			return analyzeConcurrent((ConcurrentElement) element, state, effects);
+		} else if (element.hasAction()) {
+			return analyzeAction(element.getAction(), state, effects);
+		} else {
+			return state;
+		}
+	}
+
+	private Written analyzeAction(IExperimentAction action, Written state, Effects effects) {
+		DataDependencies dependencies = action.getDataDependencies();
+
+		if (!dependencies.isKnown()) {
+			allDeclared = false;
+			effects.unknown = true;
+			effects.undeclared.add(action);
+			state.setAll();
+			return state;
+		}
+
+		for (IDataHolder<?> holder : dependencies.getReads()) {
+			readHolders.add(holder);
+			effects.accesses.add(holder);
+
+			if (!state.contains(holder) && holder.isNotSet()) {
+				report(new DataflowFinding(DataflowFinding.Kind.UNINITIALIZED_READ, holder, action));
+			}
+		}
+
+		for (IDataHolder<?> holder : dependencies.getInvalidations()) {
+			state.remove(holder);
+			effects.write(holder, action);
+		}
+
+		for (IDataHolder<?> holder : dependencies.getWrites()) {
+			state.add(holder);
+			effects.write(holder, action);
+
+			if (writers.putIfAbsent(holder, action) == null) {
+				writtenHolders.add(holder);
+			}
+		}
+
+		return state;
+	}
+
+	/**
+	 * Iterates the body until the holders written at its start are stable, without reporting.
+	 * Then, the body is analyzed once more reporting the findings.
+	 */
+	private Written analyzeLoop(LoopElement loop, Written in, Effects effects) {
+		if (loop.getNumIterations() <= 0) {
+			return in;
+		}
+
+		Written start = in;
+		silentPasses++;
+
+		try {
+			while (true) {
+				Written next = Written.meet(in, analyzeChain(loop.getLoopStart(), start.copy(), new Effects()));
+
+				if (next.equals(start)) {
+					break;
+				}
+
+				start = next;
+			}
+		} finally {
+			silentPasses--;
+		}
+
+		Written out = analyzeChain(loop.getLoopStart(), start.copy(), effects);
+		return (out == null) ? in : out;
+	}
+
+	/**
+	 * Each iteration starts from the holders written before the loop. Holders that are not
+	 * {@link DataScope#isolates(IDataHolder) isolated} are shared between concurrent iterations.
+	 * Isolated holders written by asynchronous actions are reported, too, because the scope of the
+	 * iteration is only bound during the synchronous part of the action.
+	 */
+	private Written analyzeParallelLoop(ParallelLoopElement loop, Written in, Effects effects) {
+		Written start = in.copy();
+		DataDependencies preparation = loop.getPreparationDependencies();
+
+		if (preparation.isKnown()) {
+			preparation.getWrites().forEach(start::add);
+		} else {
+			start.setAll();
+		}
+
+		Effects iterationEffects = new Effects();
+		Written out = analyzeChain(loop.getLoopStart(), start, iterationEffects);
+
+		if (loop.getMaxParallelIterations() > 1) {
+			undeclaredConcurrentActions.addAll(iterationEffects.undeclared);
+
+			for (Map.Entry<IDataHolder<?>, IExperimentAction> write : iterationEffects.writes.entrySet()) {
+				if (!DataScope.isolates(write.getKey())) {
+					sharedHolders.add(write.getKey());
+					report(new DataflowFinding(DataflowFinding.Kind.WRITE_WRITE_RACE, write.getKey(), write.getValue(), write.getValue()));
+				}
+			}
+
+			for (Map.Entry<IDataHolder<?>, IExperimentAction> write : iterationEffects.asyncWrites.entrySet()) {
+				if (DataScope.isolates(write.getKey())) {
+					report(new DataflowFinding(DataflowFinding.Kind.UNSCOPED_ASYNC_WRITE, write.getKey(), write.getValue()));
+				}
+			}
+		}
+
+		effects.addAll(iterationEffects);
+
+		if ((loop.getNumIterations() <= 0) || (out == null)) {
+			return in;
+		} else {
+			return out;
+		}
+	}
+
+	/**
+	 * Only holders written in all branches are written after the branch. If there is no else
+	 * branch and no condition holds, the experiment ends. Hence, this path is not considered.
+	 */
+	private Written analyzeBranch(BranchElement branch, Written in, Effects effects) {
+		Written out = null;
+
+		for (Pair<BooleanSupplier, IExperimentElement> pair : branch.getBranches()) {
+			out = Written.meet(out, analyzeChain(pair.getSecond(), in.copy(), effects));
+		}
+
+		if (branch.getElseBranch() != null) {
+			out = Written.meet(out, analyzeChain(branch.getElseBranch(), in.copy(), effects));
+		}
+
+		return out;
+	}
+
+	/**
+	 * Each thread starts from the holders written before. After the join, the holders written by
+	 * any thread are written. Threads containing actions with unknown dependencies are not
+	 * checked for races.
+	 */
+	private Written analyzeConcurrent(ConcurrentElement concurrent, Written in, Effects effects) {
+		Written out = in;
+		List<Effects> threadEffects = new ArrayList<>();
+
+		for (IExperimentElement thread : concurrent.getThreads()) {
+			Effects current = new Effects();
+			Written threadOut = analyzeChain(thread, in.copy(), current);
+
+			if (threadOut != null) {
+				out = Written.union(out, threadOut);
+			}
+
+			for (Effects other : threadEffects) {
+				if (!current.unknown && !other.unknown) {
+					reportRaces(other, current);
+					collectShared(other, current);
+					collectShared(current, other);
+				}
+			}
+
+			threadEffects.add(current);
+			effects.addAll(current);
+		}
+
+		if (threadEffects.size() > 1) {
+			threadEffects.forEach(thread -> undeclaredConcurrentActions.addAll(thread.undeclared));
+		}
+
+		return out;
+	}
+
+	private void reportRaces(Effects first, Effects second) {
+		for (Map.Entry<IDataHolder<?>, IExperimentAction> write : first.writes.entrySet()) {
+			IExperimentAction otherWriter = second.writes.get(write.getKey());
+
+			if (otherWriter != null) {
+				report(new DataflowFinding(DataflowFinding.Kind.WRITE_WRITE_RACE, write.getKey(), write.getValue(), otherWriter));
+			}
+		}
+	}
+
+	private void collectShared(Effects writing, Effects accessing) {
+		for (IDataHolder<?> holder : writing.writes.keySet()) {
+			if (accessing.accesses.contains(holder)) {
+				sharedHolders.add(holder);
+			}
+		}
+	}
+
+	private void reportUnreadWrites() {
+		if (!allDeclared) {
+			return;
+		}
+
+		for (IDataHolder<?> holder : writtenHolders) {
+			if (!readHolders.contains(holder) && !persistentData.contains(holder)) {
+				report(new DataflowFinding(DataflowFinding.Kind.UNREAD_WRITE, holder, writers.get(holder)));
+			}
+		}
+	}
+
+	private void report(DataflowFinding finding) {
+		if (silentPasses == 0) {
+			findings.add(finding);
+		}
+	}
+
+	/**
+	 * The holders that are definitely written at a point of the experiment.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	private static final class Written {
+
+		/**
+		 * Whether an action with unknown dependencies might have written all holders.
+		 */
+		private boolean all = false;
+
+		private final Set<IDataHolder<?>> holders = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		private Written copy() {
+			Written copy = new Written();
+			copy.all = all;
+			copy.holders.addAll(holders);
+			return copy;
+		}
+
+		private boolean contains(IDataHolder<?> holder) {
+			return all || holders.contains(holder);
+		}
+
+		private void add(IDataHolder<?> holder) {
+			if (!all) {
+				holders.add(holder);
+			}
+		}
+
+		private void remove(IDataHolder<?> holder) {
+			holders.remove(holder);
+		}
+
+		private void setAll() {
+			all = true;
+			holders.clear();
+		}
+
+		/**
+		 * Holders written on both paths. {@code null} stands for an unreachable path.
+		 */
+		private static Written meet(Written first, Written second) {
+			if ((first == null) || ((second != null) && first.all)) {
+				return (second == null) ? null : second.copy();
+			} else if ((second == null) || second.all) {
+				return first.copy();
+			}
+
+			Written meet = first.copy();
+			meet.holders.retainAll(second.holders);
+			return meet;
+		}
+
+		/**
+		 * Holders written on one of two concurrent paths.
+		 */
+		private static Written union(Written first, Written second) {
+			Written union = first.copy();
+
+			if (second.all) {
+				union.setAll();
+			} else {
+				second.holders.forEach(union::add);
+			}
+
+			return union;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Written)) {
+				return false;
+			}
+
+			Written other = (Written) obj;
+			return (all == other.all) && holders.equals(other.holders);
+		}
+
+		@Override
+		public int hashCode() {
+			return holders.hashCode() + (all ? 1 : 0);
+		}
+
+	}
+
+	/**
+	 * The holders possibly written by a part of the experiment, with the first writing action and
+	 * the first writing asynchronous action, the holders possibly accessed, and the actions with
+	 * unknown dependencies.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	private static final class Effects {
+
+		private boolean unknown = false;
+
+		private final Map<IDataHolder<?>, IExperimentAction> writes = new IdentityHashMap<>();
+
+		private final Map<IDataHolder<?>, IExperimentAction> asyncWrites = new IdentityHashMap<>();
+
+		private final Set<IDataHolder<?>> accesses = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		private final Set<IExperimentAction> undeclared = new LinkedHashSet<>();
+
+		private void write(IDataHolder<?> holder, IExperimentAction action) {
+			writes.putIfAbsent(holder, action);
+			accesses.add(holder);
+
+			if (action instanceof IAsyncExperimentAction) {
+				asyncWrites.putIfAbsent(holder, action);
+			}
+		}
+
+		private void addAll(Effects other) {
+			unknown |= other.unknown;
+			other.writes.forEach(this::write);
+			other.asyncWrites.forEach(asyncWrites::putIfAbsent);
+			accesses.addAll(other.accesses);
+			undeclared.addAll(other.undeclared);
+		}
+
+	}
+
+}
@@ -0,0 +1,165 @@
+package org.continuity.experimentation.dataflow;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.IDataHolder;
+
+/**
+ * A problem in the data flow of an experiment found by the {@link DataflowAnalysis}.
+ *
+ * @author Henning Schulz
+ *
+ */
+public final class DataflowFinding {
+
+	private final Kind kind;
+
+	private final IDataHolder<?> holder;
+
+	private final List<IExperimentAction> actions;
+
+	DataflowFinding(Kind kind, IDataHolder<?> holder, IExperimentAction... actions) {
+		this.kind = kind;
+		this.holder = holder;
+		this.actions = Collections.unmodifiableList(Arrays.asList(actions));
+	}
+
+	/**
+	 * Gets {@link #kind}.
+	 *
+	 * @return {@link #kind}
+	 */
+	public Kind getKind() {
+		return this.kind;
+	}
+
+	/**
+	 * Gets {@link #holder}.
+	 *
+	 * @return {@link #holder}
+	 */
+	public IDataHolder<?> getHolder() {
+		return this.holder;
+	}
+
+	/**
+	 * Gets {@link #actions}.
+	 *
+	 * @return The actions causing the finding. Two for {@link Kind#WRITE_WRITE_RACE} and one
+	 *         otherwise.
+	 */
+	public List<IExperimentAction> getActions() {
+		return this.actions;
+	}
+
+	/**
+	 * Returns whether the finding will cause a failure or wrong results when executing the
+	 * experiment.
+	 *
+	 * @return {@code true} for {@link Kind#UNINITIALIZED_READ}, {@link Kind#WRITE_WRITE_RACE} and
+	 *         {@link Kind#UNSCOPED_ASYNC_WRITE}.
+	 */
+	public boolean isError() {
+		return kind != Kind.UNREAD_WRITE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof DataflowFinding)) {
+			return false;
+		}
+
+		DataflowFinding other = (DataflowFinding) obj;
+
+		if ((kind != other.kind) || (holder != other.holder) || (actions.size() != other.actions.size())) {
+			return false;
+		}
+
+		for (int i = 0; i < actions.size(); i++) {
+			if (actions.get(i) != other.actions.get(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		int hash = kind.hashCode() * 31 + System.identityHashCode(holder);
+
+		for (IExperimentAction action : actions) {
+			hash = hash * 31 + System.identityHashCode(action);
+		}
+
+		return hash;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		switch (kind) {
+		case UNINITIALIZED_READ:
+			return "[" + actions.get(0) + "] reads " + holder + ", which might not have been written before.";
+		case WRITE_WRITE_RACE:
+			if (actions.get(0) == actions.get(1)) {
+				return "[" + actions.get(0) + "] writes " + holder + " in concurrent iterations, but the holder is shared between them.";
+			} else {
+				return "[" + actions.get(0) + "] and [" + actions.get(1) + "] write " + holder + " concurrently.";
+			}
+		case UNSCOPED_ASYNC_WRITE:
+			return "[" + actions.get(0) + "] writes " + holder + " asynchronously in concurrent iterations. Writes after the synchronous part bypass the copy of the iteration.";
+		case UNREAD_WRITE:
+		default:
+			return "[" + actions.get(0) + "] writes " + holder + ", which is never read.";
+		}
+	}
+
+	/**
+	 * The kinds of findings.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	public static enum Kind {
+
+		/**
+		 * A holder is read although it is not written on every path to the reading action.
+		 */
+		UNINITIALIZED_READ,
+
+		/**
+		 * A holder is written by two concurrent threads or iterations without being isolated.
+		 */
+		WRITE_WRITE_RACE,
+
+		/**
+		 * A holder is written by an asynchronous action in concurrent iterations. The copy of the
+		 * iteration is only used during the synchronous part of the action.
+		 */
+		UNSCOPED_ASYNC_WRITE,
+
+		/**
+		 * A holder is written but never read. Only reported if all actions declare their
+		 * dependencies.
+		 */
+		UNREAD_WRITE;
+
+	}
+
+}
@@ -0,0 +1,434 @@
+package org.continuity.experimentation.distribution;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.ExperimentReport;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.element.IIterationScheduler;
+import org.continuity.experimentation.exception.AbortException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Distributes the iterations of a parallel loop or the points of a sweep across a pool of
+ * identical target environments, e.g., {@link TargetEnvironment}s. Each environment executes one
+ * iteration at a time; the environment is written to a data holder before each iteration, so
+ * that the actions of the iteration address the right environment. <br>
+ *
+ * The iterations are split into partitions of {@link #setPartitionSize(int) partitionSize}
+ * consecutive iterations, which are handed out to the environments in order. An iteration fails
+ * if it throws or catches an exception. A failed iteration is reassigned to another environment
+ * it has not failed on, and the rest of its partition is handed out again. An environment failing
+ * {@link #setMaxConsecutiveFailures(int) maxConsecutiveFailures} times in a row is retired. <br>
+ *
+ * As all iterations are executed in the same context tree, the results of all environments end up
+ * in one result tree. The files of failed attempts are moved aside (see
+ * {@link IIterationScheduler.Schedule#finished(int, int, ExperimentReport)}) and the
+ * assignments are stored in {@value #ASSIGNMENTS_FILE}.
+ *
+ * @author Henning Schulz
+ *
+ * @param <E>
+ *            Type of the environments.
+ */
+public class EnvironmentCoordinator<E> implements IIterationScheduler {
+
+	/**
+	 * Name of the file listing the attempts of each iteration.
+	 */
+	public static final String ASSIGNMENTS_FILE = "environment-assignments.csv";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EnvironmentCoordinator.class);
+
+	private final IDataHolder<E> environmentHolder;
+
+	private final List<E> environments;
+
+	private int partitionSize = 1;
+
+	private int maxConsecutiveFailures = 2;
+
+	private volatile List<EnvironmentProgress<E>> progress;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param environmentHolder
+	 *            The holder the environment of an iteration is written to.
+	 * @param environments
+	 *            The environments.
+	 */
+	public EnvironmentCoordinator(IDataHolder<E> environmentHolder, List<E> environments) {
+		this.environmentHolder = environmentHolder;
+		this.environments = copyEnvironments(environments);
+		this.progress = createProgress();
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param environmentHolder
+	 *            The holder the environment of an iteration is written to.
+	 * @param environments
+	 *            The environments.
+	 */
+	@SafeVarargs
+	public EnvironmentCoordinator(IDataHolder<E> environmentHolder, E... environments) {
+		List<E> environmentList = new ArrayList<>(environments.length);
+
+		for (E environment : environments) {
+			environmentList.add(environment);
+		}
+
+		this.environmentHolder = environmentHolder;
+		this.environments = copyEnvironments(environmentList);
+		this.progress = createProgress();
+	}
+
+	private static <E> List<E> copyEnvironments(List<E> environments) {
+		if (environments.isEmpty()) {
+			throw new IllegalArgumentException("At least one environment is required!");
+		}
+
+		return Collections.unmodifiableList(new ArrayList<>(environments));
+	}
+
+	/**
+	 * Gets {@link #environments}.
+	 *
+	 * @return {@link #environments}
+	 */
+	public List<E> getEnvironments() {
+		return this.environments;
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * The coordinator writes the environment of the executing worker.
+	 */
+	@Override
+	public DataDependencies getDataDependencies() {
+		return DataDependencies.writes(environmentHolder);
+	}
+
+	/**
+	 * Gets {@link #partitionSize}.
+	 *
+	 * @return {@link #partitionSize}
+	 */
+	public int getPartitionSize() {
+		return this.partitionSize;
+	}
+
+	/**
+	 * Sets {@link #partitionSize}, i.e., the number of consecutive iterations handed out to an
+	 * environment at once. Defaults to 1.
+	 *
+	 * @param partitionSize
+	 *            New value for {@link #partitionSize}
+	 * @return This coordinator.
+	 */
+	public EnvironmentCoordinator<E> setPartitionSize(int partitionSize) {
+		if (partitionSize < 1) {
+			throw new IllegalArgumentException("The partition size must be at least 1 but was " + partitionSize + "!");
+		}
+
+		this.partitionSize = partitionSize;
+		return this;
+	}
+
+	/**
+	 * Gets {@link #maxConsecutiveFailures}.
+	 *
+	 * @return {@link #maxConsecutiveFailures}
+	 */
+	public int getMaxConsecutiveFailures() {
+		return this.maxConsecutiveFailures;
+	}
+
+	/**
+	 * Sets {@link #maxConsecutiveFailures}, i.e., the number of iterations that have to fail in
+	 * a row before an environment is retired. Defaults to 2.
+	 *
+	 * @param maxConsecutiveFailures
+	 *            New value for {@link #maxConsecutiveFailures}
+	 * @return This coordinator.
+	 */
+	public EnvironmentCoordinator<E> setMaxConsecutiveFailures(int maxConsecutiveFailures) {
+		if (maxConsecutiveFailures < 1) {
+			throw new IllegalArgumentException("The number of failures must be at least 1 but was " + maxConsecutiveFailures + "!");
+		}
+
+		this.maxConsecutiveFailures = maxConsecutiveFailures;
+		return this;
+	}
+
+	/**
+	 * Gets the progress of the environments in the latest execution.
+	 *
+	 * @return The progress per environment, in the order of the environments.
+	 */
+	public List<EnvironmentProgress<E>> getProgress() {
+		return this.progress;
+	}
+
+	private List<EnvironmentProgress<E>> createProgress() {
+		return Collections.unmodifiableList(environments.stream().map(EnvironmentProgress::new).collect(Collectors.toList()));
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * Worker {@code i} executes all its iterations on the {@code i}-th environment.
+	 */
+	@Override
+	public Schedule schedule(int numIterations, int numWorkers) {
+		if (numWorkers > environments.size()) {
+			throw new IllegalArgumentException("Cannot schedule " + numWorkers + " workers on " + environments.size() + " environments!");
+		}
+
+		List<EnvironmentProgress<E>> executionProgress = createProgress();
+		this.progress = executionProgress;
+
+		return new CoordinatedSchedule(numIterations, numWorkers, executionProgress);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "environments " + environments;
+	}
+
+	private class CoordinatedSchedule implements Schedule {
+
+		private final int numWorkers;
+
+		private final List<EnvironmentProgress<E>> progress;
+
+		private final List<Partition> queue = new ArrayList<>();
+
+		private final Partition[] current;
+
+		private final List<String> assignments = new ArrayList<>();
+
+		private boolean cancelled = false;
+
+		private CoordinatedSchedule(int numIterations, int numWorkers, List<EnvironmentProgress<E>> progress) {
+			this.numWorkers = numWorkers;
+			this.progress = progress;
+			this.current = new Partition[numWorkers];
+
+			for (int start = 1; start <= numIterations; start += partitionSize) {
+				Deque<Integer> iterations = new ArrayDeque<>();
+
+				for (int i = start; (i < start + partitionSize) && (i <= numIterations); i++) {
+					iterations.add(i);
+				}
+
+				queue.add(new Partition(iterations, Collections.emptySet(), null));
+			}
+		}
+
+		/**
+		 * {@inheritDoc} <br>
+		 *
+		 * Blocks if there is no partition the environment of the worker has not failed on, but
+		 * other environments are still busy and might fail.
+		 */
+		@Override
+		public synchronized int next(int worker) throws InterruptedException {
+			while (!cancelled && !progress.get(worker - 1).isRetired()) {
+				Partition partition = current[worker - 1];
+
+				if (partition != null) {
+					int iteration = partition.iterations.poll();
+					progress.get(worker - 1).start(iteration);
+					return iteration;
+				}
+
+				partition = queue.stream().filter(p -> !p.failedOn.contains(worker)).findFirst().orElse(null);
+
+				if (partition != null) {
+					queue.remove(partition);
+					current[worker - 1] = partition;
+				} else if (Arrays.stream(current).anyMatch(p -> p != null)) {
+					wait();
+				} else {
+					return 0;
+				}
+			}
+
+			return 0;
+		}
+
+		/**
+		 * {@inheritDoc} <br>
+		 *
+		 * Binds the environment of the worker.
+		 */
+		@Override
+		public void prepare(int iteration, int worker, Context context) {
+			environmentHolder.set(environments.get(worker - 1));
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public synchronized boolean finished(int iteration, int worker, ExperimentReport report) {
+			EnvironmentProgress<E> environmentProgress = progress.get(worker - 1);
+			Partition partition = current[worker - 1];
+			assignments.add(iteration + ";" + environmentProgress.getEnvironment() + ";" + (report.isOk() ? "ok" : "failed"));
+
+			try {
+				if (report.isOk()) {
+					environmentProgress.succeeded();
+
+					if (partition.iterations.isEmpty()) {
+						current[worker - 1] = null;
+					}
+
+					return true;
+				}
+
+				environmentProgress.failed(maxConsecutiveFailures);
+				current[worker - 1] = null;
+
+				if (environmentProgress.isRetired()) {
+					LOGGER.warn("Retiring environment {} after {} consecutive failures.", environmentProgress.getEnvironment(), maxConsecutiveFailures);
+				}
+
+				if (!partition.iterations.isEmpty()) {
+					enqueue(new Partition(partition.iterations, partition.failedOn, null));
+				}
+
+				Set<Integer> failedOn = new HashSet<>(partition.failedOn);
+				failedOn.add(worker);
+				Partition retry = new Partition(new ArrayDeque<>(Collections.singleton(iteration)), failedOn, report);
+
+				for (int other = 1; other <= numWorkers; other++) {
+					if (!failedOn.contains(other) && !progress.get(other - 1).isRetired()) {
+						LOGGER.info("Iteration {} failed on environment {}. Reassigning it.", iteration, environmentProgress.getEnvironment());
+						enqueue(retry);
+						return false;
+					}
+				}
+
+				LOGGER.error("Iteration {} failed on all available environments. Keeping the result of {}.", iteration, environmentProgress.getEnvironment());
+				return true;
+			} finally {
+				notifyAll();
+			}
+		}
+
+		private void enqueue(Partition partition) {
+			int index = 0;
+
+			while ((index < queue.size()) && (queue.get(index).first() < partition.first())) {
+				index++;
+			}
+
+			queue.add(index, partition);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public synchronized void cancel() {
+			cancelled = true;
+			notifyAll();
+		}
+
+		/**
+		 * {@inheritDoc} <br>
+		 *
+		 * Writes the assignments to {@value EnvironmentCoordinator#ASSIGNMENTS_FILE}.
+		 */
+		@Override
+		public synchronized Map<Integer, AbortException> complete(Context context) {
+			Map<Integer, AbortException> exceptions = new LinkedHashMap<>();
+
+			for (Partition partition : queue) {
+				for (int iteration : partition.iterations) {
+					if (partition.lastFailure == null) {
+						exceptions.put(iteration, new AbortException(context, "Iteration " + iteration + " has not been executed, because no environment was left."));
+					} else {
+						exceptions.put(iteration, new AbortException(context, "Iteration " + iteration + " failed on the remaining environments.", partition.getCause()));
+					}
+				}
+			}
+
+			queue.clear();
+			progress.forEach(p -> LOGGER.info("Progress of environment {}", p));
+
+			if (context.getSimulation() == null) {
+				writeAssignments(context);
+			}
+
+			return exceptions;
+		}
+
+		private void writeAssignments(Context context) {
+			try {
+				Path directory = Files.createDirectories(context.toPath());
+				List<String> lines = new ArrayList<>(assignments.size() + 1);
+				lines.add("iteration;environment;result");
+				lines.addAll(assignments);
+
+				Files.write(directory.resolve(ASSIGNMENTS_FILE), lines, StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				LOGGER.error("Could not write the environment assignments!", e);
+			}
+		}
+
+	}
+
+	private static class Partition {
+
+		private final Deque<Integer> iterations;
+
+		private final Set<Integer> failedOn;
+
+		private final ExperimentReport lastFailure;
+
+		private Partition(Deque<Integer> iterations, Set<Integer> failedOn, ExperimentReport lastFailure) {
+			this.iterations = iterations;
+			this.failedOn = failedOn;
+			this.lastFailure = lastFailure;
+		}
+
+		private int first() {
+			return iterations.peek();
+		}
+
+		private Exception getCause() {
+			if (!lastFailure.getUncaughtExceptions().isEmpty()) {
+				return lastFailure.getUncaughtExceptions().get(0);
+			} else {
+				return lastFailure.getCaughtExceptions().get(0);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,104 @@
+package org.continuity.experimentation.distribution;
+
+/**
+ * Progress of one environment of an {@link EnvironmentCoordinator} during the latest execution.
+ *
+ * @author Henning Schulz
+ *
+ * @param <E>
+ *            Type of the environment.
+ */
+public class EnvironmentProgress<E> {
+
+	private final E environment;
+
+	private volatile int completedIterations = 0;
+
+	private volatile int failedIterations = 0;
+
+	private volatile int consecutiveFailures = 0;
+
+	private volatile int currentIteration = 0;
+
+	private volatile boolean retired = false;
+
+	EnvironmentProgress(E environment) {
+		this.environment = environment;
+	}
+
+	/**
+	 * Gets {@link #environment}.
+	 *
+	 * @return {@link #environment}
+	 */
+	public E getEnvironment() {
+		return this.environment;
+	}
+
+	/**
+	 * Gets {@link #completedIterations}.
+	 *
+	 * @return The number of iterations successfully executed on the environment.
+	 */
+	public int getCompletedIterations() {
+		return this.completedIterations;
+	}
+
+	/**
+	 * Gets {@link #failedIterations}.
+	 *
+	 * @return The number of iterations that failed on the environment.
+	 */
+	public int getFailedIterations() {
+		return this.failedIterations;
+	}
+
+	/**
+	 * Gets {@link #currentIteration}.
+	 *
+	 * @return The iteration currently executed on the environment or 0 if there is none.
+	 */
+	public int getCurrentIteration() {
+		return this.currentIteration;
+	}
+
+	/**
+	 * Gets {@link #retired}.
+	 *
+	 * @return {@code true} if the environment has failed too often and does not get further
+	 *         iterations.
+	 */
+	public boolean isRetired() {
+		return this.retired;
+	}
+
+	void start(int iteration) {
+		currentIteration = iteration;
+	}
+
+	void succeeded() {
+		currentIteration = 0;
+		completedIterations++;
+		consecutiveFailures = 0;
+	}
+
+	void failed(int maxConsecutiveFailures) {
+		currentIteration = 0;
+		failedIterations++;
+		consecutiveFailures++;
+
+		if (consecutiveFailures >= maxConsecutiveFailures) {
+			retired = true;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return environment + ": " + completedIterations + " completed, " + failedIterations + " failed" + (retired ? ", retired" : "")
+				+ (currentIteration > 0 ? ", executing " + currentIteration : "");
+	}
+
+}
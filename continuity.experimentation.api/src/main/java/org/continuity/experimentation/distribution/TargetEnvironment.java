@@ -0,0 +1,97 @@
+package org.continuity.experimentation.distribution;
+
+import java.util.Objects;
+
+/**
+ * One of several identical environments of the system under test, identified by the host and
+ * port of its satellite.
+ *
+ * @author Henning Schulz
+ *
+ */
+public final class TargetEnvironment {
+
+	/**
+	 * The default port of the satellite.
+	 */
+	public static final String DEFAULT_PORT = "8765";
+
+	private final String host;
+
+	private final String port;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param host
+	 *            The host of the satellite.
+	 * @param port
+	 *            The port of the satellite.
+	 */
+	public TargetEnvironment(String host, String port) {
+		this.host = Objects.requireNonNull(host, "The host must not be null!");
+		this.port = Objects.requireNonNull(port, "The port must not be null!");
+	}
+
+	/**
+	 * Constructor using the default port {@value #DEFAULT_PORT}.
+	 *
+	 * @param host
+	 *            The host of the satellite.
+	 */
+	public TargetEnvironment(String host) {
+		this(host, DEFAULT_PORT);
+	}
+
+	/**
+	 * Gets {@link #host}.
+	 *
+	 * @return {@link #host}
+	 */
+	public String getHost() {
+		return this.host;
+	}
+
+	/**
+	 * Gets {@link #port}.
+	 *
+	 * @return {@link #port}
+	 */
+	public String getPort() {
+		return this.port;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof TargetEnvironment)) {
+			return false;
+		}
+
+		TargetEnvironment other = (TargetEnvironment) obj;
+		return host.equals(other.host) && port.equals(other.port);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(host, port);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return host + ":" + port;
+	}
+
+}
@@ -1,5 +1,6 @@
 package org.continuity.experimentation.element;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -8,6 +9,7 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.math3.util.Pair;
 import org.continuity.experimentation.Context;
+import org.continuity.experimentation.IDurationEstimator;
 import org.continuity.experimentation.IExperimentElement;
 import org.continuity.experimentation.exception.AbortInnerException;
 
@@ -116,6 +118,14 @@ public class BranchElement implements IExperimentElement {
 	 */
 	@Override
 	public double count() {
+		return IExperimentElement.countChain(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double countOwn() {
 		double sum = 0;
 		double num = branches.size() + 1;
 
@@ -127,47 +137,81 @@ public class BranchElement implements IExperimentElement {
 			sum += elseBranch.count();
 		}
 
-		return (sum / num) + (join.getNext() == null ? 0 : join.getNext().count());
+		return sum / num;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public String toString() {
-		return toString("");
+	public double estimateDuration(String context, IDurationEstimator estimator) {
+		return IExperimentElement.estimateChainDuration(this, context, estimator);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public String toString(String prefix) {
-		StringBuilder builder = new StringBuilder();
+	public double estimateOwnDuration(String context, IDurationEstimator estimator) {
+		double sum = 0;
+		double num = branches.size() + 1;
 
 		for (Pair<BooleanSupplier, IExperimentElement> branch : branches) {
-			builder.append(prefix);
-			builder.append("IF ");
-			builder.append(branch.getFirst());
-			builder.append(":\n");
-			builder.append(branch.getSecond().toString(prefix + SHIFTING));
+			sum += branch.getSecond().estimateDuration(context, estimator);
 		}
 
 		if (elseBranch != null) {
-			builder.append(prefix);
-			builder.append("ELSE:\n");
-			builder.append(elseBranch.toString(prefix + SHIFTING));
+			sum += elseBranch.estimateDuration(context, estimator);
 		}
 
-		builder.append(prefix);
-		builder.append("END-IF");
+		return sum / num;
+	}
 
-		if (join.getNext() != null) {
-			builder.append("\n");
-			builder.append(join.getNext().toString(prefix));
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IExperimentElement getChainSuccessor() {
+		return join.getNext();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return toString("");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString(String prefix) {
+		return IExperimentElement.chainToString(this, prefix);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void appendTo(Appendable out, String prefix) throws IOException {
+		for (Pair<BooleanSupplier, IExperimentElement> branch : branches) {
+			out.append(prefix);
+			out.append("IF ");
+			out.append(String.valueOf(branch.getFirst()));
+			out.append(":\n");
+			IExperimentElement.appendChain(branch.getSecond(), out, prefix + SHIFTING);
+		}
+
+		if (elseBranch != null) {
+			out.append(prefix);
+			out.append("ELSE:\n");
+			IExperimentElement.appendChain(elseBranch, out, prefix + SHIFTING);
 		}
 
-		return builder.toString();
+		out.append(prefix);
+		out.append("END-IF");
 	}
 
 	/**
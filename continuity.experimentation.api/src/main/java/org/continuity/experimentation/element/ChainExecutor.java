@@ -0,0 +1,147 @@
+package org.continuity.experimentation.element;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+import org.continuity.experimentation.AbstractExperimentExecutor;
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.ExecutionPlan;
+import org.continuity.experimentation.ExperimentExecutionService;
+import org.continuity.experimentation.IExecutionListener;
+import org.continuity.experimentation.IExperimentElement;
+import org.continuity.experimentation.exception.AbortException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes a chain that is nested in an element, e.g., a thread of a {@link ConcurrentElement}, in
+ * its own context. Uncaught exceptions are returned instead of thrown, so that the owning element
+ * can handle them after all chains are finished.
+ *
+ * @author Henning Schulz
+ *
+ */
+class ChainExecutor extends AbstractExperimentExecutor {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ChainExecutor.class);
+
+	private final Context context;
+	private final String label;
+	private final IExperimentElement owner;
+	private final ExperimentExecutionService executionService;
+	private final List<IExecutionListener> listeners;
+	private final LongSupplier defaultActionTimeout;
+	private final BooleanSupplier strictSequencing;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner
+	 *            The element owning the chain. Its
+	 *            {@link IExperimentElement#handleAborted(org.continuity.experimentation.exception.AbortInnerException)
+	 *            handleAborted} method is called for exceptions that are not handled within the
+	 *            chain.
+	 * @param plan
+	 *            The compiled chain.
+	 * @param context
+	 *            The context of the owner. Will be cloned.
+	 * @param label
+	 *            The context to be appended for the chain, e.g., {@code thread#1}.
+	 * @param executionService
+	 *            The execution service of the experiment.
+	 * @param listeners
+	 *            The listeners of the experiment.
+	 * @param defaultActionTimeout
+	 *            Supplier of the default action timeout of the experiment.
+	 * @param strictSequencing
+	 *            Supplier of whether the experiment executes all actions strictly one after the
+	 *            other.
+	 */
+	ChainExecutor(IExperimentElement owner, ExecutionPlan plan, Context context, String label, ExperimentExecutionService executionService, List<IExecutionListener> listeners,
+			LongSupplier defaultActionTimeout, BooleanSupplier strictSequencing) {
+		super(plan);
+		this.context = context.clone();
+		this.label = label;
+		this.owner = owner;
+		this.executionService = executionService;
+		this.listeners = listeners;
+		this.defaultActionTimeout = defaultActionTimeout;
+		this.strictSequencing = strictSequencing;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected ExperimentExecutionService getExecutionService() {
+		return executionService;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected List<IExecutionListener> getListeners() {
+		return listeners;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected long getDefaultActionTimeout() {
+		return defaultActionTimeout.getAsLong();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean isStrictSequencing() {
+		return strictSequencing.getAsBoolean();
+	}
+
+	public String getThreadName() {
+		return context + "-" + label;
+	}
+
+	public AbortException executeCatchedWithContext() {
+		AbortException thrownException = null;
+		context.append(owner, label);
+
+		try {
+			execute(context);
+		} catch (AbortException e) {
+			thrownException = e;
+			LOGGER.warn("An uncaught exception has been thrown! Passing it to the " + owner.getClass().getSimpleName() + ".", e);
+		}
+
+		context.remove(label);
+		return thrownException;
+	}
+
+	public CompletableFuture<AbortException> executeCatchedWithContextAsync() {
+		context.append(owner, label);
+
+		return executeAsync(context).handle((v, thrown) -> {
+			AbortException thrownException = null;
+			Throwable cause = (thrown instanceof CompletionException) ? thrown.getCause() : thrown;
+
+			if (cause instanceof AbortException) {
+				thrownException = (AbortException) cause;
+				LOGGER.warn("An uncaught exception has been thrown! Passing it to the " + owner.getClass().getSimpleName() + ".", cause);
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else if (cause != null) {
+				thrownException = new AbortException(context, (Exception) cause);
+			}
+
+			context.remove(label);
+			return thrownException;
+		});
+	}
+
+}
@@ -1,21 +1,32 @@
 package org.continuity.experimentation.element;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
-import org.continuity.experimentation.AbstractExperimentExecutor;
 import org.continuity.experimentation.Context;
+import org.continuity.experimentation.DurationHistory;
+import org.continuity.experimentation.ExecutionPlan;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.ExperimentExecutionService;
+import org.continuity.experimentation.IAsyncExperimentAction;
+import org.continuity.experimentation.IDurationEstimator;
+import org.continuity.experimentation.IExecutionListener;
 import org.continuity.experimentation.IExperimentAction;
 import org.continuity.experimentation.IExperimentElement;
 import org.continuity.experimentation.exception.AbortException;
 import org.continuity.experimentation.exception.AbortInnerException;
+import org.continuity.experimentation.simulation.VirtualClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,10 +40,16 @@ public class ConcurrentElement implements IExperimentElement {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentElement.class);
 
+	private static final String PREFIX_THREAD = "thread#";
+
 	private final JoinElement join = new JoinElement();
 
 	private final List<IExperimentElement> threads = new ArrayList<>();
 
+	private final ThreadedAction action = new ThreadedAction(threads, this);
+
+	private boolean virtualThreads = false;
+
 	/**
 	 * Adds an element as new thread. The last element of this chain has to be {@link join}.
 	 *
@@ -43,6 +60,35 @@ public class ConcurrentElement implements IExperimentElement {
 		threads.add(thread);
 	}
 
+	/**
+	 * Gets {@link #threads}.
+	 *
+	 * @return {@link #threads} (unmodifiable)
+	 */
+	public List<IExperimentElement> getThreads() {
+		return Collections.unmodifiableList(this.threads);
+	}
+
+	/**
+	 * Sets {@link #virtualThreads}. If {@code true}, each thread is executed on a virtual thread
+	 * instead of the bounded pool.
+	 *
+	 * @param virtualThreads
+	 *            New value for {@link #virtualThreads}
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Gets {@link #virtualThreads}.
+	 *
+	 * @return {@link #virtualThreads}
+	 */
+	public boolean isVirtualThreads() {
+		return this.virtualThreads;
+	}
+
 	/**
 	 * Gets {@link #join}.
 	 *
@@ -65,7 +111,7 @@ public class ConcurrentElement implements IExperimentElement {
 	 */
 	@Override
 	public IExperimentAction getAction() {
-		return new ThreadedAction(threads, this);
+		return action;
 	}
 
 	/**
@@ -96,7 +142,40 @@ public class ConcurrentElement implements IExperimentElement {
 	 */
 	@Override
 	public double count() {
-		return threads.stream().mapToDouble(IExperimentElement::count).sum() + (join.getNext() == null ? 0 : join.getNext().count());
+		return IExperimentElement.countChain(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double countOwn() {
+		return threads.stream().mapToDouble(IExperimentElement::count).sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double estimateDuration(String context, IDurationEstimator estimator) {
+		return IExperimentElement.estimateChainDuration(this, context, estimator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double estimateOwnDuration(String context, IDurationEstimator estimator) {
+		String threadContext = context + "-" + DurationHistory.normalize(PREFIX_THREAD + 1);
+		return threads.stream().mapToDouble(thread -> thread.estimateDuration(threadContext, estimator)).max().orElse(0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IExperimentElement getChainSuccessor() {
+		return join.getNext();
 	}
 
 	/**
@@ -112,102 +191,167 @@ public class ConcurrentElement implements IExperimentElement {
 	 */
 	@Override
 	public String toString(String prefix) {
+		return IExperimentElement.chainToString(this, prefix);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void appendTo(Appendable out, String prefix) throws IOException {
 		char counter = 'a';
-		StringBuilder builder = new StringBuilder();
 
 		for (IExperimentElement thread : threads) {
-			builder.append(prefix);
-			builder.append("THREAD ");
-			builder.append(counter++);
-			builder.append(":\n");
-			builder.append(thread.toString(prefix + SHIFTING));
-		}
-
-		builder.append(prefix);
-		builder.append("JOIN");
-
-		if (join.getNext() != null) {
-			builder.append("\n");
-			builder.append(join.getNext().toString(prefix));
+			out.append(prefix);
+			out.append("THREAD ");
+			out.append(counter++);
+			out.append(virtualThreads ? " (virtual):\n" : ":\n");
+			IExperimentElement.appendChain(thread, out, prefix + SHIFTING);
 		}
 
-		return builder.toString();
+		out.append(prefix);
+		out.append("JOIN");
 	}
 
-	private static class ThreadedAction implements IExperimentAction {
+	private static class ThreadedAction implements IAsyncExperimentAction {
 
 		private static final Logger LOGGER = LoggerFactory.getLogger(ThreadedAction.class);
 
 		private final List<IExperimentElement> threads;
 
-		private final ExecutorService executorService;
-
 		private final ConcurrentElement outer;
 
+		private ExperimentExecutionService executionService = ExperimentExecutionService.getDefault();
+
+		private List<IExecutionListener> listeners = Collections.emptyList();
+
+		private LongSupplier defaultActionTimeout = () -> 0;
+
+		private BooleanSupplier strictSequencing = () -> false;
+
+		private volatile List<ExecutionPlan> plans;
+
 		private ThreadedAction(List<IExperimentElement> threads, ConcurrentElement outer) {
 			this.threads = threads;
-			this.executorService = Executors.newFixedThreadPool(threads.size());
 			this.outer = outer;
 		}
 
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void bypassExperiment(Experiment experiment) {
+			this.executionService = experiment.getExecutionService();
+			this.listeners = experiment.getListeners();
+			this.defaultActionTimeout = experiment::getDefaultActionTimeout;
+			this.strictSequencing = experiment::isStrictSequencing;
+		}
+
 		/**
 		 * {@inheritDoc}
 		 *
 		 */
 		@Override
 		public void execute(Context context) throws AbortException {
-			final AtomicInteger counter = new AtomicInteger(1);
-
-			List<AbortException> thrownExceptions = threads.stream().map(t -> new ThreadExecutor(outer, t, context, counter.getAndIncrement())).map(ThreadExecutor::executeCatchedWithContext)
-					.filter(Objects::nonNull).collect(Collectors.toList());
-
-			executorService.shutdown();
-
-			try {
-				executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
-			} catch (InterruptedException e) {
-				LOGGER.warn("Thread was interrupted during waiting for the concurrent actions to finish!", e);
+			int counter = 1;
+			List<Future<AbortException>> futures = new ArrayList<>(threads.size());
+			List<VirtualClock> clocks = new ArrayList<>(threads.size());
+
+			for (ExecutionPlan plan : getPlans()) {
+				Context threadContext = context.clone();
+				clocks.add(threadContext.branchClock());
+				ChainExecutor executor = new ChainExecutor(outer, plan, threadContext, PREFIX_THREAD + counter++, executionService, listeners, defaultActionTimeout, strictSequencing);
+
+				if (counter > threads.size()) {
+					// the current thread would wait anyway
+					futures.add(executionService.executeInline(executor.getThreadName(), executor::executeCatchedWithContext));
+				} else if (outer.virtualThreads) {
+					futures.add(executionService.submitVirtual(executor.getThreadName(), executor::executeCatchedWithContext));
+				} else {
+					futures.add(executionService.submit(executor.getThreadName(), executor::executeCatchedWithContext));
+				}
 			}
 
-			if (thrownExceptions.size() == 1) {
-				throw thrownExceptions.get(0);
-			} else if (!thrownExceptions.isEmpty()) {
-				throw new AbortException(context, thrownExceptions.size() + " exceptions", thrownExceptions.get(0));
+			List<AbortException> thrownExceptions = new ArrayList<>();
+
+			for (Future<AbortException> future : futures) {
+				try {
+					AbortException exception = future.get();
+
+					if (exception != null) {
+						thrownExceptions.add(exception);
+					}
+				} catch (InterruptedException e) {
+					LOGGER.warn("Thread was interrupted during waiting for the concurrent actions to finish! Cancelling the remaining ones.", e);
+					futures.forEach(f -> f.cancel(true));
+					Thread.currentThread().interrupt();
+					break;
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Error) {
+						throw (Error) e.getCause();
+					}
+
+					thrownExceptions.add(new AbortException(context, (Exception) e.getCause()));
+				}
 			}
-		}
 
-	}
-
-	private static class ThreadExecutor extends AbstractExperimentExecutor {
+			context.joinClocks(clocks);
+			throwIfNotEmpty(thrownExceptions, context);
+		}
 
-		private static final Logger LOGGER = LoggerFactory.getLogger(ThreadExecutor.class);
+		/**
+		 * {@inheritDoc} <br>
+		 *
+		 * All threads are executed asynchronously, too.
+		 */
+		@Override
+		public CompletionStage<Void> executeAsync(Context context) {
+			int counter = 1;
+			List<CompletableFuture<AbortException>> futures = new ArrayList<>(threads.size());
+			List<VirtualClock> clocks = new ArrayList<>(threads.size());
+
+			for (ExecutionPlan plan : getPlans()) {
+				Context threadContext = context.clone();
+				clocks.add(threadContext.branchClock());
+				futures.add(new ChainExecutor(outer, plan, threadContext, PREFIX_THREAD + counter++, executionService, listeners, defaultActionTimeout, strictSequencing).executeCatchedWithContextAsync());
+			}
 
-		private static final String PREFIX_THREAD = "thread#";
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenCompose(v -> {
+				CompletableFuture<Void> result = new CompletableFuture<>();
+				context.joinClocks(clocks);
 
-		private final Context context;
-		private final int number;
-		private final ConcurrentElement outer;
+				try {
+					throwIfNotEmpty(futures.stream().map(CompletableFuture::join).filter(Objects::nonNull).collect(Collectors.toList()), context);
+					result.complete(null);
+				} catch (AbortException e) {
+					result.completeExceptionally(e);
+				}
 
-		protected ThreadExecutor(ConcurrentElement outer, IExperimentElement first, Context context, int number) {
-			super(first);
-			this.context = context.clone();
-			this.number = number;
-			this.outer = outer;
+				return result;
+			});
 		}
 
-		public AbortException executeCatchedWithContext() {
-			AbortException thrownException = null;
-			context.append(outer, PREFIX_THREAD + number);
+		/**
+		 * Compiles the threads on the first call, since the threads are added after creating the
+		 * action.
+		 */
+		private List<ExecutionPlan> getPlans() {
+			List<ExecutionPlan> compiled = plans;
 
-			try {
-				execute(context);
-			} catch (AbortException e) {
-				thrownException = e;
-				LOGGER.warn("An uncaught exception has been thrown! Passing it to the ConcurrentHandler.", e);
+			if (compiled == null) {
+				compiled = threads.stream().map(ExecutionPlan::compile).collect(Collectors.toList());
+				plans = compiled;
 			}
 
-			context.remove(PREFIX_THREAD + number);
-			return thrownException;
+			return compiled;
+		}
+
+		private void throwIfNotEmpty(List<AbortException> thrownExceptions, Context context) throws AbortException {
+			if (thrownExceptions.size() == 1) {
+				throw thrownExceptions.get(0);
+			} else if (!thrownExceptions.isEmpty()) {
+				throw new AbortException(context, thrownExceptions.size() + " exceptions", thrownExceptions.get(0));
+			}
 		}
 
 	}
@@ -1,9 +1,11 @@
 package org.continuity.experimentation.element;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 
 import org.continuity.experimentation.Context;
+import org.continuity.experimentation.IDurationEstimator;
 import org.continuity.experimentation.IExperimentAction;
 import org.continuity.experimentation.IExperimentElement;
 import org.continuity.experimentation.exception.AbortInnerException;
@@ -18,6 +20,8 @@ public class ExperimentActionElement implements IExperimentElement {
 
 	private final IExperimentAction action;
 
+	private final long timeoutMillis;
+
 	private IExperimentElement next;
 
 	/**
@@ -27,7 +31,24 @@ public class ExperimentActionElement implements IExperimentElement {
 	 *            The action to be executed.
 	 */
 	public ExperimentActionElement(IExperimentAction action) {
+		this(action, 0);
+	}
+
+	/**
+	 * Constructor setting the action and its timeout.
+	 *
+	 * @param action
+	 *            The action to be executed.
+	 * @param timeoutMillis
+	 *            The timeout of the action in milliseconds. 0 uses the default of the experiment.
+	 */
+	public ExperimentActionElement(IExperimentAction action, long timeoutMillis) {
+		if (timeoutMillis < 0) {
+			throw new IllegalArgumentException("The timeout must not be negative but was " + timeoutMillis + "!");
+		}
+
 		this.action = action;
+		this.timeoutMillis = timeoutMillis;
 	}
 
 	/**
@@ -46,6 +67,14 @@ public class ExperimentActionElement implements IExperimentElement {
 		return action;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getActionTimeoutMillis() {
+		return timeoutMillis;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -77,31 +106,58 @@ public class ExperimentActionElement implements IExperimentElement {
 	 */
 	@Override
 	public double count() {
-		if (next == null) {
-			return 1;
-		} else {
-			return 1 + next.count();
-		}
+		return IExperimentElement.countChain(this);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public String toString(String prefix) {
-		StringBuilder builder = new StringBuilder();
+	public double countOwn() {
+		return 1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double estimateDuration(String context, IDurationEstimator estimator) {
+		return IExperimentElement.estimateChainDuration(this, context, estimator);
+	}
 
-		builder.append(prefix);
-		builder.append(action.getClass().getSimpleName());
-		builder.append(": ");
-		builder.append(action.toString());
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double estimateOwnDuration(String context, IDurationEstimator estimator) {
+		return estimator.estimateMillis(context, action);
+	}
 
-		if (next != null) {
-			builder.append("\n");
-			builder.append(next.toString(prefix));
-		}
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IExperimentElement getChainSuccessor() {
+		return next;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString(String prefix) {
+		return IExperimentElement.chainToString(this, prefix);
+	}
 
-		return builder.toString();
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void appendTo(Appendable out, String prefix) throws IOException {
+		out.append(prefix);
+		out.append(action.getClass().getSimpleName());
+		out.append(": ");
+		out.append(action.toString());
 	}
 
 	/**
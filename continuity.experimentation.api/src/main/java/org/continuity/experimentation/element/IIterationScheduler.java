@@ -0,0 +1,116 @@
+package org.continuity.experimentation.element;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.ExperimentReport;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.exception.AbortException;
+
+/**
+ * Decides which worker of a {@link ParallelLoopElement} executes which iteration. By default,
+ * each worker takes the next pending iteration. Schedulers can bind workers to resources, e.g.,
+ * target environments, and re-execute failed iterations.
+ *
+ * @author Henning Schulz
+ *
+ */
+public interface IIterationScheduler {
+
+	/**
+	 * Creates the schedule for one execution of a loop. The loop can be executed several times,
+	 * also concurrently, so each execution gets its own schedule.
+	 *
+	 * @param numIterations
+	 *            The number of iterations.
+	 * @param numWorkers
+	 *            The number of workers, numbered from 1 to {@code numWorkers}.
+	 * @return The schedule.
+	 */
+	Schedule schedule(int numIterations, int numWorkers);
+
+	/**
+	 * Gets the data holders the schedule writes when preparing an iteration (see
+	 * {@link Schedule#prepare(int, int, Context)}).
+	 *
+	 * @return The dependencies. {@link DataDependencies#NONE} by default.
+	 */
+	default DataDependencies getDataDependencies() {
+		return DataDependencies.NONE;
+	}
+
+	/**
+	 * Schedule of one execution of a loop. All methods are called concurrently by the workers.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	public static interface Schedule {
+
+		/**
+		 * Gets the next iteration to be executed by a worker. May block until an iteration is
+		 * available.
+		 *
+		 * @param worker
+		 *            The worker.
+		 * @return The iteration, starting with 1, or 0 if the worker is to stop.
+		 * @throws InterruptedException
+		 *             If the worker is interrupted during waiting.
+		 */
+		int next(int worker) throws InterruptedException;
+
+		/**
+		 * Prepares an iteration before the loop prepares it. The data scope of the iteration is
+		 * bound to the calling thread. Does nothing by default.
+		 *
+		 * @param iteration
+		 *            The iteration.
+		 * @param worker
+		 *            The worker executing the iteration.
+		 * @param context
+		 *            The context of the iteration.
+		 * @throws Exception
+		 *             If the iteration cannot be prepared. It is passed to
+		 *             {@link #finished(int, int, ExperimentReport)} as uncaught exception.
+		 */
+		default void prepare(int iteration, int worker, Context context) throws Exception {
+		}
+
+		/**
+		 * Notifies the schedule about a finished iteration.
+		 *
+		 * @param iteration
+		 *            The iteration.
+		 * @param worker
+		 *            The worker that executed the iteration.
+		 * @param report
+		 *            The report of the iteration holding the caught and uncaught exceptions.
+		 * @return {@code true} if the result is final or {@code false} if the iteration will be
+		 *         returned by {@link #next(int)} again. Then, its data and files are discarded.
+		 *         {@code true} by default.
+		 */
+		default boolean finished(int iteration, int worker, ExperimentReport report) {
+			return true;
+		}
+
+		/**
+		 * Stops handing out iterations, e.g., because the loop has been interrupted.
+		 */
+		void cancel();
+
+		/**
+		 * Completes the schedule after all workers have stopped.
+		 *
+		 * @param context
+		 *            The context of the loop.
+		 * @return The exceptions of the iterations that have not been executed, per iteration.
+		 *         Empty by default.
+		 */
+		default Map<Integer, AbortException> complete(Context context) {
+			return Collections.emptyMap();
+		}
+
+	}
+
+}
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Collections;
 
 import org.continuity.experimentation.Context;
+import org.continuity.experimentation.IDurationEstimator;
 import org.continuity.experimentation.IExperimentElement;
 import org.continuity.experimentation.exception.AbortInnerException;
 
@@ -66,6 +67,14 @@ public class JoinElement implements IExperimentElement {
 		return 0;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double estimateDuration(String context, IDurationEstimator estimator) {
+		return 0;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
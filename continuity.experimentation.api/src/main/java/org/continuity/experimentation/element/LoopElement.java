@@ -1,9 +1,12 @@
 package org.continuity.experimentation.element;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 
 import org.continuity.experimentation.Context;
+import org.continuity.experimentation.DurationHistory;
+import org.continuity.experimentation.IDurationEstimator;
 import org.continuity.experimentation.IExperimentElement;
 import org.continuity.experimentation.exception.AbortInnerException;
 import org.slf4j.Logger;
@@ -21,6 +24,8 @@ public class LoopElement implements IExperimentElement {
 
 	private static final String PREFIX_CONTEXT = "iteration#";
 
+	private static final String NORMALIZED_CONTEXT = DurationHistory.normalize(PREFIX_CONTEXT + 1);
+
 	private IExperimentElement loopStart;
 
 	private IExperimentElement afterLoop;
@@ -38,12 +43,25 @@ public class LoopElement implements IExperimentElement {
 	 */
 	@Override
 	public void updateContext(Context context) {
-		if (currentIteration > 1) {
-			context.remove(PREFIX_CONTEXT + (currentIteration - 1));
+		updateContext(context, currentIteration);
+	}
+
+	/**
+	 * Replaces the context of the previous iteration by the context of the passed one. If the
+	 * iteration exceeds the number of iterations, only the previous context is removed.
+	 *
+	 * @param context
+	 *            The current context.
+	 * @param iteration
+	 *            The iteration to be started next, starting with 1.
+	 */
+	public void updateContext(Context context, int iteration) {
+		if (iteration > 1) {
+			context.remove(PREFIX_CONTEXT + (iteration - 1));
 		}
 
-		if (currentIteration <= numIterations) {
-			context.append(this, PREFIX_CONTEXT + currentIteration);
+		if (iteration <= numIterations) {
+			context.append(this, PREFIX_CONTEXT + iteration);
 		}
 	}
 
@@ -56,18 +74,20 @@ public class LoopElement implements IExperimentElement {
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * {@inheritDoc} <br>
+	 *
+	 * The iterations are counted by the loop itself and restart after the last one. Executors use
+	 * the per-execution counters of an {@link org.continuity.experimentation.ExecutionPlan
+	 * ExecutionPlan} instead.
 	 */
 	@Override
 	public IExperimentElement getNext() {
-		int it = currentIteration++;
-
-		if (it <= numIterations) {
+		if (currentIteration++ <= numIterations) {
 			return loopStart;
 		} else {
+			currentIteration = 1;
 			return afterLoop;
 		}
-
 	}
 
 	/**
@@ -78,6 +98,33 @@ public class LoopElement implements IExperimentElement {
 		setAfterLoop(next);
 	}
 
+	/**
+	 * Gets {@link #numIterations}.
+	 *
+	 * @return {@link #numIterations}
+	 */
+	public int getNumIterations() {
+		return this.numIterations;
+	}
+
+	/**
+	 * Gets {@link #loopStart}.
+	 *
+	 * @return {@link #loopStart}
+	 */
+	public IExperimentElement getLoopStart() {
+		return this.loopStart;
+	}
+
+	/**
+	 * Gets {@link #afterLoop}.
+	 *
+	 * @return {@link #afterLoop}
+	 */
+	public IExperimentElement getAfterLoop() {
+		return this.afterLoop;
+	}
+
 	/**
 	 * Sets {@link #loopStart}.
 	 *
@@ -103,39 +150,70 @@ public class LoopElement implements IExperimentElement {
 	 */
 	@Override
 	public double count() {
-		return (loopStart.count() * numIterations) + (afterLoop == null ? 0 : afterLoop.count());
+		return IExperimentElement.countChain(this);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public String toString() {
-		return toString("");
+	public double countOwn() {
+		return loopStart.count() * numIterations;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public String toString(String prefix) {
-		StringBuilder builder = new StringBuilder();
+	public double estimateDuration(String context, IDurationEstimator estimator) {
+		return IExperimentElement.estimateChainDuration(this, context, estimator);
+	}
 
-		builder.append(prefix);
-		builder.append("LOOP (");
-		builder.append(numIterations);
-		builder.append(" iterations):\n");
-		builder.append(loopStart.toString(prefix + SHIFTING));
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double estimateOwnDuration(String context, IDurationEstimator estimator) {
+		return loopStart.estimateDuration(context + "-" + NORMALIZED_CONTEXT, estimator) * numIterations;
+	}
 
-		builder.append(prefix);
-		builder.append("END-LOOP");
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IExperimentElement getChainSuccessor() {
+		return afterLoop;
+	}
 
-		if (afterLoop != null) {
-			builder.append("\n");
-			builder.append(afterLoop.toString(prefix));
-		}
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return toString("");
+	}
 
-		return builder.toString();
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString(String prefix) {
+		return IExperimentElement.chainToString(this, prefix);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void appendTo(Appendable out, String prefix) throws IOException {
+		out.append(prefix);
+		out.append("LOOP (");
+		out.append(Integer.toString(numIterations));
+		out.append(" iterations):\n");
+		IExperimentElement.appendChain(loopStart, out, prefix + SHIFTING);
+
+		out.append(prefix);
+		out.append("END-LOOP");
 	}
 
 	/**
@@ -164,7 +242,13 @@ public class LoopElement implements IExperimentElement {
 		return new End(this);
 	}
 
-	private final class End implements IExperimentElement {
+	/**
+	 * Successor of the last element in a loop. Proceeds with the loop.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	public static final class End implements IExperimentElement {
 
 		private final LoopElement loop;
 
@@ -172,6 +256,15 @@ public class LoopElement implements IExperimentElement {
 			this.loop = loop;
 		}
 
+		/**
+		 * Gets {@link #loop}.
+		 *
+		 * @return {@link #loop}
+		 */
+		public LoopElement getLoop() {
+			return this.loop;
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
@@ -212,6 +305,14 @@ public class LoopElement implements IExperimentElement {
 			return 0;
 		}
 
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public double estimateDuration(String context, IDurationEstimator estimator) {
+			return 0;
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
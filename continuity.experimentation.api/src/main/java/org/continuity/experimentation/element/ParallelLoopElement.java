@@ -0,0 +1,639 @@
+package org.continuity.experimentation.element;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.DurationHistory;
+import org.continuity.experimentation.ExecutionPlan;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.ExperimentExecutionService;
+import org.continuity.experimentation.ExperimentReport;
+import org.continuity.experimentation.IDurationEstimator;
+import org.continuity.experimentation.IExecutionListener;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.IExperimentElement;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.data.DataScope;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.continuity.experimentation.simulation.VirtualClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loop executing up to a given number of iterations concurrently. Each iteration is executed in
+ * its own context {@code iteration#i} and writes to its own copies of the data holders (see
+ * {@link DataScope}). After all iterations are finished, the copies are merged back in the order
+ * of the iterations. Hence, the data holders hold the same content as after a sequential loop.
+ * Which worker executes which iteration is decided by an {@link IIterationScheduler}.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class ParallelLoopElement implements IExperimentElement {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ParallelLoopElement.class);
+
+	private static final String PREFIX_CONTEXT = "iteration#";
+
+	private final int numIterations;
+
+	private final int maxParallelIterations;
+
+	private final ParallelIterations action = new ParallelIterations(this);
+
+	private IIterationScheduler scheduler = new PendingIterations();
+
+	private IExperimentElement loopStart;
+
+	private IExperimentElement afterLoop;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param numIterations
+	 *            The number of iterations.
+	 * @param maxParallelIterations
+	 *            The maximum number of iterations executed concurrently.
+	 */
+	public ParallelLoopElement(int numIterations, int maxParallelIterations) {
+		if (maxParallelIterations < 1) {
+			throw new IllegalArgumentException("The number of parallel iterations must be at least 1 but was " + maxParallelIterations + "!");
+		}
+
+		this.numIterations = numIterations;
+		this.maxParallelIterations = maxParallelIterations;
+	}
+
+	/**
+	 * Gets {@link #numIterations}.
+	 *
+	 * @return {@link #numIterations}
+	 */
+	public int getNumIterations() {
+		return this.numIterations;
+	}
+
+	/**
+	 * Gets {@link #maxParallelIterations}.
+	 *
+	 * @return {@link #maxParallelIterations}
+	 */
+	public int getMaxParallelIterations() {
+		return this.maxParallelIterations;
+	}
+
+	/**
+	 * Gets {@link #scheduler}.
+	 *
+	 * @return {@link #scheduler}
+	 */
+	public IIterationScheduler getScheduler() {
+		return this.scheduler;
+	}
+
+	/**
+	 * Sets {@link #scheduler}. By default, each worker takes the next pending iteration.
+	 *
+	 * @param scheduler
+	 *            New value for {@link #scheduler}
+	 */
+	public void setScheduler(IIterationScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Gets the data holders written when an iteration is prepared, i.e., by the
+	 * {@link #scheduler} and {@link #prepareIteration(int, int, Context)}. Subclasses overriding
+	 * {@link #prepareIteration(int, int, Context)} should override this method, too.
+	 *
+	 * @return The dependencies of the preparation.
+	 */
+	public DataDependencies getPreparationDependencies() {
+		return scheduler.getDataDependencies();
+	}
+
+	/**
+	 * Gets {@link #loopStart}.
+	 *
+	 * @return {@link #loopStart}
+	 */
+	public IExperimentElement getLoopStart() {
+		return this.loopStart;
+	}
+
+	/**
+	 * Sets {@link #loopStart}. The last element of the loop has to be followed by
+	 * {@link IExperimentElement#END}.
+	 *
+	 * @param loopStart
+	 *            New value for {@link #loopStart}
+	 */
+	public void setLoopStart(IExperimentElement loopStart) {
+		this.loopStart = loopStart;
+	}
+
+	/**
+	 * Gets {@link #afterLoop}.
+	 *
+	 * @return {@link #afterLoop}
+	 */
+	public IExperimentElement getAfterLoop() {
+		return this.afterLoop;
+	}
+
+	/**
+	 * Sets {@link #afterLoop}.
+	 *
+	 * @param afterLoop
+	 *            New value for {@link #afterLoop}
+	 */
+	public void setAfterLoop(IExperimentElement afterLoop) {
+		this.afterLoop = afterLoop;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasAction() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IExperimentAction getAction() {
+		return action;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void updateContext(Context context) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IExperimentElement getNext() {
+		return afterLoop;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setNextOrFail(IExperimentElement next) throws UnsupportedOperationException {
+		setAfterLoop(next);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double count() {
+		return IExperimentElement.countChain(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double countOwn() {
+		return loopStart.count() * numIterations;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double estimateDuration(String context, IDurationEstimator estimator) {
+		return IExperimentElement.estimateChainDuration(this, context, estimator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double estimateOwnDuration(String context, IDurationEstimator estimator) {
+		int rounds = (numIterations + maxParallelIterations - 1) / maxParallelIterations;
+		String iterationContext = context + "-" + DurationHistory.normalize(getIterationContext(1));
+		return loopStart.estimateDuration(iterationContext, estimator) * rounds;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IExperimentElement getChainSuccessor() {
+		return afterLoop;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return toString("");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString(String prefix) {
+		return IExperimentElement.chainToString(this, prefix);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void appendTo(Appendable out, String prefix) throws IOException {
+		out.append(prefix);
+		out.append(getHeader());
+		out.append(":\n");
+		IExperimentElement.appendChain(loopStart, out, prefix + SHIFTING);
+
+		out.append(prefix);
+		out.append(getFooter());
+	}
+
+	/**
+	 * Gets the header used in {@link #appendTo(Appendable, String)}.
+	 *
+	 * @return The header, e.g., {@code LOOP (10 iterations, 2 in parallel)}.
+	 */
+	protected String getHeader() {
+		return "LOOP (" + numIterations + " iterations, " + getParallelism() + ")";
+	}
+
+	/**
+	 * Describes how the iterations are executed in parallel, to be used in
+	 * {@link #getHeader()}.
+	 *
+	 * @return The description, e.g., {@code 2 in parallel}.
+	 */
+	protected String getParallelism() {
+		return (scheduler instanceof PendingIterations) ? maxParallelIterations + " in parallel" : "on " + scheduler;
+	}
+
+	/**
+	 * Gets the footer used in {@link #appendTo(Appendable, String)}.
+	 *
+	 * @return The footer, e.g., {@code END-LOOP}.
+	 */
+	protected String getFooter() {
+		return "END-LOOP";
+	}
+
+	/**
+	 * Gets the context to be appended for an iteration.
+	 *
+	 * @param iteration
+	 *            The iteration, starting with 1.
+	 * @return The context. {@code iteration#<iteration>} by default.
+	 */
+	protected String getIterationContext(int iteration) {
+		return PREFIX_CONTEXT + iteration;
+	}
+
+	/**
+	 * Prepares an iteration before its first element is executed. The data scope of the
+	 * iteration is bound to the calling thread. Does nothing by default.
+	 *
+	 * @param iteration
+	 *            The iteration, starting with 1.
+	 * @param worker
+	 *            The worker executing the iteration, starting with 1. The number of workers is
+	 *            at most {@link #maxParallelIterations}.
+	 * @param context
+	 *            The context of the iteration.
+	 * @throws Exception
+	 *             If the iteration cannot be prepared. The iteration is skipped and the
+	 *             exception is handled like an uncaught exception of the iteration.
+	 */
+	protected void prepareIteration(int iteration, int worker, Context context) throws Exception {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IExperimentElement handleAborted(AbortInnerException exception) {
+		LOGGER.info("Handling a {} by stopping the iteration.", exception.getClass().getSimpleName());
+		return IExperimentElement.END;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Collection<IExperimentElement> iterateToNext() {
+		List<IExperimentElement> nextElements = new ArrayList<>(2);
+		nextElements.add(loopStart);
+
+		if (afterLoop != null) {
+			nextElements.add(afterLoop);
+		}
+
+		return nextElements;
+	}
+
+	/**
+	 * Default scheduler letting each worker take the next pending iteration.
+	 */
+	private static class PendingIterations implements IIterationScheduler {
+
+		@Override
+		public Schedule schedule(int numIterations, int numWorkers) {
+			AtomicInteger nextIteration = new AtomicInteger(1);
+
+			return new Schedule() {
+
+				@Override
+				public int next(int worker) {
+					int iteration = nextIteration.getAndIncrement();
+					return iteration <= numIterations ? iteration : 0;
+				}
+
+				@Override
+				public void cancel() {
+					nextIteration.set(numIterations + 1);
+				}
+
+			};
+		}
+
+	}
+
+	/**
+	 * Simulated time of the workers. In a simulation, the iterations are executed one at a time,
+	 * each by the worker that is free first in simulated time. Hence, the simulated duration does
+	 * not depend on the real scheduling of the worker threads.
+	 */
+	private static final class SimulatedWorkers {
+
+		private final Lock lock = new ReentrantLock();
+
+		private final PriorityQueue<Long> freeAt = new PriorityQueue<>();
+
+		private final List<VirtualClock> clocks = new ArrayList<>();
+
+		private SimulatedWorkers(int numWorkers, long startMillis) {
+			for (int i = 0; i < numWorkers; i++) {
+				freeAt.add(startMillis);
+			}
+		}
+
+		/**
+		 * Lets an iteration start when the next worker is free. Blocks until the currently
+		 * simulated iteration has finished.
+		 */
+		private void start(VirtualClock clock) {
+			lock.lock();
+			clock.advanceTo(freeAt.poll());
+			clocks.add(clock);
+		}
+
+		private void finish(VirtualClock clock) {
+			freeAt.add(clock.currentTimeMillis());
+			lock.unlock();
+		}
+
+		private List<VirtualClock> getClocks() {
+			lock.lock();
+
+			try {
+				return new ArrayList<>(clocks);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+	}
+
+	private static class ParallelIterations implements IExperimentAction {
+
+		private static final Logger LOGGER = LoggerFactory.getLogger(ParallelIterations.class);
+
+		private final ParallelLoopElement outer;
+
+		private ExperimentExecutionService executionService = ExperimentExecutionService.getDefault();
+
+		private List<IExecutionListener> listeners = Collections.emptyList();
+
+		private LongSupplier defaultActionTimeout = () -> 0;
+
+		private BooleanSupplier strictSequencing = () -> false;
+
+		private volatile ExecutionPlan plan;
+
+		private ParallelIterations(ParallelLoopElement outer) {
+			this.outer = outer;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void bypassExperiment(Experiment experiment) {
+			this.executionService = experiment.getExecutionService();
+			this.listeners = experiment.getListeners();
+			this.defaultActionTimeout = experiment::getDefaultActionTimeout;
+			this.strictSequencing = experiment::isStrictSequencing;
+		}
+
+		/**
+		 * Executes the iterations by up to {@link ParallelLoopElement#maxParallelIterations}
+		 * workers, each taking the next iteration from the {@link IIterationScheduler.Schedule
+		 * schedule}. The last worker is the calling thread.
+		 */
+		@Override
+		public void execute(Context context) throws AbortException {
+			int numIterations = Math.max(outer.numIterations, 0);
+			int numWorkers = Math.min(outer.maxParallelIterations, numIterations);
+			DataScope[] scopes = new DataScope[numIterations];
+			AbortException[] exceptions = new AbortException[numIterations];
+			int[] attempts = new int[numIterations];
+			IIterationScheduler.Schedule schedule = outer.scheduler.schedule(numIterations, numWorkers);
+			ExecutionPlan iterationPlan = getPlan();
+
+			SimulatedWorkers simulatedWorkers = (context.getSimulation() == null) ? null : new SimulatedWorkers(numWorkers, context.getClock().currentTimeMillis());
+
+			List<Future<Void>> futures = new ArrayList<>(numWorkers);
+
+			for (int worker = 1; worker <= numWorkers; worker++) {
+				String threadName = context + "-worker#" + worker;
+				int number = worker;
+
+				Callable<Void> task = () -> {
+					executeIterations(iterationPlan, context, number, schedule, scopes, exceptions, attempts, simulatedWorkers);
+					return null;
+				};
+
+				futures.add(worker == numWorkers ? executionService.executeInline(threadName, task) : executionService.submit(threadName, task));
+			}
+
+			for (Future<Void> future : futures) {
+				try {
+					future.get();
+				} catch (InterruptedException e) {
+					LOGGER.warn("Thread was interrupted during waiting for the iterations to finish! Cancelling the remaining ones.", e);
+					schedule.cancel();
+					futures.forEach(f -> f.cancel(true));
+					Thread.currentThread().interrupt();
+					break;
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Error) {
+						throw (Error) e.getCause();
+					}
+
+					throw new AbortException(context, (Exception) e.getCause());
+				}
+			}
+
+			if (simulatedWorkers != null) {
+				context.joinClocks(simulatedWorkers.getClocks());
+			}
+
+			schedule.complete(context).forEach((iteration, exception) -> exceptions[iteration - 1] = exception);
+
+			for (DataScope scope : scopes) {
+				if (scope != null) {
+					scope.mergeIntoParent();
+				}
+			}
+
+			List<AbortException> thrownExceptions = Arrays.stream(exceptions).filter(Objects::nonNull).collect(Collectors.toList());
+
+			if (thrownExceptions.size() == 1) {
+				throw thrownExceptions.get(0);
+			} else if (!thrownExceptions.isEmpty()) {
+				throw new AbortException(context, thrownExceptions.size() + " exceptions", thrownExceptions.get(0));
+			}
+		}
+
+		private void executeIterations(ExecutionPlan iterationPlan, Context context, int worker, IIterationScheduler.Schedule schedule, DataScope[] scopes,
+				AbortException[] exceptions, int[] attempts, SimulatedWorkers simulatedWorkers) throws InterruptedException {
+			int iteration;
+
+			while ((iteration = schedule.next(worker)) > 0) {
+				DataScope scope = new DataScope(context.getDataScope());
+				Context iterationContext = context.clone();
+				iterationContext.setDataScope(scope);
+				String label = outer.getIterationContext(iteration);
+
+				if (attempts[iteration - 1] > 0) {
+					discardAttempt(iterationContext, label, attempts[iteration - 1]);
+				}
+
+				VirtualClock clock = iterationContext.branchClock();
+
+				if (simulatedWorkers != null) {
+					simulatedWorkers.start(clock);
+				}
+
+				int number = iteration;
+				AbortException exception;
+				ExperimentReport report;
+
+				try {
+					scope.bind(ctx -> {
+						schedule.prepare(number, worker, ctx);
+						outer.prepareIteration(number, worker, ctx);
+					}).execute(iterationContext);
+
+					ChainExecutor executor = new ChainExecutor(outer, iterationPlan, iterationContext, label, executionService, listeners, defaultActionTimeout, strictSequencing);
+					exception = executor.executeCatchedWithContext();
+					report = executor.createReport();
+				} catch (Exception e) {
+					LOGGER.error("Could not prepare iteration " + iteration + "! Skipping it.", e);
+					exception = (e instanceof AbortException) ? (AbortException) e : new AbortException(iterationContext, e);
+					report = new ExperimentReport(iterationContext, Collections.emptyList(), Collections.singletonList(exception));
+				} finally {
+					if (simulatedWorkers != null) {
+						simulatedWorkers.finish(clock);
+					}
+				}
+
+				attempts[iteration - 1]++;
+
+				if (schedule.finished(iteration, worker, report)) {
+					scopes[iteration - 1] = scope;
+					exceptions[iteration - 1] = exception;
+				}
+			}
+		}
+
+		/**
+		 * Moves the files of the previous attempt of an iteration that is executed again to
+		 * {@code <iteration>-attempt#<attempt>}, so that the directory of the iteration only holds
+		 * the files of the final attempt. Done when the next attempt starts, since the schedule
+		 * can hand out the iteration to another worker as soon as the previous attempt has
+		 * finished.
+		 */
+		private void discardAttempt(Context iterationContext, String label, int attempt) {
+			if (iterationContext.getSimulation() != null) {
+				return;
+			}
+
+			Path directory = iterationContext.toPath().resolve(label);
+
+			if (Files.isDirectory(directory)) {
+				try {
+					Files.move(directory, directory.resolveSibling(label + "-attempt#" + attempt));
+					iterationContext.forgetDirectories(directory);
+				} catch (IOException e) {
+					LOGGER.warn("Could not move the files of the discarded attempt of " + label + "!", e);
+				}
+			}
+		}
+
+		/**
+		 * Compiles the loop body on the first call, since it is set after creating the action.
+		 */
+		private ExecutionPlan getPlan() {
+			ExecutionPlan compiled = plan;
+
+			if (compiled == null) {
+				compiled = ExecutionPlan.compile(outer.loopStart);
+				plan = compiled;
+			}
+
+			return compiled;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return outer.getHeader();
+		}
+
+	}
+
+}
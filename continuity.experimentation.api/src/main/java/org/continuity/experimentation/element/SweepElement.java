@@ -0,0 +1,125 @@
+package org.continuity.experimentation.element;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.sweep.Sweep;
+import org.continuity.experimentation.sweep.SweepPoint;
+
+/**
+ * Parallel loop executing its body once per point of a {@link Sweep}. Before the body is
+ * executed, the values of the point are written to the data holders of the sweep and stored in
+ * {@value #PARAMETER_FILE} in the directory of the point ({@code point#i}). <br>
+ *
+ * The points can be distributed across a pool of target environments by setting an
+ * {@link org.continuity.experimentation.distribution.EnvironmentCoordinator EnvironmentCoordinator}
+ * as {@link #setScheduler(IIterationScheduler) scheduler}.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class SweepElement extends ParallelLoopElement {
+
+	/**
+	 * Name of the file holding the parameters of a point.
+	 */
+	public static final String PARAMETER_FILE = "sweep-point.properties";
+
+	private static final String PREFIX_CONTEXT = "point#";
+
+	private final Sweep sweep;
+
+	private final List<SweepPoint> points;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param sweep
+	 *            The sweep.
+	 * @param maxParallelPoints
+	 *            The maximum number of points executed concurrently.
+	 */
+	public SweepElement(Sweep sweep, int maxParallelPoints) {
+		super(sweep.getPoints().size(), maxParallelPoints);
+		this.sweep = sweep;
+		this.points = sweep.getPoints();
+	}
+
+	/**
+	 * Gets {@link #sweep}.
+	 *
+	 * @return {@link #sweep}
+	 */
+	public Sweep getSweep() {
+		return this.sweep;
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * The holders of the sweep are written, too.
+	 */
+	@Override
+	public DataDependencies getPreparationDependencies() {
+		return super.getPreparationDependencies().union(DataDependencies.writes(sweep.getHolders().toArray(new IDataHolder<?>[0])));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getHeader() {
+		return "SWEEP (" + sweep + ", " + getParallelism() + ")";
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getFooter() {
+		return "END-SWEEP";
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getIterationContext(int iteration) {
+		return PREFIX_CONTEXT + iteration;
+	}
+
+	/**
+	 * Binds the values of the point and writes them to {@value #PARAMETER_FILE}. The file is not
+	 * written in simulations.
+	 */
+	@Override
+	protected void prepareIteration(int iteration, int worker, Context context) throws IOException {
+		SweepPoint point = points.get(iteration - 1);
+		point.bind();
+
+		Properties parameters = new Properties();
+
+		for (Map.Entry<String, Object> value : point.getValues().entrySet()) {
+			parameters.setProperty(value.getKey(), String.valueOf(value.getValue()));
+		}
+
+		if (context.getSimulation() == null) {
+			Context pointContext = context.clone();
+			pointContext.append(getIterationContext(iteration));
+			Path directory = Files.createDirectories(pointContext.toPath());
+
+			try (OutputStream out = Files.newOutputStream(directory.resolve(PARAMETER_FILE))) {
+				parameters.store(out, "Sweep point " + iteration + ": " + point);
+			}
+		}
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.continuity.experimentation.exception;
 
 import java.util.Objects;
+import java.util.regex.Matcher;
 
 import org.continuity.experimentation.Context;
 
@@ -28,7 +29,7 @@ public class AbortException extends Exception {
 	 *            The originally thrown exception.
 	 */
 	public AbortException(Context context, Exception cause) {
-		super(MESSAGE.replaceFirst(PATTERN, (cause != null ? cause.getClass().getSimpleName() : null)).replaceFirst(PATTERN, Objects.toString(context)), cause);
+		super(createMessage(cause != null ? cause.getClass().getSimpleName() : null, context), cause);
 	}
 
 	/**
@@ -41,7 +42,7 @@ public class AbortException extends Exception {
 	 *            A message to be added to the exception.
 	 */
 	public AbortException(Context context, String additionalMessage) {
-		super(MESSAGE.replaceFirst(PATTERN, additionalMessage).replaceFirst(PATTERN, Objects.toString(context)));
+		super(createMessage(additionalMessage, context));
 	}
 
 	/**
@@ -58,7 +59,11 @@ public class AbortException extends Exception {
 	 *            The originally thrown exception.
 	 */
 	public AbortException(Context context, String additionalMessage, Exception cause) {
-		super(MESSAGE.replaceFirst(PATTERN, additionalMessage + " ").replaceFirst(PATTERN, Objects.toString(context)));
+		super(createMessage(additionalMessage + " ", context), cause);
+	}
+
+	private static String createMessage(String reason, Context context) {
+		return MESSAGE.replaceFirst(PATTERN, Matcher.quoteReplacement(String.valueOf(reason))).replaceFirst(PATTERN, Matcher.quoteReplacement(Objects.toString(context)));
 	}
 
 }
@@ -1,6 +1,7 @@
 package org.continuity.experimentation.exception;
 
 import java.util.Objects;
+import java.util.regex.Matcher;
 
 import org.continuity.experimentation.Context;
 
@@ -28,7 +29,7 @@ public class AbortInnerException extends Exception {
 	 *            The originally thrown exception.
 	 */
 	public AbortInnerException(Context context, Exception cause) {
-		super(MESSAGE.replaceFirst(PATTERN, cause.getClass().getSimpleName()).replaceFirst(PATTERN, context.toString()), cause);
+		super(createMessage(cause.getClass().getSimpleName(), context), cause);
 	}
 
 	/**
@@ -40,7 +41,11 @@ public class AbortInnerException extends Exception {
 	 *            An additional message to be appended.
 	 */
 	public AbortInnerException(Context context, String additionalMessage) {
-		super(MESSAGE.replaceFirst(PATTERN, additionalMessage).replaceFirst(PATTERN, Objects.toString(context)));
+		super(createMessage(additionalMessage, context));
+	}
+
+	private static String createMessage(String reason, Context context) {
+		return MESSAGE.replaceFirst(PATTERN, Matcher.quoteReplacement(String.valueOf(reason))).replaceFirst(PATTERN, Matcher.quoteReplacement(Objects.toString(context)));
 	}
 
 }
@@ -0,0 +1,61 @@
+package org.continuity.experimentation.exception;
+
+import org.continuity.experimentation.data.IDataHolder;
+
+/**
+ * Thrown if a data holder is read before its content has been written.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class DataNotSetException extends AbortInnerException {
+
+	private static final long serialVersionUID = 2739015521640389762L;
+
+	private final String dataHolder;
+
+	private final transient IDataHolder<?> holder;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataHolder
+	 *            A description of the data holder.
+	 */
+	public DataNotSetException(String dataHolder) {
+		this(dataHolder, null);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataHolder
+	 *            A description of the data holder.
+	 * @param holder
+	 *            The data holder that has been read.
+	 */
+	public DataNotSetException(String dataHolder, IDataHolder<?> holder) {
+		super(null, dataHolder + " is notified to be read before data has been written!");
+		this.dataHolder = dataHolder;
+		this.holder = holder;
+	}
+
+	/**
+	 * Gets {@link #dataHolder}.
+	 *
+	 * @return {@link #dataHolder}
+	 */
+	public String getDataHolder() {
+		return this.dataHolder;
+	}
+
+	/**
+	 * Gets {@link #holder}.
+	 *
+	 * @return {@link #holder} or {@code null} if unknown.
+	 */
+	public IDataHolder<?> getHolder() {
+		return this.holder;
+	}
+
+}
@@ -0,0 +1,67 @@
+package org.continuity.experimentation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for handled {@link org.continuity.experimentation.exception.AbortInnerException
+ * AbortInnerExceptions}, i.e., for skipped parts of an experiment.
+ *
+ * @author Henning Schulz
+ *
+ */
+@Name("org.continuity.experimentation.AbortHandled")
+@Label("Abort Handled")
+@Category({ "ContinuITy", "Experimentation" })
+@Description("An inner abort that has been handled by an experiment element")
+public class AbortHandledEvent extends Event {
+
+	private static final AbortHandledEvent PROBE = new AbortHandledEvent();
+
+	@Label("Context")
+	@Description("The context in which the abort occurred")
+	private String context;
+
+	@Label("Handler")
+	@Description("The element handling the abort or 'none' if the whole experiment is aborted")
+	private String handler;
+
+	@Label("Message")
+	private String message;
+
+	/**
+	 * Checks whether events are currently recorded. Can be used to avoid preparing expensive
+	 * arguments.
+	 *
+	 * @return {@code true} if there is a recording enabling the event.
+	 */
+	public static boolean isRecorded() {
+		return PROBE.isEnabled();
+	}
+
+	/**
+	 * Commits an event if recording is enabled. Does nothing otherwise.
+	 *
+	 * @param context
+	 *            The context in which the abort occurred.
+	 * @param handler
+	 *            The element handling the abort. Can be {@code null}.
+	 * @param exception
+	 *            The handled exception.
+	 */
+	public static void emit(Object context, Object handler, Exception exception) {
+		if (!PROBE.isEnabled()) {
+			return;
+		}
+
+		AbortHandledEvent event = new AbortHandledEvent();
+		event.context = String.valueOf(context);
+		event.handler = handler == null ? "none" : handler.toString();
+		event.message = exception.getMessage();
+		event.commit();
+	}
+
+}
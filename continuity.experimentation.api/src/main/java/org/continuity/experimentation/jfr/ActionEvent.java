@@ -0,0 +1,77 @@
+package org.continuity.experimentation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning the execution of one experiment action. The fields are only
+ * filled if the event is going to be committed, so that executing actions does not cost anything
+ * without an active recording.
+ *
+ * @author Henning Schulz
+ *
+ */
+@Name("org.continuity.experimentation.Action")
+@Label("Experiment Action")
+@Category({ "ContinuITy", "Experimentation" })
+@Description("Execution of an experiment action")
+public class ActionEvent extends Event {
+
+	@Label("Action Class")
+	private Class<?> actionClass;
+
+	@Label("Action")
+	private String action;
+
+	@Label("Context")
+	private String context;
+
+	@Label("Result")
+	@Description("Name of the thrown exception or 'success'")
+	private String result;
+
+	/**
+	 * Starts the event if it is enabled.
+	 *
+	 * @return The started event.
+	 */
+	public static ActionEvent started() {
+		ActionEvent event = new ActionEvent();
+
+		if (event.isEnabled()) {
+			event.begin();
+		}
+
+		return event;
+	}
+
+	/**
+	 * Ends the event and commits it if required by the recording settings.
+	 *
+	 * @param action
+	 *            The executed action.
+	 * @param context
+	 *            The context the action has been executed in.
+	 * @param thrown
+	 *            The exception thrown by the action or {@code null}.
+	 */
+	public void finished(Object action, Object context, Exception thrown) {
+		if (!isEnabled()) {
+			return;
+		}
+
+		end();
+
+		if (shouldCommit()) {
+			this.actionClass = action.getClass();
+			this.action = action.toString();
+			this.context = String.valueOf(context);
+			this.result = thrown == null ? "success" : thrown.getClass().getName();
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,56 @@
+package org.continuity.experimentation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for changes of the experiment context.
+ *
+ * @author Henning Schulz
+ *
+ */
+@Name("org.continuity.experimentation.ContextChange")
+@Label("Context Change")
+@Category({ "ContinuITy", "Experimentation" })
+@Description("Appending, removing or restoring of an experiment context")
+public class ContextChangeEvent extends Event {
+
+	private static final ContextChangeEvent PROBE = new ContextChangeEvent();
+
+	@Label("Operation")
+	private String operation;
+
+	@Label("Label")
+	@Description("The appended or removed context label")
+	private String label;
+
+	@Label("Context")
+	@Description("The context after the change")
+	private String context;
+
+	/**
+	 * Commits an event if recording is enabled. Does nothing otherwise.
+	 *
+	 * @param operation
+	 *            The operation, e.g., {@code append}.
+	 * @param label
+	 *            The appended or removed label.
+	 * @param context
+	 *            The changed context. {@link Object#toString()} is only called when recording.
+	 */
+	public static void emit(String operation, String label, Object context) {
+		if (!PROBE.isEnabled()) {
+			return;
+		}
+
+		ContextChangeEvent event = new ContextChangeEvent();
+		event.operation = operation;
+		event.label = label;
+		event.context = String.valueOf(context);
+		event.commit();
+	}
+
+}
@@ -0,0 +1,49 @@
+package org.continuity.experimentation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for reads and writes of data holders.
+ *
+ * @author Henning Schulz
+ *
+ */
+@Name("org.continuity.experimentation.DataAccess")
+@Label("Data Access")
+@Category({ "ContinuITy", "Experimentation" })
+@Description("Read or write of a data holder")
+public class DataAccessEvent extends Event {
+
+	private static final DataAccessEvent PROBE = new DataAccessEvent();
+
+	@Label("Operation")
+	private String operation;
+
+	@Label("Holder")
+	private String holder;
+
+	/**
+	 * Commits an event if recording is enabled. Does nothing otherwise.
+	 *
+	 * @param operation
+	 *            Either {@code read} or {@code write}.
+	 * @param holder
+	 *            The accessed data holder. {@link Object#toString()} is only called when
+	 *            recording.
+	 */
+	public static void emit(String operation, Object holder) {
+		if (!PROBE.isEnabled()) {
+			return;
+		}
+
+		DataAccessEvent event = new DataAccessEvent();
+		event.operation = operation;
+		event.holder = String.valueOf(holder);
+		event.commit();
+	}
+
+}
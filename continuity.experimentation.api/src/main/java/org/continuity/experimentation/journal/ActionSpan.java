@@ -0,0 +1,103 @@
+package org.continuity.experimentation.journal;
+
+/**
+ * Execution of one action reconstructed from an {@link ExperimentJournal}.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class ActionSpan {
+
+	private final String context;
+
+	private final String action;
+
+	private final long threadId;
+
+	private final long startNanos;
+
+	private final long endNanos;
+
+	private final String result;
+
+	public ActionSpan(String context, String action, long threadId, long startNanos, long endNanos, String result) {
+		this.context = context;
+		this.action = action;
+		this.threadId = threadId;
+		this.startNanos = startNanos;
+		this.endNanos = endNanos;
+		this.result = result;
+	}
+
+	/**
+	 * Gets {@link #context}.
+	 *
+	 * @return {@link #context}
+	 */
+	public String getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Gets {@link #action}.
+	 *
+	 * @return {@link #action}
+	 */
+	public String getAction() {
+		return this.action;
+	}
+
+	/**
+	 * Gets {@link #threadId}, which is the ID of the thread that started the action.
+	 *
+	 * @return {@link #threadId}
+	 */
+	public long getThreadId() {
+		return this.threadId;
+	}
+
+	/**
+	 * Gets {@link #startNanos} in nanoseconds since the epoch.
+	 *
+	 * @return {@link #startNanos}
+	 */
+	public long getStartNanos() {
+		return this.startNanos;
+	}
+
+	/**
+	 * Gets {@link #endNanos} in nanoseconds since the epoch.
+	 *
+	 * @return {@link #endNanos}
+	 */
+	public long getEndNanos() {
+		return this.endNanos;
+	}
+
+	/**
+	 * Gets the duration of the action.
+	 *
+	 * @return The duration in nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return endNanos - startNanos;
+	}
+
+	/**
+	 * Gets {@link #result}, which is {@code OK} or the name of the thrown exception.
+	 *
+	 * @return {@link #result}
+	 */
+	public String getResult() {
+		return this.result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return context + ": " + action + " took " + (getDurationNanos() / 1000000) + " ms (" + result + ")";
+	}
+
+}
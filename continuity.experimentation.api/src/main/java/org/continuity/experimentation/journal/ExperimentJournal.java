@@ -0,0 +1,302 @@
+package org.continuity.experimentation.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.continuity.experimentation.ActionMetrics;
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExecutionListener;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.journal.JournalEvent.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact, append-only binary journal of an experiment run, written to
+ * {@code experiment.journal} next to the {@code experiment.log}. It holds action starts and ends,
+ * context changes, data holder writes and exceptions with nanosecond timestamps. Use
+ * {@link JournalReader} for reading it.
+ *
+ * <p>
+ * The file starts with {@link #MAGIC} and {@link #VERSION} (two ints). Each event is stored as an
+ * int holding the length of the rest of the record, followed by the type ordinal (byte), the
+ * timestamp, the thread ID and the value (three longs) and the context, the subject and the detail
+ * (each an int length followed by UTF-8 bytes). Events are buffered and written through a
+ * {@link FileChannel} if the buffer is full, but at least once per second.
+ * </p>
+ *
+ * @author Henning Schulz
+ *
+ */
+public class ExperimentJournal implements IExecutionListener {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExperimentJournal.class);
+
+	/**
+	 * Name of the journal file.
+	 */
+	public static final String FILE_NAME = "experiment.journal";
+
+	/**
+	 * Magic number at the beginning of the file ({@code CEJ1}).
+	 */
+	public static final int MAGIC = 0x43454a31;
+
+	/**
+	 * Version of the file format.
+	 */
+	public static final int VERSION = 1;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	static final int FIXED_RECORD_SIZE = 1 + (3 * Long.BYTES) + (3 * Integer.BYTES);
+
+	private static final byte[] EMPTY = new byte[0];
+
+	/**
+	 * Journals of the running experiments. Allows for notifying them about context changes and
+	 * data writes without any overhead if there is none.
+	 */
+	private static final List<ExperimentJournal> ACTIVE = new CopyOnWriteArrayList<>();
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	private FileChannel channel;
+
+	private Path root;
+
+	private long baseEpochNanos;
+
+	private long baseNanoTime;
+
+	private long lastFlushNanoTime;
+
+	/**
+	 * Notifies the journals of the running experiments about an appended context.
+	 *
+	 * @param context
+	 *            The context after appending.
+	 * @param label
+	 *            The appended label.
+	 */
+	public static void contextAppended(Context context, String label) {
+		if (!ACTIVE.isEmpty()) {
+			recordContextChange(Type.CONTEXT_APPENDED, context, label);
+		}
+	}
+
+	/**
+	 * Notifies the journals of the running experiments about a removed context.
+	 *
+	 * @param context
+	 *            The context after removing.
+	 * @param label
+	 *            The removed label.
+	 */
+	public static void contextRemoved(Context context, String label) {
+		if (!ACTIVE.isEmpty()) {
+			recordContextChange(Type.CONTEXT_REMOVED, context, label);
+		}
+	}
+
+	/**
+	 * Notifies the journals of the running experiments about a write of a data holder. Data holders
+	 * are not bound to an experiment. Hence, the write is recorded by all journals.
+	 *
+	 * @param holder
+	 *            The written data holder.
+	 * @param data
+	 *            The written value.
+	 */
+	public static void dataWritten(Object holder, Object data) {
+		if (ACTIVE.isEmpty()) {
+			return;
+		}
+
+		String name = String.valueOf(holder);
+		long digest = digest(data);
+
+		for (ExperimentJournal journal : ACTIVE) {
+			journal.record(Type.DATA_WRITTEN, digest, "", name, "");
+		}
+	}
+
+	/**
+	 * Calculates the digest of a value as stored in {@link Type#DATA_WRITTEN} events. It is the
+	 * 64-bit FNV-1a hash of the UTF-8 encoded string representation.
+	 *
+	 * @param data
+	 *            The value.
+	 * @return The digest.
+	 */
+	public static long digest(Object data) {
+		long hash = 0xcbf29ce484222325L;
+
+		for (byte b : String.valueOf(data).getBytes(StandardCharsets.UTF_8)) {
+			hash ^= (b & 0xff);
+			hash *= 0x100000001b3L;
+		}
+
+		return hash;
+	}
+
+	private static void recordContextChange(Type type, Context context, String label) {
+		Path contextRoot = context.toPath().getName(0);
+		String contextString = context.toString();
+
+		for (ExperimentJournal journal : ACTIVE) {
+			if (contextRoot.equals(journal.root)) {
+				journal.record(type, 0, contextString, label, "");
+			}
+		}
+	}
+
+	/**
+	 * Opens the journal file.
+	 */
+	@Override
+	public synchronized void experimentStarted(Experiment experiment, Context context) {
+		root = context.toPath().getName(0);
+		baseEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+		baseNanoTime = System.nanoTime();
+		lastFlushNanoTime = baseNanoTime;
+		buffer.clear();
+
+		Path path = root.resolve(FILE_NAME);
+
+		try {
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+			if (channel.size() == 0) {
+				buffer.putInt(MAGIC);
+				buffer.putInt(VERSION);
+			}
+		} catch (IOException e) {
+			LOGGER.error("Could not open the journal " + path + "! Will not journal anything.", e);
+			channel = null;
+			return;
+		}
+
+		ACTIVE.add(this);
+		record(Type.EXPERIMENT_STARTED, 0, context.toString(), experiment.getName(), "");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void actionStarted(IExperimentAction action, Context context) {
+		record(Type.ACTION_STARTED, 0, context.toString(), action.toString(), "");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void actionFinished(IExperimentAction action, Context context, ActionMetrics metrics, Exception thrown) {
+		String contextString = context.toString();
+		String actionString = action.toString();
+
+		record(Type.ACTION_FINISHED, metrics.getWallNanos(), contextString, actionString, thrown == null ? "OK" : thrown.getClass().getSimpleName());
+
+		if (thrown != null) {
+			record(Type.EXCEPTION, 0, contextString, actionString, thrown.getClass().getName() + ": " + thrown.getMessage());
+		}
+	}
+
+	/**
+	 * Writes all buffered events and closes the journal file.
+	 */
+	@Override
+	public synchronized void experimentFinished(Experiment experiment, Context context, AbortException abortException) {
+		if (channel == null) {
+			return;
+		}
+
+		if (abortException != null) {
+			record(Type.EXCEPTION, 0, context.toString(), experiment.getName(), abortException.getClass().getName() + ": " + abortException.getMessage());
+		}
+
+		record(Type.EXPERIMENT_FINISHED, 0, context.toString(), experiment.getName(), "");
+		ACTIVE.remove(this);
+
+		try {
+			flush();
+			channel.close();
+		} catch (IOException e) {
+			LOGGER.error("Could not close the journal!", e);
+		}
+
+		channel = null;
+	}
+
+	private synchronized void record(Type type, long value, String context, String subject, String detail) {
+		if (channel == null) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		byte[] contextBytes = context.isEmpty() ? EMPTY : context.getBytes(StandardCharsets.UTF_8);
+		byte[] subjectBytes = subject.isEmpty() ? EMPTY : subject.getBytes(StandardCharsets.UTF_8);
+		byte[] detailBytes = detail.isEmpty() ? EMPTY : detail.getBytes(StandardCharsets.UTF_8);
+		int length = FIXED_RECORD_SIZE + contextBytes.length + subjectBytes.length + detailBytes.length;
+
+		try {
+			if (buffer.remaining() < (Integer.BYTES + length)) {
+				flush();
+			}
+
+			ByteBuffer target = (buffer.remaining() < (Integer.BYTES + length)) ? ByteBuffer.allocate(Integer.BYTES + length) : buffer;
+
+			target.putInt(length);
+			target.put((byte) type.ordinal());
+			target.putLong(baseEpochNanos + (now - baseNanoTime));
+			target.putLong(Thread.currentThread().getId());
+			target.putLong(value);
+			putBytes(target, contextBytes);
+			putBytes(target, subjectBytes);
+			putBytes(target, detailBytes);
+
+			if (target != buffer) {
+				target.flip();
+				write(target);
+			} else if ((now - lastFlushNanoTime) >= FLUSH_INTERVAL_NANOS) {
+				flush();
+			}
+		} catch (IOException e) {
+			LOGGER.error("Could not write to the journal! Will not journal anything more.", e);
+			ACTIVE.remove(this);
+			channel = null;
+		}
+	}
+
+	private void putBytes(ByteBuffer target, byte[] bytes) {
+		target.putInt(bytes.length);
+		target.put(bytes);
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		write(buffer);
+		buffer.clear();
+		lastFlushNanoTime = System.nanoTime();
+	}
+
+	private void write(ByteBuffer source) throws IOException {
+		while (source.hasRemaining()) {
+			channel.write(source);
+		}
+	}
+
+}
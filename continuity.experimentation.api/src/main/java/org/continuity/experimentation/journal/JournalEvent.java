@@ -0,0 +1,135 @@
+package org.continuity.experimentation.journal;
+
+/**
+ * One entry of an {@link ExperimentJournal}.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class JournalEvent {
+
+	private final Type type;
+
+	private final long timestampNanos;
+
+	private final long threadId;
+
+	private final long value;
+
+	private final String context;
+
+	private final String subject;
+
+	private final String detail;
+
+	public JournalEvent(Type type, long timestampNanos, long threadId, long value, String context, String subject, String detail) {
+		this.type = type;
+		this.timestampNanos = timestampNanos;
+		this.threadId = threadId;
+		this.value = value;
+		this.context = context;
+		this.subject = subject;
+		this.detail = detail;
+	}
+
+	/**
+	 * Gets {@link #type}.
+	 *
+	 * @return {@link #type}
+	 */
+	public Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Gets {@link #timestampNanos}, which is the time of the event in nanoseconds since the epoch.
+	 *
+	 * @return {@link #timestampNanos}
+	 */
+	public long getTimestampNanos() {
+		return this.timestampNanos;
+	}
+
+	/**
+	 * Gets {@link #threadId}, which is the ID of the thread causing the event.
+	 *
+	 * @return {@link #threadId}
+	 */
+	public long getThreadId() {
+		return this.threadId;
+	}
+
+	/**
+	 * Gets {@link #value}. Its meaning depends on the type: the wall-clock duration in nanoseconds
+	 * for {@link Type#ACTION_FINISHED} and the digest of the written value for
+	 * {@link Type#DATA_WRITTEN}. It is 0 for all other types.
+	 *
+	 * @return {@link #value}
+	 */
+	public long getValue() {
+		return this.value;
+	}
+
+	/**
+	 * Gets {@link #context}.
+	 *
+	 * @return {@link #context}
+	 */
+	public String getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Gets {@link #subject}, which is the action, the appended or removed context label, the data
+	 * holder or the experiment name, depending on the type.
+	 *
+	 * @return {@link #subject}
+	 */
+	public String getSubject() {
+		return this.subject;
+	}
+
+	/**
+	 * Gets {@link #detail}, which is the result of a finished action or the type and message of an
+	 * exception. Empty for other types.
+	 *
+	 * @return {@link #detail}
+	 */
+	public String getDetail() {
+		return this.detail;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return timestampNanos + " [" + threadId + "] " + type + " " + context + ": " + subject + (detail.isEmpty() ? "" : " (" + detail + ")") + (value == 0 ? "" : " " + value);
+	}
+
+	/**
+	 * Types of journal events. The ordinals are persisted and must not be changed.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	public static enum Type {
+
+		EXPERIMENT_STARTED, EXPERIMENT_FINISHED, ACTION_STARTED, ACTION_FINISHED, CONTEXT_APPENDED, CONTEXT_REMOVED, DATA_WRITTEN, EXCEPTION;
+
+		private static final Type[] VALUES = values();
+
+		/**
+		 * Gets the type with the passed ordinal.
+		 *
+		 * @param ordinal
+		 *            The ordinal.
+		 * @return The type or {@code null} if there is none.
+		 */
+		public static Type fromOrdinal(int ordinal) {
+			return (ordinal >= 0) && (ordinal < VALUES.length) ? VALUES[ordinal] : null;
+		}
+
+	}
+
+}
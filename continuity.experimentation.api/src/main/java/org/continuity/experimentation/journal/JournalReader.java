@@ -0,0 +1,175 @@
+package org.continuity.experimentation.journal;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.continuity.experimentation.journal.JournalEvent.Type;
+
+/**
+ * Reads an {@link ExperimentJournal} event by event. A truncated last record, e.g., due to a
+ * crash, is ignored.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class JournalReader implements Closeable {
+
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+	private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+
+	private final DataInputStream in;
+
+	/**
+	 * Opens a journal.
+	 *
+	 * @param path
+	 *            The journal file.
+	 * @throws IOException
+	 *             If the file cannot be read or is not a journal.
+	 */
+	public JournalReader(Path path) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), READ_BUFFER_SIZE));
+
+		try {
+			int magic = in.readInt();
+			int version = in.readInt();
+
+			if ((magic != ExperimentJournal.MAGIC) || (version != ExperimentJournal.VERSION)) {
+				throw new IOException("File " + path + " is not an experiment journal of version " + ExperimentJournal.VERSION + "!");
+			}
+		} catch (IOException e) {
+			in.close();
+			throw (e instanceof EOFException) ? new IOException("File " + path + " is not an experiment journal!", e) : e;
+		}
+	}
+
+	/**
+	 * Reads all events of a journal.
+	 *
+	 * @param path
+	 *            The journal file.
+	 * @return The events in the order they have been written.
+	 * @throws IOException
+	 *             If the file cannot be read or is not a journal.
+	 */
+	public static List<JournalEvent> readAll(Path path) throws IOException {
+		List<JournalEvent> events = new ArrayList<>();
+
+		try (JournalReader reader = new JournalReader(path)) {
+			JournalEvent event;
+
+			while ((event = reader.next()) != null) {
+				events.add(event);
+			}
+		}
+
+		return events;
+	}
+
+	/**
+	 * Reconstructs the executed actions in a context and its sub-contexts, e.g., in
+	 * {@code experiment-iteration#3}. Starts and ends are matched by the context and the action.
+	 * Actions that have not been finished are ignored.
+	 *
+	 * @param events
+	 *            The events of a journal.
+	 * @param contextPrefix
+	 *            The context of interest. An empty string matches all actions.
+	 * @return The executed actions ordered by their end.
+	 */
+	public static List<ActionSpan> reconstructActions(List<JournalEvent> events, String contextPrefix) {
+		Map<String, Deque<JournalEvent>> started = new HashMap<>();
+		List<ActionSpan> spans = new ArrayList<>();
+
+		for (JournalEvent event : events) {
+			if (!matches(event.getContext(), contextPrefix)) {
+				continue;
+			}
+
+			String key = event.getContext() + "\n" + event.getSubject();
+
+			if (event.getType() == Type.ACTION_STARTED) {
+				started.computeIfAbsent(key, k -> new ArrayDeque<>()).addLast(event);
+			} else if (event.getType() == Type.ACTION_FINISHED) {
+				Deque<JournalEvent> candidates = started.get(key);
+				JournalEvent start = (candidates == null) ? null : candidates.pollFirst();
+
+				if (start != null) {
+					spans.add(new ActionSpan(event.getContext(), event.getSubject(), start.getThreadId(), start.getTimestampNanos(), event.getTimestampNanos(), event.getDetail()));
+				}
+			}
+		}
+
+		return spans;
+	}
+
+	private static boolean matches(String context, String prefix) {
+		return context.startsWith(prefix) && ((context.length() == prefix.length()) || prefix.isEmpty() || (context.charAt(prefix.length()) == '-'));
+	}
+
+	/**
+	 * Reads the next event.
+	 *
+	 * @return The next event or {@code null} if there is none.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	public JournalEvent next() throws IOException {
+		try {
+			int length = in.readInt();
+
+			if ((length < ExperimentJournal.FIXED_RECORD_SIZE) || (length > MAX_RECORD_SIZE)) {
+				throw new IOException("Corrupted journal record of length " + length + "!");
+			}
+
+			byte[] record = new byte[length];
+			in.readFully(record);
+
+			DataInputStream recordIn = new DataInputStream(new ByteArrayInputStream(record));
+			Type type = Type.fromOrdinal(recordIn.readByte());
+
+			if (type == null) {
+				throw new IOException("Unknown journal event type!");
+			}
+
+			long timestampNanos = recordIn.readLong();
+			long threadId = recordIn.readLong();
+			long value = recordIn.readLong();
+
+			return new JournalEvent(type, timestampNanos, threadId, value, readString(recordIn), readString(recordIn), readString(recordIn));
+		} catch (EOFException e) {
+			return null;
+		}
+	}
+
+	private String readString(DataInputStream recordIn) throws IOException {
+		byte[] bytes = new byte[recordIn.readInt()];
+		recordIn.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+}
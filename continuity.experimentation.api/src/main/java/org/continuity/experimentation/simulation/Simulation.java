@@ -0,0 +1,276 @@
+package org.continuity.experimentation.simulation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IAsyncExperimentAction;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.DataNotSetException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dry run of an experiment (see {@link Experiment#simulate(Simulation)}). Time passes on a
+ * {@link VirtualClock}, and {@link IExperimentAction#isExternal() external actions} are replaced
+ * by stubs. By default, a stub does nothing. Stubs setting recorded data can be registered per
+ * action or per action type. <br>
+ *
+ * The {@link DataDependencies#getWrites() declared outputs} of external actions without a stub
+ * remain unset. Actions failing because they read such an output are skipped, too, and reported
+ * separately from premature reads, so that the dry run can continue.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class Simulation {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(Simulation.class);
+
+	private final VirtualClock clock = new VirtualClock();
+
+	private final Map<IExperimentAction, IExperimentAction> actionStubs = new IdentityHashMap<>();
+
+	private final Map<Class<?>, IExperimentAction> typeStubs = new HashMap<>();
+
+	private final AtomicInteger numExecutedActions = new AtomicInteger();
+
+	private final List<String> stubbedActions = new CopyOnWriteArrayList<>();
+
+	private final List<String> prematureReads = new CopyOnWriteArrayList<>();
+
+	private final List<String> unstubbedReads = new CopyOnWriteArrayList<>();
+
+	/**
+	 * The holders left unset by skipped actions, with the external action that has been skipped
+	 * originally.
+	 */
+	private final Map<IDataHolder<?>, IExperimentAction> unstubbedOutputs = Collections.synchronizedMap(new IdentityHashMap<>());
+
+	/**
+	 * Replaces an action by a stub.
+	 *
+	 * @param action
+	 *            The action to be replaced.
+	 * @param stub
+	 *            The stub to be executed instead.
+	 * @return This simulation.
+	 */
+	public Simulation stub(IExperimentAction action, IExperimentAction stub) {
+		actionStubs.put(action, stub);
+		return this;
+	}
+
+	/**
+	 * Replaces all actions of a type, including subtypes, by a stub.
+	 *
+	 * @param type
+	 *            The type of actions to be replaced.
+	 * @param stub
+	 *            The stub to be executed instead.
+	 * @return This simulation.
+	 */
+	public Simulation stub(Class<? extends IExperimentAction> type, IExperimentAction stub) {
+		typeStubs.put(type, stub);
+		return this;
+	}
+
+	/**
+	 * Gets {@link #clock}.
+	 *
+	 * @return {@link #clock}
+	 */
+	public VirtualClock getClock() {
+		return this.clock;
+	}
+
+	/**
+	 * Wraps an action for being executed in this simulation. External actions are replaced by
+	 * stubs, and reads of data holders that have not been written are recorded.
+	 *
+	 * @param action
+	 *            The action to be executed.
+	 * @return The action to be executed instead.
+	 */
+	public IExperimentAction intercept(IExperimentAction action) {
+		if ((action instanceof IAsyncExperimentAction) && (getStub(action) == null) && !action.isExternal()) {
+			return new InterceptedAsyncAction((IAsyncExperimentAction) action);
+		} else {
+			return new InterceptedAction(action);
+		}
+	}
+
+	/**
+	 * Creates a report of the simulation so far.
+	 *
+	 * @param abortException
+	 *            The exception that aborted the simulated experiment or {@code null} if it
+	 *            finished.
+	 * @return The report.
+	 */
+	public SimulationReport createReport(AbortException abortException) {
+		return new SimulationReport(numExecutedActions.get(), clock.getElapsedMillis(), stubbedActions, prematureReads, unstubbedReads, abortException);
+	}
+
+	private IExperimentAction getStub(IExperimentAction action) {
+		IExperimentAction stub = actionStubs.get(action);
+
+		for (Class<?> type = action.getClass(); (stub == null) && (type != null); type = type.getSuperclass()) {
+			stub = typeStubs.get(type);
+		}
+
+		return stub;
+	}
+
+	/**
+	 * Records a read of an unset holder. If the holder is an output of a skipped action, the
+	 * reading action is skipped, too. Otherwise, the read is premature and the exception is
+	 * rethrown.
+	 */
+	private void handleUnsetRead(Context context, IExperimentAction action, DataNotSetException exception) throws DataNotSetException {
+		IExperimentAction skipped = (exception.getHolder() == null) ? null : unstubbedOutputs.get(exception.getHolder());
+
+		if (skipped == null) {
+			prematureReads.add(context + ": " + action + " read " + exception.getDataHolder());
+			throw exception;
+		}
+
+		unstubbedReads.add(context + ": " + action + " read " + exception.getDataHolder() + ", which the skipped external action " + skipped + " writes");
+		LOGGER.info("Skipping {}, since it reads the output of the skipped external action {}.", action, skipped);
+		markUnstubbedOutputs(action, skipped);
+	}
+
+	private void markUnstubbedOutputs(IExperimentAction action, IExperimentAction skipped) {
+		DataDependencies dependencies = action.getDataDependencies();
+
+		if (dependencies.isKnown()) {
+			dependencies.getWrites().forEach(holder -> unstubbedOutputs.put(holder, skipped));
+		}
+	}
+
+	/**
+	 * Action executed instead of the original one in a simulation. Behaves like the original one
+	 * except for the execution.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	private class InterceptedAction implements IExperimentAction {
+
+		protected final IExperimentAction action;
+
+		private InterceptedAction(IExperimentAction action) {
+			this.action = action;
+		}
+
+		@Override
+		public void execute(Context context) throws AbortException, Exception {
+			numExecutedActions.incrementAndGet();
+			IExperimentAction stub = getStub(action);
+
+			try {
+				if (stub != null) {
+					stubbedActions.add(context + ": " + action);
+					LOGGER.info("Simulating {} by a stub.", action);
+
+					stub.execute(context);
+				} else if (action.isExternal()) {
+					stubbedActions.add(context + ": " + action);
+					LOGGER.info("Skipping external action {}.", action);
+					markUnstubbedOutputs(action, action);
+				} else {
+					action.execute(context);
+				}
+			} catch (DataNotSetException e) {
+				handleUnsetRead(context, action, e);
+			}
+		}
+
+		@Override
+		public boolean isExternal() {
+			return action.isExternal();
+		}
+
+		@Override
+		public long getRetries() {
+			return action.getRetries();
+		}
+
+		@Override
+		public DataDependencies getDataDependencies() {
+			return action.getDataDependencies();
+		}
+
+		@Override
+		public void bypassExperiment(Experiment experiment) {
+			action.bypassExperiment(experiment);
+		}
+
+		@Override
+		public String toString() {
+			return action.toString();
+		}
+
+	}
+
+	/**
+	 * Intercepted asynchronous action that is neither stubbed nor external, so it is executed
+	 * asynchronously as well.
+	 *
+	 * @author Henning Schulz
+	 *
+	 */
+	private class InterceptedAsyncAction extends InterceptedAction implements IAsyncExperimentAction {
+
+		private final IAsyncExperimentAction asyncAction;
+
+		private InterceptedAsyncAction(IAsyncExperimentAction action) {
+			super(action);
+			this.asyncAction = action;
+		}
+
+		@Override
+		public CompletionStage<Void> executeAsync(Context context) {
+			numExecutedActions.incrementAndGet();
+			CompletableFuture<Void> result = new CompletableFuture<>();
+
+			asyncAction.executeAsync(context).whenComplete((v, thrown) -> {
+				Throwable cause = ((thrown instanceof CompletionException) && (thrown.getCause() != null)) ? thrown.getCause() : thrown;
+
+				if (cause instanceof DataNotSetException) {
+					try {
+						handleUnsetRead(context, action, (DataNotSetException) cause);
+						result.complete(null);
+					} catch (DataNotSetException e) {
+						result.completeExceptionally(e);
+					}
+				} else if (thrown != null) {
+					result.completeExceptionally(thrown);
+				} else {
+					result.complete(null);
+				}
+			});
+
+			return result;
+		}
+
+		@Override
+		public void execute(Context context) throws AbortException, Exception {
+			IAsyncExperimentAction.super.execute(context);
+		}
+
+	}
+
+}
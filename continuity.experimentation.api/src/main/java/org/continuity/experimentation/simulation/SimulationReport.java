@@ -0,0 +1,141 @@
+package org.continuity.experimentation.simulation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.continuity.experimentation.exception.AbortException;
+
+/**
+ * Results of a {@link Simulation}.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class SimulationReport {
+
+	private final int numExecutedActions;
+
+	private final long simulatedMillis;
+
+	private final List<String> stubbedActions;
+
+	private final List<String> prematureReads;
+
+	private final List<String> unstubbedReads;
+
+	private final AbortException abortException;
+
+	public SimulationReport(int numExecutedActions, long simulatedMillis, List<String> stubbedActions, List<String> prematureReads, List<String> unstubbedReads,
+			AbortException abortException) {
+		this.numExecutedActions = numExecutedActions;
+		this.simulatedMillis = simulatedMillis;
+		this.stubbedActions = new ArrayList<>(stubbedActions);
+		this.prematureReads = new ArrayList<>(prematureReads);
+		this.unstubbedReads = new ArrayList<>(unstubbedReads);
+		this.abortException = abortException;
+	}
+
+	public SimulationReport(int numExecutedActions, long simulatedMillis, List<String> stubbedActions, List<String> prematureReads, AbortException abortException) {
+		this(numExecutedActions, simulatedMillis, stubbedActions, prematureReads, Collections.emptyList(), abortException);
+	}
+
+	/**
+	 * Gets {@link #numExecutedActions}.
+	 *
+	 * @return {@link #numExecutedActions}
+	 */
+	public int getNumExecutedActions() {
+		return this.numExecutedActions;
+	}
+
+	/**
+	 * Gets {@link #simulatedMillis}. That is the time that has passed on the virtual clock.
+	 *
+	 * @return {@link #simulatedMillis}
+	 */
+	public long getSimulatedMillis() {
+		return this.simulatedMillis;
+	}
+
+	/**
+	 * Gets {@link #stubbedActions}. Each entry consists of the context and the replaced action.
+	 *
+	 * @return {@link #stubbedActions}
+	 */
+	public List<String> getStubbedActions() {
+		return this.stubbedActions;
+	}
+
+	/**
+	 * Gets {@link #prematureReads}. Each entry describes a data holder that has been read before
+	 * it has been written, together with the context and the reading action.
+	 *
+	 * @return {@link #prematureReads}
+	 */
+	public List<String> getPrematureReads() {
+		return this.prematureReads;
+	}
+
+	/**
+	 * Gets {@link #unstubbedReads}. Each entry describes an action that has been skipped, because
+	 * it read the output of an external action without a stub, together with the context. Stubbing
+	 * the external action simulates these actions, too.
+	 *
+	 * @return {@link #unstubbedReads}
+	 */
+	public List<String> getUnstubbedReads() {
+		return this.unstubbedReads;
+	}
+
+	/**
+	 * Gets {@link #abortException}.
+	 *
+	 * @return {@link #abortException} or {@code null} if the experiment was not aborted.
+	 */
+	public AbortException getAbortException() {
+		return this.abortException;
+	}
+
+	/**
+	 * Returns whether the simulation revealed problems, i.e., premature reads or an abortion.
+	 *
+	 * @return {@code true} if there were no problems.
+	 */
+	public boolean isSuccessful() {
+		return prematureReads.isEmpty() && (abortException == null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("Simulated ");
+		builder.append(numExecutedActions);
+		builder.append(" actions taking ");
+		builder.append(Duration.ofMillis(simulatedMillis));
+		builder.append(abortException == null ? ".\n" : " until the experiment was aborted: " + abortException.getMessage() + "\n");
+
+		builder.append("Stubbed actions (");
+		builder.append(stubbedActions.size());
+		builder.append("):\n");
+		stubbedActions.forEach(action -> builder.append("    ").append(action).append("\n"));
+
+		builder.append("Data read before written (");
+		builder.append(prematureReads.size());
+		builder.append("):\n");
+		prematureReads.forEach(read -> builder.append("    ").append(read).append("\n"));
+
+		builder.append("Skipped, because reading outputs of unstubbed actions (");
+		builder.append(unstubbedReads.size());
+		builder.append("):\n");
+		unstubbedReads.forEach(read -> builder.append("    ").append(read).append("\n"));
+
+		return builder.toString();
+	}
+
+}
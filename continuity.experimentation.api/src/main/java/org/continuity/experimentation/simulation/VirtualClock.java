@@ -0,0 +1,133 @@
+package org.continuity.experimentation.simulation;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.continuity.experimentation.ExperimentExecutionService;
+import org.continuity.experimentation.IExperimentClock;
+
+/**
+ * Clock that does not wait but only advances its time. Concurrent threads advance separate
+ * {@link #branch() branches} of the clock, which are {@link #join(Collection) joined} by taking
+ * the latest time. Hence, the elapsed time of concurrent threads is the one of the longest thread.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class VirtualClock implements IExperimentClock {
+
+	private final long startMillis;
+
+	private final AtomicLong now;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param startMillis
+	 *            The initial time.
+	 */
+	public VirtualClock(long startMillis) {
+		this(startMillis, startMillis);
+	}
+
+	private VirtualClock(long startMillis, long nowMillis) {
+		this.startMillis = startMillis;
+		this.now = new AtomicLong(nowMillis);
+	}
+
+	/**
+	 * Constructor starting at the current system time.
+	 */
+	public VirtualClock() {
+		this(System.currentTimeMillis());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long currentTimeMillis() {
+		return now.get();
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * Returns immediately.
+	 */
+	@Override
+	public void sleep(long millis) {
+		advance(millis);
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 *
+	 * The returned future is already completed.
+	 */
+	@Override
+	public CompletableFuture<Void> delay(long millis, ExperimentExecutionService executionService) {
+		advance(millis);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Advances the time.
+	 *
+	 * @param millis
+	 *            The time to be added in milliseconds.
+	 */
+	public void advance(long millis) {
+		now.addAndGet(millis);
+	}
+
+	/**
+	 * Advances the time to the passed point in time if it is later than the current one.
+	 *
+	 * @param millis
+	 *            The point in time in milliseconds.
+	 */
+	public void advanceTo(long millis) {
+		now.accumulateAndGet(millis, Math::max);
+	}
+
+	/**
+	 * Creates a branch of this clock for a concurrent thread. The branch starts at the current
+	 * time and advances independently of this clock.
+	 *
+	 * @return The branch.
+	 */
+	public VirtualClock branch() {
+		return new VirtualClock(startMillis, now.get());
+	}
+
+	/**
+	 * Advances the time to the latest time of the passed branches, i.e., when all concurrent
+	 * threads are finished.
+	 *
+	 * @param branches
+	 *            The branches created by {@link #branch()}.
+	 */
+	public void join(Collection<VirtualClock> branches) {
+		branches.forEach(branch -> advanceTo(branch.currentTimeMillis()));
+	}
+
+	/**
+	 * Gets the time that has passed since the creation.
+	 *
+	 * @return The elapsed time in milliseconds.
+	 */
+	public long getElapsedMillis() {
+		return now.get() - startMillis;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "VirtualClock at " + now.get();
+	}
+
+}
@@ -0,0 +1,326 @@
+package org.continuity.experimentation.sweep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.continuity.experimentation.data.IDataHolder;
+
+/**
+ * Definition of a parameter sweep. A sweep consists of named axes, each binding a list of values
+ * to an {@link IDataHolder}, and a strategy for choosing the points to be executed:
+ * <ul>
+ * <li>{@link #grid()}: all combinations of the values,</li>
+ * <li>{@link #latinHypercube(int, long)}: a given number of points, covering the values of each
+ * axis as evenly as possible,</li>
+ * <li>{@link #random(int, long)}: a given number of distinct points chosen randomly from the
+ * grid.</li>
+ * </ul>
+ * Example: <br>
+ * {@code Sweep.grid().axis("users", users, 10, 50, 100).axis("version", version, "v1", "v2")}
+ *
+ * @author Henning Schulz
+ *
+ */
+public class Sweep {
+
+	private final Strategy strategy;
+
+	private final int samples;
+
+	private final long seed;
+
+	private final List<Axis<?>> axes = new ArrayList<>();
+
+	private List<SweepPoint> points;
+
+	private Sweep(Strategy strategy, int samples, long seed) {
+		this.strategy = strategy;
+		this.samples = samples;
+		this.seed = seed;
+	}
+
+	/**
+	 * Creates a sweep over all combinations of the axis values. The first axis changes slowest.
+	 *
+	 * @return The sweep.
+	 */
+	public static Sweep grid() {
+		return new Sweep(Strategy.GRID, -1, 0);
+	}
+
+	/**
+	 * Creates a sweep over a Latin hypercube sample. Each axis is divided into {@code samples}
+	 * equally sized strata, each of which is used by exactly one point.
+	 *
+	 * @param samples
+	 *            The number of points.
+	 * @param seed
+	 *            The seed of the random number generator. The same seed results in the same
+	 *            points.
+	 * @return The sweep.
+	 */
+	public static Sweep latinHypercube(int samples, long seed) {
+		return new Sweep(Strategy.LATIN_HYPERCUBE, checkSamples(samples), seed);
+	}
+
+	/**
+	 * Creates a sweep over distinct random points of the grid. If the grid has less points than
+	 * {@code samples}, the whole grid is used.
+	 *
+	 * @param samples
+	 *            The number of points.
+	 * @param seed
+	 *            The seed of the random number generator. The same seed results in the same
+	 *            points.
+	 * @return The sweep.
+	 */
+	public static Sweep random(int samples, long seed) {
+		return new Sweep(Strategy.RANDOM, checkSamples(samples), seed);
+	}
+
+	private static int checkSamples(int samples) {
+		if (samples < 1) {
+			throw new IllegalArgumentException("The number of samples must be at least 1 but was " + samples + "!");
+		}
+
+		return samples;
+	}
+
+	/**
+	 * Adds an axis.
+	 *
+	 * @param name
+	 *            The name of the parameter.
+	 * @param holder
+	 *            The holder the value of each point is written to.
+	 * @param values
+	 *            The values of the parameter.
+	 * @return This sweep.
+	 */
+	public synchronized <T> Sweep axis(String name, IDataHolder<T> holder, List<T> values) {
+		if (values.isEmpty()) {
+			throw new IllegalArgumentException("Axis " + name + " does not have any values!");
+		}
+
+		axes.add(new Axis<>(name, holder, new ArrayList<>(values)));
+		points = null;
+		return this;
+	}
+
+	/**
+	 * Adds an axis.
+	 *
+	 * @param name
+	 *            The name of the parameter.
+	 * @param holder
+	 *            The holder the value of each point is written to.
+	 * @param values
+	 *            The values of the parameter.
+	 * @return This sweep.
+	 */
+	@SafeVarargs
+	public final <T> Sweep axis(String name, IDataHolder<T> holder, T... values) {
+		List<T> valueList = new ArrayList<>(values.length);
+
+		for (T value : values) {
+			valueList.add(value);
+		}
+
+		return axis(name, holder, valueList);
+	}
+
+	/**
+	 * Gets the points of the sweep. They are computed once.
+	 *
+	 * @return The points, ordered by their index.
+	 */
+	public synchronized List<SweepPoint> getPoints() {
+		if (points == null) {
+			points = Collections.unmodifiableList(computePoints());
+		}
+
+		return points;
+	}
+
+	/**
+	 * Gets the data holders of the axes.
+	 *
+	 * @return The holders, in the order of the axes.
+	 */
+	public synchronized List<IDataHolder<?>> getHolders() {
+		return axes.stream().map(axis -> axis.holder).collect(Collectors.toList());
+	}
+
+	/**
+	 * Gets the number of points of the full grid.
+	 *
+	 * @return The number of points.
+	 */
+	public synchronized long getGridSize() {
+		long size = axes.isEmpty() ? 0 : 1;
+
+		for (Axis<?> axis : axes) {
+			size = Math.multiplyExact(size, axis.values.size());
+		}
+
+		return size;
+	}
+
+	private List<SweepPoint> computePoints() {
+		long gridSize = getGridSize();
+
+		switch (strategy) {
+		case LATIN_HYPERCUBE:
+			return latinHypercubePoints();
+		case RANDOM:
+			if (gridSize <= samples) {
+				return gridPoints(gridSize);
+			} else {
+				return randomPoints(gridSize);
+			}
+		case GRID:
+		default:
+			if (gridSize > Integer.MAX_VALUE) {
+				throw new IllegalStateException("The grid has " + gridSize + " points, which is too many! Use a Latin hypercube or random sample instead.");
+			}
+
+			return gridPoints(gridSize);
+		}
+	}
+
+	private List<SweepPoint> gridPoints(long gridSize) {
+		List<SweepPoint> gridPoints = new ArrayList<>((int) gridSize);
+
+		for (long i = 0; i < gridSize; i++) {
+			gridPoints.add(pointAt(gridPoints.size() + 1, gridIndices(i)));
+		}
+
+		return gridPoints;
+	}
+
+	private List<SweepPoint> randomPoints(long gridSize) {
+		Random random = new Random(seed);
+		TreeSet<Long> chosen = new TreeSet<>();
+
+		while (chosen.size() < samples) {
+			chosen.add((long) (random.nextDouble() * gridSize));
+		}
+
+		List<SweepPoint> randomPoints = new ArrayList<>(samples);
+
+		for (long index : chosen) {
+			randomPoints.add(pointAt(randomPoints.size() + 1, gridIndices(index)));
+		}
+
+		return randomPoints;
+	}
+
+	private List<SweepPoint> latinHypercubePoints() {
+		Random random = new Random(seed);
+		int[][] indices = new int[samples][axes.size()];
+
+		for (int a = 0; a < axes.size(); a++) {
+			List<Integer> strata = new ArrayList<>(samples);
+
+			for (int i = 0; i < samples; i++) {
+				strata.add(i);
+			}
+
+			Collections.shuffle(strata, random);
+			int numValues = axes.get(a).values.size();
+
+			for (int i = 0; i < samples; i++) {
+				double position = (strata.get(i) + random.nextDouble()) / samples;
+				indices[i][a] = Math.min((int) (position * numValues), numValues - 1);
+			}
+		}
+
+		List<SweepPoint> hypercubePoints = new ArrayList<>(samples);
+
+		for (int i = 0; i < samples; i++) {
+			hypercubePoints.add(pointAt(i + 1, indices[i]));
+		}
+
+		return hypercubePoints;
+	}
+
+	/**
+	 * Converts an index of the grid into the indices of the values per axis. The last axis
+	 * changes fastest.
+	 */
+	private int[] gridIndices(long index) {
+		int[] indices = new int[axes.size()];
+		long remaining = index;
+
+		for (int a = axes.size() - 1; a >= 0; a--) {
+			int numValues = axes.get(a).values.size();
+			indices[a] = (int) (remaining % numValues);
+			remaining /= numValues;
+		}
+
+		return indices;
+	}
+
+	private SweepPoint pointAt(int number, int[] indices) {
+		List<SweepPoint.Binding<?>> bindings = new ArrayList<>(axes.size());
+
+		for (int a = 0; a < axes.size(); a++) {
+			bindings.add(axes.get(a).bind(indices[a]));
+		}
+
+		return new SweepPoint(number, bindings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(strategy.toString().toLowerCase().replace('_', ' '));
+
+		if (strategy != Strategy.GRID) {
+			builder.append(" of ");
+			builder.append(samples);
+		}
+
+		builder.append(" over");
+
+		for (Axis<?> axis : axes) {
+			builder.append(" ");
+			builder.append(axis.name);
+			builder.append(axis.values);
+		}
+
+		return builder.toString();
+	}
+
+	private static enum Strategy {
+		GRID, LATIN_HYPERCUBE, RANDOM;
+	}
+
+	private static class Axis<T> {
+
+		private final String name;
+
+		private final IDataHolder<T> holder;
+
+		private final List<T> values;
+
+		private Axis(String name, IDataHolder<T> holder, List<T> values) {
+			this.name = name;
+			this.holder = holder;
+			this.values = values;
+		}
+
+		private SweepPoint.Binding<T> bind(int index) {
+			return new SweepPoint.Binding<>(name, holder, values.get(index));
+		}
+
+	}
+
+}
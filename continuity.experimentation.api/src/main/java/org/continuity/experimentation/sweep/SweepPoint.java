@@ -0,0 +1,83 @@
+package org.continuity.experimentation.sweep;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.continuity.experimentation.data.IDataHolder;
+
+/**
+ * One point of a {@link Sweep}, i.e., one value per axis.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class SweepPoint {
+
+	private final int number;
+
+	private final List<Binding<?>> bindings;
+
+	SweepPoint(int number, List<Binding<?>> bindings) {
+		this.number = number;
+		this.bindings = bindings;
+	}
+
+	/**
+	 * Gets {@link #number}.
+	 *
+	 * @return {@link #number}, starting with 1.
+	 */
+	public int getNumber() {
+		return this.number;
+	}
+
+	/**
+	 * Gets the values of the point.
+	 *
+	 * @return The values per axis name, in the order of the axes.
+	 */
+	public Map<String, Object> getValues() {
+		Map<String, Object> values = new LinkedHashMap<>();
+		bindings.forEach(binding -> values.put(binding.name, binding.value));
+		return Collections.unmodifiableMap(values);
+	}
+
+	/**
+	 * Writes the values to the data holders of the axes.
+	 */
+	public void bind() {
+		bindings.forEach(Binding::bind);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return bindings.stream().map(binding -> binding.name + "=" + binding.value).collect(Collectors.joining(", "));
+	}
+
+	static class Binding<T> {
+
+		private final String name;
+
+		private final IDataHolder<T> holder;
+
+		private final T value;
+
+		Binding(String name, IDataHolder<T> holder, T value) {
+			this.name = name;
+			this.holder = holder;
+			this.value = value;
+		}
+
+		private void bind() {
+			holder.set(value);
+		}
+
+	}
+
+}
@@ -0,0 +1,42 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class AbortExceptionTest {
+
+	private Context context;
+
+	@Before
+	public void setup() {
+		context = new Context();
+		context.append("Test$Lambda$1");
+	}
+
+	@Test
+	public void testMessagesWithDollarSigns() {
+		assertThat(new AbortException(context, "cost: 5$").getMessage()).contains("cost: 5$").contains("Test$Lambda$1");
+		assertThat(new AbortInnerException(context, "cost: 5$").getMessage()).contains("cost: 5$").contains("Test$Lambda$1");
+	}
+
+	@Test
+	public void testCauseIsKept() {
+		IOException cause = new IOException();
+
+		assertThat(new AbortException(context, cause).getCause()).isSameAs(cause);
+		assertThat(new AbortException(context, "Failed.", cause).getCause()).isSameAs(cause);
+		assertThat(new AbortInnerException(context, cause).getCause()).isSameAs(cause);
+	}
+
+}
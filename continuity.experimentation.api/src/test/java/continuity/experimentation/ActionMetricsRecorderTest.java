@@ -0,0 +1,69 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.action.Delay;
+import org.continuity.experimentation.exception.AbortException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ActionMetricsRecorderTest {
+
+	private static final int ALLOCATION = 10000000;
+
+	private String name;
+
+	private byte[] allocated;
+
+	@Before
+	public void setup() {
+		name = "ActionMetricsRecorderTest-" + System.nanoTime();
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		FileUtils.deleteDirectory(new File(name));
+	}
+
+	@Test
+	public void testMetricsFile() throws AbortException, IOException {
+		Experiment experiment = Experiment.newExperiment(name).loop(2).append(new Delay(10)).append(context -> allocated = new byte[ALLOCATION]).endLoop().build();
+		experiment.execute();
+
+		List<String[]> rows = Files.readAllLines(Paths.get(name, "experiment.metrics")).stream().skip(1).map(line -> line.split("\t")).collect(Collectors.toList());
+
+		assertThat(rows).hasSize(4);
+		assertThat(rows).extracting(row -> row[0]).containsExactly(name + "-iteration#1", name + "-iteration#1", name + "-iteration#2", name + "-iteration#2");
+		assertThat(rows).extracting(row -> row[1]).containsExactly("Delay", "ActionMetricsRecorderTest$$Lambda", "Delay", "ActionMetricsRecorderTest$$Lambda");
+		assertThat(Long.parseLong(rows.get(0)[2])).isGreaterThanOrEqualTo(10000000L);
+		assertThat(Long.parseLong(rows.get(1)[4])).isGreaterThanOrEqualTo(ALLOCATION);
+
+		assertThat(Files.readAllLines(Paths.get(name, "experiment.metrics.summary"))).hasSize(3).filteredOn(line -> line.startsWith("Delay\t2\t")).hasSize(1);
+	}
+
+	@Test
+	public void testOffloadedActionsAreMeasuredInTheirThread() throws AbortException, IOException {
+		Experiment experiment = Experiment.newExperiment(name).append(context -> allocated = new byte[ALLOCATION]).withDefaultActionTimeout(10000).build();
+		experiment.execute();
+
+		List<String[]> rows = Files.readAllLines(Paths.get(name, "experiment.metrics")).stream().skip(1).map(line -> line.split("\t")).collect(Collectors.toList());
+
+		assertThat(rows).hasSize(1);
+		assertThat(Long.parseLong(rows.get(0)[4])).isGreaterThanOrEqualTo(ALLOCATION);
+	}
+
+}
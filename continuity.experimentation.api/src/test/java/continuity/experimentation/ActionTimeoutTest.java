@@ -0,0 +1,116 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.exception.AbortException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ActionTimeoutTest {
+
+	private static final String NAME = "ActionTimeoutTest";
+
+	@Rule
+	public ExperimentOutputCleanup cleanup = new ExperimentOutputCleanup(NAME);
+
+	private AtomicInteger executions;
+
+	private AtomicInteger interruptions;
+
+	private IExperimentAction countStep;
+
+	private IExperimentAction hangingStep;
+
+	@Before
+	public void setup() {
+		executions = new AtomicInteger();
+		interruptions = new AtomicInteger();
+		countStep = context -> executions.incrementAndGet();
+		hangingStep = context -> {
+			try {
+				Thread.sleep(60000);
+			} catch (InterruptedException e) {
+				interruptions.incrementAndGet();
+			}
+		};
+	}
+
+	@Test(timeout = 10000)
+	public void testTimeoutPerAction() throws AbortException, InterruptedException {
+		Experiment experiment = Experiment.newExperiment(NAME).loop(3).append(countStep).append(hangingStep, 100).append(countStep).endLoop().build();
+		experiment.execute();
+
+		assertThat(executions.get()).isEqualTo(3);
+		awaitInterruptions(3);
+		assertThat(interruptions.get()).isEqualTo(3);
+	}
+
+	@Test(timeout = 10000)
+	public void testDefaultTimeoutAsync() throws Exception {
+		Experiment experiment = Experiment.newExperiment(NAME).loop(3).append(countStep).append(hangingStep).append(countStep).endLoop().withDefaultActionTimeout(100).build();
+		experiment.executeAsync().get();
+
+		assertThat(executions.get()).isEqualTo(3);
+		awaitInterruptions(3);
+		assertThat(interruptions.get()).isEqualTo(3);
+	}
+
+	@Test(timeout = 10000)
+	public void testDefaultTimeoutDoesNotLimitThreads() throws AbortException {
+		IExperimentAction slowStep = context -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				interruptions.incrementAndGet();
+			}
+		};
+
+		Experiment experiment = Experiment.newExperiment(NAME).newThread().append(slowStep).append(slowStep).append(countStep).newThread().append(slowStep).append(slowStep)
+				.append(countStep).join().withDefaultActionTimeout(80).build();
+		experiment.execute();
+
+		assertThat(executions.get()).isEqualTo(2);
+		assertThat(interruptions.get()).isZero();
+	}
+
+	@Test(timeout = 10000)
+	public void testTimeoutWithExhaustedPermits() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		IExperimentAction stubbornStep = context -> {
+			while (release.getCount() > 0) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					interruptions.incrementAndGet();
+				}
+			}
+		};
+
+		try {
+			Experiment.newExperiment(NAME).loop(3).append(countStep).append(stubbornStep, 100).endLoop().withMaxParallelism(1).build().execute();
+			assertThat(executions.get()).isEqualTo(3);
+
+			Experiment.newExperiment(NAME).loop(3).append(countStep).append(stubbornStep, 100).endLoop().withMaxParallelism(1).build().executeAsync().get();
+			assertThat(executions.get()).isEqualTo(6);
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private void awaitInterruptions(int expected) throws InterruptedException {
+		for (int i = 0; (i < 100) && (interruptions.get() < expected); i++) {
+			Thread.sleep(10);
+		}
+	}
+
+}
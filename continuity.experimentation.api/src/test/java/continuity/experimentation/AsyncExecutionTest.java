@@ -0,0 +1,110 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.action.Delay;
+import org.continuity.experimentation.exception.AbortException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import continuity.experimentation.action.AbortingAction;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class AsyncExecutionTest {
+
+	private static final String NAME = "AsyncExecutionTest";
+
+	@Rule
+	public ExperimentOutputCleanup cleanup = new ExperimentOutputCleanup(NAME);
+
+	private AtomicInteger executions;
+
+	private IExperimentAction countStep;
+
+	private AbortingAction abortingAction;
+
+	@Before
+	public void setup() {
+		executions = new AtomicInteger();
+		countStep = context -> executions.incrementAndGet();
+		abortingAction = new AbortingAction();
+	}
+
+	@Test(timeout = 10000)
+	public void testLoopsAndThreads() throws Exception {
+		Experiment experiment = Experiment.newExperiment(NAME) //
+				.loop(3) //
+				.append(new Delay(10)).append(countStep) //
+				.newThread().append(new Delay(10)).append(countStep) //
+				.newThread().append(countStep).append(countStep) //
+				.join() //
+				.endLoop() //
+				.build();
+
+		experiment.executeAsync().get();
+
+		assertEquals("Each action should be executed once per iteration.", 12, executions.get());
+	}
+
+	@Test(timeout = 10000)
+	public void testAbortingInner() throws Exception {
+		abortingAction.setAbortInner(true);
+
+		Experiment experiment = Experiment.newExperiment(NAME) //
+				.loop(3).append(countStep).append(abortingAction).append(countStep).endLoop() //
+				.build();
+
+		experiment.executeAsync().get();
+
+		assertEquals("The second action of each iteration should be skipped.", 3, executions.get());
+	}
+
+	@Test(timeout = 10000)
+	public void testAborting() throws Exception {
+		abortingAction.setAbort(true);
+
+		Experiment experiment = Experiment.newExperiment(NAME) //
+				.newThread().append(new Delay(10)).append(abortingAction) //
+				.newThread().append(countStep) //
+				.join().append(countStep).build();
+
+		assertThatThrownBy(() -> experiment.executeAsync().get()).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(AbortException.class);
+
+		assertEquals("Only the second thread should have counted.", 1, executions.get());
+	}
+
+	@Test(timeout = 10000)
+	public void testManyExperimentsSideBySide() throws Exception {
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+		long start = System.currentTimeMillis();
+
+		for (int i = 0; i < 50; i++) {
+			Experiment experiment = Experiment.newExperiment(NAME).append(new Delay(500)).append(countStep).append(new Delay(500)).build();
+			futures.add(experiment.executeAsync());
+		}
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).get(5, TimeUnit.SECONDS);
+
+		long duration = System.currentTimeMillis() - start;
+
+		assertEquals("All experiments should have been executed.", 50, executions.get());
+		assertThat(duration).isLessThan(5000);
+	}
+
+}
@@ -0,0 +1,146 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class AutoParallelizationTest {
+
+	private static final String NAME = "AutoParallelizationTest";
+
+	@Rule
+	public ExperimentOutputCleanup cleanup = new ExperimentOutputCleanup(NAME);
+
+	private SimpleDataHolder<String> range;
+
+	private SimpleDataHolder<String> result;
+
+	private AtomicInteger active;
+
+	private AtomicInteger maxActive;
+
+	private List<String> log;
+
+	@Before
+	public void setup() {
+		range = new SimpleDataHolder<>("range", String.class);
+		result = new SimpleDataHolder<>("result", String.class);
+		active = new AtomicInteger();
+		maxActive = new AtomicInteger();
+		log = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	private IExperimentAction slow(String name, DataDependencies dependencies) {
+		return dependencies.declaredBy(context -> {
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			log.add(name + "-start");
+			Thread.sleep(100);
+			log.add(name + "-end");
+			active.decrementAndGet();
+		});
+	}
+
+	private IExperimentAction export(String name) {
+		return slow(name, DataDependencies.reads(range).parallelizable());
+	}
+
+	@Test(timeout = 10000)
+	public void testIndependentActionsRunConcurrently() throws AbortException {
+		range.set("0-100");
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(export("influx")).append(export("prometheus")).append(export("jmeter")).build();
+		experiment.execute();
+
+		assertThat(log).hasSize(6);
+		assertThat(maxActive.get()).isGreaterThan(1);
+	}
+
+	@Test(timeout = 10000)
+	public void testStrictSequencing() throws AbortException {
+		range.set("0-100");
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(export("influx")).append(export("prometheus")).append(export("jmeter")).withStrictSequencing()
+				.build();
+		experiment.execute();
+
+		assertThat(log).containsExactly("influx-start", "influx-end", "prometheus-start", "prometheus-end", "jmeter-start", "jmeter-end");
+		assertThat(maxActive.get()).isEqualTo(1);
+	}
+
+	@Test(timeout = 10000)
+	public void testDependentActionsKeepOrder() throws AbortException {
+		IExperimentAction writeRange = slow("write-range", DataDependencies.writes(range).parallelizable());
+		IExperimentAction firstResult = slow("first-result", DataDependencies.writes(result).parallelizable());
+		IExperimentAction readRange = slow("read-range", DataDependencies.reads(range).parallelizable());
+		IExperimentAction secondResult = slow("second-result", DataDependencies.writes(result).parallelizable());
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(writeRange).append(firstResult).append(readRange).append(secondResult).build();
+		experiment.execute();
+
+		assertThat(log.indexOf("read-range-start")).isGreaterThan(log.indexOf("write-range-end"));
+		assertThat(log.indexOf("second-result-start")).isGreaterThan(log.indexOf("first-result-end"));
+		assertThat(maxActive.get()).isGreaterThan(1);
+	}
+
+	@Test(timeout = 10000)
+	public void testUndeclaredActionIsBarrier() throws AbortException {
+		range.set("0-100");
+
+		IExperimentAction barrier = context -> log.add("barrier");
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(export("influx")).append(export("prometheus")).append(barrier).append(export("jmeter"))
+				.append(slow("not-parallelizable", DataDependencies.reads(range))).build();
+		experiment.execute();
+
+		assertThat(log.indexOf("barrier")).isGreaterThan(log.indexOf("influx-end")).isGreaterThan(log.indexOf("prometheus-end")).isLessThan(log.indexOf("jmeter-start"));
+		assertThat(log.indexOf("not-parallelizable-start")).isGreaterThan(log.indexOf("jmeter-end"));
+	}
+
+	@Test(timeout = 10000)
+	public void testAbortedActionStopsDependentOnes() throws AbortException {
+		AtomicInteger afterLoop = new AtomicInteger();
+
+		IExperimentAction failing = DataDependencies.writes(result).parallelizable().declaredBy(context -> {
+			log.add("failing");
+			throw new AbortInnerException(context, "Failing on purpose");
+		});
+
+		Experiment experiment = Experiment.newExperiment(NAME).loop(2).append(slow("before", DataDependencies.writes(range).parallelizable())).append(failing)
+				.append(slow("dependent", DataDependencies.reads(result).parallelizable())).endLoop().append(context -> afterLoop.incrementAndGet()).build();
+		experiment.execute();
+
+		assertThat(log).filteredOn("before-end"::equals).hasSize(2);
+		assertThat(log).filteredOn("failing"::equals).hasSize(2);
+		assertThat(log).filteredOn(entry -> entry.startsWith("dependent")).isEmpty();
+		assertThat(afterLoop.get()).isEqualTo(1);
+	}
+
+	@Test(timeout = 10000)
+	public void testAsyncExecution() {
+		range.set("0-100");
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(export("influx")).append(export("prometheus")).append(context -> log.add("done")).build();
+		experiment.executeAsync().join();
+
+		assertThat(log).hasSize(5).endsWith("done");
+		assertThat(maxActive.get()).isGreaterThan(1);
+	}
+
+}
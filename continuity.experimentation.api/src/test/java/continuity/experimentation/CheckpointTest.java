@@ -0,0 +1,84 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class CheckpointTest {
+
+	private String name;
+
+	private List<String> executedContexts;
+
+	@Before
+	public void setup() {
+		name = "CheckpointTest-" + System.nanoTime();
+		executedContexts = new CopyOnWriteArrayList<>();
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		FileUtils.deleteDirectory(new File(name));
+		FileUtils.deleteDirectory(new File(name + "#2"));
+	}
+
+	@Test
+	public void testResume() throws AbortException, AbortInnerException {
+		IDataHolder<Integer> counter = new SimpleDataHolder<>("counter", 0);
+		Experiment crashing = createExperiment(counter, true);
+
+		assertThatThrownBy(crashing::execute).isInstanceOf(AbortException.class);
+		assertThat(counter.get()).isEqualTo(3);
+
+		IDataHolder<Integer> restoredCounter = new SimpleDataHolder<>("counter", 0);
+		executedContexts.clear();
+		createExperiment(restoredCounter, false).resume();
+
+		assertThat(restoredCounter.get()).isEqualTo(5);
+		assertThat(executedContexts).containsExactly(name + "-iteration#2", name + "-iteration#3");
+		assertThat(Paths.get(name + "#2")).doesNotExist();
+	}
+
+	@Test
+	public void testResumeWithoutCheckpoint() throws AbortException, AbortInnerException {
+		IDataHolder<Integer> counter = new SimpleDataHolder<>("counter", 0);
+		createExperiment(counter, false).resume();
+
+		assertThat(counter.get()).isEqualTo(5);
+		assertThat(executedContexts).containsExactly(name + "-iteration#1", name + "-iteration#2", name + "-iteration#3");
+	}
+
+	private Experiment createExperiment(IDataHolder<Integer> counter, boolean crash) {
+		IExperimentAction increment = context -> counter.set(counter.get() + 1);
+		IExperimentAction crashing = context -> {
+			if (crash && (counter.get() == 3)) {
+				throw new AbortException(context, "Simulated crash");
+			}
+
+			executedContexts.add(context.toString());
+		};
+
+		return Experiment.newExperiment(name).append(increment).loop(3).append(increment).append(crashing).endLoop().append(increment).withCheckpoints(counter).build();
+	}
+
+}
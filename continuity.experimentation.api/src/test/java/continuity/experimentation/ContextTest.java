@@ -0,0 +1,166 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Stack;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.IExperimentElement;
+import org.continuity.experimentation.element.LoopElement;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ContextTest {
+
+	private Context context;
+
+	@Before
+	public void setup() {
+		context = new Context();
+		context.append("experiment");
+		context.setRootSuffix("#2");
+		context.append("iteration#1");
+	}
+
+	@Test
+	public void testRendering() {
+		assertThat(context.toString()).isEqualTo("experiment-iteration#1");
+		assertThat(context.toPath()).isEqualTo(Paths.get("experiment#2", "iteration#1"));
+		assertThat(new Context().toString()).isEqualTo("<empty>");
+		assertThat(new Context().toPath()).isEqualTo(Paths.get(""));
+	}
+
+	@Test
+	public void testCloneIsIndependent() {
+		Context clone = context.clone();
+
+		clone.append("thread#1");
+		context.remove("iteration#1");
+		context.append("iteration#2");
+
+		assertThat(clone.toPath()).isEqualTo(Paths.get("experiment#2", "iteration#1", "thread#1"));
+		assertThat(clone.toString()).isEqualTo("experiment-iteration#1-thread#1");
+		assertThat(context.toPath()).isEqualTo(Paths.get("experiment#2", "iteration#2"));
+		assertThat(context.toString()).isEqualTo("experiment-iteration#2");
+	}
+
+	@Test
+	public void testToDirectoryIsCached() throws IOException {
+		Path root = Files.createTempDirectory("ContextTest");
+		Context context = new Context();
+		context.append(root.toString());
+		context.append("foo");
+
+		Path directory = context.toDirectory();
+		assertThat(directory).isDirectory();
+
+		Files.delete(directory);
+		assertThat(context.toDirectory()).isEqualTo(directory);
+		assertThat(directory).doesNotExist();
+
+		Files.delete(root);
+	}
+
+	@Test
+	public void testFailedDirectoriesAreNotCached() throws IOException {
+		Path root = Files.createTempDirectory("ContextTest");
+		Path blocking = Files.createFile(root.resolve("foo"));
+		Context context = new Context();
+		context.append(root.toString());
+		context.append("foo");
+
+		Path directory = context.toDirectory();
+		assertThat(directory).isRegularFile();
+
+		Files.delete(blocking);
+		assertThat(context.toDirectory()).isDirectory();
+
+		Files.delete(directory);
+		Files.delete(root);
+	}
+
+	@Test
+	public void testForgottenDirectoriesAreRecreated() throws IOException {
+		Path root = Files.createTempDirectory("ContextTest");
+		Context context = new Context();
+		context.append(root.toString());
+		Context clone = context.clone();
+		clone.append("foo");
+
+		Path directory = clone.toDirectory();
+		Files.delete(directory);
+		context.forgetDirectories(root);
+
+		assertThat(clone.toDirectory()).isDirectory();
+
+		Files.delete(directory);
+		Context nextRun = new Context();
+		nextRun.append(root.toString());
+		nextRun.append("foo");
+
+		assertThat(nextRun.toDirectory()).isDirectory();
+
+		Files.delete(directory);
+		Files.delete(root);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRemoveWrongContext() {
+		context.remove("experiment");
+	}
+
+	@Test
+	public void testResetToUpmostElement() {
+		IExperimentElement loop = new LoopElement(1);
+		context.append(loop, "iteration#2");
+		context.append("foo");
+		context.append("bar");
+
+		assertThat(context.resetToUpmostElement()).isSameAs(loop);
+		assertThat(context.toString()).isEqualTo("experiment-iteration#1-iteration#2");
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test
+	public void testDeprecatedContextStack() {
+		IExperimentElement loop = new LoopElement(2);
+		Stack<Pair<IExperimentElement, String>> stack = new Stack<>();
+		stack.push(new ImmutablePair<>(null, "experiment"));
+		stack.push(new ImmutablePair<>(loop, "iteration#1"));
+
+		StackContext stackContext = new StackContext(stack);
+		stack.push(new ImmutablePair<>(null, "ignored"));
+
+		assertThat(stackContext.toString()).isEqualTo("experiment-iteration#1");
+		assertThat(stackContext.getContextStack()).containsExactly(new ImmutablePair<>(null, "experiment"), new ImmutablePair<>(loop, "iteration#1"));
+
+		stackContext.getContextStack().clear();
+		assertThat(stackContext.resetToUpmostElement()).isSameAs(loop);
+	}
+
+	private static class StackContext extends Context {
+
+		@SuppressWarnings("deprecation")
+		private StackContext(Stack<Pair<IExperimentElement, String>> contextStack) {
+			super(contextStack);
+		}
+
+		@SuppressWarnings("deprecation")
+		@Override
+		protected Stack<Pair<IExperimentElement, String>> getContextStack() {
+			return super.getContextStack();
+		}
+
+	}
+
+}
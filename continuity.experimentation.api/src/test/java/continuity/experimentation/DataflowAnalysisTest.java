@@ -0,0 +1,212 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IAsyncExperimentAction;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.action.DataInvalidation;
+import org.continuity.experimentation.data.AppendingStringHolder;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.dataflow.DataflowAnalysis;
+import org.continuity.experimentation.dataflow.DataflowFinding;
+import org.continuity.experimentation.dataflow.DataflowFinding.Kind;
+import org.continuity.experimentation.exception.AbortException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class DataflowAnalysisTest {
+
+	private static final String NAME = "DataflowAnalysisTest";
+
+	@Rule
+	public ExperimentOutputCleanup cleanup = new ExperimentOutputCleanup(NAME);
+
+	private SimpleDataHolder<String> first;
+
+	private SimpleDataHolder<String> second;
+
+	private AtomicInteger executed;
+
+	@Before
+	public void setup() {
+		first = new SimpleDataHolder<>("first", String.class);
+		second = new SimpleDataHolder<>("second", String.class);
+		executed = new AtomicInteger();
+	}
+
+	private IExperimentAction action(DataDependencies dependencies) {
+		return dependencies.declaredBy(context -> executed.incrementAndGet());
+	}
+
+	@Test
+	public void testUninitializedRead() {
+		IExperimentAction read = action(DataDependencies.reads(first));
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(read).append(action(DataDependencies.writes(first))).build();
+		List<DataflowFinding> findings = experiment.analyzeDataflow();
+
+		assertThat(findings).extracting(DataflowFinding::getKind).containsExactly(Kind.UNINITIALIZED_READ);
+		assertThat(findings.get(0).getHolder()).isSameAs(first);
+		assertThat(findings.get(0).getActions()).containsExactly(read);
+	}
+
+	@Test
+	public void testReadAfterWriteAndPresetHolders() {
+		second.set("preset");
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(action(DataDependencies.writes(first))).append(action(DataDependencies.reads(first, second)))
+				.build();
+
+		assertThat(experiment.analyzeDataflow()).isEmpty();
+	}
+
+	@Test
+	public void testWriteInOneBranchOnly() {
+		Experiment experiment = Experiment.newExperiment(NAME).ifThen(() -> true).append(action(DataDependencies.writes(first))).elseThen()
+				.append(action(DataDependencies.NONE)).endIf().append(action(DataDependencies.reads(first))).build();
+
+		assertThat(experiment.analyzeDataflow()).extracting(DataflowFinding::getKind).containsExactly(Kind.UNINITIALIZED_READ);
+	}
+
+	@Test
+	public void testUnknownActionsHideReads() {
+		Experiment experiment = Experiment.newExperiment(NAME).append(context -> first.set("lambda")).append(action(DataDependencies.reads(first)))
+				.append(action(DataDependencies.writes(second))).build();
+
+		assertThat(experiment.analyzeDataflow()).isEmpty();
+	}
+
+	@Test
+	public void testRaceBetweenThreads() {
+		IExperimentAction writeA = action(DataDependencies.writes(first));
+		IExperimentAction writeB = action(DataDependencies.writes(first).andReads(second));
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(action(DataDependencies.writes(second))).newThread().append(writeA).newThread().append(writeB)
+				.join().append(action(DataDependencies.reads(first))).build();
+		List<DataflowFinding> findings = experiment.analyzeDataflow();
+
+		assertThat(findings).extracting(DataflowFinding::getKind).containsExactly(Kind.WRITE_WRITE_RACE);
+		assertThat(findings.get(0).getActions()).containsExactly(writeA, writeB);
+	}
+
+	@Test
+	public void testThreadsReadingOtherThreadsWrites() {
+		Experiment experiment = Experiment.newExperiment(NAME).newThread().append(action(DataDependencies.writes(first))).newThread()
+				.append(action(DataDependencies.reads(first))).join().build();
+
+		assertThat(experiment.analyzeDataflow()).extracting(DataflowFinding::getKind).containsExactly(Kind.UNINITIALIZED_READ);
+	}
+
+	@Test
+	public void testUndeclaredConcurrentActions() {
+		IExperimentAction sequential = context -> first.set("sequential");
+		IExperimentAction thread = context -> first.set("thread");
+		IExperimentAction iteration = context -> second.set("iteration");
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(sequential).newThread().append(thread).newThread().append(action(DataDependencies.NONE)).join()
+				.loop(4).parallel(2).append(iteration).endLoop().build();
+
+		assertThat(DataflowAnalysis.findUndeclaredConcurrentActions(experiment.getFirst())).containsExactly(thread, iteration);
+	}
+
+	@Test
+	public void testParallelIterationsSharingHolder() {
+		SharedHolder shared = new SharedHolder();
+
+		Experiment experiment = Experiment.newExperiment(NAME).loop(4).parallel(2).append(action(DataDependencies.writes(first, shared)))
+				.append(action(DataDependencies.reads(first, shared))).endLoop().build();
+		List<DataflowFinding> findings = experiment.analyzeDataflow();
+
+		assertThat(findings).extracting(DataflowFinding::getKind).containsExactly(Kind.WRITE_WRITE_RACE);
+		assertThat(findings.get(0).getHolder()).isSameAs(shared);
+	}
+
+	@Test
+	public void testAsyncWritesInParallelIterations() {
+		IExperimentAction asyncWrite = DataDependencies.writes(first).declaredBy((IAsyncExperimentAction) context -> CompletableFuture.completedFuture(null));
+
+		Experiment experiment = Experiment.newExperiment(NAME).loop(4).parallel(2).append(asyncWrite).append(action(DataDependencies.reads(first))).endLoop()
+				.build();
+		List<DataflowFinding> findings = experiment.analyzeDataflow();
+
+		assertThat(findings).extracting(DataflowFinding::getKind).containsExactly(Kind.UNSCOPED_ASYNC_WRITE);
+		assertThat(findings.get(0).getActions()).containsExactly(asyncWrite);
+
+		Experiment sequential = Experiment.newExperiment(NAME).loop(4).append(asyncWrite).append(action(DataDependencies.reads(first))).endLoop().build();
+		assertThat(sequential.analyzeDataflow()).isEmpty();
+	}
+
+	@Test
+	public void testUnreadWrite() {
+		AppendingStringHolder log = new AppendingStringHolder("log", "");
+		IExperimentAction write = action(DataDependencies.writes(second));
+
+		Experiment experiment = Experiment.newExperiment(NAME).append(action(DataDependencies.writes(first, log))).append(write)
+				.append(action(DataDependencies.reads(first))).withCheckpoints(log).build();
+		List<DataflowFinding> findings = experiment.analyzeDataflow();
+
+		assertThat(findings).extracting(DataflowFinding::getKind).containsExactly(Kind.UNREAD_WRITE);
+		assertThat(findings.get(0).getHolder()).isSameAs(second);
+		assertThat(findings.get(0).getActions()).containsExactly(write);
+		assertThat(findings.get(0).isError()).isFalse();
+	}
+
+	@Test
+	public void testLoopCarriesValue() {
+		Experiment carried = Experiment.newExperiment(NAME).append(action(DataDependencies.writes(first))).loop(3).append(action(DataDependencies.reads(first)))
+				.append(new DataInvalidation(first)).append(action(DataDependencies.writes(first))).endLoop().build();
+
+		assertThat(carried.analyzeDataflow()).isEmpty();
+
+		Experiment invalidated = Experiment.newExperiment(NAME).append(action(DataDependencies.writes(first))).loop(3).append(action(DataDependencies.reads(first)))
+				.append(new DataInvalidation(first)).endLoop().build();
+
+		assertThat(invalidated.analyzeDataflow()).extracting(DataflowFinding::getKind).containsExactly(Kind.UNINITIALIZED_READ);
+	}
+
+	@Test
+	public void testStrictModeAbortsBeforeExecution() {
+		Experiment experiment = Experiment.newExperiment(NAME).append(action(DataDependencies.NONE)).append(action(DataDependencies.reads(first)))
+				.withStrictDataflowCheck().build();
+
+		assertThatThrownBy(experiment::execute).isInstanceOf(AbortException.class).hasMessageContaining("data flow");
+		assertThat(executed.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void testLenientModeExecutes() throws AbortException {
+		Experiment experiment = Experiment.newExperiment(NAME).append(action(DataDependencies.NONE)).append(action(DataDependencies.reads(first))).build();
+		experiment.execute();
+
+		assertThat(executed.get()).isEqualTo(2);
+	}
+
+	/**
+	 * Holder that is shared between data scopes.
+	 */
+	private static class SharedHolder extends SimpleDataHolder<String> {
+
+		private SharedHolder() {
+			super("shared", String.class);
+		}
+
+		@Override
+		protected SimpleDataHolder<String> copy() {
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,100 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.action.Delay;
+import org.continuity.experimentation.exception.AbortException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class DurationHistoryTest {
+
+	private String name;
+
+	private List<Date> estimatedEnds;
+
+	@Before
+	public void setup() {
+		name = "DurationHistoryTest-" + System.nanoTime();
+		estimatedEnds = new CopyOnWriteArrayList<>();
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		FileUtils.deleteDirectory(new File(name));
+		FileUtils.deleteDirectory(new File(name + "#2"));
+		new File(name + ".durations").delete();
+	}
+
+	@Test
+	public void testNoHistoryByDefault() throws AbortException {
+		Experiment experiment = Experiment.newExperiment(name).append(new Delay(1)).build();
+		experiment.execute();
+
+		assertThat(experiment.getDurationHistory()).isNull();
+		assertThat(new File(name + ".durations")).doesNotExist();
+	}
+
+	@Test
+	public void testLambdasAreDistinguished() throws AbortException {
+		createLambdaExperiment().execute();
+
+		Experiment second = createLambdaExperiment();
+		List<IExperimentAction> actions = second.stream().filter(element -> element.hasAction()).map(element -> element.getAction()).collect(Collectors.toList());
+
+		assertThat(second.getDurationHistory().estimateMillis(name, actions.get(0))).isCloseTo(20, within(40.0));
+		assertThat(second.getDurationHistory().estimateMillis(name, actions.get(1))).isCloseTo(120, within(40.0));
+	}
+
+	@Test
+	public void testEstimateFromPreviousExecution() throws AbortException {
+		Experiment first = createExperiment();
+		assertThat(first.getEstimatedDuration()).isZero();
+
+		first.execute();
+		assertThat(new File(name + ".durations")).exists();
+		assertThat(estimatedEnds).hasSize(3).containsOnly((Date) null);
+
+		estimatedEnds.clear();
+		Experiment second = createExperiment();
+		assertThat(second.getEstimatedDuration()).isCloseTo(3 * 50 + 100, within(100.0));
+
+		long start = System.currentTimeMillis();
+		second.execute();
+
+		assertThat(estimatedEnds).doesNotContainNull();
+		assertThat(estimatedEnds.get(estimatedEnds.size() - 1).getTime()).isCloseTo(start + 3 * 50 + 100, within(200L));
+	}
+
+	private Experiment createExperiment() {
+		Experiment[] experiment = new Experiment[1];
+
+		experiment[0] = Experiment.newExperiment(name).withDurationHistory(Paths.get(name + ".durations")).loop(3).append(new Delay(50)).append(context -> estimatedEnds.add(experiment[0].getEstimatedEnd())).endLoop() //
+				.newThread().append(new Delay(100)).newThread().append(new Delay(20)).join().build();
+
+		return experiment[0];
+	}
+
+	private Experiment createLambdaExperiment() {
+		return Experiment.newExperiment(name).withDurationHistory(Paths.get(name + ".durations")).append(context -> Thread.sleep(20)).append(context -> Thread.sleep(120))
+				.build();
+	}
+
+}
@@ -0,0 +1,167 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.AppendingStringHolder;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.distribution.EnvironmentCoordinator;
+import org.continuity.experimentation.distribution.EnvironmentProgress;
+import org.continuity.experimentation.distribution.TargetEnvironment;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class EnvironmentCoordinatorTest {
+
+	private static final String NAME = "EnvironmentCoordinatorTest";
+
+	@Rule
+	public ExperimentOutputCleanup cleanup = new ExperimentOutputCleanup(NAME);
+
+	private SimpleDataHolder<TargetEnvironment> environment;
+
+	private Map<TargetEnvironment, StandInSatellite> satellites;
+
+	private AtomicInteger conflicts;
+
+	@Before
+	public void setup() {
+		environment = new SimpleDataHolder<>("environment", TargetEnvironment.class);
+		satellites = new LinkedHashMap<>();
+		conflicts = new AtomicInteger();
+
+		for (int i = 1; i <= 3; i++) {
+			TargetEnvironment target = new TargetEnvironment("localhost", "876" + i);
+			satellites.put(target, new StandInSatellite());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testIterationsSpreadAcrossEnvironments() throws AbortException {
+		EnvironmentCoordinator<TargetEnvironment> coordinator = new EnvironmentCoordinator<>(environment, new ArrayList<>(satellites.keySet()));
+
+		Experiment.newExperiment(NAME).loop(9).distribute(coordinator).append(restartSatellite()).endLoop().build().execute();
+
+		assertThat(conflicts.get()).isZero();
+		assertThat(satellites.values()).allMatch(satellite -> satellite.executed.size() > 0);
+		assertThat(satellites.values().stream().mapToInt(satellite -> satellite.executed.size()).sum()).isEqualTo(9);
+		assertThat(coordinator.getProgress().stream().mapToInt(EnvironmentProgress::getCompletedIterations).sum()).isEqualTo(9);
+	}
+
+	@Test(timeout = 10000)
+	public void testFailedIterationsAreReassigned() throws AbortException, AbortInnerException, IOException {
+		TargetEnvironment broken = new ArrayList<>(satellites.keySet()).get(1);
+		satellites.get(broken).broken = true;
+
+		AppendingStringHolder log = new AppendingStringHolder("log", "");
+		IExperimentAction logIteration = context -> log.set(context.toString().substring(context.toString().lastIndexOf('#') + 1) + ";");
+
+		EnvironmentCoordinator<TargetEnvironment> coordinator = new EnvironmentCoordinator<>(environment, new ArrayList<>(satellites.keySet())).setPartitionSize(2);
+
+		Experiment.newExperiment(NAME).loop(8).distribute(coordinator).append(restartSatellite()).append(logIteration).endLoop().build().execute();
+
+		List<String> executed = new ArrayList<>();
+		satellites.values().forEach(satellite -> executed.addAll(satellite.executed));
+
+		assertThat(executed).containsOnly("1", "2", "3", "4", "5", "6", "7", "8").doesNotHaveDuplicates();
+		assertThat(satellites.get(broken).executed).isEmpty();
+		assertThat(log.get()).isEqualTo("1;2;3;4;5;6;7;8;");
+
+		EnvironmentProgress<TargetEnvironment> brokenProgress = coordinator.getProgress().get(1);
+		assertThat(brokenProgress.getCompletedIterations()).isZero();
+		assertThat(brokenProgress.getFailedIterations()).isPositive();
+
+		File assignments = FileUtils.listFiles(new File(NAME), null, true).stream().filter(f -> f.getName().equals(EnvironmentCoordinator.ASSIGNMENTS_FILE)).findFirst()
+				.get();
+		assertThat(Files.readAllLines(assignments.toPath(), StandardCharsets.UTF_8)).contains("iteration;environment;result").filteredOn(l -> l.endsWith(";failed"))
+				.hasSize(brokenProgress.getFailedIterations());
+	}
+
+	@Test(timeout = 10000)
+	public void testRetriedIterationsWriteFiles() throws AbortException {
+		TargetEnvironment broken = new ArrayList<>(satellites.keySet()).get(1);
+		satellites.get(broken).broken = true;
+
+		IExperimentAction writeFile = context -> Files.write(context.toDirectory().resolve("environment.txt"), environment.get().toString().getBytes(StandardCharsets.UTF_8));
+		EnvironmentCoordinator<TargetEnvironment> coordinator = new EnvironmentCoordinator<>(environment, new ArrayList<>(satellites.keySet()));
+
+		Experiment.newExperiment(NAME).loop(6).distribute(coordinator).append(writeFile).append(restartSatellite()).endLoop().build().execute();
+
+		Collection<File> files = FileUtils.listFiles(new File(NAME), new String[] { "txt" }, true);
+		assertThat(files).filteredOn(file -> file.getParentFile().getName().matches("iteration#\\d+")).hasSize(6);
+		assertThat(files).filteredOn(file -> file.getParentFile().getName().contains("-attempt#")).hasSize(coordinator.getProgress().get(1).getFailedIterations());
+	}
+
+	@Test(timeout = 10000)
+	public void testAbortsIfNoEnvironmentIsLeft() {
+		satellites.values().forEach(satellite -> satellite.broken = true);
+		EnvironmentCoordinator<TargetEnvironment> coordinator = new EnvironmentCoordinator<>(environment, new ArrayList<>(satellites.keySet())).setMaxConsecutiveFailures(1);
+
+		Experiment experiment = Experiment.newExperiment(NAME).loop(6).distribute(coordinator).append(restartSatellite()).endLoop().build();
+
+		assertThatThrownBy(experiment::execute).isInstanceOf(AbortException.class);
+		assertThat(coordinator.getProgress()).allMatch(EnvironmentProgress::isRetired);
+		assertThat(satellites.values()).allMatch(satellite -> satellite.executed.isEmpty());
+	}
+
+	private IExperimentAction restartSatellite() {
+		return context -> satellites.get(environment.get()).restart(context.toString().substring(context.toString().lastIndexOf('#') + 1), context);
+	}
+
+	/**
+	 * Stands in for the satellite of an environment. Only one iteration may use it at a time.
+	 */
+	private class StandInSatellite {
+
+		private final Set<Thread> active = ConcurrentHashMap.newKeySet();
+
+		private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+		private volatile boolean broken = false;
+
+		private void restart(String iteration, Context context) throws AbortInnerException, InterruptedException {
+			if (!active.add(Thread.currentThread()) || (active.size() > 1)) {
+				conflicts.incrementAndGet();
+			}
+
+			try {
+				Thread.sleep(20);
+
+				if (broken) {
+					throw new AbortInnerException(context, "Satellite is not reachable");
+				}
+
+				executed.add(iteration);
+			} finally {
+				active.remove(Thread.currentThread());
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,129 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.continuity.experimentation.AbstractExperimentExecutor;
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.ExecutionPlan;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.IExperimentElement;
+import org.continuity.experimentation.exception.AbortException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ExecutionPlanTest {
+
+	private List<String> contexts;
+
+	private IExperimentAction recordingStep;
+
+	@Before
+	public void setup() {
+		contexts = Collections.synchronizedList(new ArrayList<>());
+		recordingStep = context -> contexts.add(context.toString());
+	}
+
+	@Test
+	public void testNestedLoops() throws AbortException {
+		IExperimentElement first = Experiment.newExperiment("plan-test").loop(2).loop(3).append(recordingStep).endLoop().endLoop().build().getFirst();
+		new Executor(first).execute();
+
+		assertThat(contexts).containsExactly(expectedContexts(2, 3).toArray(new String[0]));
+	}
+
+	@Test
+	public void testRepeatedExecution() throws AbortException {
+		Executor executor = new Executor(Experiment.newExperiment("plan-test").loop(2).loop(2).append(recordingStep).endLoop().endLoop().build().getFirst());
+		executor.execute();
+		executor.execute();
+		executor.executeAsync().join();
+
+		List<String> expected = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++) {
+			expected.addAll(expectedContexts(2, 2));
+		}
+
+		assertThat(contexts).containsExactly(expected.toArray(new String[0]));
+	}
+
+	@Test
+	public void testConcurrentExecutions() {
+		IExperimentAction slowStep = context -> {
+			recordingStep.execute(context);
+			Thread.sleep(1);
+		};
+
+		ExecutionPlan plan = ExecutionPlan.compile(Experiment.newExperiment("plan-test").loop(4).loop(5).append(slowStep).endLoop().endLoop().build().getFirst());
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 4; i++) {
+			futures.add(CompletableFuture.runAsync(() -> {
+				try {
+					new Executor(plan).execute();
+				} catch (AbortException e) {
+					throw new RuntimeException(e);
+				}
+			}));
+		}
+
+		futures.forEach(CompletableFuture::join);
+
+		assertThat(contexts).hasSize(4 * 4 * 5);
+		assertThat(contexts).filteredOn(expectedContexts(4, 5).get(0)::equals).hasSize(4);
+		assertThat(contexts).filteredOn(expectedContexts(4, 5).get(19)::equals).hasSize(4);
+	}
+
+	@Test
+	public void testIndices() {
+		IExperimentElement first = Experiment.newExperiment("plan-test").loop(2).append(recordingStep).endLoop().append(recordingStep).build().getFirst();
+		ExecutionPlan plan = ExecutionPlan.compile(first);
+
+		assertThat(plan.getFirst()).isSameAs(first);
+		assertThat(plan.indexOf(first)).isNotEqualTo(ExecutionPlan.END);
+		assertThat(plan.indexOf(null)).isEqualTo(ExecutionPlan.END);
+		assertThat(plan.elementAt(ExecutionPlan.END).isEnd()).isTrue();
+
+		// loop, action in the loop, end of the loop, action after the loop, END
+		assertThat(plan.size()).isEqualTo(5);
+	}
+
+	private List<String> expectedContexts(int outer, int inner) {
+		List<String> expected = new ArrayList<>();
+
+		for (int i = 1; i <= outer; i++) {
+			for (int j = 1; j <= inner; j++) {
+				Context context = new Context();
+				context.append("iteration#" + i);
+				context.append("iteration#" + j);
+				expected.add(context.toString());
+			}
+		}
+
+		return expected;
+	}
+
+	private static class Executor extends AbstractExperimentExecutor {
+
+		private Executor(IExperimentElement first) {
+			super(first);
+		}
+
+		private Executor(ExecutionPlan plan) {
+			super(plan);
+		}
+
+	}
+
+}
@@ -12,6 +12,8 @@ import java.util.List;
 
 import org.continuity.experimentation.Context;
 import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentClock;
+import org.continuity.experimentation.IExperimentAction;
 import org.continuity.experimentation.action.ContextChange;
 import org.continuity.experimentation.action.Delay;
 import org.continuity.experimentation.exception.AbortException;
@@ -40,6 +42,7 @@ public class ExperimentContextTest {
 		contextMock = Mockito.mock(Context.class);
 
 		Mockito.when(contextMock.clone()).thenReturn(contextMock);
+		Mockito.when(contextMock.getClock()).thenReturn(IExperimentClock.SYSTEM);
 
 		Mockito.when(contextMock.toPath()).thenReturn(pathMock);
 		Mockito.when(pathMock.toFile()).thenReturn(fileMock);
@@ -86,35 +89,27 @@ public class ExperimentContextTest {
 	public void testCombination() throws AbortException {
 		MockedContext context = new MockedContext(pathMock);
 		ContextChange contextChange = new ContextChange("custom");
+		IExperimentAction writing = Context::toDirectory;
 
-		Experiment experiment = Experiment.newExperiment("combined-test").loop(5).append(new Delay(1)).newThread().append(contextChange.append()).append(new Delay(1)).append(contextChange.remove())
-				.newThread().append(new Delay(1)).join().endLoop().build();
+		Experiment experiment = Experiment.newExperiment("combined-test").loop(5).append(writing).newThread().append(contextChange.append()).append(writing).append(contextChange.remove())
+				.newThread().append(new Delay(1)).append(writing).newThread().append(new Delay(1)).join().endLoop().build();
 
 		experiment.execute(context);
 
-
-		assertThat(context.getCreatedPaths()).contains(createdPaths(5, 2));
-		assertThat(context.getCreatedPaths()).containsOnly(createdPaths(5, 2));
+		assertThat(context.getCreatedPaths()).containsOnly(createdPaths(5));
+		assertThat(context.getCreatedPaths()).hasSize(3 * 5);
 	}
 
-	private Path[] createdPaths(int numIterations, int numThreads) {
+	private Path[] createdPaths(int numIterations) {
 		List<Path> paths = new ArrayList<>();
 
 		Path root = Paths.get("combined-test");
-		paths.add(root);
 
 		for (int i = 1; i <= numIterations; i++) {
 			Path itPath = root.resolve("iteration#" + i);
 			paths.add(itPath);
-
-			for (int t = 1; t <= numThreads; t++) {
-				Path threadPath = itPath.resolve("thread#" + t);
-				paths.add(threadPath);
-
-				if (t == 1) {
-					paths.add(threadPath.resolve("custom"));
-				}
-			}
+			paths.add(itPath.resolve("thread#1").resolve("custom"));
+			paths.add(itPath.resolve("thread#2"));
 		}
 
 		return paths.toArray(new Path[paths.size()]);
@@ -0,0 +1,116 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.ExperimentIterator;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.IExperimentElement;
+import org.continuity.experimentation.element.BranchElement;
+import org.continuity.experimentation.element.ExperimentActionElement;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ExperimentIteratorTest {
+
+	private static final int NUM_DIAMONDS = 40;
+
+	private final IExperimentAction step = context -> {
+	};
+
+	@Test(timeout = 10000)
+	public void testSharedSuccessorsVisitedOnce() {
+		List<IExperimentElement> elements = new ArrayList<>();
+		new ExperimentIterator(createDiamonds()).forEachRemaining(elements::add);
+
+		// one branch and one action per diamond, the last action and END
+		assertThat(elements).hasSize((2 * NUM_DIAMONDS) + 2);
+		assertThat(identitySet(elements)).hasSize(elements.size());
+	}
+
+	@Test(timeout = 10000)
+	public void testParallelStream() {
+		IExperimentElement first = createDiamonds();
+
+		List<IExperimentElement> sequential = StreamSupport.stream(new ExperimentIterator(first), false).collect(Collectors.toList());
+		List<IExperimentElement> parallel = StreamSupport.stream(new ExperimentIterator(first), true).collect(Collectors.toList());
+
+		assertThat(parallel).hasSize(sequential.size());
+		assertThat(identitySet(parallel)).hasSize(sequential.size());
+	}
+
+	@Test
+	public void testSplit() {
+		Experiment experiment = Experiment.newExperiment("ExperimentIteratorTest").append(step).append(step).newThread().append(step).newThread().append(step).newThread()
+				.append(step).newThread().append(step).join().append(step).build();
+
+		List<IExperimentElement> sequential = experiment.stream().collect(Collectors.toList());
+
+		Spliterator<IExperimentElement> first = experiment.spliterator();
+		Spliterator<IExperimentElement> second = first.trySplit();
+		assertThat(second).isNotNull();
+
+		List<IExperimentElement> split = new ArrayList<>();
+		first.forEachRemaining(split::add);
+		int firstSize = split.size();
+		second.forEachRemaining(split::add);
+
+		assertThat(firstSize).isGreaterThan(0).isLessThan(split.size());
+		assertThat(split).hasSize(sequential.size());
+		assertThat(identitySet(split)).containsAll(sequential);
+	}
+
+	@Test
+	public void testExperimentStream() {
+		Experiment experiment = Experiment.newExperiment("ExperimentIteratorTest").append(step).ifThen(() -> true).append(step).elseThen().append(step).endIf().loop(2)
+				.parallel(2).append(step).endLoop().newThread().append(step).newThread().append(step).join().build();
+
+		List<IExperimentElement> iterated = new ArrayList<>();
+		experiment.forEach(iterated::add);
+
+		assertThat(experiment.stream().collect(Collectors.toList())).containsExactlyElementsOf(iterated);
+		assertThat(identitySet(iterated)).hasSize(iterated.size());
+		assertThat(iterated).filteredOn(IExperimentElement::isEnd).hasSize(1);
+	}
+
+	/**
+	 * Creates a chain of branches, each having both paths leading to the same action, which is
+	 * followed by the next branch. There are 2^NUM_DIAMONDS paths through the chain.
+	 */
+	private IExperimentElement createDiamonds() {
+		ExperimentActionElement last = new ExperimentActionElement(step);
+		last.setNext(IExperimentElement.END);
+		IExperimentElement next = last;
+
+		for (int i = 0; i < NUM_DIAMONDS; i++) {
+			ExperimentActionElement action = new ExperimentActionElement(step);
+			action.setNext(next);
+
+			BranchElement branch = new BranchElement();
+			branch.addBranch(() -> true, action);
+			branch.setElseBranch(action);
+			next = branch;
+		}
+
+		return next;
+	}
+
+	private Set<IExperimentElement> identitySet(List<IExperimentElement> elements) {
+		Set<IExperimentElement> set = Collections.newSetFromMap(new IdentityHashMap<>());
+		set.addAll(elements);
+		return set;
+	}
+
+}
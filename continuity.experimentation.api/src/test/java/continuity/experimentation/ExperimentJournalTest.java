@@ -0,0 +1,66 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.action.Delay;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.journal.ActionSpan;
+import org.continuity.experimentation.journal.ExperimentJournal;
+import org.continuity.experimentation.journal.JournalEvent;
+import org.continuity.experimentation.journal.JournalEvent.Type;
+import org.continuity.experimentation.journal.JournalReader;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ExperimentJournalTest {
+
+	private static final String NAME = "ExperimentJournalTest";
+
+	@After
+	public void cleanup() throws IOException {
+		FileUtils.deleteDirectory(new File(NAME));
+	}
+
+	@Test
+	public void testReplay() throws AbortException, IOException {
+		IDataHolder<String> holder = new SimpleDataHolder<>("holder", String.class);
+		IExperimentAction write = context -> holder.set(context.toString());
+		IExperimentAction failing = context -> {
+			throw new IllegalStateException("Simulated failure");
+		};
+
+		Experiment experiment = Experiment.newExperiment(NAME).loop(3).append(write).append(new Delay(20)).append(failing).endLoop().withJournal().build();
+		experiment.execute();
+
+		List<JournalEvent> events = JournalReader.readAll(Paths.get(NAME, ExperimentJournal.FILE_NAME));
+
+		assertThat(events.get(0).getType()).isEqualTo(Type.EXPERIMENT_STARTED);
+		assertThat(events.get(events.size() - 1).getType()).isEqualTo(Type.EXPERIMENT_FINISHED);
+		assertThat(events).filteredOn(event -> event.getType() == Type.EXCEPTION).hasSize(3);
+		assertThat(events).filteredOn(event -> event.getType() == Type.CONTEXT_APPENDED).extracting(JournalEvent::getSubject).containsExactly("iteration#1",
+				"iteration#2", "iteration#3");
+		assertThat(events).filteredOn(event -> event.getType() == Type.DATA_WRITTEN).extracting(JournalEvent::getValue)
+				.contains(ExperimentJournal.digest(NAME + "-iteration#2"));
+
+		List<ActionSpan> iteration = JournalReader.reconstructActions(events, NAME + "-iteration#2");
+		assertThat(iteration).hasSize(3);
+		assertThat(iteration.get(1).getDurationNanos()).isGreaterThanOrEqualTo(20000000);
+		assertThat(iteration.get(2).getResult()).isEqualTo(IllegalStateException.class.getSimpleName());
+		assertThat(JournalReader.reconstructActions(events, "")).hasSize(9);
+	}
+
+}
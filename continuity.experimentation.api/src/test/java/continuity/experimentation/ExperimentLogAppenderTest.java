@@ -0,0 +1,117 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.continuity.experimentation.ExperimentLogAppender;
+import org.continuity.experimentation.ExperimentLogAppender.OverflowPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ExperimentLogAppenderTest {
+
+	private Path file;
+
+	private Logger logger;
+
+	private ExperimentLogAppender appender;
+
+	@Before
+	public void setup() throws IOException {
+		file = Files.createTempFile("ExperimentLogAppenderTest", ".log");
+
+		LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(loggerContext);
+		encoder.setPattern("%level %msg%n");
+		encoder.start();
+
+		appender = new ExperimentLogAppender();
+		appender.setContext(loggerContext);
+		appender.setFile(file.toString());
+		appender.setEncoder(encoder);
+
+		logger = loggerContext.getLogger(ExperimentLogAppenderTest.class);
+		logger.setAdditive(false);
+		logger.addAppender(appender);
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		logger.detachAppender(appender);
+		logger.setAdditive(true);
+		Files.delete(file);
+	}
+
+	@Test(timeout = 10000)
+	public void testBlockingKeepsAllEventsInOrder() throws IOException {
+		appender.setBufferSize(4);
+		appender.setOverflowPolicy(OverflowPolicy.BLOCK);
+		appender.start();
+
+		for (int i = 0; i < 1000; i++) {
+			logger.info("event {}", i);
+		}
+
+		appender.stop();
+
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertThat(lines).hasSize(1000);
+		assertThat(lines.get(0)).isEqualTo("INFO event 0");
+		assertThat(lines.get(999)).isEqualTo("INFO event 999");
+		assertThat(appender.getDroppedEvents()).isZero();
+	}
+
+	@Test(timeout = 10000)
+	public void testDroppingKeepsWarnings() throws IOException {
+		appender.setBufferSize(4);
+		appender.setOverflowPolicy(OverflowPolicy.DROP_NEWEST);
+		appender.start();
+
+		for (int i = 0; i < 1000; i++) {
+			logger.info("event {}", i);
+			logger.warn("warning {}", i);
+		}
+
+		appender.stop();
+
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertThat(lines).filteredOn(line -> line.startsWith("WARN")).hasSize(1000);
+		assertThat(lines).filteredOn(line -> line.startsWith("INFO")).hasSize((int) (1000 - appender.getDroppedEvents()));
+	}
+
+	@Test(timeout = 10000)
+	public void testDroppingOldestKeepsWarnings() throws IOException {
+		appender.setBufferSize(4);
+		appender.setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+		appender.start();
+
+		for (int i = 0; i < 1000; i++) {
+			logger.warn("warning {}", i);
+			logger.info("event {}", i);
+			logger.info("event {}", i);
+		}
+
+		appender.stop();
+
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertThat(lines).filteredOn(line -> line.startsWith("WARN")).hasSize(1000);
+		assertThat(lines).filteredOn(line -> line.startsWith("INFO")).hasSize((int) (2000 - appender.getDroppedEvents()));
+	}
+
+}
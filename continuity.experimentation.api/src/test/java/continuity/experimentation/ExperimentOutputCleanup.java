@@ -0,0 +1,43 @@
+package continuity.experimentation;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.rules.ExternalResource;
+
+/**
+ * Deletes the output directories of the experiments executed by a test, i.e., all files in the
+ * working directory starting with the experiment name.
+ *
+ * @author Henning Schulz
+ *
+ */
+public class ExperimentOutputCleanup extends ExternalResource {
+
+	private final String experimentName;
+
+	public ExperimentOutputCleanup(String experimentName) {
+		this.experimentName = experimentName;
+	}
+
+	@Override
+	protected void after() {
+		File[] files = new File(".").listFiles();
+
+		if (files == null) {
+			return;
+		}
+
+		for (File file : files) {
+			if (file.getName().startsWith(experimentName)) {
+				try {
+					FileUtils.forceDelete(file);
+				} catch (IOException e) {
+					throw new IllegalStateException("Could not delete " + file, e);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.builder.StableExperimentBuilder;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ExperimentRenderingTest {
+
+	private static final int NUM_ACTIONS = 200000;
+
+	@Test
+	public void testRendering() {
+		Experiment experiment = Experiment.newExperiment("ExperimentRenderingTest").append(new Step()).loop(2).append(new Step()).endLoop().ifThen("cond", () -> true)
+				.append(new Step()).elseThen().append(new Step()).endIf().newThread().append(new Step()).join().append(new Step()).build();
+
+		assertThat(experiment.toString()).isEqualTo("Experiment \"ExperimentRenderingTest\" (~6 steps):\n" //
+				+ "Step: step\n" //
+				+ "LOOP (2 iterations):\n" //
+				+ "    Step: step\n" //
+				+ "END-LOOP\n" //
+				+ "IF cond:\n" //
+				+ "    Step: step\n" //
+				+ "ELSE:\n" //
+				+ "    Step: step\n" //
+				+ "END-IF\n" //
+				+ "THREAD a:\n" //
+				+ "    Step: step\n" //
+				+ "JOIN\n" //
+				+ "Step: step\n" //
+				+ "END-EXPERIMENT");
+	}
+
+	@Test(timeout = 30000)
+	public void testLongChain() throws IOException {
+		StableExperimentBuilder builder = Experiment.newExperiment("ExperimentRenderingTest");
+		IExperimentAction step = new Step();
+
+		for (int i = 0; i < NUM_ACTIONS; i++) {
+			builder = builder.append(step);
+		}
+
+		Experiment experiment = builder.loop(2).append(step).endLoop().build();
+
+		assertThat(experiment.getNumberOfActions()).isEqualTo(NUM_ACTIONS + 2);
+
+		StringWriter writer = new StringWriter();
+		experiment.appendTo(writer);
+		String rendered = writer.toString();
+
+		assertThat(rendered.split("\n")).hasSize(NUM_ACTIONS + 5);
+		assertThat(rendered).endsWith("END-LOOP\nEND-EXPERIMENT");
+		assertThat(experiment.toString()).isEqualTo(rendered);
+	}
+
+	private static class Step implements IExperimentAction {
+
+		@Override
+		public void execute(Context context) {
+		}
+
+		@Override
+		public String toString() {
+			return "step";
+		}
+
+	}
+
+}
@@ -0,0 +1,67 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class FlightRecorderTest {
+
+	@Test
+	public void testEventsAreRecorded() throws IOException, AbortException {
+		IDataHolder<String> holder = new SimpleDataHolder<>("holder", String.class);
+		IExperimentAction write = context -> holder.set("foo");
+		IExperimentAction failing = context -> {
+			holder.get();
+			throw new AbortInnerException(context, "Simulated failure");
+		};
+
+		Experiment experiment = Experiment.newExperiment("FlightRecorderTest").loop(2).append(write).append(failing).endLoop().build();
+		experiment.setDurationHistory(null);
+
+		Path file = Files.createTempFile("FlightRecorderTest", ".jfr");
+
+		try (Recording recording = new Recording()) {
+			recording.enable("org.continuity.experimentation.Action");
+			recording.enable("org.continuity.experimentation.ContextChange");
+			recording.enable("org.continuity.experimentation.AbortHandled");
+			recording.enable("org.continuity.experimentation.DataAccess");
+			recording.start();
+
+			experiment.execute();
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+
+		assertThat(events).filteredOn(event -> event.getEventType().getName().endsWith(".Action")).hasSize(4)
+				.filteredOn(event -> event.getString("result").equals(AbortInnerException.class.getName())).hasSize(2);
+		assertThat(events).filteredOn(event -> event.getEventType().getName().endsWith(".AbortHandled")).hasSize(2)
+				.allMatch(event -> event.getString("context").startsWith("FlightRecorderTest-iteration#"));
+		assertThat(events).filteredOn(event -> event.getEventType().getName().endsWith(".DataAccess")).hasSize(4);
+		assertThat(events).filteredOn(event -> event.getEventType().getName().endsWith(".ContextChange"))
+				.filteredOn(event -> "append".equals(event.getString("operation"))).hasSize(3);
+	}
+
+}
@@ -0,0 +1,63 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class MetricsEndpointTest {
+
+	private static final String NAME = "MetricsEndpointTest";
+
+	@After
+	public void cleanup() throws IOException {
+		FileUtils.deleteDirectory(new File(NAME));
+	}
+
+	@Test(timeout = 10000)
+	public void testScrapeWhileRunning() throws AbortException, AbortInnerException {
+		IDataHolder<String> scraped = new SimpleDataHolder<>("scraped", String.class);
+		IExperimentAction failing = context -> {
+			throw new IllegalStateException("Simulated failure");
+		};
+
+		Experiment[] experiment = new Experiment[1];
+		IExperimentAction scrape = context -> {
+			try (InputStream in = new URL("http://localhost:" + experiment[0].getMetricsEndpoint().getPort() + "/metrics").openStream()) {
+				scraped.set(IOUtils.toString(in, StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				throw new AbortInnerException(context, e);
+			}
+		};
+
+		experiment[0] = Experiment.newExperiment(NAME).loop(2).append(failing).endLoop().append(scrape).withMetricsEndpoint(0).build();
+		experiment[0].execute();
+
+		assertThat(scraped.get()).contains("experiment_current_context{experiment=\"" + NAME + "\",context=\"" + NAME + "\"} 1")
+				.contains("experiment_actions_completed_total{experiment=\"" + NAME + "\"} 2")
+				.contains("experiment_actions_estimated{experiment=\"" + NAME + "\"} 3")
+				.contains("experiment_exceptions_caught_total{experiment=\"" + NAME + "\"} 2")
+				.contains("experiment_exceptions_uncaught_total{experiment=\"" + NAME + "\"} 0")
+				.contains("experiment_action_duration_seconds_count{experiment=\"" + NAME + "\",action=\"MetricsEndpointTest$$Lambda\"} 2")
+				.contains("jvm_threads_live ");
+	}
+
+}
@@ -2,12 +2,9 @@ package continuity.experimentation;
 
 import java.nio.file.Path;
 import java.util.List;
-import java.util.Stack;
 import java.util.concurrent.CopyOnWriteArrayList;
 
-import org.apache.commons.lang3.tuple.Pair;
 import org.continuity.experimentation.Context;
-import org.continuity.experimentation.IExperimentElement;
 
 /**
  * @author Henning Schulz
@@ -27,7 +24,7 @@ public class MockedContext extends Context {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Path toPath() {
+	public Path toDirectory() {
 		createdPaths.add(super.toPath());
 
 		return pathMock;
@@ -45,27 +42,34 @@ public class MockedContext extends Context {
 	/**
 	 * {@inheritDoc}
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public Context clone() {
-		return new Clone((Stack<Pair<IExperimentElement, String>>) getContextStack().clone());
+		return new Clone(this);
 	}
 
 	public class Clone extends Context {
 
-		public Clone(Stack<Pair<IExperimentElement, String>> contextStack) {
-			super(contextStack);
+		public Clone(Context original) {
+			super(original);
 		}
 
 		/**
 		 * {@inheritDoc}
 		 */
 		@Override
-		public Path toPath() {
+		public Path toDirectory() {
 			createdPaths.add(super.toPath());
 			return pathMock;
 		}
 
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Context clone() {
+			return new Clone(this);
+		}
+
 	}
 
 }
@@ -0,0 +1,112 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.AppendingStringHolder;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ParallelLoopTest {
+
+	private static final String NAME = "ParallelLoopTest";
+
+	@Rule
+	public ExperimentOutputCleanup cleanup = new ExperimentOutputCleanup(NAME);
+
+	private AtomicInteger active;
+
+	private AtomicInteger maxActive;
+
+	private List<String> contexts;
+
+	private IExperimentAction slowStep;
+
+	@Before
+	public void setup() {
+		active = new AtomicInteger();
+		maxActive = new AtomicInteger();
+		contexts = Collections.synchronizedList(new ArrayList<>());
+
+		slowStep = context -> {
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			contexts.add(context.toString());
+			Thread.sleep(50);
+			active.decrementAndGet();
+		};
+	}
+
+	@Test(timeout = 10000)
+	public void testParallelIterations() throws AbortException {
+		Experiment experiment = Experiment.newExperiment(NAME).loop(8).parallel(4).append(slowStep).endLoop().build();
+		experiment.execute();
+
+		assertThat(contexts).hasSize(8);
+		assertThat(maxActive.get()).isGreaterThan(1).isLessThanOrEqualTo(4);
+
+		for (int i = 1; i <= 8; i++) {
+			String iteration = "iteration#" + i;
+			assertThat(contexts).filteredOn(c -> c.endsWith(iteration)).hasSize(1);
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testDataIsolatedAndMergedInOrder() throws AbortException, AbortInnerException {
+		SimpleDataHolder<Integer> current = new SimpleDataHolder<>("current", Integer.class);
+		AppendingStringHolder log = new AppendingStringHolder("log", "start;");
+		List<String> mismatches = Collections.synchronizedList(new ArrayList<>());
+
+		IExperimentAction write = context -> {
+			String iteration = context.toString().substring(context.toString().lastIndexOf('#') + 1);
+			current.set(Integer.parseInt(iteration));
+			log.set(iteration + ";");
+		};
+
+		IExperimentAction read = context -> {
+			String iteration = context.toString().substring(context.toString().lastIndexOf('#') + 1);
+
+			if (current.get() != Integer.parseInt(iteration)) {
+				mismatches.add(context + ": " + current.get());
+			}
+		};
+
+		Experiment experiment = Experiment.newExperiment(NAME).loop(6).parallel(3).append(write).append(slowStep).append(read).endLoop().build();
+		experiment.execute();
+
+		assertThat(mismatches).isEmpty();
+		assertThat(current.get()).isEqualTo(6);
+		assertThat(log.get()).isEqualTo("start;1;2;3;4;5;6;");
+	}
+
+	@Test(timeout = 10000)
+	public void testAbortedIterationDoesNotStopOthers() throws AbortException {
+		AtomicInteger finished = new AtomicInteger();
+
+		IExperimentAction failing = context -> {
+			if (context.toString().endsWith("iteration#2")) {
+				throw new AbortInnerException(context, "Failing on purpose");
+			}
+		};
+
+		Experiment experiment = Experiment.newExperiment(NAME).loop(4).parallel(2).append(failing).append(context -> finished.incrementAndGet()).endLoop()
+				.append(context -> finished.addAndGet(10)).build();
+		experiment.execute();
+
+		assertThat(finished.get()).isEqualTo(13);
+	}
+
+}
@@ -0,0 +1,161 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.action.AbstractRestAction;
+import org.continuity.experimentation.action.RetryPolicy;
+import org.continuity.experimentation.exception.AbortException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class RestRetryTest {
+
+	private static final String NAME = "RestRetryTest";
+
+	private HttpServer server;
+
+	private AtomicInteger requests;
+
+	private volatile int failures;
+
+	private volatile int failureCode;
+
+	@Before
+	public void setup() throws IOException {
+		requests = new AtomicInteger();
+		server = HttpServer.create(new InetSocketAddress(0), 0);
+		server.createContext("/test", exchange -> {
+			if (requests.incrementAndGet() <= failures) {
+				exchange.sendResponseHeaders(failureCode, -1);
+			} else {
+				byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+				exchange.sendResponseHeaders(200, body.length);
+
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			}
+
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		server.stop(0);
+		FileUtils.deleteDirectory(new File(NAME));
+	}
+
+	@Test
+	public void testTransientErrorsAreRetried() throws AbortException, IOException {
+		failures = 2;
+		failureCode = 503;
+
+		TestAction action = new TestAction();
+		action.setRetryPolicy(RetryPolicy.newPolicy().maxAttempts(3).backoff(10, 2, 100).build());
+		Experiment.newExperiment(NAME).append(action).build().execute();
+
+		assertThat(action.response).isEqualTo("ok");
+		assertThat(requests.get()).isEqualTo(3);
+
+		List<String> rows = Files.readAllLines(Paths.get(NAME, "experiment.metrics"));
+		assertThat(rows.get(0).split("\t")[5]).isEqualTo("retries");
+		assertThat(rows.get(1).split("\t")[5]).isEqualTo("2");
+	}
+
+	@Test
+	public void testOtherErrorsAreNotRetried() throws AbortException {
+		failures = 2;
+		failureCode = 404;
+
+		TestAction action = new TestAction();
+		action.setRetryPolicy(RetryPolicy.newPolicy().maxAttempts(3).backoff(10, 2, 100).build());
+		Experiment.newExperiment(NAME).append(action).build().execute();
+
+		assertThat(action.response).isNull();
+		assertThat(requests.get()).isEqualTo(1);
+		assertThat(action.getRetries()).isZero();
+	}
+
+	@Test
+	public void testPostsAreNotRetriedOnServerErrors() throws AbortException {
+		failures = 2;
+		failureCode = 503;
+
+		TestAction action = new TestAction(true);
+		action.setRetryPolicy(RetryPolicy.newPolicy().maxAttempts(3).backoff(10, 2, 100).build());
+		Experiment.newExperiment(NAME).append(action).build().execute();
+
+		assertThat(action.response).isNull();
+		assertThat(requests.get()).isEqualTo(1);
+		assertThat(action.getRetries()).isZero();
+	}
+
+	@Test
+	public void testNonIdempotentRequestsAreOnlyRetriedOnConnectFailures() {
+		RetryPolicy policy = RetryPolicy.DEFAULT;
+		ResourceAccessException connectFailure = new ResourceAccessException("refused", new ConnectException());
+		ResourceAccessException readTimeout = new ResourceAccessException("timeout", new SocketTimeoutException());
+
+		assertThat(policy.shouldRetry(connectFailure, 1, false)).isTrue();
+		assertThat(policy.shouldRetry(readTimeout, 1, false)).isFalse();
+		assertThat(policy.shouldRetry(readTimeout, 1, true)).isTrue();
+	}
+
+	@Test
+	public void testBackoff() {
+		RetryPolicy policy = RetryPolicy.newPolicy().maxAttempts(5).backoff(100, 2, 300).jitter(0).build();
+
+		assertThat(policy.getBackoffMillis(1)).isEqualTo(100);
+		assertThat(policy.getBackoffMillis(2)).isEqualTo(200);
+		assertThat(policy.getBackoffMillis(3)).isEqualTo(300);
+		assertThat(RetryPolicy.newPolicy().backoff(100, 2, 300).jitter(0.5).build().getBackoffMillis(1)).isBetween(50L, 100L);
+	}
+
+	private class TestAction extends AbstractRestAction {
+
+		private final boolean post;
+
+		private String response;
+
+		private TestAction(boolean post) {
+			super("localhost", Integer.toString(server.getAddress().getPort()));
+			this.post = post;
+		}
+
+		private TestAction() {
+			this(false);
+		}
+
+		@Override
+		public void execute(Context context) {
+			response = post ? post("/test", String.class, "body") : get("/test", String.class);
+		}
+
+	}
+
+}
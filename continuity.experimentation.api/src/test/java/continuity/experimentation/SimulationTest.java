@@ -0,0 +1,176 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.experimentation.Context;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IAsyncExperimentAction;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.action.Clock;
+import org.continuity.experimentation.action.Delay;
+import org.continuity.experimentation.action.TargetSystem;
+import org.continuity.experimentation.action.TargetSystem.Application;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.data.IDataHolder;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.continuity.experimentation.simulation.Simulation;
+import org.continuity.experimentation.simulation.SimulationReport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class SimulationTest {
+
+	private static final File WORKING_DIR = new File(".");
+
+	private Set<File> existingDirectories;
+
+	@Before
+	public void setup() {
+		existingDirectories = new HashSet<>(Arrays.asList(WORKING_DIR.listFiles()));
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		for (File file : WORKING_DIR.listFiles()) {
+			if (!existingDirectories.contains(file) && file.getName().startsWith("simulation")) {
+				FileUtils.deleteDirectory(file);
+			}
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testLongExperiment() throws AbortInnerException {
+		IDataHolder<Date> lastIteration = new SimpleDataHolder<>("last-iteration", Date.class);
+
+		Experiment experiment = Experiment.newExperiment("SimulationTest").loop(48) //
+				.append(TargetSystem.restart(Application.DVD_STORE, "localhost")) //
+				.append(TargetSystem.waitFor(Application.DVD_STORE, "localhost")) //
+				.append(new Delay(TimeUnit.HOURS.toMillis(1))) //
+				.append(Clock.takeTime(lastIteration)) //
+				.endLoop().build();
+
+		SimulationReport report = experiment.simulate();
+
+		assertThat(report.isSuccessful()).isTrue();
+		assertThat(report.getNumExecutedActions()).isEqualTo(4 * 48);
+		assertThat(report.getStubbedActions()).hasSize(2 * 48);
+		assertThat(report.getSimulatedMillis()).isEqualTo(TimeUnit.HOURS.toMillis(48));
+		assertThat(lastIteration.get().getTime()).isGreaterThan(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(46));
+	}
+
+	@Test(timeout = 10000)
+	public void testConcurrentThreadsTakeTheLongestThread() {
+		long hour = TimeUnit.HOURS.toMillis(1);
+
+		Experiment experiment = Experiment.newExperiment("SimulationTest").newThread().append(new Delay(hour)).append(new Delay(hour)) //
+				.newThread().append(new Delay(hour)) //
+				.newThread().loop(3).append(new Delay(hour / 2)).endLoop() //
+				.join().append(new Delay(hour)).build();
+
+		assertThat(experiment.simulate().getSimulatedMillis()).isEqualTo(3 * hour);
+	}
+
+	@Test(timeout = 10000)
+	public void testParallelIterationsTakeTheLongestWorker() {
+		long hour = TimeUnit.HOURS.toMillis(1);
+
+		Experiment experiment = Experiment.newExperiment("SimulationTest").loop(4).parallel(2).append(new Delay(hour)).endLoop().build();
+
+		assertThat(experiment.simulate().getSimulatedMillis()).isEqualTo(2 * hour);
+	}
+
+	@Test(timeout = 10000)
+	public void testPrematureReads() throws AbortInnerException {
+		IDataHolder<String> response = new SimpleDataHolder<>("response", String.class);
+		IDataHolder<String> unwritten = new SimpleDataHolder<>("unwritten", String.class);
+		IExperimentAction request = TargetSystem.restart(Application.CMR, "localhost");
+		IExperimentAction readBoth = context -> {
+			response.get();
+			unwritten.get();
+		};
+
+		Experiment experiment = Experiment.newExperiment("SimulationTest").loop(3).append(request).append(readBoth).endLoop().build();
+
+		SimulationReport report = experiment.simulate(new Simulation().stub(request, context -> response.set("recorded")));
+
+		assertThat(report.isSuccessful()).isFalse();
+		assertThat(report.getPrematureReads()).hasSize(3).allMatch(read -> read.contains("unwritten"));
+		assertThat(response.get()).isEqualTo("recorded");
+	}
+
+	@Test(timeout = 10000)
+	public void testReadsOfUnstubbedOutputs() throws AbortInnerException {
+		IDataHolder<String> response = new SimpleDataHolder<>("response", String.class);
+		IDataHolder<String> derived = new SimpleDataHolder<>("derived", String.class);
+
+		IExperimentAction request = new IExperimentAction() {
+
+			@Override
+			public void execute(Context context) {
+				response.set("live");
+			}
+
+			@Override
+			public boolean isExternal() {
+				return true;
+			}
+
+			@Override
+			public DataDependencies getDataDependencies() {
+				return DataDependencies.writes(response);
+			}
+
+			@Override
+			public String toString() {
+				return "request";
+			}
+		};
+
+		IExperimentAction derive = DataDependencies.reads(response).andWrites(derived).declaredBy(context -> derived.set(response.get() + "!"));
+		IExperimentAction readDerived = DataDependencies.reads(derived).declaredBy(context -> derived.get());
+
+		Experiment experiment = Experiment.newExperiment("SimulationTest").loop(2).append(request).append(derive).append(readDerived).endLoop().build();
+
+		SimulationReport report = experiment.simulate(new Simulation());
+
+		assertThat(report.isSuccessful()).isTrue();
+		assertThat(report.getPrematureReads()).isEmpty();
+		assertThat(report.getStubbedActions()).hasSize(2);
+		assertThat(report.getUnstubbedReads()).hasSize(4).allMatch(read -> read.contains("request"));
+		assertThat(report.getUnstubbedReads()).filteredOn(read -> read.contains("derived")).hasSize(2);
+	}
+
+	@Test
+	public void testInterceptedActionsBehaveLikeTheOriginal() {
+		Simulation simulation = new Simulation();
+		IExperimentAction delay = new Delay(1000);
+		IExperimentAction waitFor = TargetSystem.waitFor(Application.DVD_STORE, "localhost");
+
+		IExperimentAction interceptedDelay = simulation.intercept(delay);
+		IExperimentAction interceptedWaitFor = simulation.intercept(waitFor);
+
+		assertThat(interceptedDelay).isInstanceOf(IAsyncExperimentAction.class);
+		assertThat(interceptedDelay.toString()).isEqualTo(delay.toString());
+		assertThat(interceptedDelay.getDataDependencies()).isSameAs(delay.getDataDependencies());
+
+		assertThat(interceptedWaitFor.isExternal()).isTrue();
+		assertThat(interceptedWaitFor.toString()).isEqualTo(waitFor.toString());
+		assertThat(interceptedWaitFor.getRetries()).isEqualTo(waitFor.getRetries());
+	}
+
+}
@@ -0,0 +1,123 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.element.SweepElement;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.continuity.experimentation.sweep.Sweep;
+import org.continuity.experimentation.sweep.SweepPoint;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class SweepTest {
+
+	private static final String NAME = "SweepTest";
+
+	@Rule
+	public ExperimentOutputCleanup cleanup = new ExperimentOutputCleanup(NAME);
+
+	private SimpleDataHolder<Integer> users;
+
+	private SimpleDataHolder<String> version;
+
+	@Before
+	public void setup() {
+		users = new SimpleDataHolder<>("users", Integer.class);
+		version = new SimpleDataHolder<>("version", String.class);
+	}
+
+	@Test
+	public void testGrid() {
+		List<SweepPoint> points = Sweep.grid().axis("users", users, 10, 50, 100).axis("version", version, "v1", "v2").getPoints();
+
+		assertThat(points.stream().map(SweepPoint::toString).collect(Collectors.toList())).containsExactly("users=10, version=v1", "users=10, version=v2",
+				"users=50, version=v1", "users=50, version=v2", "users=100, version=v1", "users=100, version=v2");
+		assertThat(points.get(5).getNumber()).isEqualTo(6);
+	}
+
+	@Test
+	public void testLatinHypercubeCoversEachAxis() {
+		List<Integer> values = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+		List<SweepPoint> points = Sweep.latinHypercube(8, 42).axis("a", users, values).axis("b", new SimpleDataHolder<>("b", Integer.class), values).getPoints();
+
+		assertThat(points).hasSize(8);
+		assertThat(points.stream().map(p -> p.getValues().get("a")).collect(Collectors.toSet())).hasSize(8);
+		assertThat(points.stream().map(p -> p.getValues().get("b")).collect(Collectors.toSet())).hasSize(8);
+		assertThat(Sweep.latinHypercube(8, 42).axis("a", users, values).axis("b", users, values).getPoints().toString()).isEqualTo(points.toString());
+	}
+
+	@Test
+	public void testRandomSubset() {
+		List<Integer> values = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		List<SweepPoint> points = Sweep.random(7, 3).axis("a", users, values).axis("b", users, values).getPoints();
+
+		assertThat(points).hasSize(7);
+		assertThat(points.stream().map(SweepPoint::toString).collect(Collectors.toSet())).hasSize(7);
+
+		assertThat(Sweep.random(100, 3).axis("a", users, 1, 2).axis("b", users, 1, 2).getPoints()).hasSize(4);
+	}
+
+	@Test(timeout = 10000)
+	public void testValuesBoundPerPoint() throws AbortException, AbortInnerException {
+		List<String> seen = Collections.synchronizedList(new ArrayList<>());
+
+		Experiment experiment = Experiment.newExperiment(NAME).sweep(Sweep.grid().axis("users", users, 10, 50).axis("version", version, "v1", "v2")).parallel(2)
+				.append(context -> {
+					Thread.sleep(20);
+					seen.add(users.get() + "-" + version.get());
+				}).endSweep().build();
+		experiment.execute();
+
+		assertThat(seen).containsExactlyInAnyOrder("10-v1", "10-v2", "50-v1", "50-v2");
+		assertThat(users.get()).isEqualTo(50);
+		assertThat(version.get()).isEqualTo("v2");
+
+		List<File> parameterFiles = FileUtils.listFiles(new File(NAME), null, true).stream().filter(f -> f.getName().equals(SweepElement.PARAMETER_FILE))
+				.collect(Collectors.toList());
+		assertThat(parameterFiles).hasSize(4);
+	}
+
+	@Test(timeout = 10000)
+	public void testEnvironmentsUsedExclusively() throws AbortException {
+		SimpleDataHolder<String> host = new SimpleDataHolder<>("host", String.class);
+		Set<String> busy = ConcurrentHashMap.newKeySet();
+		Set<String> used = ConcurrentHashMap.newKeySet();
+		AtomicInteger conflicts = new AtomicInteger();
+
+		Experiment experiment = Experiment.newExperiment(NAME).sweep(Sweep.grid().axis("users", users, 1, 2, 3, 4, 5, 6)).onEnvironments(host, Arrays.asList("sut-a", "sut-b"))
+				.append(context -> {
+					if (!busy.add(host.get())) {
+						conflicts.incrementAndGet();
+					}
+
+					used.add(host.get());
+					Thread.sleep(30);
+					busy.remove(host.get());
+				}).endSweep().build();
+		experiment.execute();
+
+		assertThat(conflicts.get()).isZero();
+		assertThat(used).isEqualTo(new HashSet<>(Arrays.asList("sut-a", "sut-b")));
+	}
+
+}
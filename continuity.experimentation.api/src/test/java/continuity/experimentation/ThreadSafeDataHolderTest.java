@@ -0,0 +1,198 @@
+package continuity.experimentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.data.AtomicDataHolder;
+import org.continuity.experimentation.data.ConcurrentAppendingStringHolder;
+import org.continuity.experimentation.data.CountingDataHolder;
+import org.continuity.experimentation.data.DataDependencies;
+import org.continuity.experimentation.data.SimpleDataHolder;
+import org.continuity.experimentation.exception.AbortException;
+import org.continuity.experimentation.exception.AbortInnerException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * @author Henning Schulz
+ *
+ */
+public class ThreadSafeDataHolderTest {
+
+	private static final String NAME = "ThreadSafeDataHolderTest";
+
+	@Rule
+	public ExperimentOutputCleanup cleanup = new ExperimentOutputCleanup(NAME);
+
+	private static final int NUM_THREADS = 8;
+
+	private static final int NUM_WRITES = 1000;
+
+	private ExecutorService executor;
+
+	@Before
+	public void setup() {
+		executor = Executors.newFixedThreadPool(NUM_THREADS);
+	}
+
+	@After
+	public void shutdown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	private void runConcurrently(Runnable task) throws Exception {
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < NUM_THREADS; i++) {
+			futures.add(executor.submit(task));
+		}
+
+		for (Future<?> future : futures) {
+			future.get();
+		}
+	}
+
+	@Test(timeout = 20000)
+	public void testConcurrentAppendsAreNotLost() throws Exception {
+		ConcurrentAppendingStringHolder holder = new ConcurrentAppendingStringHolder("log", ">");
+
+		runConcurrently(() -> {
+			for (int i = 0; i < NUM_WRITES; i++) {
+				holder.set("x");
+			}
+		});
+
+		assertThat(holder.get()).startsWith(">").hasSize(1 + (NUM_THREADS * NUM_WRITES));
+		assertThat(holder.isThreadSafe()).isTrue();
+	}
+
+	@Test(timeout = 20000)
+	public void testAppendsRacingWithInvalidations() throws Exception {
+		ConcurrentAppendingStringHolder holder = new ConcurrentAppendingStringHolder("log");
+
+		runConcurrently(() -> {
+			for (int i = 1; i <= NUM_WRITES; i++) {
+				holder.set("x");
+
+				if ((i % 100) == 0) {
+					holder.invalidate();
+				}
+			}
+		});
+
+		holder.invalidate();
+		runConcurrently(() -> holder.set("y"));
+
+		assertThat(holder.get()).hasSize(NUM_THREADS).matches("y*");
+	}
+
+	@Test
+	public void testAppendingOrderWithinThread() throws AbortInnerException {
+		ConcurrentAppendingStringHolder holder = new ConcurrentAppendingStringHolder("log");
+		holder.set("a");
+		holder.set("b");
+		holder.set("c");
+
+		assertThat(holder.get()).isEqualTo("abc");
+
+		holder.invalidate();
+		holder.set("d");
+
+		assertThat(holder.get()).isEqualTo("d");
+	}
+
+	@Test(timeout = 20000)
+	public void testAtomicCounter() throws Exception {
+		CountingDataHolder holder = CountingDataHolder.of("run-").withStartValue(0);
+
+		runConcurrently(() -> {
+			for (int i = 0; i < NUM_WRITES; i++) {
+				holder.invalidate();
+			}
+		});
+
+		assertThat(holder.get()).isEqualTo("run-" + (NUM_THREADS * NUM_WRITES));
+	}
+
+	@Test
+	public void testCompareAndSet() throws AbortInnerException {
+		AtomicDataHolder<String> holder = new AtomicDataHolder<>("atomic", String.class);
+
+		assertThat(holder.compareAndSet(null, "first")).isTrue();
+		assertThat(holder.compareAndSet(null, "second")).isFalse();
+		assertThat(holder.get()).isEqualTo("first");
+		assertThat(holder.isSet()).isTrue();
+
+		holder.invalidate();
+
+		assertThat(holder.isSet()).isFalse();
+	}
+
+	@Test(timeout = 20000)
+	public void testBuilderGuardsHoldersSharedBetweenThreads() throws Exception {
+		SimpleDataHolder<Integer> shared = new SimpleDataHolder<>("shared", 0);
+		SimpleDataHolder<String> local = new SimpleDataHolder<>("local", String.class);
+
+		IExperimentAction increment = DataDependencies.reads(shared).andWrites(shared).declaredBy(context -> {
+			for (int i = 0; i < NUM_WRITES; i++) {
+				synchronized (shared) {
+					shared.set(shared.get() + 1);
+				}
+			}
+		});
+
+		Experiment experiment = Experiment.newExperiment(NAME).newThread().append(increment).append(DataDependencies.writes(local).declaredBy(context -> local.set("a")))
+				.newThread().append(increment).join().build();
+
+		assertThat(shared.isThreadSafe()).isTrue();
+		assertThat(local.isThreadSafe()).isFalse();
+
+		experiment.execute();
+
+		assertThat(shared.get()).isEqualTo(2 * NUM_WRITES);
+	}
+
+	@Test(timeout = 20000)
+	public void testMergeAfterParallelLoop() throws AbortException, AbortInnerException {
+		ConcurrentAppendingStringHolder holder = new ConcurrentAppendingStringHolder("log", "start;");
+
+		Experiment experiment = Experiment.newExperiment(NAME).loop(4).parallel(2).append(context -> holder.set("x;")).endLoop().build();
+		experiment.execute();
+
+		assertThat(holder.get()).startsWith("start;");
+		assertThat(Arrays.asList(holder.get().split(";"))).filteredOn("x"::equals).hasSize(4);
+	}
+
+	@Test(timeout = 20000)
+	public void testTerminatedAppendingThreadsAreNotRetained() throws InterruptedException, AbortInnerException {
+		ConcurrentAppendingStringHolder holder = new ConcurrentAppendingStringHolder("log");
+
+		Thread thread = new Thread(() -> holder.set("x"));
+		thread.start();
+		thread.join();
+
+		WeakReference<Thread> reference = new WeakReference<>(thread);
+		thread = null;
+
+		while (reference.get() != null) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertThat(holder.get()).isEqualTo("x");
+	}
+
+}
@@ -1,8 +1,19 @@
 package continuity.experimentation.action;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.continuity.experimentation.Experiment;
+import org.continuity.experimentation.ExperimentExecutionService;
+import org.continuity.experimentation.IExperimentAction;
+import org.continuity.experimentation.action.Delay;
+import org.continuity.experimentation.builder.ConcurrentBuilder;
+import org.continuity.experimentation.builder.StableExperimentBuilder;
 import org.continuity.experimentation.data.AppendingStringHolder;
 import org.continuity.experimentation.data.SimpleDataHolder;
 import org.continuity.experimentation.exception.AbortException;
@@ -50,4 +61,87 @@ public class ConcurrentActionTest {
 		assertEquals("The loop should count to 5.", "|||||", counter.get());
 	}
 
+	@Test
+	public void testThreadsRunInParallel() throws AbortException {
+		Experiment parallel = Experiment.newExperiment("Parallel") //
+				.newThread().append(new Delay(500)) //
+				.newThread().append(new Delay(500)) //
+				.newThread().append(new Delay(500)) //
+				.join().build();
+
+		long start = System.currentTimeMillis();
+		parallel.execute();
+		long duration = System.currentTimeMillis() - start;
+
+		assertTrue("The threads should run in parallel, but took " + duration + " ms.", duration < 1400);
+	}
+
+	@Test(timeout = 10000)
+	public void testNestedThreadsWithSaturatedPool() throws AbortException {
+		AtomicInteger executions = new AtomicInteger();
+		IExperimentAction nestedCountStep = context -> executions.incrementAndGet();
+
+		Experiment nested = Experiment.newExperiment("Nested").withMaxParallelism(1) //
+				.newThread().loop(2).newThread().append(nestedCountStep).newThread().append(nestedCountStep).join().endLoop() //
+				.newThread().loop(2).newThread().append(nestedCountStep).newThread().append(nestedCountStep).join().endLoop() //
+				.join().build();
+
+		nested.execute();
+
+		assertEquals("All nested threads should be executed.", 8, executions.get());
+	}
+
+	@Test(timeout = 10000)
+	public void testBlockingTasksAreBounded() {
+		ExperimentExecutionService service = new ExperimentExecutionService("Blocking", 2);
+		Thread caller = Thread.currentThread();
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 10; i++) {
+			futures.add(service.supplyBlocking("blocking#" + i, () -> {
+				boolean pooled = Thread.currentThread() != caller;
+
+				if (pooled) {
+					maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+				}
+
+				Thread.sleep(50);
+
+				if (pooled) {
+					active.decrementAndGet();
+				}
+
+				return null;
+			}));
+		}
+
+		futures.forEach(CompletableFuture::join);
+		service.shutdown();
+
+		assertTrue("At most 2 blocking tasks should be executed by the pool, but were " + maxActive.get() + ".", maxActive.get() <= 2);
+	}
+
+	@Test(timeout = 20000)
+	public void testManyVirtualThreads() throws AbortException {
+		AtomicInteger executions = new AtomicInteger();
+		IExperimentAction countStep = context -> executions.incrementAndGet();
+
+		ConcurrentBuilder<StableExperimentBuilder> builder = Experiment.newExperiment("Virtual").withMaxParallelism(1).newThread().onVirtualThreads().append(new Delay(200)).append(countStep);
+
+		for (int i = 1; i < 200; i++) {
+			builder = builder.newThread().append(new Delay(200)).append(countStep);
+		}
+
+		Experiment virtual = builder.join().build();
+
+		long start = System.currentTimeMillis();
+		virtual.execute();
+		long duration = System.currentTimeMillis() - start;
+
+		assertEquals("All threads should be executed.", 200, executions.get());
+		assertTrue("The virtual threads should not be bound by the pool, but took " + duration + " ms.", duration < 5000);
+	}
+
 }